@@ -0,0 +1,122 @@
+package controller;
+
+import exceptions.AuthenticationException;
+import model.entities.CredentialRow;
+import model.repositories.RepositoryUser;
+import services.EncryptionService;
+import services.LoginRateLimiter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Medição da vazão do login com vários atendentes entrando ao mesmo tempo.
+ *
+ * Cada thread simula um terminal e faz, em ciclo, três tipos de tentativa por {@link ControllerLogin}:
+ * senha certa, senha errada e e-mail inexistente. As credenciais vêm de um repositório em memória
+ * (sem banco), então o tempo medido é o do limitador, do pool de hashing e da derivação PBKDF2
+ * com as iterações padrão do {@link EncryptionService}.
+ *
+ * Imprime logins por segundo e, para cada tipo, a mediana e o p99 em milissegundos. O e-mail
+ * inexistente deve levar o mesmo tempo da senha errada (verificação contra o hash isca).
+ *
+ * Não usa banco nem Swing. Execução (a partir de {@code confeitaria}):
+ * <pre>
+ * javac -encoding UTF-8 -d out $(find src bench -name '*.java')
+ * java -cp out controller.LoginThroughputBenchmark [terminais] [tentativas por terminal]
+ * </pre>
+ */
+public final class LoginThroughputBenchmark {
+
+    private static final int USERS = 50;
+    private static final String PASSWORD = "senha-correta";
+    private static final String[] KINDS = {"senha certa", "senha errada", "e-mail inexistente"};
+
+    private LoginThroughputBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        Map<String, CredentialRow> users = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            String email = "cliente" + i + "@exemplo.com";
+            users.put(email, new CredentialRow(i + 1, i + 1, "Cliente", String.valueOf(i), email,
+                    EncryptionService.hashPassword(PASSWORD.toCharArray())));
+        }
+        EncryptionService.decoyHash();
+
+        RepositoryUser repo = new RepositoryUser() {
+            @Override
+            public CredentialRow findCredentialByEmail(String email) {
+                return users.get(email);
+            }
+        };
+        ControllerLogin controller = new ControllerLogin(repo, new LoginRateLimiter(1000, 1, 1000, 1));
+
+        System.out.printf("%d terminais x %d tentativas, %d iterações%n",
+                terminals, attempts, EncryptionService.getIterations());
+        run(controller, terminals, Math.max(3, attempts / 5), false);
+        run(controller, terminals, attempts, true);
+    }
+
+    /**
+     * Executa uma rodada (aquecimento ou medição).
+     */
+    private static void run(ControllerLogin controller, int terminals, int attempts, boolean report)
+            throws InterruptedException {
+        List<long[]> samples = new ArrayList<>();
+        for (int k = 0; k < KINDS.length; k++) samples.add(new long[terminals * attempts]);
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < terminals; t++) {
+            int terminal = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int a = 0; a < attempts; a++) {
+                    int kind = (terminal + a) % KINDS.length;
+                    int user = (terminal * attempts + a) % USERS;
+                    String email = kind == 2 ? "ninguem" + user + "@exemplo.com" : "cliente" + user + "@exemplo.com";
+                    char[] password = (kind == 0 ? PASSWORD : "senha-errada").toCharArray();
+
+                    long begin = System.nanoTime();
+                    try {
+                        controller.login(email, password, "terminal-" + terminal);
+                    } catch (AuthenticationException e) {
+                        if (e.getMessage().startsWith("Muitos")) rejected.incrementAndGet();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    samples.get(kind)[terminal * attempts + a] = System.nanoTime() - begin;
+                }
+            }, "terminal-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        if (!report) return;
+
+        System.out.printf("  %.1f logins/s (%d recusados por fila cheia)%n", terminals * attempts / seconds, rejected.get());
+        for (int k = 0; k < KINDS.length; k++) {
+            long[] s = Arrays.stream(samples.get(k)).filter(v -> v > 0).sorted().toArray();
+            if (s.length == 0) continue;
+            System.out.printf("  %-20s p50 %7.1f ms   p99 %7.1f ms%n", KINDS[k],
+                    s[s.length / 2] / 1e6, s[Math.min(s.length - 1, s.length * 99 / 100)] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package model.repositories;
+
+import model.entities.ProductListRow;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Medição da leitura de uma listagem de produtos por rótulo ({@code rs.getString("name")}) e por índice
+ * resolvido uma vez pelo {@link ColumnLayout}.
+ *
+ * Monta em memória um resultado com as colunas da listagem do admin (as de {@code SQL_LIST_ROW_SELECT}
+ * em {@link RepositoryProduct}) e {@value #ROWS} linhas, e o mapeia para {@link ProductListRow} dos dois jeitos:
+ * {@value #WARMUP} rodadas de aquecimento e {@value #RUNS} medidas, alternando as variantes.
+ * Imprime a mediana, em milissegundos, de uma listagem completa.
+ *
+ * O resultado em memória procura rótulos de duas formas:
+ * - como o driver do PostgreSQL: mapa por nome e, se não achar, pelo nome em minúsculas
+ * - como drivers que percorrem o metadado comparando sem diferença de maiúsculas
+ *   (ex.: o {@code CachedRowSet} do JDK)
+ *
+ * É um {@link Proxy}: o custo da reflexão entra nas duas variantes, então a diferença medida é só a
+ * da procura dos rótulos. Com um driver de verdade, o tempo de rede e de conversão se soma aos dois lados.
+ *
+ * Não usa banco nem Swing. Execução (a partir de {@code confeitaria}):
+ * <pre>
+ * javac -encoding UTF-8 -d out $(find src bench -name '*.java')
+ * java -cp out model.repositories.ColumnLayoutBenchmark [linhas]
+ * </pre>
+ */
+public final class ColumnLayoutBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 15;
+    private static final int RUNS = 25;
+
+    private static final String SHAPE = "listagem";
+    private static final String[] LABELS = {
+            "id", "name", "flavor_name", "flavor_level_name", "size_name", "base_price", "unit_price"};
+
+    private static final ColumnLayout LAYOUT = new ColumnLayout();
+    private static final int ROW_ID = LAYOUT.column("id");
+    private static final int ROW_NAME = LAYOUT.column("name");
+    private static final int ROW_FLAVOR_NAME = LAYOUT.column("flavor_name");
+    private static final int ROW_LEVEL_NAME = LAYOUT.column("flavor_level_name");
+    private static final int ROW_SIZE_NAME = LAYOUT.column("size_name");
+    private static final int ROW_BASE_PRICE = LAYOUT.column("base_price");
+    private static final int ROW_UNIT_PRICE = LAYOUT.column("unit_price");
+
+    private ColumnLayoutBenchmark() {}
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : ROWS;
+        Object[][] data = rows(rows);
+
+        System.out.printf("%d linhas, mediana de %d listagens%n", rows, RUNS);
+        compare("rótulo em mapa (PostgreSQL)", data, false);
+        compare("rótulo por varredura", data, true);
+    }
+
+    /**
+     * Mede as duas variantes sobre um tipo de procura de rótulo.
+     */
+    private static void compare(String title, Object[][] data, boolean linear) throws SQLException {
+        long[] byLabel = new long[RUNS];
+        long[] byIndex = new long[RUNS];
+        long sink = 0L;
+        for (int run = 0; run < WARMUP + RUNS; run++) {
+            long start = System.nanoTime();
+            sink += readByLabel(resultSet(data, linear));
+            long label = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += readByIndex(resultSet(data, linear));
+            long index = System.nanoTime() - start;
+
+            if (run >= WARMUP) {
+                byLabel[run - WARMUP] = label;
+                byIndex[run - WARMUP] = index;
+            }
+        }
+
+        double label = median(byLabel);
+        double index = median(byIndex);
+        System.out.printf("%s (controle %d)%n", title, sink);
+        System.out.printf("  por rótulo: %8.2f ms%n", label);
+        System.out.printf("  por índice: %8.2f ms (%.0f%% do tempo por rótulo)%n", index, 100.0 * index / label);
+    }
+
+    /**
+     * Lê a listagem como os repositórios faziam antes do {@link ColumnLayout}.
+     */
+    private static long readByLabel(ResultSet rs) throws SQLException {
+        long sum = 0L;
+        while (rs.next()) {
+            ProductListRow row = new ProductListRow(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("flavor_name"),
+                    rs.getString("flavor_level_name"),
+                    rs.getString("size_name"),
+                    rs.getDouble("base_price"),
+                    rs.getDouble("unit_price"));
+            sum += row.getId();
+        }
+        return sum;
+    }
+
+    /**
+     * Lê a listagem como {@link RepositoryProduct} lê hoje: índices resolvidos uma vez por formato.
+     */
+    private static long readByIndex(ResultSet rs) throws SQLException {
+        RowMapper<ProductListRow> mapper = LAYOUT.bind(SHAPE, (r, cols) -> new ProductListRow(
+                r.getInt(cols[ROW_ID]),
+                r.getString(cols[ROW_NAME]),
+                r.getString(cols[ROW_FLAVOR_NAME]),
+                r.getString(cols[ROW_LEVEL_NAME]),
+                r.getString(cols[ROW_SIZE_NAME]),
+                r.getDouble(cols[ROW_BASE_PRICE]),
+                r.getDouble(cols[ROW_UNIT_PRICE])));
+        long sum = 0L;
+        while (rs.next()) {
+            sum += mapper.map(rs).getId();
+        }
+        return sum;
+    }
+
+    /**
+     * Gera as linhas: poucos sabores, níveis e tamanhos repetidos, como um catálogo real.
+     */
+    private static Object[][] rows(int count) {
+        String[] levels = {"Tradicional", "Especial", "Premium"};
+        String[] sizes = {"P", "M", "G", "GG"};
+        Object[][] data = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            double base = 30.0 + (i % 50);
+            data[i] = new Object[] {
+                    i + 1, "Produto " + i, "Sabor " + (i % 40), levels[i % levels.length], sizes[i % sizes.length],
+                    base, base + 5.0 * (i % 4)};
+        }
+        return data;
+    }
+
+    /**
+     * Resultado somente leitura sobre as linhas, com as operações usadas pelos mapeadores.
+     */
+    private static ResultSet resultSet(Object[][] data, boolean linear) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < LABELS.length; i++) byName.put(LABELS[i], i + 1);
+
+        ResultSetMetaData md = (ResultSetMetaData) Proxy.newProxyInstance(
+                ColumnLayoutBenchmark.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount": return LABELS.length;
+                        case "getColumnLabel":
+                        case "getColumnName": return LABELS[(Integer) args[0] - 1];
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(
+                ColumnLayoutBenchmark.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next": return ++cursor[0] < data.length;
+                        case "getMetaData": return md;
+                        case "close": return null;
+                        case "findColumn": return column(byName, (String) args[0], linear);
+                        case "getInt":
+                        case "getString":
+                        case "getDouble":
+                            int col = args[0] instanceof String
+                                    ? column(byName, (String) args[0], linear) : (Integer) args[0];
+                            return data[cursor[0]][col - 1];
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Procura um rótulo como o driver do PostgreSQL (pelo nome e, se não achar, em minúsculas)
+     * ou percorrendo as colunas.
+     */
+    private static int column(Map<String, Integer> byName, String label, boolean linear) throws SQLException {
+        if (linear) {
+            for (int i = 0; i < LABELS.length; i++) {
+                if (LABELS[i].equalsIgnoreCase(label)) return i + 1;
+            }
+            throw new SQLException("Coluna ausente: " + label);
+        }
+        Integer index = byName.get(label);
+        if (index == null) index = byName.get(label.toLowerCase(Locale.US));
+        if (index == null) throw new SQLException("Coluna ausente: " + label);
+        return index;
+    }
+
+    private static double median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,135 @@
+package services;
+
+import model.entities.DiscountType;
+import model.entities.Promotion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Medição da latência de {@link PromotionEngine#apply} conforme a quantidade de regras ativas.
+ *
+ * Para cada tamanho (padrão: 0, 100, 1.000, 10.000 e 50.000 regras), compila um motor e cota o mesmo
+ * tipo de carrinho (10 linhas) muitas vezes: primeiro um aquecimento, depois as medições.
+ * As regras amplas (por nível, por tamanho e gerais) são no máximo {@value #BROAD_RULES}, como num
+ * cadastro real; o restante se espalha por produto, área e cupom (um terço com período).
+ * Imprime a mediana e o percentil 99 de uma cotação em microssegundos. Com o índice por critério,
+ * os números devem ficar estáveis à medida que as regras crescem; regras amplas, ao contrário,
+ * são conferidas em toda linha e pesam proporcionalmente.
+ *
+ * Não usa banco nem Swing. Execução (a partir de {@code confeitaria}):
+ * <pre>
+ * javac -encoding UTF-8 -d out $(find src bench -name '*.java')
+ * java -cp out services.PromotionEngineBenchmark [regras...]
+ * </pre>
+ */
+public final class PromotionEngineBenchmark {
+
+    private static final int PRODUCTS = 2_000;
+    private static final int LEVELS = 10;
+    private static final int SIZES = 8;
+    private static final int AREAS = 150;
+    private static final int LINES = 10;
+    private static final int BROAD_RULES = 60;
+    private static final int WARMUP = 50_000;
+    private static final int SAMPLES = 200_000;
+
+    private PromotionEngineBenchmark() {}
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {0, 100, 1_000, 10_000, 50_000};
+
+        System.out.printf("%8s %12s %12s %14s%n", "regras", "p50 (us)", "p99 (us)", "desconto");
+        for (int n : sizes) {
+            run(n);
+        }
+    }
+
+    /**
+     * Mede um motor com {@code ruleCount} regras.
+     */
+    private static void run(int ruleCount) {
+        Random random = new Random(42);
+        PromotionEngine engine = PromotionEngine.compile(rules(ruleCount, random));
+
+        int[] productIds = new int[LINES];
+        int[] sizeIds = new int[LINES];
+        int[] levelIds = new int[LINES];
+        int[] quantities = new int[LINES];
+        long[] unitCents = new long[LINES];
+        long[] discounts = new long[LINES];
+        long now = System.currentTimeMillis();
+
+        long sink = 0L;
+        long[] samples = new long[SAMPLES];
+        for (int round = 0; round < WARMUP + SAMPLES; round++) {
+            for (int i = 0; i < LINES; i++) {
+                productIds[i] = 1 + random.nextInt(PRODUCTS);
+                sizeIds[i] = 1 + random.nextInt(SIZES);
+                levelIds[i] = 1 + random.nextInt(LEVELS);
+                quantities[i] = 1 + random.nextInt(5);
+                unitCents[i] = 1_000L + random.nextInt(20_000);
+            }
+            int areaId = 1 + random.nextInt(AREAS);
+            String coupon = (round & 7) == 0 ? "CUPOM" + random.nextInt(coupons(ruleCount)) : null;
+
+            long start = System.nanoTime();
+            sink += engine.apply(productIds, sizeIds, levelIds, quantities, unitCents, LINES,
+                    areaId, coupon, now, discounts);
+            sink += engine.nextChangeAfter(now) & 1L;
+            long elapsed = System.nanoTime() - start;
+
+            if (round >= WARMUP) samples[round - WARMUP] = elapsed;
+        }
+
+        Arrays.sort(samples);
+        System.out.printf("%8d %12.2f %12.2f %14d%n", ruleCount,
+                samples[SAMPLES / 2] / 1_000.0, samples[SAMPLES * 99 / 100] / 1_000.0, sink);
+    }
+
+    /**
+     * Quantidade de códigos de cupom distintos (em média cinco regras por código).
+     */
+    private static int coupons(int ruleCount) {
+        return Math.max(1, ruleCount / 15);
+    }
+
+    /**
+     * Gera regras ativas: até {@value #BROAD_RULES} amplas e o restante por produto, área e cupom;
+     * um terço tem período (metade já vigente).
+     */
+    private static List<Promotion> rules(int count, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Promotion> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean percent = random.nextBoolean();
+            Promotion p = new Promotion("regra " + i, percent ? DiscountType.PERCENT : DiscountType.AMOUNT,
+                    percent ? 1.0 + random.nextInt(30) : 0.5 + random.nextInt(10));
+            if (i < BROAD_RULES) {
+                switch (i % 3) {
+                    case 0: p.setIdFlavorLevel(1 + random.nextInt(LEVELS)); break;
+                    case 1: p.setIdSize(1 + random.nextInt(SIZES)); break;
+                    default: p.setMinQuantity(2 + random.nextInt(4)); break;
+                }
+            } else {
+                switch (i % 3) {
+                    case 0: p.setIdProduct(1 + random.nextInt(PRODUCTS)); break;
+                    case 1: p.setIdArea(1 + random.nextInt(AREAS)); break;
+                    default: p.setCode("CUPOM" + random.nextInt(coupons(count))); break;
+                }
+            }
+            if (i % 3 == 0) {
+                p.setStartsAt(now.minusDays(random.nextInt(30)).plusDays(random.nextInt(2) * 15L));
+                p.setEndsAt(now.plusDays(1 + random.nextInt(60)));
+            }
+            p.setActive(true);
+            list.add(p);
+        }
+        return list;
+    }
+}
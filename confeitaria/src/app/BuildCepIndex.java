@@ -0,0 +1,45 @@
+package app;
+
+import services.CepIndex;
+import services.CepIndexBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Ferramenta de linha de comando que gera o índice binário de CEP usado no cadastro e no checkout.
+ *
+ * Uso:
+ * <pre>
+ * java app.BuildCepIndex faixas.csv [saida.bin]
+ * </pre>
+ * Sem o segundo argumento, grava em {@value CepIndex#DEFAULT_FILE}.
+ * Veja {@link CepIndexBuilder} para o formato do CSV.
+ */
+public class BuildCepIndex {
+
+    /**
+     * Gera o índice e imprime a quantidade de faixas e o tempo gasto.
+     *
+     * @param args caminho do CSV e, opcionalmente, do arquivo de saída
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: java app.BuildCepIndex faixas.csv [saida.bin]");
+            System.exit(2);
+        }
+
+        Path csv = Paths.get(args[0]);
+        Path out = Paths.get(args.length > 1 ? args[1] : CepIndex.DEFAULT_FILE);
+
+        try {
+            long start = System.nanoTime();
+            int count = CepIndexBuilder.build(csv, out);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Índice de CEP gerado: " + count + " faixas em " + out + " (" + ms + " ms)");
+        } catch (Exception e) {
+            System.err.println("Erro ao gerar índice de CEP: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
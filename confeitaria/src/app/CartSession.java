@@ -26,6 +26,12 @@ public final class CartSession {
      */
     private static final Map<Integer, Integer> items = new LinkedHashMap<>();
 
+    /**
+     * Versão do carrinho: incrementada a cada alteração efetiva dos itens.
+     * Permite saber se um cálculo feito sobre o carrinho (ex.: cotação do checkout) ainda vale.
+     */
+    private static volatile long version = 0;
+
     /**
      * Construtor privado para impedir instanciação.
      * Esta classe funciona como uma sessão com estado estático.
@@ -49,6 +55,7 @@ public final class CartSession {
         if (quantity <= 0) return;
 
         items.merge(product.getId(), quantity, Integer::sum);
+        version++;
     }
 
     /**
@@ -69,10 +76,11 @@ public final class CartSession {
     public static void set(Product product, int quantity) {
         if (product == null || product.getId() == null) return;
         if (quantity <= 0) {
-            items.remove(product.getId());
+            remove(product.getId());
             return;
         }
-        items.put(product.getId(), quantity);
+        Integer previous = items.put(product.getId(), quantity);
+        if (previous == null || previous != quantity) version++;
     }
 
     /**
@@ -82,7 +90,7 @@ public final class CartSession {
      */
     public static void remove(Integer productId) {
         if (productId == null) return;
-        items.remove(productId);
+        if (items.remove(productId) != null) version++;
     }
 
     /**
@@ -90,7 +98,19 @@ public final class CartSession {
      * Usado, por exemplo, após confirmar o pedido (checkout).
      */
     public static void clear() {
+        if (items.isEmpty()) return;
         items.clear();
+        version++;
+    }
+
+    /**
+     * Retorna a versão atual do carrinho.
+     * Duas leituras com o mesmo valor garantem que os itens não mudaram entre elas.
+     *
+     * @return versão do carrinho
+     */
+    public static long version() {
+        return version;
     }
 
     /**
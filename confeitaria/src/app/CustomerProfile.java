@@ -0,0 +1,132 @@
+package app;
+
+import model.entities.Address;
+import model.entities.Area;
+import model.entities.Person;
+
+/**
+ * Retrato imutável do perfil do cliente logado (pessoa, endereço e área de entrega).
+ *
+ * É carregado uma vez no login e guardado na {@link Session}, para que telas como o checkout
+ * não precisem consultar o banco (JOIN de person, address e area) a cada abertura.
+ * Só é recarregado quando o perfil for editado (ver {@link Session#setProfile(CustomerProfile)}).
+ *
+ * Os dados são copiados da {@link Person} na criação: alterações posteriores no objeto de origem
+ * não afetam o retrato.
+ */
+public final class CustomerProfile {
+
+    private final Integer personId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+
+    private final boolean hasAddress;
+    private final String cep;
+    private final String street;
+    private final Integer number;
+    private final String complement;
+    private final String reference;
+
+    private final Integer areaId;
+    private final String areaName;
+    private final double areaFee;
+    private final Double areaLatitude;
+    private final Double areaLongitude;
+
+    private CustomerProfile(Person p) {
+        this.personId = p.getId();
+        this.firstName = p.getFirstName();
+        this.lastName = p.getLastName();
+        this.email = p.getEmail();
+
+        Address address = p.getAddress();
+        this.hasAddress = address != null;
+        this.cep = address != null ? address.getCep() : null;
+        this.street = address != null ? address.getStreet() : null;
+        this.number = address != null ? address.getNumber() : null;
+        this.complement = address != null ? address.getComplement() : null;
+        this.reference = address != null ? address.getReference() : null;
+
+        Area area = address != null ? address.getArea() : null;
+        this.areaId = area != null ? area.getId() : null;
+        this.areaName = area != null ? area.getName() : null;
+        this.areaFee = area != null ? area.getFee() : 0.0;
+        this.areaLatitude = area != null ? area.getLatitude() : null;
+        this.areaLongitude = area != null ? area.getLongitude() : null;
+    }
+
+    /**
+     * Cria o retrato a partir de uma pessoa carregada do banco (com endereço e área).
+     *
+     * @param person pessoa (pode ser null)
+     * @return retrato do perfil, ou null se person for null
+     */
+    public static CustomerProfile of(Person person) {
+        return person != null ? new CustomerProfile(person) : null;
+    }
+
+    public Integer getPersonId() {
+        return personId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Indica se a pessoa tem endereço cadastrado.
+     *
+     * @return true se houver endereço
+     */
+    public boolean hasAddress() {
+        return hasAddress;
+    }
+
+    public String getCep() {
+        return cep;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public String getComplement() {
+        return complement;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Retorna a área do endereço.
+     * Cada chamada devolve uma cópia nova, então quem a alterar não altera o retrato.
+     *
+     * @return área do endereço, ou null se não houver
+     */
+    public Area getArea() {
+        if (areaId == null && areaName == null) return null;
+        Area area = new Area(areaName, areaFee);
+        area.setId(areaId);
+        area.setLatitude(areaLatitude);
+        area.setLongitude(areaLongitude);
+        return area;
+    }
+
+    public String getAreaName() {
+        return areaName;
+    }
+}
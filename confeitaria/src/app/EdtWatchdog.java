@@ -0,0 +1,372 @@
+package app;
+
+import model.repositories.SqlActivity;
+
+import java.awt.EventQueue;
+import java.awt.KeyboardFocusManager;
+import java.awt.Window;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Watchdog opcional da Event Dispatch Thread (EDT) do Swing.
+ *
+ * Serve para investigar reclamações de "janela congelada": uma thread daemon envia
+ * um heartbeat para a EDT a cada {@link #CHECK_INTERVAL_MS}. Se o heartbeat não for
+ * processado dentro do limite configurado, o watchdog registra:
+ * - a pilha (stack trace) da EDT naquele momento
+ * - a classe da tela ativa (última janela ativa vista pela EDT)
+ * - o SQL em execução pela EDT, via {@link SqlActivity}
+ *
+ * Quando a EDT volta a responder, registra a duração do travamento e atualiza o
+ * histograma de travamentos da tela. Tudo é escrito em um arquivo de diagnóstico
+ * com rotação por tamanho.
+ *
+ * Custo em produção: com a EDT saudável, um invokeLater a cada 100 ms (o mesmo Runnable
+ * de heartbeat, mas cada chamada cria um pequeno InvocationEvent, de vida curta) e uma leitura
+ * de campos voláteis; nada é escrito em arquivo. A captura de pilha, a montagem do texto e a
+ * escrita só acontecem quando há travamento.
+ *
+ * Configuração (variáveis de ambiente):
+ * - EDT_WATCHDOG: "1"/"true" liga o watchdog (desligado por padrão)
+ * - EDT_WATCHDOG_THRESHOLD_MS: limite de travamento em ms (padrão {@link #DEFAULT_THRESHOLD_MS})
+ * - EDT_WATCHDOG_FILE: arquivo de diagnóstico (padrão {@link #DEFAULT_FILE})
+ */
+public final class EdtWatchdog {
+
+    /**
+     * Intervalo entre verificações/heartbeats (ms).
+     */
+    private static final long CHECK_INTERVAL_MS = 100;
+
+    /**
+     * Limite padrão para considerar a EDT travada (ms).
+     */
+    private static final long DEFAULT_THRESHOLD_MS = 500;
+
+    /**
+     * Arquivo de diagnóstico padrão (relativo ao diretório de execução).
+     */
+    private static final String DEFAULT_FILE = "logs/edt-stalls.log";
+
+    /**
+     * Tamanho máximo do arquivo antes da rotação (bytes).
+     */
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+
+    /**
+     * Quantidade de arquivos antigos mantidos na rotação (.1, .2, ...).
+     */
+    private static final int MAX_ROTATED_FILES = 3;
+
+    /**
+     * Limites superiores (ms) das faixas do histograma.
+     * A última faixa ("10s+") não tem limite.
+     */
+    private static final long[] BUCKET_LIMITS_MS = {1000, 2000, 5000, 10000};
+
+    /**
+     * Rótulos das faixas do histograma (uma a mais que os limites).
+     */
+    private static final String[] BUCKET_LABELS = {"<1s", "1-2s", "2-5s", "5-10s", "10s+"};
+
+    /**
+     * Formato de data/hora usado nas linhas do arquivo.
+     */
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Instância ativa (apenas uma por processo).
+     */
+    private static EdtWatchdog instance;
+
+    /**
+     * Limite de travamento em nanossegundos.
+     */
+    private final long thresholdNanos;
+
+    /**
+     * Arquivo de diagnóstico.
+     */
+    private final Path file;
+
+    /**
+     * Indica que existe um heartbeat aguardando a EDT.
+     */
+    private volatile boolean pending = false;
+
+    /**
+     * Momento (nanoTime) em que o heartbeat pendente foi enviado.
+     */
+    private volatile long sentAt;
+
+    /**
+     * Momento (nanoTime) em que a EDT processou o último heartbeat.
+     */
+    private volatile long ackAt;
+
+    /**
+     * Referência para a thread da EDT (capturada no primeiro heartbeat).
+     */
+    private volatile Thread edt;
+
+    /**
+     * Classe da janela ativa vista pela EDT no último heartbeat.
+     */
+    private volatile String activeView = "(nenhuma)";
+
+    /**
+     * Indica que o travamento atual já foi registrado (evita relatórios repetidos).
+     * Acessado apenas pela thread do watchdog.
+     */
+    private boolean reported = false;
+
+    /**
+     * Tela associada ao travamento em andamento.
+     * Acessado apenas pela thread do watchdog.
+     */
+    private String stallView;
+
+    /**
+     * Histograma de travamentos por tela (classe da janela → contagem por faixa).
+     */
+    private final Map<String, long[]> histograms = new TreeMap<>();
+
+    /**
+     * Heartbeat executado na EDT: marca a resposta e anota a janela ativa.
+     */
+    private final Runnable heartbeat = new Runnable() {
+        @Override
+        public void run() {
+            edt = Thread.currentThread();
+            Window w = KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow();
+            if (w != null) activeView = w.getClass().getName();
+            ackAt = System.nanoTime();
+            pending = false;
+        }
+    };
+
+    /**
+     * Cria o watchdog (use {@link #startIfEnabled()}).
+     *
+     * @param thresholdMs limite de travamento em ms
+     * @param file arquivo de diagnóstico
+     */
+    private EdtWatchdog(long thresholdMs, Path file) {
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.file = file;
+    }
+
+    /**
+     * Inicia o watchdog se EDT_WATCHDOG estiver ligado.
+     *
+     * Funcionamento:
+     * 1. Lê as variáveis de ambiente de configuração.
+     * 2. Habilita o registro de SQL em {@link SqlActivity}.
+     * 3. Inicia a thread daemon de verificação.
+     * 4. Registra shutdown hook que grava o resumo dos histogramas.
+     */
+    public static synchronized void startIfEnabled() {
+        if (instance != null) return;
+
+        String flag = System.getenv("EDT_WATCHDOG");
+        if (flag == null || !(flag.trim().equals("1") || flag.trim().equalsIgnoreCase("true"))) return;
+
+        long threshold = DEFAULT_THRESHOLD_MS;
+        String t = System.getenv("EDT_WATCHDOG_THRESHOLD_MS");
+        if (t != null) {
+            try {
+                threshold = Math.max(CHECK_INTERVAL_MS, Long.parseLong(t.trim()));
+            } catch (NumberFormatException ignored) {}
+        }
+
+        String f = System.getenv("EDT_WATCHDOG_FILE");
+        Path path = Paths.get(f != null && !f.isBlank() ? f.trim() : DEFAULT_FILE);
+
+        instance = new EdtWatchdog(threshold, path);
+        SqlActivity.setEnabled(true);
+
+        Thread loop = new Thread(instance::loop, "edt-watchdog");
+        loop.setDaemon(true);
+        loop.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(instance::writeSummary, "edt-watchdog-summary"));
+        System.out.println("EDT watchdog ligado (limite " + threshold + " ms, arquivo " + path.toAbsolutePath() + ")");
+    }
+
+    /**
+     * Laço da thread do watchdog.
+     *
+     * Funcionamento:
+     * 1. Se não há heartbeat pendente:
+     *    - se havia travamento registrado, fecha o travamento (duração + histograma)
+     *    - envia um novo heartbeat para a EDT
+     * 2. Se há heartbeat pendente há mais que o limite e ainda não foi registrado,
+     *    registra o travamento.
+     * 3. Dorme {@link #CHECK_INTERVAL_MS} e repete.
+     */
+    private void loop() {
+        while (true) {
+            try {
+                if (!pending) {
+                    if (reported) finishStall();
+                    sentAt = System.nanoTime();
+                    pending = true;
+                    EventQueue.invokeLater(heartbeat);
+                } else if (!reported && System.nanoTime() - sentAt >= thresholdNanos) {
+                    reportStall();
+                }
+                Thread.sleep(CHECK_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("EDT watchdog: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registra o início de um travamento: pilha da EDT, tela ativa e SQL em execução.
+     */
+    private void reportStall() {
+        reported = true;
+        stallView = activeView;
+
+        Thread t = edt;
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append(now()).append(" TRAVAMENTO EDT > ").append(thresholdNanos / 1_000_000).append(" ms\n");
+        sb.append("  tela: ").append(stallView).append('\n');
+
+        String sql = SqlActivity.currentFor(t);
+        sb.append("  sql: ").append(sql != null ? sql.replaceAll("\\s+", " ").trim() : "(nenhum)").append('\n');
+
+        sb.append("  pilha:\n");
+        if (t != null) {
+            for (StackTraceElement el : t.getStackTrace()) {
+                sb.append("    at ").append(el).append('\n');
+            }
+        } else {
+            sb.append("    (EDT ainda não iniciada)\n");
+        }
+
+        append(sb.toString());
+    }
+
+    /**
+     * Fecha um travamento registrado: calcula a duração, atualiza e grava o histograma da tela.
+     */
+    private void finishStall() {
+        reported = false;
+        long ms = Math.max(0, (ackAt - sentAt) / 1_000_000);
+
+        long[] buckets;
+        synchronized (histograms) {
+            buckets = histograms.computeIfAbsent(stallView, k -> new long[BUCKET_LABELS.length]);
+            buckets[bucketOf(ms)]++;
+        }
+
+        append(now() + " FIM TRAVAMENTO duração=" + ms + " ms tela=" + stallView
+                + " histograma=" + formatBuckets(buckets) + "\n");
+    }
+
+    /**
+     * Grava o resumo dos histogramas de todas as telas (chamado no encerramento).
+     */
+    private void writeSummary() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (histograms) {
+            if (histograms.isEmpty()) return;
+            sb.append(now()).append(" RESUMO travamentos por tela\n");
+            for (Map.Entry<String, long[]> e : histograms.entrySet()) {
+                sb.append("  ").append(e.getKey()).append(' ').append(formatBuckets(e.getValue())).append('\n');
+            }
+        }
+        append(sb.toString());
+    }
+
+    /**
+     * Retorna o índice da faixa do histograma para uma duração.
+     *
+     * @param ms duração em ms
+     * @return índice da faixa
+     */
+    private static int bucketOf(long ms) {
+        for (int i = 0; i < BUCKET_LIMITS_MS.length; i++) {
+            if (ms < BUCKET_LIMITS_MS[i]) return i;
+        }
+        return BUCKET_LIMITS_MS.length;
+    }
+
+    /**
+     * Formata as faixas do histograma como "{<1s=2, 1-2s=0, ...}".
+     *
+     * @param buckets contagens por faixa
+     * @return texto formatado
+     */
+    private static String formatBuckets(long[] buckets) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < buckets.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(BUCKET_LABELS[i]).append('=').append(buckets[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Acrescenta texto ao arquivo de diagnóstico, rotacionando antes se necessário.
+     * Falhas de escrita são apenas registradas no console (o diagnóstico nunca derruba a aplicação).
+     *
+     * @param text texto a gravar
+     */
+    private synchronized void append(String text) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            rotateIfNeeded();
+
+            try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                w.write(text);
+            }
+        } catch (IOException e) {
+            System.err.println("EDT watchdog: falha ao gravar " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rotaciona o arquivo quando passa de {@link #MAX_FILE_BYTES}:
+     * arquivo.2 → arquivo.3, arquivo.1 → arquivo.2, arquivo → arquivo.1.
+     *
+     * @throws IOException se falhar ao mover arquivos
+     */
+    private void rotateIfNeeded() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < MAX_FILE_BYTES) return;
+
+        for (int i = MAX_ROTATED_FILES - 1; i >= 1; i--) {
+            Path from = Paths.get(file + "." + i);
+            if (Files.exists(from)) {
+                Files.move(from, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Data/hora atual formatada para o arquivo.
+     *
+     * @return texto com data/hora
+     */
+    private static String now() {
+        return LocalDateTime.now().format(TS);
+    }
+}
@@ -0,0 +1,50 @@
+package app;
+
+import services.CustomerImportService;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Ferramenta de linha de comando que importa clientes de um CSV (migração do sistema antigo).
+ *
+ * Uso:
+ * <pre>
+ * java app.ImportCustomers clientes.csv [erros.csv]
+ * </pre>
+ * Sem o segundo argumento, o relatório de erros é gravado em {@code clientes.csv.erros.csv}.
+ * O checkpoint fica em {@code clientes.csv.checkpoint}: se a importação for interrompida,
+ * rodar o mesmo comando continua do último lote gravado.
+ * Veja {@link CustomerImportService} para o formato do CSV.
+ */
+public class ImportCustomers {
+
+    /**
+     * Importa os clientes e imprime os totais e o tempo gasto.
+     *
+     * @param args caminho do CSV e, opcionalmente, do relatório de erros
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: java app.ImportCustomers clientes.csv [erros.csv]");
+            System.exit(2);
+        }
+
+        Path csv = Paths.get(args[0]);
+        Path errors = Paths.get(args.length > 1 ? args[1] : args[0] + ".erros.csv");
+        Path checkpoint = Paths.get(args[0] + ".checkpoint");
+
+        try {
+            CustomerImportService.Result r = new CustomerImportService().importCsv(csv, errors, checkpoint);
+            if (r.getResumedAfterLine() > 0) {
+                System.out.println("Retomado após a linha " + r.getResumedAfterLine() + ".");
+            }
+            System.out.println("Clientes importados: " + r.getImported() + " de " + r.getRead()
+                    + " (" + r.getFailed() + " recusados, ver " + errors + ") em " + r.getElapsedMillis() + " ms");
+        } catch (Exception e) {
+            System.err.println("Erro ao importar clientes: " + e.getMessage());
+            System.err.println("Rode o mesmo comando para continuar do último lote gravado.");
+            System.exit(1);
+        }
+    }
+}
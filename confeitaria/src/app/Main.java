@@ -3,6 +3,8 @@ package app;
 import javax.swing.SwingUtilities;
 
 import model.repositories.CreateTables;
+import services.EncryptionService;
+import services.LoginRateLimiter;
 import services.SeedService;
 import view.ViewHome;
 
@@ -14,13 +16,21 @@ import view.ViewHome;
  * Cria/garante as tabelas do banco de dados (DDL) chamando {@link CreateTables#createAllTables()}.
  * Executa o seed inicial chamando {@link SeedService#seedDefaults()}.
  * Inicializa a interface gráfica Swing abrindo a {@link ViewHome}.
+ * Se configurado, liga o {@link EdtWatchdog} para diagnosticar travamentos da interface.
+ * Depois das tabelas, define o custo do hash de senha comum aos terminais em segundo plano
+ * ({@link EncryptionService#startCalibration()}).
+ * Liga o log das métricas do limitador de login ({@link LoginRateLimiter#startMetricsLog()}).
  */
 public class Main {
 
 	/**
      * Método principal executado pela JVM.
      * Imprime o diretório de execução (working directory).
+     * Liga o {@link EdtWatchdog} quando a variável EDT_WATCHDOG estiver definida.
+     * Liga o log periódico e final das métricas do limitador de login.
      * Tenta criar as tabelas e executar o seed dentro de um bloco try/catch para não impedir a inicialização da UI.
+     * Depois do DDL, inicia a calibração do hash de senha em uma thread daemon (não disputa CPU com a criação
+     * das tabelas e não atrasa a abertura da UI).
      * Inicializa a UI na thread correta do Swing usando {@link SwingUtilities#invokeLater(Runnable)}.
      * Cria e exibe a tela {@link ViewHome}.
      * Qualquer exceção na criação de tabelas/seed é capturada e registrada no console.
@@ -31,12 +41,16 @@ public class Main {
     public static void main(String[] args) {
 
     	System.out.println("Working dir: " + System.getProperty("user.dir"));
+    	EdtWatchdog.startIfEnabled();
+    	LoginRateLimiter.startMetricsLog();
+
     	try {
     		CreateTables.createAllTables();
     		SeedService.seedDefaults();
     	} catch(Exception e) {
     		System.err.println("Erro ao criar tabelas: " + e.getMessage());
     	}
+    	EncryptionService.startCalibration();
 
     	SwingUtilities.invokeLater(new Runnable() {
     		public void run() {
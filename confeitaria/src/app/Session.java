@@ -1,12 +1,19 @@
 package app;
 
 import model.entities.User;
+import services.CacheRegistry;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Sessão do usuário logado (estado global em memória).
  * Armazena o usuário autenticado para permitir acesso por qualquer tela.
  * Fornece uma forma simples de verificar se existe login ativo.
  * Centraliza as operações de login/logout em uma estrutura única.
+ * Guarda também o perfil do cliente ({@link CustomerProfile}), carregado uma vez em segundo plano
+ * logo após o login, para que as telas não consultem o banco a cada abertura.
  * Obs.: Esta sessão é mantida apenas em memória (variáveis estáticas).
  * Ao fechar o app, o login é perdido.
  */
@@ -16,6 +23,18 @@ public final class Session {
      * Quando {@code null}, significa que não existe usuário autenticado na sessão.
      */
     private static User loggedUser;
+
+    /**
+     * Perfil do cliente logado (pronto ou ainda em carga).
+     * Quando {@code null}, nenhum perfil foi carregado nesta sessão.
+     * Trocar o future descarta o resultado de uma carga anterior ainda em andamento.
+     * Como guarda o bairro e a taxa de entrega, é descartado quando as áreas mudam ({@link CacheRegistry}).
+     */
+    private static volatile CompletableFuture<CustomerProfile> profile;
+
+    static {
+        CacheRegistry.register("session.profile", () -> profile = null, CacheRegistry.Scope.AREAS);
+    }
     
     /**
      * Construtor privado para impedir instanciação.
@@ -30,6 +49,7 @@ public final class Session {
      */
     public static void setLoggedUser(User user) {
         loggedUser = user;
+        profile = null;
     }
     
     /**
@@ -58,5 +78,68 @@ public final class Session {
      */
     public static void logout() {
         loggedUser = null;
+        profile = null;
+    }
+
+    /**
+     * Dispara a carga do perfil em uma thread de fundo (daemon) e a registra na sessão.
+     * Se o carregamento falhar, o perfil fica ausente e quem precisar dele carrega de novo.
+     *
+     * @param loader consulta do perfil (executada fora da EDT)
+     */
+    public static void loadProfile(Callable<CustomerProfile> loader) {
+        CompletableFuture<CustomerProfile> future = new CompletableFuture<>();
+        profile = future;
+
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(loader.call());
+            } catch (Exception e) {
+                System.err.println("Falha ao carregar o perfil do cliente: " + e.getMessage());
+                future.completeExceptionally(e);
+            }
+        }, "profile-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Substitui o perfil da sessão (ex.: após editar o perfil).
+     * Uma carga ainda em andamento é descartada.
+     *
+     * @param snapshot novo perfil (null para limpar)
+     */
+    public static void setProfile(CustomerProfile snapshot) {
+        profile = snapshot != null ? CompletableFuture.completedFuture(snapshot) : null;
+    }
+
+    /**
+     * Retorna o perfil se ele já estiver carregado, sem esperar.
+     *
+     * @return perfil pronto, ou null se ausente, em carga ou com falha
+     */
+    public static CustomerProfile getProfile() {
+        CompletableFuture<CustomerProfile> current = profile;
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) return null;
+        return current.join();
+    }
+
+    /**
+     * Retorna o perfil, esperando a carga em andamento terminar.
+     * Não deve ser chamado na EDT.
+     *
+     * @return perfil carregado, ou null se ausente ou se a carga falhou
+     */
+    public static CustomerProfile awaitProfile() {
+        CompletableFuture<CustomerProfile> current = profile;
+        if (current == null) return null;
+        try {
+            return current.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package app;
+
+import services.CatalogTransferService;
+import services.CatalogTransferService.Format;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Ferramenta de linha de comando para importar/exportar o catálogo (níveis, tamanhos, sabores e produtos).
+ *
+ * Uso:
+ * <pre>
+ * java app.TransferCatalog export catalogo.csv
+ * java app.TransferCatalog import catalogo.jsonl [--dry-run]
+ * </pre>
+ * O formato vem da extensão ({@code .jsonl}/{@code .json} = JSON Lines, o resto = CSV).
+ * Na importação, o diff (novos, alterados, erros) é impresso no console; com {@code --dry-run} nada é gravado.
+ * Veja {@link CatalogTransferService} para os formatos.
+ */
+public class TransferCatalog {
+
+    /**
+     * Executa a importação ou exportação.
+     *
+     * @param args operação, arquivo e, opcionalmente, {@code --dry-run}
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Uso: java app.TransferCatalog export|import arquivo.(csv|jsonl) [--dry-run]");
+            System.exit(2);
+        }
+
+        Path file = Paths.get(args[1]);
+        Format format = Format.fromFileName(file.getFileName().toString());
+        CatalogTransferService service = new CatalogTransferService();
+
+        try {
+            long start = System.nanoTime();
+            if (args[0].equals("export")) {
+                long count;
+                try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    count = service.exportCatalog(out, format);
+                }
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                System.out.println("Catálogo exportado: " + count + " registros em " + file + " (" + ms + " ms)");
+                return;
+            }
+
+            boolean dryRun = args.length > 2 && args[2].equals("--dry-run");
+            Writer report = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            CatalogTransferService.Result r;
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                r = service.importCatalog(in, format, dryRun, report);
+            }
+            if (r.getErrors() > 0) System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Erro na transferência do catálogo: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
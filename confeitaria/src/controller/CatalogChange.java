@@ -0,0 +1,95 @@
+package controller;
+
+import model.entities.Product;
+
+/**
+ * Evento de alteração do catálogo devolvido pelas operações administrativas.
+ *
+ * Em vez de obrigar a tela a recarregar a lista inteira depois de salvar ou excluir,
+ * o controller informa exatamente o que mudou:
+ * - INSERTED: o produto inserido (com id gerado, sabor, nível e tamanho preenchidos)
+ * - DELETED: o id do produto removido
+ *
+ * A View aplica o evento no seu modelo de tabela (uma linha inserida ou removida).
+ */
+public final class CatalogChange {
+
+    /**
+     * Tipo da alteração.
+     */
+    public enum Type {
+        /** Produto inserido. */
+        INSERTED,
+        /** Produto removido. */
+        DELETED
+    }
+
+    /**
+     * Tipo da alteração.
+     */
+    private final Type type;
+
+    /**
+     * Id do produto afetado.
+     */
+    private final int productId;
+
+    /**
+     * Produto inserido (null em DELETED).
+     */
+    private final Product product;
+
+    /**
+     * Construtor privado: use {@link #inserted(Product)} ou {@link #deleted(int)}.
+     *
+     * @param type tipo da alteração
+     * @param productId id do produto
+     * @param product produto inserido (ou null)
+     */
+    private CatalogChange(Type type, int productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    /**
+     * Cria o evento de produto inserido.
+     *
+     * @param product produto persistido (com id)
+     * @return evento INSERTED
+     */
+    public static CatalogChange inserted(Product product) {
+        return new CatalogChange(Type.INSERTED, product.getId(), product);
+    }
+
+    /**
+     * Cria o evento de produto removido.
+     *
+     * @param productId id do produto removido
+     * @return evento DELETED
+     */
+    public static CatalogChange deleted(int productId) {
+        return new CatalogChange(Type.DELETED, productId, null);
+    }
+
+    /**
+     * Retorna o tipo da alteração.
+     *
+     * @return tipo
+     */
+    public Type getType() { return type; }
+
+    /**
+     * Retorna o id do produto afetado.
+     *
+     * @return id do produto
+     */
+    public int getProductId() { return productId; }
+
+    /**
+     * Retorna o produto inserido.
+     *
+     * @return produto (null em DELETED)
+     */
+    public Product getProduct() { return product; }
+}
@@ -0,0 +1,233 @@
+package controller;
+
+import app.CartSession;
+import services.PricingEngine;
+import services.PromotionEngine;
+
+/**
+ * Cotação do checkout para uma versão do carrinho.
+ *
+ * Calculada uma única vez em segundo plano por {@link ControllerCheckout#quote(java.util.Map, long, model.entities.Area, String)}:
+ * - preço unitário de cada item (no momento da cotação)
+ * - subtotal
+ * - desconto das promoções (e do cupom, se informado), por item e total
+ * - taxa de entrega da área do cliente
+ *
+ * Valores em centavos, calculados pelo {@link PricingEngine}.
+ * Trocar entre entrega e retirada é só uma conta em memória ({@link #feeCentsFor(boolean)} e {@link #totalCentsFor(boolean)}),
+ * e a mesma cotação é usada para gravar o pedido, sem recalcular preços.
+ * A cotação deixa de valer quando o carrinho muda ou quando alguma promoção começa ou termina
+ * ({@link #isCurrent()}).
+ * Itens do carrinho cujo produto foi retirado do catálogo (ou excluído) não entram nas linhas:
+ * ficam em {@link #getUnavailableIds()} e impedem a confirmação do pedido até saírem do carrinho.
+ *
+ * Imutável.
+ */
+public final class CheckoutQuote {
+
+    /**
+     * Versão do carrinho usada no cálculo ({@link CartSession#version()}).
+     */
+    private final long cartVersion;
+
+    /**
+     * Id da área usada na taxa de entrega (ou null).
+     */
+    private final Integer areaId;
+
+    /**
+     * Cupom aplicado (normalizado), ou null.
+     */
+    private final String coupon;
+
+    /**
+     * Regras de promoção usadas no cálculo (uma recarga das regras invalida a cotação em cache).
+     */
+    final PromotionEngine promotions;
+
+    /**
+     * Instante (epoch em ms) a partir do qual o desconto pode ser outro: a próxima borda de período
+     * das regras ({@link PromotionEngine#nextChangeAfter(long)}).
+     */
+    private final long validUntilMillis;
+
+    private final int[] productIds;
+    private final int[] quantities;
+    private final long[] unitCents;
+    private final long[] discountCents;
+
+    /**
+     * Ids dos produtos do carrinho que não estão mais disponíveis (fora das linhas).
+     */
+    private final int[] unavailableIds;
+
+    /**
+     * Nomes dos produtos indisponíveis, na ordem de {@link #unavailableIds}.
+     */
+    private final String[] unavailableNames;
+
+    private final long subtotalCents;
+
+    /**
+     * Soma dos descontos das linhas, em centavos.
+     */
+    private final long totalDiscountCents;
+
+    /**
+     * Taxa aplicada quando o pedido é entregue, em centavos.
+     */
+    private final long deliveryFeeCents;
+
+    /**
+     * Cria a cotação. Os arrays passam a pertencer à cotação (não devem ser alterados depois).
+     *
+     * @param cartVersion versão do carrinho
+     * @param areaId id da área da taxa (ou null)
+     * @param coupon cupom normalizado (ou null)
+     * @param promotions regras de promoção usadas
+     * @param validUntilMillis instante em que o desconto pode mudar (epoch em ms)
+     * @param productIds ids dos produtos, um por linha
+     * @param quantities quantidades, uma por linha
+     * @param unitCents preços unitários em centavos, um por linha
+     * @param discountCents desconto de cada linha em centavos
+     * @param unavailableIds ids dos produtos indisponíveis do carrinho
+     * @param unavailableNames nomes dos produtos indisponíveis
+     * @param subtotalCents subtotal em centavos (sem desconto)
+     * @param totalDiscountCents desconto total em centavos
+     * @param deliveryFeeCents taxa de entrega em centavos
+     */
+    CheckoutQuote(long cartVersion, Integer areaId, String coupon, PromotionEngine promotions, long validUntilMillis,
+                  int[] productIds, int[] quantities, long[] unitCents, long[] discountCents,
+                  int[] unavailableIds, String[] unavailableNames,
+                  long subtotalCents, long totalDiscountCents, long deliveryFeeCents) {
+        this.cartVersion = cartVersion;
+        this.areaId = areaId;
+        this.coupon = coupon;
+        this.promotions = promotions;
+        this.validUntilMillis = validUntilMillis;
+        this.productIds = productIds;
+        this.quantities = quantities;
+        this.unitCents = unitCents;
+        this.discountCents = discountCents;
+        this.unavailableIds = unavailableIds;
+        this.unavailableNames = unavailableNames;
+        this.subtotalCents = subtotalCents;
+        this.totalDiscountCents = totalDiscountCents;
+        this.deliveryFeeCents = deliveryFeeCents;
+    }
+
+    /**
+     * Indica se o carrinho ainda está na versão cotada e nenhuma promoção começou ou terminou desde a cotação.
+     *
+     * @return true se a cotação ainda vale
+     */
+    public boolean isCurrent() {
+        return cartVersion == CartSession.version() && isValidAt(System.currentTimeMillis());
+    }
+
+    /**
+     * Indica se os descontos cotados ainda valem no instante informado.
+     *
+     * @param nowMillis instante (epoch em ms)
+     * @return true antes da próxima borda de período das promoções
+     */
+    public boolean isValidAt(long nowMillis) {
+        return nowMillis < validUntilMillis;
+    }
+
+    public long getCartVersion() {
+        return cartVersion;
+    }
+
+    public Integer getAreaId() {
+        return areaId;
+    }
+
+    public String getCoupon() {
+        return coupon;
+    }
+
+    /**
+     * Retorna a quantidade de linhas (produtos existentes do carrinho).
+     *
+     * @return quantidade de linhas
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    public int getProductId(int i) {
+        return productIds[i];
+    }
+
+    public int getQuantity(int i) {
+        return quantities[i];
+    }
+
+    public long getUnitCents(int i) {
+        return unitCents[i];
+    }
+
+    public long getLineDiscountCents(int i) {
+        return discountCents[i];
+    }
+
+    /**
+     * Indica se algum item do carrinho deixou de estar disponível.
+     *
+     * @return true se há produtos indisponíveis no carrinho cotado
+     */
+    public boolean hasUnavailable() {
+        return unavailableIds.length > 0;
+    }
+
+    /**
+     * Retorna os ids dos produtos indisponíveis (para retirá-los do carrinho).
+     *
+     * @return cópia dos ids
+     */
+    public int[] getUnavailableIds() {
+        return unavailableIds.clone();
+    }
+
+    /**
+     * Retorna os nomes dos produtos indisponíveis, separados por vírgula (para avisar o cliente).
+     *
+     * @return nomes dos produtos
+     */
+    public String getUnavailableNames() {
+        return String.join(", ", unavailableNames);
+    }
+
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long getDiscountCents() {
+        return totalDiscountCents;
+    }
+
+    public long getDeliveryFeeCents() {
+        return deliveryFeeCents;
+    }
+
+    /**
+     * Taxa conforme a forma de recebimento.
+     *
+     * @param delivery true para entrega, false para retirada
+     * @return taxa de entrega em centavos, ou 0
+     */
+    public long feeCentsFor(boolean delivery) {
+        return delivery ? deliveryFeeCents : 0L;
+    }
+
+    /**
+     * Total conforme a forma de recebimento.
+     *
+     * @param delivery true para entrega, false para retirada
+     * @return subtotal menos o desconto, mais a taxa aplicável, em centavos
+     */
+    public long totalCentsFor(boolean delivery) {
+        return subtotalCents - totalDiscountCents + feeCentsFor(delivery);
+    }
+}
@@ -11,10 +11,11 @@ import model.entities.User;
 import model.factories.AddressFactory;
 import model.factories.PersonFactory;
 import model.factories.UserFactory;
-import model.repositories.RepositoryAddress;
 import model.repositories.RepositoryArea;
-import model.repositories.RepositoryPerson;
-import model.repositories.RepositoryUser;
+import model.repositories.RepositoryRegistration;
+import services.AreaIndex;
+import services.CacheRegistry;
+import services.CepIndex;
 
 import java.sql.SQLException;
 import java.util.Arrays;
@@ -33,29 +34,26 @@ import java.util.List;
 public class ControllerCadastro {
 	
 	/**
-	 * Repositório para persistência e consulta de {@link Person}
-	 * Usado para verificar se o email já existe e para inserir a pessoa.
+	 * Repositório do cadastro: grava endereço, pessoa e usuário em um único comando.
+	 * A unicidade do e-mail e a existência da área são garantidas pelas restrições do banco.
 	 */
-    private final RepositoryPerson repoPerson;
-    
-    
-    /**
-     * Repositório para persistência e consulta de {@link User}
-     * Usado para inserir credenciais (hash de senha ligado a uma {@link Person}).
-     */
-    private final RepositoryUser repoUser;
-    
-    /**
-     * Repositório para persistência e consulta de {@link Address}.
-     * Usado para inserir endereço (que é FK em {@code person}).
-     */
-    private final RepositoryAddress repoAddress;
+    private final RepositoryRegistration repoRegistration;
     
     /**
      * Repositório para persistência e consulta de {@link Area}.
      * Usado para listar áreas na tela e validar a área selecionada no cadastro.
      */
     private final RepositoryArea repoArea;
+
+    /**
+     * Índice de busca por prefixo dos bairros, montado na primeira consulta e compartilhado
+     * entre as telas (a lista de áreas é dado de referência e quase não muda).
+     */
+    private static volatile AreaIndex areaIndex;
+
+    static {
+        CacheRegistry.register("cadastro.areaIndex", ControllerCadastro::invalidateAreaIndex, CacheRegistry.Scope.AREAS);
+    }
     
     /**
      * Construtor padrão.
@@ -63,24 +61,17 @@ public class ControllerCadastro {
      */
     public ControllerCadastro() {
         this.repoArea = new RepositoryArea();
-        this.repoPerson = new RepositoryPerson();
-        this.repoUser = new RepositoryUser();
-        this.repoAddress = new RepositoryAddress();
+        this.repoRegistration = new RepositoryRegistration();
     }
     
     /**
      * Construtor com injeção de dependências.
      * Útil em testes automatizados ou para controlar instâncias de repositório.
-     * @param repoPerson repositório de pessoas
-     * @param repoUser repositório de usuários
-     * @param repoAddress repositório de endereços
+     * @param repoRegistration repositório do cadastro (endereço + pessoa + usuário)
      * @param repoArea repositório de áreas
      */
-    public ControllerCadastro(RepositoryPerson repoPerson, RepositoryUser repoUser,
-                              RepositoryAddress repoAddress, RepositoryArea repoArea) {
-        this.repoPerson = repoPerson;
-        this.repoUser = repoUser;
-        this.repoAddress = repoAddress;
+    public ControllerCadastro(RepositoryRegistration repoRegistration, RepositoryArea repoArea) {
+        this.repoRegistration = repoRegistration;
         this.repoArea = repoArea;
     }
     
@@ -101,15 +92,62 @@ public class ControllerCadastro {
     }
     
     
+    /**
+     * Retorna o índice de bairros para o autocomplete da tela de cadastro.
+     * Na primeira chamada carrega as áreas com {@link #listAreas()} e monta o {@link AreaIndex};
+     * nas seguintes devolve o mesmo índice, sem acessar o banco.
+     * @return índice de áreas
+     * @throws DataAccessException em falhas de acesso ao banco
+     */
+    public AreaIndex loadAreaIndex() throws DataAccessException {
+        AreaIndex index = areaIndex;
+        if (index == null) {
+            index = new AreaIndex(listAreas());
+            areaIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Descobre a área (bairro) de um CEP pelo índice de faixas de CEP ({@link CepIndex}).
+     *
+     * Funcionamento:
+     * 1. Se não houver índice de CEP instalado, retorna null (recurso desligado).
+     * 2. Procura a faixa do CEP e obtém o nome da área.
+     * 3. Converte o nome na {@link Area} cadastrada via {@link #loadAreaIndex()}
+     *    (sem diferença de acentos/maiúsculas).
+     *
+     * @param cep CEP com ou sem máscara
+     * @return área do CEP, ou null se o CEP for inválido, não estiver no índice ou a área não existir no banco
+     * @throws DataAccessException em falhas de acesso ao banco ao carregar as áreas
+     */
+    public Area resolveAreaByCep(String cep) throws DataAccessException {
+        CepIndex index = CepIndex.getDefault();
+        if (index == null) return null;
+
+        String name = index.areaName(index.lookup(cep));
+        if (name == null) return null;
+
+        return loadAreaIndex().findByName(name);
+    }
+
+    /**
+     * Descarta o índice de bairros em cache (a próxima consulta recarrega do banco).
+     */
+    public static void invalidateAreaIndex() {
+        areaIndex = null;
+    }
+    
+    
     /**
      * Realiza o cadastro completo de um usuário.
      * Este método valida regras de entrada e persiste os dados na ordem correta por dependência
      * Valida campos obrigatórios (nome, email, senha, área, rua etc.)
-     * Verifica duplicidade de email em {@code person} (UNIQUE) via {@link RepositoryPerson}.
-     * Valida se a {@link Area} selecionada existe via {@link RepositoryArea}
-     * Persiste endereço (gera id_address)
-     * Persiste pessoa (gera id_person)
-     * Cria usuário (hash de senha) e persiste em {@code user}
+     * Cria usuário (hash de senha) antes de abrir a conexão.
+     * Persiste endereço, pessoa e usuário em um único comando ({@link RepositoryRegistration#register}).
+     * E-mail duplicado é detectado pelo UNIQUE de {@code person.email} e vira {@link ConflictException};
+     * área inexistente é detectada pela FK de {@code address.id_area} e vira {@link NotFoundException}.
+     * Se o comando falhar, nada é gravado.
      * limpa o array de senha em memória ao final.
      * @param firstName limpa o array de senha em memória ao final.
      * @param lastName sobrenome (opcional)
@@ -151,20 +189,18 @@ public class ControllerCadastro {
             if (street == null || street.trim().isEmpty())
                 throw new ValidationException("Rua é obrigatória.");
 
-            if (repoPerson.findByEmailPerson(em) != null) {
-                throw new ConflictException("E-mail já cadastrado no sistema.");
-            }
-
-            Area area = repoArea.findByIdArea(idArea);
-            if (area == null) {
-                throw new NotFoundException("O bairro selecionado é inválido.");
-            }
+            Area area = new Area();
+            area.setId(idArea);
 
             persistUser(firstName.trim(), lastName, em, password, area, street, number, cep, complement, reference);
 
         } catch (SQLException e) {
+            if (RepositoryRegistration.isUniqueViolation(e))
+                throw new ConflictException("E-mail já cadastrado no sistema.");
+            if (RepositoryRegistration.isForeignKeyViolation(e))
+                throw new NotFoundException("O bairro selecionado é inválido.");
             throw new DataAccessException("Erro ao acessar o banco durante o cadastro.", e);
-        } catch (ValidationException | ConflictException | NotFoundException | DataAccessException e) {
+        } catch (ValidationException | DataAccessException e) {
             throw e;
         } catch (Exception e) {
             throw new DataAccessException("Erro inesperado durante o cadastro: " + e.getMessage(), e);
@@ -175,24 +211,24 @@ public class ControllerCadastro {
     
     
     /**
-     * Persiste um usuário completo (endereço + pessoa + usuário).
-     * Cria {@link Address} via {@link AddressFactory} e persiste, obtendo id_address.
-     * Cria {@link Address} via {@link AddressFactory} e persiste, obtendo id_address.
-     * Cria {@link Person} via {@link PersonFactory} e persiste, obtendo id_person.
+     * Persiste um usuário completo (endereço + pessoa + usuário) em uma única ida ao banco.
+     * Cria {@link Address} via {@link AddressFactory} e {@link Person} via {@link PersonFactory}.
+     * Cria {@link User} via {@link UserFactory} (gera o hash da senha, sem conexão aberta).
+     * Grava tudo com {@link RepositoryRegistration#register(Address, Person, String)}.
      * Este método é {@code private} porque representa implementação interna do caso de uso de cadastro.
      * @param firstName nome já normalizado (trim)
      * @param lastName sobrenome
      * @param email email já normalizado (trim)
      * @param password senha (char[])
-     * @param area senha (char[])
+     * @param area área selecionada (apenas o id é usado)
      * @param street rua
      * @param number número
      * @param cep cep
      * @param complement complemento
      * @param reference referência
-     * @throws SQLException referência
+     * @throws SQLException em erro de acesso ao banco (inclui e-mail repetido e área inexistente)
      * @throws ValidationException se alguma factory rejeitar dados
-     * @throws DataAccessException falha ao acessar o banco
+     * @throws DataAccessException se o banco não retornar os ids gerados
      */
     private void persistUser(String firstName, String lastName, String email,
                              char[] password, Area area, String street, Integer number,
@@ -200,26 +236,12 @@ public class ControllerCadastro {
             throws SQLException, ValidationException, DataAccessException {
 
         Address address = AddressFactory.create(null, area, cep, street, number, complement, reference);
-
-        Integer idAddress = repoAddress.createAddressAndReturnId(address);
-        if (idAddress == null) {
-            throw new DataAccessException("Erro ao salvar o endereço no banco de dados.", null);
-        }
-        address.setInteger(idAddress);
-
         Person person = PersonFactory.create(null, firstName, lastName, email, address);
+        User user = UserFactory.createWithPassword(null, null, firstName, lastName, email, password);
 
-        Integer idPerson = repoPerson.createPersonAndReturnId(person);
-        if (idPerson == null) {
-            throw new DataAccessException("Erro ao salvar dados pessoais. O e-mail pode já estar em uso.", null);
-        }
-        person.setId(idPerson);
-
-        User user = UserFactory.createWithPassword(null, idPerson, firstName, lastName, email, password);
-        boolean userCreated = repoUser.createUser(user);
-
-        if (!userCreated) {
+        Integer idUser = repoRegistration.register(address, person, user.getPasswordHash());
+        if (idUser == null) {
             throw new DataAccessException("Erro crítico ao criar o usuário de login.", null);
         }
     }
-}
\ No newline at end of file
+}
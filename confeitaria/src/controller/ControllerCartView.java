@@ -3,8 +3,10 @@ package controller;
 import app.CartSession;
 import exceptions.DataAccessException;
 import model.entities.Product;
+import services.PricingEngine;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,7 +15,7 @@ import java.util.Map;
  * Existe para montar os dados que a interface do carrinho precisa exibir sem duplicar regras e consultas na View.
  * Lê o estado atual do carrinho em memória ({@link CartSession}) e transforma em uma estrutura pronta para exibição:
  * - carrega o Product completo a partir do id do produto
- * - calcula preço unitário e total por item
+ * - calcula preço unitário e total por item (em centavos, pelo {@link PricingEngine})
  * - calcula subtotal do carrinho
  * Retorna essas informações para a View através de CartViewData.
  *
@@ -55,7 +57,7 @@ public class ControllerCartView {
      * 3. Ignora itens inválidos (id null, qty null ou qty menor ou igual a 0).
      * 4. Busca o Product pelo id via {@link ControllerShop#findProductById(Integer)}.
      * 5. Se o produto não existir (null), ignora o item.
-     * 6. Calcula o preço unitário com {@link #computeUnitPrice(Product)}.
+     * 6. Calcula o preço unitário em centavos com {@link PricingEngine#unitPriceCents(Product)}.
      * 7. Calcula total do item (unit * qty).
      * 8. Soma no subtotal e adiciona uma CartRow na lista.
      * 9. Retorna um {@link CartViewData} com as linhas e o subtotal.
@@ -64,10 +66,24 @@ public class ControllerCartView {
      * @throws DataAccessException se ocorrer falha ao buscar produtos no banco
      */
     public CartViewData loadCartData() throws DataAccessException {
+        return loadCartData(new LinkedHashMap<>(CartSession.getItems()));
+    }
+
+    /**
+     * Carrega os dados de exibição a partir de uma cópia dos itens do carrinho.
+     *
+     * A View tira a cópia na EDT e chama este método em segundo plano,
+     * assim a iteração não disputa o mapa da {@link CartSession} com a interface.
+     *
+     * @param items cópia dos itens do carrinho (productId para qty)
+     * @return objeto CartViewData contendo linhas e subtotal
+     * @throws DataAccessException se ocorrer falha ao buscar produtos no banco
+     */
+    public CartViewData loadCartData(Map<Integer, Integer> items) throws DataAccessException {
         List<CartRow> rows = new ArrayList<>();
-        double subtotal = 0.0;
+        long subtotal = 0L;
 
-        for (Map.Entry<Integer, Integer> entry : CartSession.getItems().entrySet()) {
+        for (Map.Entry<Integer, Integer> entry : items.entrySet()) {
             Integer productId = entry.getKey();
             Integer qty = entry.getValue();
 
@@ -76,9 +92,9 @@ public class ControllerCartView {
             Product p = controllerShop.findProductById(productId);
             if (p == null) continue;
 
-            double unit = computeUnitPrice(p);
-            double total = unit * qty;
-            subtotal += total;
+            long unit = PricingEngine.unitPriceCents(p);
+            long total = Math.multiplyExact(unit, (long) qty);
+            subtotal = Math.addExact(subtotal, total);
 
             rows.add(new CartRow(productId, p.getName(), qty, unit, total));
         }
@@ -100,29 +116,6 @@ public class ControllerCartView {
         CartSession.remove(productId);
     }
 
-    /**
-     * Calcula o preço unitário final de um produto.
-     *
-     * Regra usada:
-     * unit = basePrice + size.price + flavor.level.price
-     *
-     * Funcionamento:
-     * 1. Usa basePrice ou 0 se estiver null.
-     * 2. Soma o preço do tamanho (Size.price) quando existir.
-     * 3. Soma o preço do nível do sabor (FlavorLevel.price) quando existir.
-     * 4. Retorna a soma como preço unitário final.
-     *
-     * @param p produto completo (com size e flavor/level preenchidos quando aplicável)
-     * @return preço unitário final
-     */
-    private static double computeUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-        double sizePrice = (p.getSize() != null && p.getSize().getPrice() != null) ? p.getSize().getPrice() : 0.0;
-        double levelPrice = (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null)
-                ? p.getFlavor().getLevel().getPrice() : 0.0;
-        return base + sizePrice + levelPrice;
-    }
-
    /**
     * Linha do carrinho para exibição em tabela.
     * Mantém os campos já calculados para a View, evitando que a UI recalcule valores.
@@ -145,14 +138,14 @@ public class ControllerCartView {
         private final Integer qty;
 
         /**
-         * Preço unitário calculado.
+         * Preço unitário calculado, em centavos.
          */
-        private final Double unit;
+        private final long unitCents;
 
         /**
-         * Total do item calculado como unit * qty.
+         * Total do item calculado como unit * qty, em centavos.
          */
-        private final Double total;
+        private final long totalCents;
 
         /**
          * Constrói uma linha do carrinho.
@@ -160,15 +153,15 @@ public class ControllerCartView {
          * @param productId id do produto
          * @param productName nome do produto
          * @param qty quantidade
-         * @param unit preço unitário
-         * @param total total do item
+         * @param unitCents preço unitário em centavos
+         * @param totalCents total do item em centavos
          */
-        public CartRow(Integer productId, String productName, Integer qty, Double unit, Double total) {
+        public CartRow(Integer productId, String productName, Integer qty, long unitCents, long totalCents) {
             this.productId = productId;
             this.productName = productName;
             this.qty = qty;
-            this.unit = unit;
-            this.total = total;
+            this.unitCents = unitCents;
+            this.totalCents = totalCents;
         }
 
         /**
@@ -195,16 +188,16 @@ public class ControllerCartView {
         /**
          * Retorna o preço unitário calculado.
          *
-         * @return preço unitário
+         * @return preço unitário em centavos
          */
-        public Double getUnit() { return unit; }
+        public long getUnitCents() { return unitCents; }
 
         /**
          * Retorna o total calculado do item.
          *
-         * @return total do item
+         * @return total do item em centavos
          */
-        public Double getTotal() { return total; }
+        public long getTotalCents() { return totalCents; }
     }
 
     /**
@@ -221,19 +214,19 @@ public class ControllerCartView {
         private final List<CartRow> rows;
 
         /**
-         * Subtotal do carrinho calculado.
+         * Subtotal do carrinho calculado, em centavos.
          */
-        private final Double subtotal;
+        private final long subtotalCents;
 
         /**
          * Cria o resultado de exibição do carrinho.
          *
          * @param rows linhas
-         * @param subtotal subtotal
+         * @param subtotalCents subtotal em centavos
          */
-        public CartViewData(List<CartRow> rows, Double subtotal) {
+        public CartViewData(List<CartRow> rows, long subtotalCents) {
             this.rows = rows;
-            this.subtotal = subtotal;
+            this.subtotalCents = subtotalCents;
         }
 
         /**
@@ -246,8 +239,8 @@ public class ControllerCartView {
         /**
          * Retorna o subtotal do carrinho.
          *
-         * @return subtotal
+         * @return subtotal em centavos
          */
-        public Double getSubtotal() { return subtotal; }
+        public long getSubtotalCents() { return subtotalCents; }
     }
 }
\ No newline at end of file
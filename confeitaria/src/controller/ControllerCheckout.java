@@ -2,15 +2,28 @@ package controller;
 
 import exceptions.DataAccessException;
 import exceptions.ValidationException;
+import model.entities.Area;
+import model.entities.DeliveryType;
 import model.entities.Product;
+import model.repositories.RepositoryArea;
 import model.repositories.RepositoryOrder;
 import model.repositories.RepositoryOrderItems;
 import model.repositories.RepositoryProduct;
+import model.repositories.RepositoryPromotion;
+import services.CacheRegistry;
+import services.CacheRegistry.Scope;
+import services.DeliveryFeeEngine;
+import services.PricingEngine;
+import services.PromotionEngine;
 
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Controller responsável pelo caso de uso de Checkout (finalizar compra).
@@ -19,7 +32,8 @@ import java.util.Map;
  * criar itens na tabela {@code order_items} com {@code price_at_moment},
  * calcular unitário de cada item no momento do checkout,
  * converter {@link SQLException} em {@link DataAccessException}.
- * Este controller recebe o {@code totalPrice} já calculado pela View (subtotal + taxa, quando aplicável), sem calcular a taxa diretamente 
+ * Os preços, as promoções e a taxa são calculados uma vez por versão do carrinho em uma {@link CheckoutQuote};
+ * a View só alterna entre entrega e retirada sobre a cotação, e a mesma cotação é gravada no pedido.
  * A persistência e consistência do pedido é responsabilidade dele.
  */
 public class ControllerCheckout {
@@ -41,6 +55,49 @@ public class ControllerCheckout {
      * a partir de base + size + flavor_level.
      */
     private final RepositoryProduct repoProduct;
+
+    /**
+     * Motor de taxa de entrega, montado na primeira cotação a partir das áreas cadastradas
+     * e compartilhado entre as telas (guarda a taxa de cada área em cache).
+     */
+    private static volatile DeliveryFeeEngine feeEngine;
+
+    /**
+     * Última cotação calculada (reaproveitada enquanto carrinho, área, cupom e promoções não mudarem).
+     */
+    private static volatile CheckoutQuote lastQuote;
+
+    /**
+     * Intervalo mínimo entre verificações de alteração nas promoções (PROMOTION_RELOAD_SECONDS, padrão 30 s).
+     */
+    private static final long PROMOTION_CHECK_MS = readReloadMillis();
+
+    /**
+     * Regras de promoção compiladas (trocadas por inteiro quando a tabela muda).
+     */
+    private static volatile PromotionEngine promotions;
+
+    /**
+     * Impressão digital da tabela promotion usada na última compilação.
+     */
+    private static volatile String promotionsFingerprint;
+
+    /**
+     * Momento (System.nanoTime) da última verificação de alteração nas promoções.
+     */
+    private static volatile long promotionsCheckedAt;
+
+    /**
+     * Trava da recarga das promoções (só uma thread recompila; as demais usam as regras atuais).
+     */
+    private static final Object PROMOTION_LOCK = new Object();
+
+    static {
+        CacheRegistry.register("checkout.deliveryFees", ControllerCheckout::invalidateDeliveryFees, Scope.AREAS);
+        CacheRegistry.register("checkout.lastQuote", () -> lastQuote = null, Scope.AREAS, Scope.CATALOG, Scope.PROMOTIONS);
+        CacheRegistry.register("checkout.promotions", ControllerCheckout::invalidatePromotions, Scope.PROMOTIONS);
+        CacheRegistry.register("product.sharedReferences", RepositoryProduct::invalidateSharedReferences, Scope.CATALOG);
+    }
     
     /**
      * Construtor padrão.
@@ -66,52 +123,244 @@ public class ControllerCheckout {
     }
     
     /**
-     * Confirma o pedido e persiste no banco (pedido + itens).
+     * Cota a taxa de entrega para uma área.
+     * Usa o {@link DeliveryFeeEngine}: taxa por distância quando a confeitaria e a área têm localização,
+     * ou a taxa fixa da área caso contrário.
+     * @param area área do endereço de entrega (pode ser null)
+     * @return taxa de entrega (0.0 se não houver área)
+     * @throws DataAccessException se ocorrer falha ao carregar as áreas na primeira cotação
+     */
+    public double quoteDeliveryFee(Area area) throws DataAccessException {
+        if (area == null) return 0.0;
+        return deliveryFeeEngine().quote(area);
+    }
+
+    /**
+     * Retorna o motor de taxa, montando-o na primeira chamada.
+     * @return motor de taxa de entrega
+     * @throws DataAccessException se ocorrer falha ao carregar as áreas
+     */
+    private static DeliveryFeeEngine deliveryFeeEngine() throws DataAccessException {
+        DeliveryFeeEngine engine = feeEngine;
+        if (engine == null) {
+            try {
+                engine = DeliveryFeeEngine.fromEnvironment(new RepositoryArea().findAllArea());
+            } catch (SQLException e) {
+                throw new DataAccessException("Erro ao carregar áreas de entrega.", e);
+            }
+            feeEngine = engine;
+        }
+        return engine;
+    }
+
+    /**
+     * Descarta o motor de taxa em cache (a próxima cotação recarrega as áreas).
+     */
+    public static void invalidateDeliveryFees() {
+        feeEngine = null;
+    }
+
+    /**
+     * Retorna as regras de promoção compiladas, recarregando-as se a tabela mudou.
+     *
+     * Funcionamento:
+     * 1. Na primeira chamada, carrega e compila as regras.
+     * 2. Depois, no máximo uma vez a cada PROMOTION_CHECK_MS, consulta a impressão digital da tabela
+     *    (quantidade de linhas e última alteração); se mudou, recompila e troca a referência.
+     * 3. Enquanto uma thread recompila, as demais continuam usando as regras atuais.
+     *
+     * @return regras compiladas
+     * @throws DataAccessException se ocorrer falha ao carregar as regras pela primeira vez
+     */
+    private static PromotionEngine promotionEngine() throws DataAccessException {
+        PromotionEngine engine = promotions;
+        if (engine != null && System.nanoTime() - promotionsCheckedAt < PROMOTION_CHECK_MS * 1_000_000L) return engine;
+
+        synchronized (PROMOTION_LOCK) {
+            engine = promotions;
+            if (engine != null && System.nanoTime() - promotionsCheckedAt < PROMOTION_CHECK_MS * 1_000_000L) return engine;
+
+            RepositoryPromotion repo = new RepositoryPromotion();
+            try {
+                String fingerprint = repo.findFingerprint();
+                if (engine == null || !fingerprint.equals(promotionsFingerprint)) {
+                    engine = PromotionEngine.compile(repo.findActivePromotion());
+                    promotions = engine;
+                    promotionsFingerprint = fingerprint;
+                }
+            } catch (SQLException e) {
+                if (engine == null) throw new DataAccessException("Erro ao carregar promoções.", e);
+                System.err.println("Falha ao recarregar promoções (mantidas as atuais): " + e.getMessage());
+            }
+            promotionsCheckedAt = System.nanoTime();
+            return engine;
+        }
+    }
+
+    /**
+     * Descarta as regras de promoção em cache (a próxima cotação recarrega da tabela).
+     */
+    public static void invalidatePromotions() {
+        synchronized (PROMOTION_LOCK) {
+            promotions = null;
+            promotionsFingerprint = null;
+        }
+    }
+
+    /**
+     * Lê PROMOTION_RELOAD_SECONDS.
+     * @return intervalo em milissegundos (padrão 30 s)
+     */
+    private static long readReloadMillis() {
+        String raw = System.getenv("PROMOTION_RELOAD_SECONDS");
+        try {
+            return raw != null && !raw.isBlank() ? Math.max(0L, Long.parseLong(raw.trim())) * 1000L : 30_000L;
+        } catch (NumberFormatException e) {
+            return 30_000L;
+        }
+    }
+
+    /**
+     * Cota o checkout de uma versão do carrinho.
+     *
+     * Funcionamento:
+     * 1. Se a última cotação for da mesma versão do carrinho, área, cupom e regras de promoção, e nenhuma
+     *    promoção tiver começado ou terminado desde então ({@link CheckoutQuote#isValidAt(long)}), reaproveita-a.
+     * 2. Caso contrário, carrega cada produto uma vez, monta a tabela de preços ({@link PricingEngine})
+     *    e precifica as linhas em centavos.
+     * 3. Aplica as promoções ({@link PromotionEngine}) às linhas e cota a taxa de entrega da área.
+     * 4. Itens inválidos (id nulo, qty menor ou igual a 0) ficam fora da cotação.
+     * 5. Produtos retirados do catálogo ou excluídos também ficam fora das linhas, mas são listados
+     *    na cotação ({@link CheckoutQuote#getUnavailableIds()}, com o nome para o aviso): a tela deve
+     *    tirá-los do carrinho e avisar o cliente, e {@link #confirmOrder} recusa a cotação enquanto houver algum.
+     *
+     * Deve ser chamado fora da EDT.
+     * @param cartItems cópia dos itens do carrinho (productId → quantidade)
+     * @param cartVersion versão do carrinho em que a cópia foi tirada ({@link app.CartSession#version()})
+     * @param area área do endereço de entrega (pode ser null)
+     * @param coupon cupom informado pelo cliente (null ou vazio se nenhum)
+     * @return cotação
+     * @throws ValidationException se o cupom informado não existir
+     * @throws DataAccessException se ocorrer falha ao carregar produtos, áreas ou promoções
+     */
+    public CheckoutQuote quote(Map<Integer, Integer> cartItems, long cartVersion, Area area, String coupon)
+            throws ValidationException, DataAccessException {
+        Integer areaId = area != null ? area.getId() : null;
+        String couponKey = PromotionEngine.normalizeCoupon(coupon);
+        PromotionEngine rules = promotionEngine();
+
+        if (couponKey != null && !rules.hasCoupon(couponKey))
+            throw new ValidationException("Cupom inválido ou expirado.");
+
+        long now = System.currentTimeMillis();
+        CheckoutQuote cached = lastQuote;
+        if (cached != null && cached.getCartVersion() == cartVersion && Objects.equals(cached.getAreaId(), areaId)
+                && Objects.equals(cached.getCoupon(), couponKey) && cached.promotions == rules && cached.isValidAt(now)) {
+            return cached;
+        }
+
+        int n = cartItems != null ? cartItems.size() : 0;
+        int[] ids = new int[n];
+        int[] qtys = new int[n];
+        int[] sizeIds = new int[n];
+        int[] levelIds = new int[n];
+        List<Product> products = new ArrayList<>(n);
+        int count = 0;
+        int[] unavailableIds = new int[n];
+        List<String> unavailableNames = new ArrayList<>();
+
+        try {
+            if (cartItems != null) {
+                for (Map.Entry<Integer, Integer> entry : cartItems.entrySet()) {
+                    Integer productId = entry.getKey();
+                    Integer qty = entry.getValue();
+                    if (productId == null || qty == null || qty <= 0) continue;
+
+                    Product p = repoProduct.findByIdProduct(productId);
+                    if (p == null) {
+                        String name = repoProduct.findNameById(productId);
+                        unavailableIds[unavailableNames.size()] = productId;
+                        unavailableNames.add(name != null ? name : "produto #" + productId);
+                        continue;
+                    }
+
+                    ids[count] = productId;
+                    qtys[count] = qty;
+                    sizeIds[count] = p.getSize() != null && p.getSize().getId() != null ? p.getSize().getId() : -1;
+                    levelIds[count] = p.getFlavor() != null && p.getFlavor().getLevel() != null
+                            && p.getFlavor().getLevel().getId() != null ? p.getFlavor().getLevel().getId() : -1;
+                    products.add(p);
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao calcular subtotal.", e);
+        }
+
+        long[] units = new long[count];
+        long subtotal = PricingEngine.of(products).priceLines(ids, qtys, count, units);
+
+        long[] discounts = new long[count];
+        long discount = rules.apply(ids, sizeIds, levelIds, qtys, units, count,
+                areaId != null ? areaId : -1, couponKey, now, discounts);
+
+        CheckoutQuote quote = new CheckoutQuote(cartVersion, areaId, couponKey, rules, rules.nextChangeAfter(now),
+                Arrays.copyOf(ids, count), Arrays.copyOf(qtys, count), units, discounts,
+                Arrays.copyOf(unavailableIds, unavailableNames.size()), unavailableNames.toArray(new String[0]),
+                subtotal, discount, PricingEngine.toCents(quoteDeliveryFee(area)));
+        lastQuote = quote;
+        return quote;
+    }
+
+    /**
+     * Confirma o pedido e persiste no banco (pedido + itens) a partir de uma cotação.
      * Valida {@code idUser} (usuário logado)
-     * Valida {@code totalPrice} (obrigatório e não negativo)
+     * Valida a cotação (existente, com itens, sem produtos indisponíveis, ainda da versão atual do carrinho
+     * e sem promoção que tenha começado ou terminado depois dela)
      * Valida {@code delivery} (forma de recebimento)
-     * Valida se {@code cartItems} não é vazio
-     * Cria o registro do pedido e obtém {@code idOrder}.
-     * Para cada item do carrinho, recarrega o produto do banco, calcula o unitário (base + size + level) e insere item em {@code order_items} com {@code price_at_moment}.
-     * Cada item ignora entradas inválidas (id nulo, qty &lt;= 0) e também ignora produtos inexistentes. 
+     * Cria o registro do pedido com o total e o desconto da cotação e obtém {@code idOrder}.
+     * Insere cada linha da cotação em {@code order_items} com o unitário cotado em {@code price_at_moment},
+     * sem recarregar os produtos.
      * @param idUser id do usuário logado
-     * @param totalPrice total do pedido (já incluindo taxa de entrega, se houver)
-     * @param delivery string indicando entrega/retirada (ex.: "Entrega", "Retirada")
+     * @param quote cotação calculada por {@link #quote(Map, long, Area, String)}
+     * @param delivery "ENTREGA" ou "RETIRADA"
      * @param observations observações do pedido (opcional)
-     * @param cartItems mapa do carrinho (productId → quantidade)
      * @return id do pedido criado
-     * @throws ValidationException se algum dado obrigatório estiver inválido
+     * @throws ValidationException se algum dado obrigatório estiver inválido, o carrinho tiver mudado
+     *         ou tiver produtos indisponíveis
      * @throws DataAccessException se ocorrer falha ao criar pedido/itens no banco
      */
     public Integer confirmOrder(Integer idUser,
-                                Double totalPrice,
+                                CheckoutQuote quote,
                                 String delivery,
-                                String observations,
-                                Map<Integer, Integer> cartItems)
+                                String observations)
             throws ValidationException, DataAccessException {
 
         if (idUser == null || idUser <= 0)
             throw new ValidationException("Usuário inválido. Faça login novamente.");
 
-        if (totalPrice == null)
-            throw new ValidationException("Total do pedido é obrigatório.");
+        if (quote != null && quote.hasUnavailable())
+            throw new ValidationException("Produtos indisponíveis no carrinho: " + quote.getUnavailableNames()
+                    + ". Remova-os para finalizar o pedido.");
+
+        if (quote == null || quote.size() == 0)
+            throw new ValidationException("Carrinho vazio. Adicione itens antes de finalizar.");
 
-        if (totalPrice < 0)
-            throw new ValidationException("Total do pedido não pode ser negativo.");
+        if (!quote.isCurrent())
+            throw new ValidationException("O carrinho ou as promoções mudaram. Abra o checkout novamente para atualizar o total.");
 
         if (delivery == null || delivery.trim().isEmpty())
             throw new ValidationException("Forma de recebimento é obrigatória.");
 
         String del = delivery.trim();
-
-        if (cartItems == null || cartItems.isEmpty())
-            throw new ValidationException("Carrinho vazio. Adicione itens antes de finalizar.");
+        boolean isDelivery = DeliveryType.ENTREGA.name().equalsIgnoreCase(del);
 
         try {
             Integer idOrder = repoOrder.createOrderAndReturnId(
                     idUser,
                     Timestamp.from(Instant.now()),
-                    totalPrice,
+                    PricingEngine.toDecimal(quote.totalCentsFor(isDelivery)),
+                    PricingEngine.toDecimal(quote.getDiscountCents()),
                     del,
                     (observations != null && observations.trim().isEmpty()) ? null : observations
             );
@@ -119,19 +368,9 @@ public class ControllerCheckout {
             if (idOrder == null)
                 throw new DataAccessException("Não foi possível criar o pedido.", null);
 
-            for (Map.Entry<Integer, Integer> entry : cartItems.entrySet()) {
-                Integer productId = entry.getKey();
-                Integer qty = entry.getValue();
-
-                if (productId == null) continue;
-                if (qty == null || qty <= 0) continue;
-
-                Product p = repoProduct.findByIdProduct(productId);
-                if (p == null) continue;
-
-                double unit = computeUnitPrice(p);
-
-                boolean okItem = repoOrderItems.createOrderItem(idOrder, productId, qty, unit);
+            for (int i = 0; i < quote.size(); i++) {
+                boolean okItem = repoOrderItems.createOrderItem(idOrder, quote.getProductId(i), quote.getQuantity(i),
+                        PricingEngine.toDecimal(quote.getUnitCents(i)));
                 if (!okItem)
                     throw new DataAccessException("Não foi possível salvar um item do pedido.", null);
             }
@@ -142,19 +381,4 @@ public class ControllerCheckout {
             throw new DataAccessException("Erro ao confirmar pedido.", e);
         }
     }
-    
-    /**
-     * Calcula o preço unitário final do produto no momento do checkout
-     * unit = basePrice + size.price + flavorLevel.price
-     * @param p produto carregado do banco (com size e flavor/level)
-     * @return preço unitário final
-     */
-    private static double computeUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-        double sizePrice = (p.getSize() != null && p.getSize().getPrice() != null) ? p.getSize().getPrice() : 0.0;
-        double levelPrice = (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null)
-                ? p.getFlavor().getLevel().getPrice() : 0.0;
-
-        return base + sizePrice + levelPrice;
-    }
-}
\ No newline at end of file
+}
@@ -2,19 +2,26 @@ package controller;
 
 import exceptions.AuthenticationException;
 import exceptions.DataAccessException;
+import exceptions.RateLimitException;
 import exceptions.ValidationException;
+import model.entities.CredentialRow;
 import model.entities.User;
 import model.repositories.RepositoryUser;
 import services.EncryptionService;
+import services.LoginRateLimiter;
 
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller responsável pelo caso de uso de autenticação (Login).
  * Responsável por validar entrada (email e senha), 
+ * limitar tentativas por conta e por cliente ({@link LoginRateLimiter}, antes de qualquer consulta ou hashing),
  * consultar usuário no banco por email via {@link RepositoryUser}, 
- * verificar se a senha informada corresponde ao hash armazenado,
+ * verificar se a senha informada corresponde ao hash armazenado ({@link EncryptionService#verify(char[], String)},
+ * executado no pool limitado de hashing), atualizar hashes antigos após um login bem-sucedido,
  * lançar exceções de domínio ({@link ValidationException}, {@link AuthenticationException})
  * e encapsular erros técnicos em {@link DataAccessException}.
  * este controller limpa o array de senha ({@code char[]}) no bloco {@code finally} para reduzir o tempo de permanência da senha em memória.
@@ -23,9 +30,14 @@ public class ControllerLogin {
 	
 	/**
 	 * Repositório para leitura de usuários
-	 * Usado para buscar o usuário pelo email (ex.: {@code findByEmailUser})
+	 * Usado para buscar o usuário pelo email (credenciais via {@code findCredentialByEmail})
 	 */
     private final RepositoryUser repoUser;
+
+    /**
+     * Limitador de tentativas (por e-mail e por cliente).
+     */
+    private final LoginRateLimiter limiter;
     
     
     /**
@@ -33,7 +45,7 @@ public class ControllerLogin {
      * Cria uma instância concreta de {@link RepositoryUser}.
      */
     public ControllerLogin() {
-        this.repoUser = new RepositoryUser();
+        this(new RepositoryUser(), LoginRateLimiter.getDefault());
     }
     
     
@@ -42,29 +54,64 @@ public class ControllerLogin {
      * @param repoUser repositório a ser usado pelo controller (não deve ser null)
      */
     public ControllerLogin(RepositoryUser repoUser) {
+        this(repoUser, LoginRateLimiter.getDefault());
+    }
+
+    /**
+     * Construtor com injeção do repositório e do limitador.
+     * @param repoUser repositório a ser usado pelo controller (não deve ser null)
+     * @param limiter limitador de tentativas (não deve ser null)
+     */
+    public ControllerLogin(RepositoryUser repoUser, LoginRateLimiter limiter) {
         this.repoUser = repoUser;
+        this.limiter = limiter;
     }
     
+    /**
+     * Realiza login a partir desta máquina ({@link LoginRateLimiter#localClient()}).
+     * Ver {@link #login(String, char[], String)}.
+     * @param email email digitado
+     * @param password senha digitada (em char[] para permitir limpeza)
+     * @return usuário autenticado
+     * @throws ValidationException se email/senha estiverem vazios
+     * @throws RateLimitException se houver tentativas demais para a conta ou para o cliente
+     * @throws AuthenticationException se credenciais forem inválidas
+     * @throws DataAccessException se ocorrer falha de banco ou erro inesperado
+     */
+    public User login(String email, char[] password)
+            throws ValidationException, RateLimitException, AuthenticationException, DataAccessException {
+        return login(email, password, LoginRateLimiter.localClient());
+    }
+
     /**
      * Realiza login (autenticação) validando credenciais
      * Valida se o email foi informado e normaliza com {@code trim()}.
-     * Valida se o email foi informado e normaliza com {@code trim()}.
-     * Busca o usuário no banco por email ({@link RepositoryUser#findByEmailUser(String)})
-     * Se não existir, lança {@link AuthenticationException}.
-     * Gera um hash da senha digitada e compara com o hash salvo
+     * Consulta o {@link LoginRateLimiter} (por e-mail e por cliente) antes de qualquer consulta ou hashing;
+     * se não houver tentativa disponível, lança {@link RateLimitException}.
+     * Busca as credenciais no banco por email ({@link RepositoryUser#findCredentialByEmail(String)})
+     * Verifica a senha digitada contra o hash salvo (mesmo salt do hash salvo) no pool de hashing,
+     * aguardando o resultado; se o pool estiver saturado, pede para tentar novamente.
+     * Se o e-mail não existir, verifica do mesmo jeito contra um hash isca ({@link EncryptionService#decoyHash()})
+     * e lança {@link AuthenticationException}: a resposta leva o mesmo tempo de uma senha errada,
+     * então o tempo não revela quais e-mails estão cadastrados.
+     * Se a senha conferir e o hash estiver desatualizado ({@link EncryptionService#needsRehash(String)}),
+     * grava o hash novo gerado na mesma tarefa ({@link #upgradeHash(Integer, String)}).
      * Se não bater, lança {@link AuthenticationException}
-     * Se bater, retorna o {@link User} autenticado.
+     * Se bater, devolve as tentativas da conta e retorna o {@link User} autenticado, sem o hash da senha
+     * ({@link CredentialRow#toUser()}): o hash não fica na sessão.
      * {@link SQLException} e outras exceções inesperadas viram {@link DataAccessException}.
      * ao final, o conteúdo do array {@code password} é limpo.
      * @param email email digitado
      * @param password senha digitada (em char[] para permitir limpeza)
+     * @param clientId identificação do cliente que tenta entrar (ex.: nome da máquina)
      * @return usuário autenticado
      * @throws ValidationException se email/senha estiverem vazios
+     * @throws RateLimitException se houver tentativas demais para a conta ou para o cliente
      * @throws AuthenticationException se credenciais forem inválidas
      * @throws DataAccessException se ocorrer falha de banco ou erro inesperado
      */
-    public User login(String email, char[] password)
-            throws ValidationException, AuthenticationException, DataAccessException {
+    public User login(String email, char[] password, String clientId)
+            throws ValidationException, RateLimitException, AuthenticationException, DataAccessException {
 
         if (email == null || email.trim().isEmpty())
             throw new ValidationException("E-mail é obrigatório.");
@@ -74,17 +121,41 @@ public class ControllerLogin {
         if (password == null || password.length == 0)
             throw new ValidationException("Senha é obrigatória.");
 
+        long waitSeconds = limiter.tryAcquire(em, clientId);
+        if (waitSeconds > 0) {
+            Arrays.fill(password, '\0');
+            throw new RateLimitException("Muitas tentativas de login. Tente novamente em " + waitSeconds + " s.", waitSeconds);
+        }
+
         try {
-            User user = repoUser.findByEmailUser(em);
-            if (user == null) throw new AuthenticationException("E-mail ou senha inválidos.");
+            CredentialRow credential = repoUser.findCredentialByEmail(em);
+            String storedHash = credential != null ? credential.getPasswordHash() : EncryptionService.decoyHash();
+
+            Future<EncryptionService.Verification> check;
+            try {
+                check = EncryptionService.verifyAsync(password, storedHash);
+            } catch (RejectedExecutionException e) {
+                throw new AuthenticationException("Muitos logins ao mesmo tempo. Tente novamente em instantes.");
+            }
 
-            String typedHash = EncryptionService.hashPassword(password);
-            boolean ok = typedHash != null && typedHash.equals(user.getPasswordHash());
+            EncryptionService.Verification result;
+            try {
+                result = check.get();
+            } catch (InterruptedException e) {
+                check.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new AuthenticationException("Login cancelado.");
+            }
 
-            if (!ok) throw new AuthenticationException("E-mail ou senha inválidos.");
+            if (credential == null || !result.matches()) throw new AuthenticationException("E-mail ou senha inválidos.");
 
-            return user;
+            limiter.onSuccess(em);
+            if (result.getUpgradedHash() != null) upgradeHash(credential.getIdUser(), result.getUpgradedHash());
 
+            return credential.toUser();
+
+        } catch (AuthenticationException e) {
+            throw e;
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao acessar o banco durante o login.", e);
         } catch (Exception e) {
@@ -93,4 +164,18 @@ public class ControllerLogin {
             Arrays.fill(password, '\0');
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Grava o hash atualizado de um usuário após um login bem-sucedido.
+     * Falhas só são registradas: o login não depende da atualização, e ela é tentada de novo no próximo login.
+     * @param idUser id do usuário autenticado
+     * @param newHash hash no formato atual
+     */
+    private void upgradeHash(Integer idUser, String newHash) {
+        try {
+            repoUser.updatePasswordHash(idUser, newHash);
+        } catch (SQLException e) {
+            System.err.println("Falha ao atualizar o hash da senha do usuário " + idUser + ": " + e.getMessage());
+        }
+    }
+}
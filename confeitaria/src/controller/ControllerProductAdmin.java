@@ -1,25 +1,36 @@
 package controller;
 
+import exceptions.ConflictException;
 import exceptions.DataAccessException;
 import exceptions.ValidationException;
 import model.entities.Flavor;
 import model.entities.FlavorLevel;
 import model.entities.Product;
+import model.entities.ProductListRow;
 import model.entities.Size;
 import model.factories.FlavorFactory;
 import model.factories.ProductFactory;
+import model.repositories.RepositoryCatalogBulk;
+import model.repositories.RepositoryCatalogBulk.Filter;
+import model.repositories.RepositoryCatalogBulk.Target;
 import model.repositories.RepositoryFlavor;
 import model.repositories.RepositoryFlavorLevel;
 import model.repositories.RepositoryProduct;
 import model.repositories.RepositorySize;
+import services.CacheRegistry;
+import services.CacheRegistry.Scope;
+import services.FlavorLookup;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
 
 /**
  * Controller responsável pela View de cadastro de produtos (Admin).
  * Centraliza as operações administrativas relacionadas ao catálogo:
- * listar níveis de sabor, listar tamanhos, listar produtos, criar produto com novo sabor e excluir produto.
+ * listar níveis de sabor, listar tamanhos, listar produtos, criar produto (com sabor novo ou já cadastrado) e excluir produto.
+ * Também oferece as operações em lote (reajuste de preços, retirada e exclusão de produtos),
+ * cada uma com prévia da quantidade de linhas afetadas.
  * Este controller é chamado pela ViewProducts, evitando que a UI faça consultas SQL diretamente.
  */
 public class ControllerProductAdmin {
@@ -32,7 +43,7 @@ public class ControllerProductAdmin {
 
     /**
      * Repositório de sabores.
-     * Usado para inserir Flavor antes de inserir um Product.
+     * Usado para gravar (ou reaproveitar) o Flavor antes de inserir um Product.
      */
     private final RepositoryFlavor repoFlavor;
 
@@ -48,6 +59,22 @@ public class ControllerProductAdmin {
      */
     private final RepositorySize repoSize;
 
+    /**
+     * Repositório das operações em lote do catálogo.
+     * Usado no reajuste de preços e na retirada/exclusão de vários produtos de uma vez.
+     */
+    private final RepositoryCatalogBulk repoBulk;
+
+    /**
+     * Sabores já cadastrados por nome e nível, carregados na primeira consulta e compartilhados
+     * entre as telas. Usado pelo formulário para avisar quando o sabor digitado será reaproveitado.
+     */
+    private static volatile FlavorLookup flavorLookup;
+
+    static {
+        CacheRegistry.register("productAdmin.flavorLookup", ControllerProductAdmin::invalidateFlavorLookup, CacheRegistry.Scope.CATALOG);
+    }
+
     /**
      * Construtor padrão.
      * Instancia os repositórios concretos usados pelo controller.
@@ -57,6 +84,7 @@ public class ControllerProductAdmin {
         this.repoFlavor = new RepositoryFlavor();
         this.repoLevel = new RepositoryFlavorLevel();
         this.repoSize = new RepositorySize();
+        this.repoBulk = new RepositoryCatalogBulk();
     }
 
     /**
@@ -114,26 +142,143 @@ public class ControllerProductAdmin {
     }
 
     /**
-     * Cria um produto e, junto, cria um novo sabor associado ao nível selecionado.
+     * Conta os produtos cadastrados (usado pela tabela paginada da tela admin).
+     *
+     * @return quantidade de produtos
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int countProducts() throws DataAccessException {
+        try {
+            return repoProduct.countProduct();
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao contar produtos.", e);
+        }
+    }
+
+    /**
+     * Lista uma página de produtos (mais recentes primeiro).
+     *
+     * Funcionamento:
+     * 1. Busca a página no repositório de produtos, só com as colunas da tabela ({@link ProductListRow}).
+     * 2. Converte SQLException em DataAccessException.
+     *
+     * @param offset índice do primeiro produto
+     * @param limit quantidade máxima de produtos
+     * @return linhas da página
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public List<ProductListRow> listProductsPage(int offset, int limit) throws DataAccessException {
+        try {
+            return repoProduct.findPageProductRow(offset, limit);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao listar produtos.", e);
+        }
+    }
+
+    /**
+     * Busca produtos por texto (nome, sabor e descrições), mais relevantes primeiro.
+     *
+     * Funcionamento:
+     * 1. Executa a busca textual paginada no repositório (índice GIN sobre search_vector),
+     *    só com as colunas da tabela ({@link ProductListRow}).
+     * 2. Converte SQLException em DataAccessException.
+     *
+     * @param query texto da busca
+     * @param offset índice do primeiro resultado
+     * @param limit quantidade máxima de resultados
+     * @return linhas da página de resultados
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public List<ProductListRow> searchProductsPage(String query, int offset, int limit) throws DataAccessException {
+        try {
+            return repoProduct.searchProductRow(query != null ? query.trim() : "", offset, limit);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao buscar produtos.", e);
+        }
+    }
+
+    /**
+     * Conta os produtos encontrados pela busca textual.
+     *
+     * @param query texto da busca
+     * @return quantidade de resultados
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int countSearchProducts(String query) throws DataAccessException {
+        try {
+            return repoProduct.countSearchProduct(query != null ? query.trim() : "");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao buscar produtos.", e);
+        }
+    }
+
+    /**
+     * Retorna a consulta de sabores já cadastrados.
+     * Na primeira chamada carrega os sabores do banco e monta o {@link FlavorLookup};
+     * nas seguintes devolve a mesma consulta, sem acessar o banco.
+     *
+     * @return consulta de sabores
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public FlavorLookup loadFlavorLookup() throws DataAccessException {
+        FlavorLookup lookup = flavorLookup;
+        if (lookup == null) {
+            try {
+                lookup = new FlavorLookup(repoFlavor.findAllFlavor());
+            } catch (SQLException e) {
+                throw new DataAccessException("Erro ao carregar sabores.", e);
+            }
+            flavorLookup = lookup;
+        }
+        return lookup;
+    }
+
+    /**
+     * Busca o sabor já cadastrado com o nome e o nível informados (sem diferença de maiúsculas).
+     * Consulta só a memória via {@link #loadFlavorLookup()}.
+     *
+     * @param flavorName nome do sabor digitado
+     * @param level nível do sabor selecionado
+     * @return o sabor existente ou null se ainda não existir
+     * @throws DataAccessException se houver falha ao carregar os sabores
+     */
+    public Flavor findExistingFlavor(String flavorName, FlavorLevel level) throws DataAccessException {
+        if (level == null) return null;
+        return loadFlavorLookup().find(flavorName, level.getId());
+    }
+
+    /**
+     * Descarta a consulta de sabores em cache (a próxima consulta recarrega do banco).
+     */
+    public static void invalidateFlavorLookup() {
+        flavorLookup = null;
+    }
+
+    /**
+     * Cria um produto com o sabor informado, reaproveitando o sabor se ele já existir no nível selecionado.
      *
      * Funcionamento:
      * 1. Valida o preço base.
-     * 2. Cria um novo Flavor via {@link FlavorFactory}.
-     * 3. Persiste o sabor via {@link RepositoryFlavor#createFlavorAndReturnId(Flavor)} e obtém o id gerado.
-     * 4. Cria um Product via {@link ProductFactory} usando o Flavor recém-criado.
-     * 5. Persiste o produto via {@link RepositoryProduct#createProduct(Product)}.
-     * 6. Converte SQLException em DataAccessException.
+     * 2. Cria o Flavor via {@link FlavorFactory}.
+     * 3. Grava o sabor via {@link RepositoryFlavor#upsertFlavorAndReturnId(Flavor)}: se já existir um sabor
+     *    com o mesmo nome (sem diferença de maiúsculas) e nível, o id dele é devolvido e nada é duplicado.
+     * 4. Atualiza a consulta de sabores em cache, se ela já tiver sido carregada.
+     * 5. Cria um Product via {@link ProductFactory} usando o Flavor.
+     * 6. Persiste o produto via {@link RepositoryProduct#createProductAndReturnId(Product)}.
+     * 7. Devolve um {@link CatalogChange} INSERTED com o produto completo (a tela insere só essa linha).
+     * 8. Converte SQLException em DataAccessException.
      *
      * @param productName nome do produto
      * @param basePrice preço base (obrigatório)
-     * @param flavorName nome do sabor a criar
+     * @param flavorName nome do sabor (novo ou já cadastrado)
      * @param level nível do sabor selecionado
      * @param size tamanho selecionado
      * @param description descrição opcional
+     * @return evento com o produto inserido
      * @throws ValidationException se dados obrigatórios estiverem inválidos
      * @throws DataAccessException se ocorrer falha ao salvar no banco
      */
-    public void createProductWithNewFlavor(String productName,
+    public CatalogChange createProductWithNewFlavor(String productName,
                                            Double basePrice,
                                            String flavorName,
                                            FlavorLevel level,
@@ -144,18 +289,31 @@ public class ControllerProductAdmin {
         try {
             if (basePrice == null) throw new ValidationException("Preço base é obrigatório.");
 
-            Flavor newFlavor = FlavorFactory.create(null, flavorName, level, null);
-            Integer newFlavorId = repoFlavor.createFlavorAndReturnId(newFlavor);
-            if (newFlavorId == null) {
-                throw new DataAccessException("Não foi possível criar o sabor.", null);
+            Flavor flavor = FlavorFactory.create(null, flavorName, level, null);
+            Integer flavorId = repoFlavor.upsertFlavorAndReturnId(flavor);
+            if (flavorId == null) {
+                throw new DataAccessException("Não foi possível gravar o sabor.", null);
             }
-            newFlavor.setId(newFlavorId);
+            flavor.setId(flavorId);
 
-            Product product = ProductFactory.create(null, productName, newFlavor, size, basePrice, description);
-            boolean ok = repoProduct.createProduct(product);
-            if (!ok) {
+            FlavorLookup lookup = flavorLookup;
+            if (lookup != null) {
+                Flavor cached = lookup.find(flavor.getName(), level.getId());
+                if (cached != null && flavorId.equals(cached.getId())) {
+                    flavor = cached;
+                } else {
+                    flavorLookup = lookup.with(flavor);
+                }
+            }
+
+            Product product = ProductFactory.create(null, productName, flavor, size, basePrice, description);
+            Integer newProductId = repoProduct.createProductAndReturnId(product);
+            if (newProductId == null) {
                 throw new DataAccessException("Não foi possível salvar o produto.", null);
             }
+            product.setId(newProductId);
+
+            return CatalogChange.inserted(product);
 
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao salvar produto no banco.", e);
@@ -169,13 +327,15 @@ public class ControllerProductAdmin {
      * 1. Valida se product e product.getId() existem.
      * 2. Chama {@link RepositoryProduct#deleteProduct(Product)}.
      * 3. Se o repositório retornar false, lança DataAccessException.
-     * 4. Converte SQLException em DataAccessException.
+     * 4. Devolve um {@link CatalogChange} DELETED com o id removido.
+     * 5. Converte SQLException em DataAccessException.
      *
      * @param product produto selecionado na tabela da tela admin
+     * @return evento com o id do produto removido
      * @throws ValidationException se produto/id forem inválidos
      * @throws DataAccessException se ocorrer falha ao excluir no banco
      */
-    public void deleteProduct(Product product) throws ValidationException, DataAccessException {
+    public CatalogChange deleteProduct(Product product) throws ValidationException, DataAccessException {
         if (product == null || product.getId() == null) {
             throw new ValidationException("Selecione um produto válido para excluir.");
         }
@@ -185,8 +345,195 @@ public class ControllerProductAdmin {
             if (!ok) {
                 throw new DataAccessException("Não foi possível excluir o produto.", null);
             }
+            return CatalogChange.deleted(product.getId());
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao excluir produto no banco.", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Prévia de um reajuste em lote: quantas linhas seriam alteradas.
+     *
+     * @param target cadastro a reajustar (áreas, tamanhos, níveis de sabor ou produtos)
+     * @param filter critérios de seleção (null = todas as linhas)
+     * @return quantidade de linhas que o reajuste alteraria
+     * @throws ValidationException se o filtro usar critérios de produto em outro cadastro
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int previewReprice(Target target, Filter filter) throws ValidationException, DataAccessException {
+        validateTarget(target, filter);
+        try {
+            return repoBulk.countReprice(target, filter);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao calcular a prévia do reajuste.", e);
+        }
+    }
+
+    /**
+     * Reajusta em lote o preço das linhas selecionadas (ex.: todas as áreas +R$2, produtos "Especial" +10%).
+     *
+     * Funcionamento:
+     * 1. Valida o reajuste: percentual e/ou valor, e o preço não pode ser zerado por percentual (mínimo > -100%).
+     * 2. Executa um único UPDATE via {@link RepositoryCatalogBulk#reprice}:
+     *    {@code preço = max(0, preço * (1 + percentual/100) + valor)}, arredondado em centavos.
+     * 3. Se a quantidade alterada for diferente da prévia, nada é gravado e lança ConflictException.
+     * 4. Descarta de uma vez os caches que dependem do cadastro alterado ({@link CacheRegistry}).
+     * 5. Converte SQLException em DataAccessException.
+     *
+     * @param target cadastro a reajustar
+     * @param filter critérios de seleção (null = todas as linhas)
+     * @param percent percentual de reajuste (ex.: 10 para +10%, -5 para -5%; null = 0)
+     * @param amount valor somado ao preço em reais (ex.: 2 para +R$2; null = 0)
+     * @param expected quantidade mostrada na prévia ({@link #previewReprice})
+     * @return quantidade de linhas alteradas
+     * @throws ValidationException se o reajuste ou o filtro forem inválidos
+     * @throws ConflictException se o catálogo mudou desde a prévia
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int repriceBulk(Target target, Filter filter, Double percent, Double amount, int expected)
+            throws ValidationException, ConflictException, DataAccessException {
+
+        validateTarget(target, filter);
+        double pct = percent != null ? percent : 0.0;
+        double add = amount != null ? amount : 0.0;
+        if (pct == 0.0 && add == 0.0) throw new ValidationException("Informe o percentual ou o valor do reajuste.");
+        if (pct <= -100.0) throw new ValidationException("O percentual de redução deve ser menor que 100%.");
+
+        BigDecimal factor = BigDecimal.ONE.add(BigDecimal.valueOf(pct).movePointLeft(2));
+        try {
+            int changed = repoBulk.reprice(target, filter, factor, BigDecimal.valueOf(add), expected);
+            if (changed < 0) throw changedSincePreview();
+            CacheRegistry.invalidate(target == Target.AREA ? Scope.AREAS : Scope.CATALOG);
+            return changed;
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao reajustar preços no banco.", e);
+        }
+    }
+
+    /**
+     * Prévia de uma retirada em lote: quantos produtos seriam retirados do catálogo.
+     *
+     * @param filter critérios de seleção (ao menos um)
+     * @return quantidade de produtos
+     * @throws ValidationException se nenhum critério for informado
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int previewRetire(Filter filter) throws ValidationException, DataAccessException {
+        requireCriteria(filter);
+        try {
+            return repoBulk.countRetire(filter);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao calcular a prévia da retirada.", e);
+        }
+    }
+
+    /**
+     * Retira do catálogo, em lote, os produtos selecionados (ex.: produtos de uma estação).
+     *
+     * Funcionamento:
+     * 1. Exige ao menos um critério (não retira o catálogo inteiro por engano).
+     * 2. Marca {@code retired_at} em um único UPDATE: os produtos somem da loja e do carrinho,
+     *    mas continuam nos pedidos antigos.
+     * 3. Se a quantidade for diferente da prévia, nada é gravado e lança ConflictException.
+     * 4. Descarta os caches do catálogo ({@link CacheRegistry}).
+     *
+     * @param filter critérios de seleção (ao menos um)
+     * @param expected quantidade mostrada na prévia ({@link #previewRetire})
+     * @return quantidade de produtos retirados
+     * @throws ValidationException se nenhum critério for informado
+     * @throws ConflictException se o catálogo mudou desde a prévia
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int retireProducts(Filter filter, int expected)
+            throws ValidationException, ConflictException, DataAccessException {
+        requireCriteria(filter);
+        try {
+            int changed = repoBulk.retireProducts(filter, expected);
+            if (changed < 0) throw changedSincePreview();
+            CacheRegistry.invalidate(Scope.CATALOG);
+            return changed;
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao retirar produtos no banco.", e);
+        }
+    }
+
+    /**
+     * Prévia de uma exclusão em lote: quantos dos produtos selecionados podem ser excluídos
+     * (os que nunca foram pedidos; os demais só podem ser retirados).
+     *
+     * @param filter critérios de seleção (ao menos um)
+     * @return quantidade de produtos excluíveis
+     * @throws ValidationException se nenhum critério for informado
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int previewDelete(Filter filter) throws ValidationException, DataAccessException {
+        requireCriteria(filter);
+        try {
+            return repoBulk.countDelete(filter);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao calcular a prévia da exclusão.", e);
+        }
+    }
+
+    /**
+     * Exclui em lote os produtos selecionados que nunca foram pedidos.
+     *
+     * Funcionamento:
+     * 1. Exige ao menos um critério.
+     * 2. Executa um único DELETE; produtos com pedidos ficam de fora.
+     * 3. Se a quantidade for diferente da prévia, nada é excluído e lança ConflictException.
+     * 4. Descarta os caches do catálogo ({@link CacheRegistry}).
+     *
+     * @param filter critérios de seleção (ao menos um)
+     * @param expected quantidade mostrada na prévia ({@link #previewDelete})
+     * @return quantidade de produtos excluídos
+     * @throws ValidationException se nenhum critério for informado
+     * @throws ConflictException se o catálogo mudou desde a prévia
+     * @throws DataAccessException se houver falha ao acessar o banco
+     */
+    public int deleteProducts(Filter filter, int expected)
+            throws ValidationException, ConflictException, DataAccessException {
+        requireCriteria(filter);
+        try {
+            int changed = repoBulk.deleteProducts(filter, expected);
+            if (changed < 0) throw changedSincePreview();
+            CacheRegistry.invalidate(Scope.CATALOG);
+            return changed;
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao excluir produtos no banco.", e);
+        }
+    }
+
+    /**
+     * Valida o cadastro alvo de um reajuste e o uso dos critérios de produto.
+     *
+     * @param target cadastro
+     * @param filter critérios
+     * @throws ValidationException se o cadastro faltar ou o filtro não se aplicar a ele
+     */
+    private static void validateTarget(Target target, Filter filter) throws ValidationException {
+        if (target == null) throw new ValidationException("Selecione o cadastro a reajustar.");
+        if (target != Target.PRODUCT && filter != null && filter.hasProductCriteria())
+            throw new ValidationException("Nível, tamanho e sabor só podem ser usados para filtrar produtos.");
+    }
+
+    /**
+     * Exige ao menos um critério no filtro de retirada/exclusão.
+     *
+     * @param filter critérios
+     * @throws ValidationException se o filtro estiver vazio
+     */
+    private static void requireCriteria(Filter filter) throws ValidationException {
+        if (filter == null || filter.isEmpty())
+            throw new ValidationException("Informe ao menos um critério para selecionar os produtos.");
+    }
+
+    /**
+     * Erro de prévia desatualizada (a quantidade de linhas mudou entre a prévia e a alteração).
+     *
+     * @return exceção de conflito
+     */
+    private static ConflictException changedSincePreview() {
+        return new ConflictException("O catálogo mudou desde a prévia. Refaça a prévia e confirme de novo.");
+    }
+}
@@ -0,0 +1,104 @@
+package controller;
+
+import app.CustomerProfile;
+import app.Session;
+import exceptions.DataAccessException;
+import model.repositories.RepositoryPerson;
+
+import java.sql.SQLException;
+
+/**
+ * Controller do perfil do cliente logado.
+ * Carrega pessoa, endereço e área em um único {@link CustomerProfile} e o mantém na {@link Session}.
+ *
+ * O perfil é carregado em segundo plano logo após o login ({@link #startSessionProfileLoad(String)})
+ * e só volta a ser consultado quando for editado ({@link #refreshSessionProfile()}).
+ */
+public class ControllerProfile {
+
+    /**
+     * Repositório de pessoas (consulta com JOIN de endereço e área).
+     */
+    private final RepositoryPerson repoPerson;
+
+    /**
+     * Construtor padrão.
+     * Cria uma instância concreta de {@link RepositoryPerson}.
+     */
+    public ControllerProfile() {
+        this.repoPerson = new RepositoryPerson();
+    }
+
+    /**
+     * Construtor com injeção de dependência.
+     *
+     * @param repoPerson repositório de pessoas
+     */
+    public ControllerProfile(RepositoryPerson repoPerson) {
+        this.repoPerson = repoPerson;
+    }
+
+    /**
+     * Carrega o perfil de um cliente.
+     *
+     * @param email email do cliente
+     * @return perfil carregado, ou null se não houver pessoa com esse email
+     * @throws DataAccessException se ocorrer erro SQL
+     */
+    public CustomerProfile loadProfile(String email) throws DataAccessException {
+        try {
+            return CustomerProfile.of(repoPerson.findByEmailPerson(email));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao carregar o perfil do cliente.", e);
+        }
+    }
+
+    /**
+     * Dispara a carga do perfil do usuário recém-logado em segundo plano.
+     * Deve ser chamado logo após gravar o usuário na sessão.
+     *
+     * @param email email do usuário logado
+     */
+    public void startSessionProfileLoad(String email) {
+        Session.loadProfile(() -> loadProfile(email));
+    }
+
+    /**
+     * Retorna o perfil da sessão, esperando a carga disparada no login se ela ainda estiver em andamento.
+     * Só consulta o banco se a carga do login tiver falhado (e guarda o resultado na sessão).
+     * Deve ser chamado fora da EDT.
+     *
+     * Funcionamento:
+     * 1. Se não houver usuário logado, retorna null.
+     * 2. Aguarda o perfil da sessão; se existir, retorna-o.
+     * 3. Caso contrário, carrega o perfil e o grava na sessão.
+     *
+     * @return perfil do usuário logado, ou null se não houver login ou pessoa
+     * @throws DataAccessException se ocorrer erro SQL na carga de fallback
+     */
+    public CustomerProfile getSessionProfile() throws DataAccessException {
+        if (!Session.isLoggedIn()) return null;
+
+        CustomerProfile profile = Session.awaitProfile();
+        if (profile != null) return profile;
+
+        profile = loadProfile(Session.getLoggedUser().getEmail());
+        Session.setProfile(profile);
+        return profile;
+    }
+
+    /**
+     * Recarrega o perfil do usuário logado e substitui o da sessão.
+     * Deve ser chamado (fora da EDT) depois de qualquer edição de pessoa, endereço ou área do cliente.
+     *
+     * @return perfil recarregado, ou null se não houver login
+     * @throws DataAccessException se ocorrer erro SQL
+     */
+    public CustomerProfile refreshSessionProfile() throws DataAccessException {
+        if (!Session.isLoggedIn()) return null;
+
+        CustomerProfile profile = loadProfile(Session.getLoggedUser().getEmail());
+        Session.setProfile(profile);
+        return profile;
+    }
+}
@@ -2,6 +2,7 @@ package controller;
 
 import exceptions.DataAccessException;
 import model.entities.Product;
+import model.entities.ProductListRow;
 import model.repositories.RepositoryProduct;
 
 import java.sql.SQLException;
@@ -46,21 +47,96 @@ public class ControllerShop {
     
     
     /**
-     * Lista todos os produtos cadastrados.
-     * Chama {@link RepositoryProduct#findAllProduct()} para buscar os dados do banco.
+     * Lista todos os produtos cadastrados, só com as colunas exibidas na listagem.
+     * Chama {@link RepositoryProduct#findAllProductRow()} para buscar os dados do banco.
      * Se ocorrer {@link SQLException}, converte para {@link DataAccessException}
-     * @return lista de produtos (pode ser vazia; em geral não deve ser null dependendo do repositório)
+     * @return linhas da listagem (pode ser vazia)
      * @throws DataAccessException se ocorrer falha ao acessar o banco
      */
-    public List<Product> listAllProducts() throws DataAccessException {
+    public List<ProductListRow> listAllProducts() throws DataAccessException {
         try {
-            return repoProduct.findAllProduct();
+            return repoProduct.findAllProductRow();
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao carregar produtos.", e);
         }
     }
     
     
+    /**
+     * Carrega o catálogo da loja para busca e ordenação em memória.
+     * Lê todos os produtos com {@link #listAllProducts()} e monta o {@link ShopCatalog},
+     * que já guarda as chaves de busca normalizadas.
+     * @return catálogo pronto para filtrar
+     * @throws DataAccessException se ocorrer falha ao acessar o banco
+     */
+    public ShopCatalog loadCatalog() throws DataAccessException {
+        return new ShopCatalog(listAllProducts());
+    }
+
+
+    /**
+     * Conta os produtos cadastrados (usado pela tabela paginada da loja).
+     * @return quantidade de produtos
+     * @throws DataAccessException se ocorrer falha ao acessar o banco
+     */
+    public int countProducts() throws DataAccessException {
+        try {
+            return repoProduct.countProduct();
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao contar produtos.", e);
+        }
+    }
+
+    /**
+     * Lista uma página de produtos (mais recentes primeiro).
+     * Chama {@link RepositoryProduct#findPageProductRow(int, int)}.
+     * @param offset índice do primeiro produto
+     * @param limit quantidade máxima de produtos
+     * @return linhas da página
+     * @throws DataAccessException se ocorrer falha ao acessar o banco
+     */
+    public List<ProductListRow> listProductsPage(int offset, int limit) throws DataAccessException {
+        try {
+            return repoProduct.findPageProductRow(offset, limit);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao carregar produtos.", e);
+        }
+    }
+    
+    
+    /**
+     * Busca produtos por texto no banco (nome, sabor e descrições), mais relevantes primeiro.
+     * Indicado para catálogos grandes: usa a busca textual do PostgreSQL com índice GIN
+     * ({@link RepositoryProduct#searchProductRow(String, int, int)}).
+     * @param query texto da busca (acentos e maiúsculas não importam)
+     * @param offset índice do primeiro resultado
+     * @param limit quantidade máxima de resultados
+     * @return linhas da página de resultados
+     * @throws DataAccessException se ocorrer falha ao acessar o banco
+     */
+    public List<ProductListRow> searchProducts(String query, int offset, int limit) throws DataAccessException {
+        try {
+            return repoProduct.searchProductRow(query != null ? query.trim() : "", offset, limit);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao buscar produtos.", e);
+        }
+    }
+
+    /**
+     * Conta os produtos encontrados pela busca textual.
+     * @param query texto da busca
+     * @return quantidade de resultados
+     * @throws DataAccessException se ocorrer falha ao acessar o banco
+     */
+    public int countSearchProducts(String query) throws DataAccessException {
+        try {
+            return repoProduct.countSearchProduct(query != null ? query.trim() : "");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao buscar produtos.", e);
+        }
+    }
+
+
     /**
      * Busca um produto pelo id
      * Usado principalmente quando temos apenas o id (ex.: carrinho mantém Map&lt;productId, qty&gt;).
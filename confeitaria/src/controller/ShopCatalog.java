@@ -0,0 +1,314 @@
+package controller;
+
+import model.entities.ProductListRow;
+import services.PricingEngine;
+import services.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Catálogo da loja em memória, pronto para busca e ordenação sem acessar o banco.
+ *
+ * É um retrato imutável da lista de produtos, guardado por coluna:
+ * - textos de exibição (produto, sabor, nível, tamanho) e preço base em centavos
+ * - uma chave de busca por produto, já normalizada ({@link TextNormalizer}):
+ *   "nome sabor nível tamanho" sem acentos e em minúsculas
+ * - a posição (rank) de cada produto em cada critério de ordenação, calculada uma única vez
+ *
+ * Assim cada tecla digitada na busca só percorre arrays e compara inteiros:
+ * nenhuma normalização, formatação ou comparação de String por chamada de {@link #filter}.
+ *
+ * Criado por {@link ControllerShop#loadCatalog()}.
+ */
+public final class ShopCatalog {
+
+    /**
+     * Critérios de ordenação oferecidos na tela.
+     * O texto de cada constante é o exibido no combo.
+     */
+    public enum SortKey {
+        /** Ordem original do catálogo (mais recentes primeiro). */
+        DEFAULT("Mais recentes"),
+        /** Nome do produto (A-Z). */
+        NAME("Nome"),
+        /** Sabor (A-Z). */
+        FLAVOR("Sabor"),
+        /** Nível do sabor (A-Z). */
+        LEVEL("Nível"),
+        /** Tamanho (A-Z). */
+        SIZE("Tamanho"),
+        /** Preço base crescente. */
+        PRICE_ASC("Menor preço"),
+        /** Preço base decrescente. */
+        PRICE_DESC("Maior preço");
+
+        private final String label;
+
+        SortKey(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Maior catálogo suportado: a ordenação combina dois ranks e o índice em um único long
+     * ((rank1 * n + rank2) * n + índice), que precisa caber em 63 bits.
+     */
+    private static final int MAX_SIZE = 2_000_000;
+
+    private final int size;
+    private final int[] ids;
+    private final String[] names;
+    private final String[] flavors;
+    private final String[] levels;
+    private final String[] sizes;
+    private final long[] priceCents;
+
+    /**
+     * Chave de busca normalizada de cada produto.
+     */
+    private final String[] searchKeys;
+
+    /**
+     * Rank de cada produto por critério (indexado por SortKey.ordinal()).
+     * Produtos com o mesmo valor têm o mesmo rank.
+     */
+    private final int[][] ranks;
+
+    /**
+     * Monta o catálogo a partir dos produtos, na ordem recebida.
+     *
+     * Funcionamento:
+     * 1. Copia os campos de exibição para arrays (null vira vazio; preço em centavos).
+     * 2. Normaliza a chave de busca de cada produto.
+     * 3. Calcula o rank de cada produto em cada critério de ordenação.
+     *
+     * @param products linhas da listagem de produtos
+     */
+    public ShopCatalog(List<ProductListRow> products) {
+        if (products.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("Catálogo grande demais para ordenação em memória.");
+        }
+        this.size = products.size();
+        this.ids = new int[size];
+        this.names = new String[size];
+        this.flavors = new String[size];
+        this.levels = new String[size];
+        this.sizes = new String[size];
+        this.priceCents = new long[size];
+        this.searchKeys = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            ProductListRow p = products.get(i);
+            ids[i] = p.getId() != null ? p.getId() : -1;
+            names[i] = orEmpty(p.getName());
+            flavors[i] = orEmpty(p.getFlavorName());
+            levels[i] = orEmpty(p.getLevelName());
+            sizes[i] = orEmpty(p.getSizeName());
+            priceCents[i] = PricingEngine.toCents(p.getBasePrice());
+            searchKeys[i] = TextNormalizer.normalize(names[i] + " " + flavors[i] + " " + levels[i] + " " + sizes[i]);
+        }
+
+        SortKey[] keys = SortKey.values();
+        this.ranks = new int[keys.length][];
+        for (SortKey key : keys) {
+            ranks[key.ordinal()] = computeRanks(key);
+        }
+    }
+
+    /**
+     * Filtra e ordena o catálogo.
+     *
+     * Funcionamento:
+     * 1. Normaliza a busca e separa em termos; cada termo precisa aparecer na chave do produto
+     *    (em qualquer posição: "choco grande" encontra "Bolo de Chocolate ... Grande").
+     * 2. Aplica a faixa de preço (limites inclusivos; null = sem limite).
+     * 3. Ordena pelos dois critérios, desempatando pela ordem original.
+     *
+     * @param query texto digitado (pode ser null ou vazio)
+     * @param minCents preço mínimo em centavos (ou null)
+     * @param maxCents preço máximo em centavos (ou null)
+     * @param first critério principal (null = DEFAULT)
+     * @param then critério de desempate (null = DEFAULT)
+     * @return índices dos produtos encontrados, na ordem de exibição
+     */
+    public int[] filter(String query, Long minCents, Long maxCents, SortKey first, SortKey then) {
+        String[] terms = TextNormalizer.terms(query);
+        long min = minCents != null ? minCents : Long.MIN_VALUE;
+        long max = maxCents != null ? maxCents : Long.MAX_VALUE;
+
+        int[] found = new int[size];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            long price = priceCents[i];
+            if (price < min || price > max) continue;
+            if (!matches(searchKeys[i], terms)) continue;
+            found[count++] = i;
+        }
+
+        int[] r1 = ranks[(first != null ? first : SortKey.DEFAULT).ordinal()];
+        int[] r2 = ranks[(then != null ? then : SortKey.DEFAULT).ordinal()];
+        long n = size;
+
+        long[] order = new long[count];
+        for (int k = 0; k < count; k++) {
+            int i = found[k];
+            order[k] = (r1[i] * n + r2[i]) * n + i;
+        }
+        Arrays.sort(order);
+
+        int[] result = new int[count];
+        for (int k = 0; k < count; k++) {
+            result[k] = (int) (order[k] % n);
+        }
+        return result;
+    }
+
+    /**
+     * Retorna a quantidade de produtos no catálogo.
+     *
+     * @return quantidade de produtos
+     */
+    public int size() { return size; }
+
+    /**
+     * Retorna o id do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return id do produto
+     */
+    public int getId(int i) { return ids[i]; }
+
+    /**
+     * Retorna o nome do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return nome (nunca null)
+     */
+    public String getName(int i) { return names[i]; }
+
+    /**
+     * Retorna o nome do sabor do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return sabor (nunca null)
+     */
+    public String getFlavor(int i) { return flavors[i]; }
+
+    /**
+     * Retorna o nome do nível do sabor do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return nível (nunca null)
+     */
+    public String getLevel(int i) { return levels[i]; }
+
+    /**
+     * Retorna o nome do tamanho do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return tamanho (nunca null)
+     */
+    public String getSize(int i) { return sizes[i]; }
+
+    /**
+     * Retorna o preço base, em centavos, do produto na posição informada.
+     *
+     * @param i índice no catálogo
+     * @return preço base em centavos
+     */
+    public long getPriceCents(int i) { return priceCents[i]; }
+
+    /**
+     * Verifica se todos os termos aparecem na chave.
+     *
+     * @param key chave normalizada do produto
+     * @param terms termos normalizados da busca
+     * @return true se todos aparecerem
+     */
+    private static boolean matches(String key, String[] terms) {
+        for (String term : terms) {
+            if (!key.contains(term)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calcula o rank de cada produto para um critério.
+     *
+     * @param key critério
+     * @return rank por índice do catálogo
+     */
+    private int[] computeRanks(SortKey key) {
+        int[] rank = new int[size];
+
+        switch (key) {
+            case NAME:
+                return textRanks(names);
+            case FLAVOR:
+                return textRanks(flavors);
+            case LEVEL:
+                return textRanks(levels);
+            case SIZE:
+                return textRanks(sizes);
+            case PRICE_ASC:
+            case PRICE_DESC: {
+                Integer[] order = indexes();
+                Arrays.sort(order, Comparator.comparingLong(i -> priceCents[i]));
+                int r = 0;
+                for (int k = 0; k < size; k++) {
+                    if (k > 0 && priceCents[order[k]] != priceCents[order[k - 1]]) r = k;
+                    rank[order[k]] = key == SortKey.PRICE_ASC ? r : size - 1 - r;
+                }
+                return rank;
+            }
+            default:
+                for (int i = 0; i < size; i++) rank[i] = i;
+                return rank;
+        }
+    }
+
+    /**
+     * Calcula ranks por texto, sem diferença de acentos e maiúsculas.
+     *
+     * @param values textos de exibição
+     * @return rank por índice do catálogo
+     */
+    private int[] textRanks(String[] values) {
+        String[] normalized = new String[size];
+        for (int i = 0; i < size; i++) normalized[i] = TextNormalizer.normalize(values[i]);
+
+        Integer[] order = indexes();
+        Arrays.sort(order, Comparator.comparing(i -> normalized[i]));
+
+        int[] rank = new int[size];
+        int r = 0;
+        for (int k = 0; k < size; k++) {
+            if (k > 0 && !normalized[order[k]].equals(normalized[order[k - 1]])) r = k;
+            rank[order[k]] = r;
+        }
+        return rank;
+    }
+
+    /**
+     * Retorna os índices 0..size-1 (para ordenação com Comparator).
+     *
+     * @return índices
+     */
+    private Integer[] indexes() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        return order;
+    }
+
+    private static String orEmpty(String s) {
+        return s != null ? s : "";
+    }
+}
@@ -0,0 +1,12 @@
+package exceptions;
+
+public class RateLimitException extends AppException {
+    private final long retryAfterSeconds;
+
+    public RateLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
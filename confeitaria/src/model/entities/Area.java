@@ -4,11 +4,14 @@ import java.util.List;
 
 /**
  * Área/região de entrega (bairro ou zona). Usada no endereço para cálculo de taxa (fee).
+ * O centroide (latitude/longitude) é opcional e, quando existe, permite calcular a taxa pela distância.
  */
 public class Area {
 	private Integer id;
     private String name;
     private double fee;
+    private Double latitude;
+    private Double longitude;
 
     public Area() {}
 
@@ -41,6 +44,31 @@ public class Area {
         this.fee = fee;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Indica se a área tem centroide (latitude e longitude) cadastrado.
+     *
+     * @return true se latitude e longitude estiverem preenchidas
+     */
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
 
     @Override
     public String toString() {
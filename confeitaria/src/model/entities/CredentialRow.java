@@ -0,0 +1,103 @@
+package model.entities;
+
+/**
+ * DTO (objeto de transferência de dados) com as credenciais de um usuário.
+ *
+ * É a única leitura que traz {@code password_hash}: usada só pelo login para conferir a senha.
+ * Depois da conferência, o controller devolve {@link #toUser()}, sem o hash,
+ * para que ele não fique guardado na sessão nem circule pelas telas.
+ */
+public class CredentialRow {
+
+    /**
+     * Id do usuário (tabela user).
+     */
+    private final Integer idUser;
+
+    /**
+     * Id da pessoa (tabela person).
+     */
+    private final Integer idPerson;
+
+    /**
+     * Nome.
+     */
+    private final String firstName;
+
+    /**
+     * Sobrenome.
+     */
+    private final String lastName;
+
+    /**
+     * E-mail.
+     */
+    private final String email;
+
+    /**
+     * Hash da senha salvo no banco.
+     */
+    private final String passwordHash;
+
+    /**
+     * Constrói a linha com valores já prontos, vindos da consulta de login.
+     *
+     * @param idUser id do usuário
+     * @param idPerson id da pessoa
+     * @param firstName nome
+     * @param lastName sobrenome
+     * @param email e-mail
+     * @param passwordHash hash da senha
+     */
+    public CredentialRow(Integer idUser, Integer idPerson, String firstName, String lastName, String email,
+                         String passwordHash) {
+        this.idUser = idUser;
+        this.idPerson = idPerson;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * Retorna o id do usuário.
+     *
+     * @return id do usuário
+     */
+    public Integer getIdUser() {
+        return idUser;
+    }
+
+    /**
+     * Retorna o e-mail.
+     *
+     * @return e-mail
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Retorna o hash da senha salvo no banco.
+     *
+     * @return hash da senha
+     */
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    /**
+     * Monta o usuário autenticado, sem o hash da senha.
+     *
+     * @return usuário com ids, nome e e-mail
+     */
+    public User toUser() {
+        User user = new User();
+        user.setIdUser(idUser);
+        user.setId(idPerson);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,91 @@
+package model.entities;
+
+/**
+ * DTO (objeto de transferência de dados) de uma linha da listagem de clientes.
+ *
+ * Traz só id, nome e e-mail da pessoa: a consulta que o monta (RepositoryPerson)
+ * não faz JOIN com endereço e área, que a listagem não exibe.
+ * Para o cadastro completo, use {@link Person} via RepositoryPerson.
+ */
+public class CustomerListRow {
+
+    /**
+     * Id da pessoa.
+     */
+    private final Integer personId;
+
+    /**
+     * Nome.
+     */
+    private final String firstName;
+
+    /**
+     * Sobrenome.
+     */
+    private final String lastName;
+
+    /**
+     * E-mail.
+     */
+    private final String email;
+
+    /**
+     * Constrói a linha com valores já prontos, geralmente vindos de uma consulta no banco.
+     *
+     * @param personId id da pessoa
+     * @param firstName nome
+     * @param lastName sobrenome
+     * @param email e-mail
+     */
+    public CustomerListRow(Integer personId, String firstName, String lastName, String email) {
+        this.personId = personId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    /**
+     * Retorna o id da pessoa.
+     *
+     * @return id da pessoa
+     */
+    public Integer getPersonId() {
+        return personId;
+    }
+
+    /**
+     * Retorna o nome.
+     *
+     * @return nome
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Retorna o sobrenome.
+     *
+     * @return sobrenome (pode ser null)
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Retorna o e-mail.
+     *
+     * @return e-mail
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Retorna nome e sobrenome juntos, para exibição.
+     *
+     * @return nome completo
+     */
+    public String getFullName() {
+        return lastName != null && !lastName.isBlank() ? firstName + " " + lastName : firstName;
+    }
+}
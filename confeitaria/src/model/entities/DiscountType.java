@@ -0,0 +1,6 @@
+package model.entities;
+
+public enum DiscountType {
+	PERCENT,
+	AMOUNT
+}
@@ -0,0 +1,164 @@
+package model.entities;
+
+/**
+ * DTO (objeto de transferência de dados) de uma linha das listagens de produtos.
+ *
+ * Usado nas tabelas da loja e da tela admin, que só exibem nome, sabor, nível, tamanho e preço.
+ * A consulta que o monta (RepositoryProduct) não traz descrições, rendimento nem peso,
+ * e não cria {@link Product}, {@link Flavor}, {@link FlavorLevel} e {@link Size} por linha.
+ * O detalhe do produto continua usando {@link Product} completo.
+ */
+public class ProductListRow {
+
+    /**
+     * Id do produto (chave da linha na tabela).
+     */
+    private final Integer id;
+
+    /**
+     * Nome do produto.
+     */
+    private final String name;
+
+    /**
+     * Nome do sabor.
+     */
+    private final String flavorName;
+
+    /**
+     * Nome do nível do sabor.
+     */
+    private final String levelName;
+
+    /**
+     * Nome do tamanho.
+     */
+    private final String sizeName;
+
+    /**
+     * Preço base do produto.
+     */
+    private final Double basePrice;
+
+    /**
+     * Preço unitário final: preço base + preço do tamanho + preço do nível.
+     */
+    private final Double unitPrice;
+
+    /**
+     * Constrói a linha com valores já prontos, geralmente vindos de uma consulta no banco.
+     *
+     * @param id id do produto
+     * @param name nome do produto
+     * @param flavorName nome do sabor
+     * @param levelName nome do nível do sabor
+     * @param sizeName nome do tamanho
+     * @param basePrice preço base
+     * @param unitPrice preço unitário final
+     */
+    public ProductListRow(Integer id, String name, String flavorName, String levelName, String sizeName,
+                          Double basePrice, Double unitPrice) {
+        this.id = id;
+        this.name = name;
+        this.flavorName = flavorName;
+        this.levelName = levelName;
+        this.sizeName = sizeName;
+        this.basePrice = basePrice;
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * Monta a linha a partir de um produto completo (ex.: produto recém-criado na tela admin).
+     *
+     * @param p produto (com flavor/level e size quando houver)
+     * @return linha da listagem
+     */
+    public static ProductListRow of(Product p) {
+        Flavor f = p.getFlavor();
+        FlavorLevel level = f != null ? f.getLevel() : null;
+        Size size = p.getSize();
+
+        double unit = value(p.getBasePrice())
+                + (size != null ? value(size.getPrice()) : 0.0)
+                + (level != null ? value(level.getPrice()) : 0.0);
+
+        return new ProductListRow(p.getId(), p.getName(),
+                f != null ? f.getName() : null,
+                level != null ? level.getName() : null,
+                size != null ? size.getName() : null,
+                p.getBasePrice(), unit);
+    }
+
+    /**
+     * Converte um preço possivelmente nulo em double.
+     *
+     * @param price preço
+     * @return preço ou 0.0
+     */
+    private static double value(Double price) {
+        return price != null ? price : 0.0;
+    }
+
+    /**
+     * Retorna o id do produto.
+     *
+     * @return id do produto
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Retorna o nome do produto.
+     *
+     * @return nome do produto
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retorna o nome do sabor.
+     *
+     * @return nome do sabor (pode ser null)
+     */
+    public String getFlavorName() {
+        return flavorName;
+    }
+
+    /**
+     * Retorna o nome do nível do sabor.
+     *
+     * @return nome do nível (pode ser null)
+     */
+    public String getLevelName() {
+        return levelName;
+    }
+
+    /**
+     * Retorna o nome do tamanho.
+     *
+     * @return nome do tamanho (pode ser null)
+     */
+    public String getSizeName() {
+        return sizeName;
+    }
+
+    /**
+     * Retorna o preço base do produto.
+     *
+     * @return preço base
+     */
+    public Double getBasePrice() {
+        return basePrice;
+    }
+
+    /**
+     * Retorna o preço unitário final (base + tamanho + nível).
+     *
+     * @return preço unitário
+     */
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+}
@@ -0,0 +1,146 @@
+package model.entities;
+
+import java.time.LocalDateTime;
+
+/**
+ * Promoção (ou cupom) aplicada no checkout.
+ *
+ * Critérios opcionais (null = qualquer um): produto, tamanho, nível do sabor, área de entrega,
+ * quantidade mínima do item e janela de datas. Com {@code code} preenchido, a promoção só vale
+ * quando o cliente informa o cupom.
+ * O desconto é um percentual do item ({@link DiscountType#PERCENT}) ou um valor por unidade
+ * ({@link DiscountType#AMOUNT}).
+ */
+public class Promotion {
+	private Integer id;
+	private String name;
+	private String code;
+	private DiscountType type;
+	private Double value;
+	private Integer idProduct;
+	private Integer idSize;
+	private Integer idFlavorLevel;
+	private Integer idArea;
+	private int minQuantity = 1;
+	private LocalDateTime startsAt;
+	private LocalDateTime endsAt;
+	private boolean active = true;
+
+	public Promotion() {}
+
+	public Promotion(String name, DiscountType type, Double value) {
+		setName(name);
+		setType(type);
+		setValue(value);
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+	public DiscountType getType() {
+		return type;
+	}
+
+	public void setType(DiscountType type) {
+		this.type = type;
+	}
+
+	public Double getValue() {
+		return value;
+	}
+
+	public void setValue(Double value) {
+		this.value = value;
+	}
+
+	public Integer getIdProduct() {
+		return idProduct;
+	}
+
+	public void setIdProduct(Integer idProduct) {
+		this.idProduct = idProduct;
+	}
+
+	public Integer getIdSize() {
+		return idSize;
+	}
+
+	public void setIdSize(Integer idSize) {
+		this.idSize = idSize;
+	}
+
+	public Integer getIdFlavorLevel() {
+		return idFlavorLevel;
+	}
+
+	public void setIdFlavorLevel(Integer idFlavorLevel) {
+		this.idFlavorLevel = idFlavorLevel;
+	}
+
+	public Integer getIdArea() {
+		return idArea;
+	}
+
+	public void setIdArea(Integer idArea) {
+		this.idArea = idArea;
+	}
+
+	public int getMinQuantity() {
+		return minQuantity;
+	}
+
+	public void setMinQuantity(int minQuantity) {
+		this.minQuantity = minQuantity;
+	}
+
+	public LocalDateTime getStartsAt() {
+		return startsAt;
+	}
+
+	public void setStartsAt(LocalDateTime startsAt) {
+		this.startsAt = startsAt;
+	}
+
+	public LocalDateTime getEndsAt() {
+		return endsAt;
+	}
+
+	public void setEndsAt(LocalDateTime endsAt) {
+		this.endsAt = endsAt;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	@Override
+	public String toString() {
+		return "Promotion [getId()=" + getId() + ", getName()=" + getName() + ", getCode()=" + getCode()
+				+ ", getType()=" + getType() + ", getValue()=" + getValue() + "]";
+	}
+}
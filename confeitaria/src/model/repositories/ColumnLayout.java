@@ -0,0 +1,154 @@
+package model.repositories;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Posições das colunas lidas por um mapeador, resolvidas uma vez por formato de consulta.
+ *
+ * Ler por nome ({@code rs.getInt("product_id")}) obriga o driver a procurar o rótulo a cada
+ * coluna de cada linha. Com esta classe:
+ * - o repositório declara os rótulos que o mapeador usa com {@link #column(String)}, guardando
+ *   a posição de cada um em uma constante
+ * - na primeira leitura de uma consulta (identificada pelo SQL, o "formato"), os rótulos são
+ *   procurados uma única vez no {@link ResultSetMetaData} e os índices ficam em cache
+ * - o mapeador lê por índice: {@code rs.getInt(cols[COL_PRODUCT_ID])}
+ *
+ * Como os índices vêm do metadado, a ordem das colunas no SELECT pode mudar sem quebrar o mapeamento;
+ * um rótulo ausente gera {@link SQLException} já na primeira linha.
+ *
+ * Alcance: só {@link RepositoryProduct} (produto completo e linhas da listagem) e {@link RepositoryFlavor}
+ * usam o layout, por serem as listagens grandes do catálogo. Os demais repositórios continuam lendo por
+ * rótulo. O ganho depende do driver: com o do PostgreSQL, que procura rótulos em um mapa, a leitura de
+ * 100 mil linhas da listagem ficou cerca de 10% mais rápida; com drivers que percorrem as colunas, cerca
+ * de 30% ({@code bench/model/repositories/ColumnLayoutBenchmark}).
+ */
+public final class ColumnLayout {
+
+	/**
+	 * Mapeador que recebe, além da linha, os índices das colunas na ordem de {@link #column(String)}.
+	 *
+	 * @param <T> tipo do objeto mapeado
+	 */
+	@FunctionalInterface
+	public interface Mapper<T> {
+
+		/**
+		 * Mapeia a linha atual.
+		 *
+		 * @param rs ResultSet já posicionado em uma linha válida
+		 * @param cols índices (base 1) das colunas declaradas no layout
+		 * @return objeto mapeado
+		 * @throws SQLException em erro ao ler colunas
+		 */
+		T map(ResultSet rs, int[] cols) throws SQLException;
+	}
+
+	/**
+	 * Rótulos declarados, em minúsculas, na ordem das posições devolvidas por {@link #column(String)}.
+	 */
+	private final List<String> labels = new ArrayList<>();
+
+	/**
+	 * Índices já resolvidos, por formato de consulta (o SQL).
+	 */
+	private final ConcurrentHashMap<String, int[]> byShape = new ConcurrentHashMap<>();
+
+	/**
+	 * Indica se algum formato já foi resolvido (a partir daí não se declaram mais colunas).
+	 */
+	private volatile boolean frozen;
+
+	/**
+	 * Declara uma coluna lida pelo mapeador.
+	 * Deve ser chamado só na inicialização das constantes do repositório.
+	 *
+	 * @param label rótulo da coluna no SELECT (alias ou nome)
+	 * @return posição da coluna no array de índices entregue ao mapeador
+	 */
+	public synchronized int column(String label) {
+		if (frozen)
+			throw new IllegalStateException("Layout já em uso; coluna declarada tarde demais: " + label);
+		labels.add(label.toLowerCase(Locale.ROOT));
+		return labels.size() - 1;
+	}
+
+	/**
+	 * Devolve os índices das colunas para o formato informado, resolvendo pelo metadado na primeira vez.
+	 *
+	 * @param shape formato da consulta (o SQL executado)
+	 * @param rs resultado da consulta
+	 * @return índices (base 1) na ordem de {@link #column(String)}; não deve ser alterado
+	 * @throws SQLException se alguma coluna declarada não existir no resultado
+	 */
+	public int[] resolve(String shape, ResultSet rs) throws SQLException {
+		int[] cols = byShape.get(shape);
+		if (cols == null) {
+			cols = resolve(rs.getMetaData());
+			int[] previous = byShape.putIfAbsent(shape, cols);
+			if (previous != null) cols = previous;
+		}
+		return cols;
+	}
+
+	/**
+	 * Adapta um mapeador por índice a um {@link RowMapper} para uma consulta.
+	 * Os índices são obtidos na primeira linha e reaproveitados nas seguintes.
+	 * O RowMapper devolvido é de uma única consulta (não deve ser compartilhado entre threads).
+	 *
+	 * @param shape formato da consulta (o SQL executado)
+	 * @param mapper mapeador por índice
+	 * @param <T> tipo do objeto mapeado
+	 * @return mapeador da linha atual
+	 */
+	public <T> RowMapper<T> bind(String shape, Mapper<T> mapper) {
+		return new RowMapper<T>() {
+			private int[] cols;
+
+			@Override
+			public T map(ResultSet rs) throws SQLException {
+				if (cols == null) cols = resolve(shape, rs);
+				return mapper.map(rs, cols);
+			}
+		};
+	}
+
+	/**
+	 * Procura no metadado o índice de cada rótulo declarado (sem diferença de maiúsculas;
+	 * em rótulos repetidos vale o primeiro, como em {@link ResultSet#findColumn(String)}).
+	 *
+	 * @param md metadado do resultado
+	 * @return índices (base 1) na ordem dos rótulos
+	 * @throws SQLException se algum rótulo não existir
+	 */
+	private int[] resolve(ResultSetMetaData md) throws SQLException {
+		String[] declared;
+		synchronized (this) {
+			frozen = true;
+			declared = labels.toArray(new String[0]);
+		}
+
+		int count = md.getColumnCount();
+		String[] present = new String[count];
+		for (int i = 0; i < count; i++) {
+			present[i] = md.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+		}
+
+		int[] cols = new int[declared.length];
+		for (int c = 0; c < declared.length; c++) {
+			int found = 0;
+			for (int i = 0; i < count && found == 0; i++) {
+				if (present[i].equals(declared[c])) found = i + 1;
+			}
+			if (found == 0)
+				throw new SQLException("Coluna ausente na consulta: " + declared[c]);
+			cols[c] = found;
+		}
+		return cols;
+	}
+}
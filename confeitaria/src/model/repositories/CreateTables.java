@@ -1,6 +1,7 @@
 package model.repositories;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -14,13 +15,15 @@ import java.sql.Statement;
  * - Cria tabelas na ordem correta de dependências (chaves estrangeiras).
  * - Obtém conexão através de {@link DBConnection#getConnection()}.
  * 
- * Ordem (FK): area → address → person → flavor_level → flavor → size → user → product → order → order_items
+ * Ordem (FK): area → address → person → flavor_level → flavor → size → user → product → order → order_items → promotion
+ * (hash_calibration não tem FK e é criada no fim)
  */
 public class CreateTables {
 
 	/**
 	 * Cria todas as tabelas na ordem das dependências (FK).
-	 * Ordem: area → address → person → flavor_level → flavor → size → user → product → order → order_items.
+	 * Ordem: area → address → person → flavor_level → flavor → size → user → product → order → order_items → promotion.
+	 * Depois: hash_calibration (sem FK), índice único de sabores ({@link #createFlavorUniqueIndex()}) e busca textual.
 	 * Chama os métodos {@code createTableX()} na sequência correta.
 	 * Cada método cria a tabela com {@code CREATE TABLE IF NOT EXISTS}.
 	 * a ordem é importante para evitar erro ao criar chaves estrangeiras (FK) apontando para tabelas que ainda não existem.
@@ -36,6 +39,10 @@ public class CreateTables {
 		createTableProduct();
 		createTableOrder();
 		createTableOrderItems();
+		createTablePromotion();
+		createTableHashCalibration();
+		createFlavorUniqueIndex();
+		createProductSearch();
 	}
 
 	/**
@@ -47,7 +54,7 @@ public class CreateTables {
 	 * 
 	 */
 	public static void truncateAllTables() {
-		String sql = "TRUNCATE order_items, \"order\", product, \"user\", size, flavor, flavor_level, person, address RESTART IDENTITY CASCADE";
+		String sql = "TRUNCATE hash_calibration, promotion, order_items, \"order\", product, \"user\", size, flavor, flavor_level, person, address RESTART IDENTITY CASCADE";
 		try (Connection conn = DBConnection.getConnection();
 				Statement stmt = conn.createStatement()) {
 			stmt.execute(sql);
@@ -118,20 +125,28 @@ public class CreateTables {
 	
 	/**
 	 * Cria a tabela {@code area}.
-	 * Representa bairros/regiões com taxa de entrega ({@code fee}).
+	 * Representa bairros/regiões com taxa de entrega ({@code fee}) e centroide opcional
+	 * ({@code latitude}/{@code longitude}), usado no cálculo da taxa por distância.
+	 * As colunas do centroide também são adicionadas em bancos criados antes delas.
 	 */
 	public static void createTableArea() {
 		String createTableArea = "CREATE TABLE IF NOT EXISTS"
 				+ " area (id SERIAL PRIMARY KEY,"
 				+ "name TEXT NOT NULL UNIQUE,"
-				+ "fee DECIMAL(10, 2) NOT NULL"
+				+ "fee DECIMAL(10, 2) NOT NULL,"
+				+ "latitude DOUBLE PRECISION,"
+				+ "longitude DOUBLE PRECISION"
 				+ ");";
+		String addLocation = "ALTER TABLE area "
+				+ "ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION, "
+				+ "ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION";
 		
 		try(Connection conn = DBConnection.getConnection())
 		{
 			try {
 				Statement stmt = conn.createStatement();
 				stmt.execute(createTableArea);
+				stmt.execute(addLocation);
 			} catch(SQLException e) {
 				e.printStackTrace();
 			}
@@ -176,7 +191,8 @@ public class CreateTables {
 	
 	/**
 	 * Cria a tabela {@code "order"} (palavra reservada, por isso com aspas).
-	 * Guarda o cabeçalho do pedido: usuário, data/hora, total, forma de recebimento (entrega/retirada) e observações.
+	 * Guarda o cabeçalho do pedido: usuário, data/hora, total, desconto de promoções, forma de recebimento (entrega/retirada) e observações.
+	 * A coluna {@code discount} também é adicionada em bancos criados antes dela.
 	 */
 	public static void createTableOrder() {
 		String createTableOrder = "CREATE TABLE IF NOT EXISTS"
@@ -184,17 +200,20 @@ public class CreateTables {
 				+ "id_user INTEGER NOT NULL,"
 				+ "datetime TIMESTAMP NOT NULL,"
 				+ "total_price DECIMAL(10, 2) NOT NULL,"
+				+ "discount DECIMAL(10, 2) NOT NULL DEFAULT 0,"
 				+ "delivery VARCHAR(20) NOT NULL,"
 				+ "observations TEXT,"
 				+ "CONSTRAINT fk_user FOREIGN KEY (id_user) REFERENCES \"user\"(id) ON DELETE CASCADE"
 				+ ");";
-		
+		String addDiscount = "ALTER TABLE \"order\" "
+				+ "ADD COLUMN IF NOT EXISTS discount DECIMAL(10, 2) NOT NULL DEFAULT 0";
 		
 		try(Connection conn = DBConnection.getConnection())
 		{
 			try {
 				Statement stmt = conn.createStatement();
 				stmt.execute(createTableOrder);
+				stmt.execute(addDiscount);
 			} catch(SQLException e) {
 				e.printStackTrace();
 			}
@@ -208,6 +227,7 @@ public class CreateTables {
 	/**
 	 * Cria a tabela {@code product}.
 	 * Referencia {@code flavor} e {@code size} para compor o produto final, além de armazenar o {@code base_price}.
+	 * {@code retired_at} marca o produto retirado do catálogo (some da loja, mas continua nos pedidos antigos).
 	 */
 	public static void createTableProduct() {
 	    String createTableProduct = "CREATE TABLE IF NOT EXISTS"
@@ -217,14 +237,17 @@ public class CreateTables {
 	            + "id_size INTEGER NOT NULL,"
 	            + "base_price DECIMAL(10, 2) NOT NULL,"
 	            + "description TEXT,"
+	            + "retired_at TIMESTAMP,"
 	            + "CONSTRAINT fk_flavor FOREIGN KEY (id_flavor) REFERENCES flavor(id) ON DELETE RESTRICT,"
 	            + "CONSTRAINT fk_size FOREIGN KEY (id_size) REFERENCES size(id) ON DELETE RESTRICT"
 	            + ");";
+	    String addRetiredAt = "ALTER TABLE product ADD COLUMN IF NOT EXISTS retired_at TIMESTAMP";
 
 	    try(Connection conn = DBConnection.getConnection()) {
 	        try {
 	            Statement stmt = conn.createStatement();
 	            stmt.execute(createTableProduct);
+	            stmt.execute(addRetiredAt);
 	        } catch(SQLException e) {
 	            e.printStackTrace();
 	        }
@@ -334,4 +357,208 @@ public class CreateTables {
 		}
 	}
 	
+	/**
+	 * Cria a tabela {@code promotion}.
+	 * Guarda as regras de promoção e cupons avaliadas no checkout:
+	 * tipo e valor do desconto, critérios opcionais (produto, tamanho, nível do sabor, área, quantidade mínima),
+	 * janela de datas e cupom ({@code code}).
+	 * {@code updated_at} é usado para detectar alterações e recarregar as regras sem reiniciar o app.
+	 */
+	public static void createTablePromotion() {
+		String createTablePromotion = "CREATE TABLE IF NOT EXISTS"
+				+ " promotion (id SERIAL PRIMARY KEY,"
+				+ "name TEXT NOT NULL,"
+				+ "code VARCHAR(40) UNIQUE,"
+				+ "type VARCHAR(10) NOT NULL CHECK (type IN ('PERCENT', 'AMOUNT')),"
+				+ "value DECIMAL(10, 2) NOT NULL CHECK (value >= 0),"
+				+ "id_product INTEGER,"
+				+ "id_size INTEGER,"
+				+ "id_flavor_level INTEGER,"
+				+ "id_area INTEGER,"
+				+ "min_quantity INTEGER NOT NULL DEFAULT 1,"
+				+ "starts_at TIMESTAMP,"
+				+ "ends_at TIMESTAMP,"
+				+ "active BOOLEAN NOT NULL DEFAULT TRUE,"
+				+ "updated_at TIMESTAMP NOT NULL DEFAULT now(),"
+				+ "CONSTRAINT fk_promotion_product FOREIGN KEY (id_product) REFERENCES product(id) ON DELETE CASCADE,"
+				+ "CONSTRAINT fk_promotion_size FOREIGN KEY (id_size) REFERENCES size(id) ON DELETE CASCADE,"
+				+ "CONSTRAINT fk_promotion_level FOREIGN KEY (id_flavor_level) REFERENCES flavor_level(id) ON DELETE CASCADE,"
+				+ "CONSTRAINT fk_promotion_area FOREIGN KEY (id_area) REFERENCES area(id) ON DELETE CASCADE"
+				+ ");";
+
+		try(Connection conn = DBConnection.getConnection())
+		{
+			try {
+				Statement stmt = conn.createStatement();
+				stmt.execute(createTablePromotion);
+			} catch(SQLException e) {
+				e.printStackTrace();
+			}
+
+			System.out.println("Create promotion successful");
+		} catch(SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Cria a tabela {@code hash_calibration}.
+	 * Uma linha por terminal com as iterações do hash de senha que atingem o tempo-alvo nele;
+	 * todos os terminais usam a menor delas ({@link RepositoryHashCalibration}).
+	 */
+	public static void createTableHashCalibration() {
+		String createTableHashCalibration = "CREATE TABLE IF NOT EXISTS"
+				+ " hash_calibration (client VARCHAR(100) PRIMARY KEY,"
+				+ "iterations INTEGER NOT NULL CHECK (iterations > 0),"
+				+ "measured_at TIMESTAMP NOT NULL DEFAULT now()"
+				+ ");";
+
+		try (Connection conn = DBConnection.getConnection();
+				Statement stmt = conn.createStatement()) {
+			stmt.execute(createTableHashCalibration);
+			System.out.println("Create hash_calibration successful");
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Cria o índice único de sabores por nome (sem diferenciar maiúsculas) e nível.
+	 * É o alvo do upsert de {@link RepositoryFlavor#upsertFlavorAndReturnId(model.entities.Flavor)}:
+	 * o mesmo sabor não é gravado de novo a cada produto.
+	 *
+	 * Bancos criados antes do índice podem ter sabores repetidos; eles são juntados antes
+	 * via {@link RepositoryFlavor#mergeDuplicateFlavors()} (os produtos passam a apontar para o sabor mantido).
+	 * Depois que o índice existe, a compactação não encontra mais nada para juntar.
+	 * Deve rodar depois de {@code product}, pois a compactação atualiza produtos.
+	 */
+	public static void createFlavorUniqueIndex() {
+		String createIndex = "CREATE UNIQUE INDEX IF NOT EXISTS ux_flavor_name_level ON flavor (lower(name), id_flavor_level)";
+
+		try (Connection conn = DBConnection.getConnection();
+				Statement stmt = conn.createStatement()) {
+			int merged = new RepositoryFlavor().mergeDuplicateFlavors();
+			if (merged > 0) {
+				System.out.println("Merged " + merged + " duplicate flavors");
+			}
+			stmt.execute(createIndex);
+			System.out.println("Create flavor unique index successful");
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Cria a busca textual de produtos (full-text search do PostgreSQL).
+	 *
+	 * Estrutura criada:
+	 * - configuração {@code pt_unaccent}: português sem acentos (extensão {@code unaccent}) ou,
+ *   se a extensão não estiver disponível, só português (a busca passa a diferenciar acentos)
+	 * - coluna {@code product.search_vector} (tsvector) com pesos:
+	 *   A = nome do produto, B = nome do sabor, C = descrições do produto e do sabor
+	 * - trigger em {@code product}: recalcula o vetor ao inserir ou alterar nome, descrição ou sabor
+	 * - trigger em {@code flavor}: ao alterar nome/descrição do sabor, recalcula os produtos dele
+	 * - índice GIN sobre {@code search_vector}
+	 *
+	 * Produtos já existentes sem vetor são preenchidos aqui (o trigger faz o cálculo).
+	 * Criar a extensão exige permissão de superusuário (ou de dono do banco com extensão confiável);
+	 * sem ela a configuração é criada sem {@code unaccent}, e a busca continua funcionando.
+	 * Quando a extensão for instalada depois, a próxima inicialização acrescenta o {@code unaccent}
+	 * à configuração e recalcula os vetores de todos os produtos.
+	 */
+	public static void createProductSearch() {
+		String[] sql = {
+				"DO $$ BEGIN "
+				+ "IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'pt_unaccent') THEN "
+				+ "CREATE TEXT SEARCH CONFIGURATION pt_unaccent (COPY = portuguese); "
+				+ "END IF; END $$",
+
+				"ALTER TABLE product ADD COLUMN IF NOT EXISTS search_vector tsvector",
+
+				"CREATE OR REPLACE FUNCTION product_search_update() RETURNS trigger AS $$ "
+				+ "DECLARE f RECORD; "
+				+ "BEGIN "
+				+ "SELECT name, description INTO f FROM flavor WHERE id = NEW.id_flavor; "
+				+ "NEW.search_vector := "
+				+ "setweight(to_tsvector('pt_unaccent', coalesce(NEW.name, '')), 'A') || "
+				+ "setweight(to_tsvector('pt_unaccent', coalesce(f.name, '')), 'B') || "
+				+ "setweight(to_tsvector('pt_unaccent', coalesce(NEW.description, '') || ' ' || coalesce(f.description, '')), 'C'); "
+				+ "RETURN NEW; "
+				+ "END $$ LANGUAGE plpgsql",
+
+				"DROP TRIGGER IF EXISTS trg_product_search ON product",
+
+				"CREATE TRIGGER trg_product_search "
+				+ "BEFORE INSERT OR UPDATE OF name, description, id_flavor ON product "
+				+ "FOR EACH ROW EXECUTE FUNCTION product_search_update()",
+
+				"CREATE OR REPLACE FUNCTION flavor_search_update() RETURNS trigger AS $$ "
+				+ "BEGIN "
+				+ "UPDATE product SET name = name WHERE id_flavor = NEW.id; "
+				+ "RETURN NULL; "
+				+ "END $$ LANGUAGE plpgsql",
+
+				"DROP TRIGGER IF EXISTS trg_flavor_search ON flavor",
+
+				"CREATE TRIGGER trg_flavor_search "
+				+ "AFTER UPDATE OF name, description ON flavor "
+				+ "FOR EACH ROW EXECUTE FUNCTION flavor_search_update()",
+
+				"UPDATE product SET name = name WHERE search_vector IS NULL",
+
+				"CREATE INDEX IF NOT EXISTS idx_product_search ON product USING GIN (search_vector)"
+		};
+
+		try (Connection conn = DBConnection.getConnection();
+				Statement stmt = conn.createStatement()) {
+			boolean unaccent = createUnaccentExtension(stmt);
+			for (String s : sql) {
+				stmt.execute(s);
+			}
+			if (unaccent) addUnaccentToSearch(stmt);
+			System.out.println("Create product search successful" + (unaccent ? "" : " (sem unaccent)"));
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Tenta criar a extensão {@code unaccent} (autocommit: uma falha não afeta os comandos seguintes).
+	 *
+	 * @param stmt comando da conexão da busca
+	 * @return true se a extensão está instalada no banco
+	 * @throws SQLException em erro ao consultar o catálogo
+	 */
+	private static boolean createUnaccentExtension(Statement stmt) throws SQLException {
+		try {
+			stmt.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+		} catch (SQLException e) {
+			System.err.println("Extensão unaccent indisponível (" + e.getMessage().trim()
+					+ "); a busca de produtos vai diferenciar acentos. Veja o README para instalá-la.");
+		}
+		try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM pg_extension WHERE extname = 'unaccent'")) {
+			return rs.next();
+		}
+	}
+
+	/**
+	 * Acrescenta o {@code unaccent} à configuração {@code pt_unaccent}, se ainda não estiver nela
+	 * (configuração criada antes de a extensão existir), e recalcula os vetores de busca.
+	 *
+	 * @param stmt comando da conexão da busca
+	 * @throws SQLException em erro ao alterar a configuração
+	 */
+	private static void addUnaccentToSearch(Statement stmt) throws SQLException {
+		try (ResultSet rs = stmt.executeQuery(
+				"SELECT 1 FROM pg_ts_config_map m "
+				+ "JOIN pg_ts_config c ON c.oid = m.mapcfg "
+				+ "JOIN pg_ts_dict d ON d.oid = m.mapdict "
+				+ "WHERE c.cfgname = 'pt_unaccent' AND d.dictname = 'unaccent'")) {
+			if (rs.next()) return;
+		}
+		stmt.execute("ALTER TEXT SEARCH CONFIGURATION pt_unaccent "
+				+ "ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem");
+		stmt.execute("UPDATE product SET name = name");
+	}
+
 }
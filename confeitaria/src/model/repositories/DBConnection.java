@@ -48,22 +48,24 @@ public final class DBConnection {
      * Obtém uma {@link Connection} JDBC com PostgreSQL.
      * Funcionamento:
      * - Carrega configuração via {@link #loadConfigOrThrow()}.
-     * - Monta a URL JDBC: {@code jdbc:postgresql://host:port/dbName}.
+     * - Monta a URL JDBC: {@code jdbc:postgresql://host:port/dbName?reWriteBatchedInserts=true}
+     *   (o driver junta os INSERTs de um lote em comandos com várias linhas).
      * - Tenta carregar o driver {@code org.postgresql.Driver}.
      * - Abre e retorna a conexão via {@link DriverManager#getConnection(String, String, String)}.
+     * - Se o diagnóstico de SQL estiver ligado, envolve a conexão com {@link SqlActivity#track(Connection)}.
      * @return conexão JDBC aberta
      * @throws SQLException se o banco não estiver configurado ou se falhar ao conectar
      */
     public static Connection getConnection() throws SQLException {
         DbConfig cfg = loadConfigOrThrow();
 
-        String url = "jdbc:postgresql://" + cfg.host + ":" + cfg.port + "/" + cfg.dbName;
+        String url = "jdbc:postgresql://" + cfg.host + ":" + cfg.port + "/" + cfg.dbName + "?reWriteBatchedInserts=true";
 
         try {
             Class.forName("org.postgresql.Driver");
         } catch (ClassNotFoundException ignored) {}
 
-        return DriverManager.getConnection(url, cfg.user, cfg.password);
+        return SqlActivity.track(DriverManager.getConnection(url, cfg.user, cfg.password));
     }
     
     
@@ -0,0 +1,129 @@
+package model.repositories;
+
+import model.entities.Flavor;
+import model.entities.FlavorLevel;
+import model.entities.Size;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapa de identidade dos cadastros de referência (nível de sabor, tamanho e sabor) lidos junto com produtos.
+ *
+ * Uma listagem de produtos repete poucos níveis, tamanhos e sabores em muitas linhas. Em vez de criar
+ * um objeto por linha, o mapeador pede a instância a este mapa pelo id:
+ * - se já existe uma instância com os mesmos dados, ela é reaproveitada
+ * - se não existe, ou se os dados da linha são outros (o cadastro mudou), uma nova é criada e passa a valer
+ * - os nomes são internados ({@link String#intern()}), então textos repetidos também são compartilhados
+ *
+ * Pode ser usado por uma consulta só (descartado no fim) ou mantido entre consultas (modo compartilhado
+ * de {@link RepositoryProduct}). Por conferir os dados a cada linha, uma instância antiga nunca é devolvida
+ * para uma linha diferente dela.
+ *
+ * As instâncias devolvidas são compartilhadas: quem as recebe não deve alterá-las.
+ * Seguro para uso por várias threads.
+ */
+public final class ReferenceMap {
+
+	/**
+	 * Níveis de sabor por id.
+	 */
+	private final Map<Integer, FlavorLevel> levels = new ConcurrentHashMap<>();
+
+	/**
+	 * Tamanhos por id.
+	 */
+	private final Map<Integer, Size> sizes = new ConcurrentHashMap<>();
+
+	/**
+	 * Sabores por id.
+	 */
+	private final Map<Integer, Flavor> flavors = new ConcurrentHashMap<>();
+
+	/**
+	 * Devolve o nível de sabor com os dados informados, reaproveitando a instância já conhecida.
+	 *
+	 * @param id id do nível
+	 * @param name nome
+	 * @param price preço adicional
+	 * @return nível compartilhado
+	 */
+	public FlavorLevel level(Integer id, String name, Double price) {
+		FlavorLevel cur = levels.get(id);
+		if (cur != null && Objects.equals(cur.getName(), name) && Objects.equals(cur.getPrice(), price)) return cur;
+
+		FlavorLevel level = new FlavorLevel(id, intern(name), price);
+		levels.put(id, level);
+		return level;
+	}
+
+	/**
+	 * Devolve o tamanho com os dados informados, reaproveitando a instância já conhecida.
+	 *
+	 * @param id id do tamanho
+	 * @param name nome
+	 * @param yield rendimento
+	 * @param weight peso
+	 * @param price preço adicional
+	 * @return tamanho compartilhado
+	 */
+	public Size size(Integer id, String name, String yield, String weight, Double price) {
+		Size cur = sizes.get(id);
+		if (cur != null && Objects.equals(cur.getName(), name) && Objects.equals(cur.getYield(), yield)
+				&& Objects.equals(cur.getWeight(), weight) && Objects.equals(cur.getPrice(), price)) return cur;
+
+		Size size = new Size(id, intern(name), intern(yield), intern(weight), price);
+		sizes.put(id, size);
+		return size;
+	}
+
+	/**
+	 * Devolve o sabor com os dados informados, reaproveitando a instância já conhecida.
+	 * O nível deve vir de {@link #level}: a comparação do nível é por identidade.
+	 *
+	 * @param id id do sabor
+	 * @param name nome
+	 * @param level nível (instância compartilhada)
+	 * @param description descrição
+	 * @return sabor compartilhado
+	 */
+	public Flavor flavor(Integer id, String name, FlavorLevel level, String description) {
+		Flavor cur = flavors.get(id);
+		if (cur != null && cur.getLevel() == level && Objects.equals(cur.getName(), name)
+				&& Objects.equals(cur.getDescription(), description)) return cur;
+
+		Flavor flavor = new Flavor(intern(name), level, description);
+		flavor.setId(id);
+		flavors.put(id, flavor);
+		return flavor;
+	}
+
+	/**
+	 * Retorna a quantidade de instâncias guardadas (níveis, tamanhos e sabores).
+	 *
+	 * @return quantidade de instâncias
+	 */
+	public int count() {
+		return levels.size() + sizes.size() + flavors.size();
+	}
+
+	/**
+	 * Descarta todas as instâncias guardadas.
+	 */
+	public void clear() {
+		levels.clear();
+		sizes.clear();
+		flavors.clear();
+	}
+
+	/**
+	 * Interna o texto, aceitando null.
+	 *
+	 * @param s texto
+	 * @return texto internado ou null
+	 */
+	private static String intern(String s) {
+		return s != null ? s.intern() : null;
+	}
+}
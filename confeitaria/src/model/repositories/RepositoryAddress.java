@@ -7,6 +7,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import model.entities.Address;
 import model.entities.Area;
@@ -29,7 +30,7 @@ public class RepositoryAddress {
 	 */
 	private static final String SQL_FIND_BY_ID =
 			"SELECT a.id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference, "
-			+ "area.id AS area_id, area.name AS area_name, area.fee AS area_fee "
+			+ "area.id AS area_id, area.name AS area_name, area.fee AS area_fee, area.latitude AS area_latitude, area.longitude AS area_longitude "
 			+ "FROM address a INNER JOIN area ON area.id = a.id_area WHERE a.id = ?";
 
 	/**
@@ -37,7 +38,7 @@ public class RepositoryAddress {
 	 */
 	private static final String SQL_FIND_ALL =
 			"SELECT a.id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference, "
-			+ "area.id AS area_id, area.name AS area_name, area.fee AS area_fee "
+			+ "area.id AS area_id, area.name AS area_name, area.fee AS area_fee, area.latitude AS area_latitude, area.longitude AS area_longitude "
 			+ "FROM address a "
 			+ "INNER JOIN area ON area.id = a.id_area";
 
@@ -140,10 +141,22 @@ public class RepositoryAddress {
 		return list;
 	}
 
+	/**
+	 * Lista todos os endereços em fluxo, sem montar a lista em memória.
+	 * Mesma consulta de findAllAddress, lida com cursor no servidor ({@link RowStream}).
+	 * O Stream segura a conexão até ser fechado: use try-with-resources.
+	 *
+	 * @return Stream dos registros (precisa ser fechado)
+	 * @throws SQLException em erro ao abrir a consulta
+	 */
+	public Stream<Address> streamAllAddress() throws SQLException {
+		return RowStream.stream(SQL_FIND_ALL, RowStream.DEFAULT_FETCH_SIZE, this::mapResultSetToAddress);
+	}
+
 	/**
 	 * Mapeia a linha atual do ResultSet para um objeto Address.
 	 * Espera colunas a.id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference
-	 * e area_id, area_name, area_fee (do JOIN com area).
+	 * e area_id, area_name, area_fee, area_latitude, area_longitude (do JOIN com area).
 	 *
 	 * @param rs ResultSet posicionado na linha desejada
 	 * @return instância de Address preenchida com os dados da linha
@@ -161,6 +174,8 @@ public class RepositoryAddress {
 		area.setId(rs.getInt("area_id"));
 		area.setName(rs.getString("area_name"));
 		area.setFee(rs.getDouble("area_fee"));
+		area.setLatitude(rs.getObject("area_latitude") != null ? rs.getDouble("area_latitude") : null);
+		area.setLongitude(rs.getObject("area_longitude") != null ? rs.getDouble("area_longitude") : null);
 		address.setArea(area);
 		return address;
 	}
@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,26 +21,32 @@ public class RepositoryArea {
 	 * a linha não é inserida (ON CONFLICT DO NOTHING).
 	 */
 	private static final String SQL_INSERT =
-			"INSERT INTO area(name, fee) VALUES(?, ?) "
+			"INSERT INTO area(name, fee, latitude, longitude) VALUES(?, ?, ?, ?) "
 			+ "ON CONFLICT (name) DO NOTHING";
 
+	/**
+	 * UPDATE do centroide (latitude/longitude) de uma área por id.
+	 */
+	private static final String SQL_UPDATE_LOCATION =
+			"UPDATE area SET latitude = ?, longitude = ? WHERE id = ?";
+
 	/**
 	 * SELECT por id.
 	 */
 	private static final String SQL_FIND_BY_ID =
-			"SELECT id, name, fee FROM area WHERE id = ?";
+			"SELECT id, name, fee, latitude, longitude FROM area WHERE id = ?";
 
 	/**
 	 * SELECT por nome.
 	 */
 	private static final String SQL_FIND_BY_NAME =
-			"SELECT id, name, fee FROM area WHERE name = ?";
+			"SELECT id, name, fee, latitude, longitude FROM area WHERE name = ?";
 
 	/**
-	 * SELECT de todos os registros.
+	 * SELECT de todos os registros, em ordem alfabética.
 	 */
 	private static final String SQL_FIND_ALL =
-			"SELECT id, name, fee FROM area";
+			"SELECT id, name, fee, latitude, longitude FROM area ORDER BY name";
 
 	/**
 	 * DELETE por id.
@@ -58,11 +65,30 @@ public class RepositoryArea {
 				PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
 			stmt.setString(1, area.getName());
 			stmt.setDouble(2, area.getFee());
+			stmt.setObject(3, area.getLatitude(), Types.DOUBLE);
+			stmt.setObject(4, area.getLongitude(), Types.DOUBLE);
 			int rowsAffected = stmt.executeUpdate();
 			return rowsAffected > 0;
 		}
 	}
 
+	/**
+	 * Atualiza o centroide (latitude/longitude) de uma área.
+	 *
+	 * @param area área com id e centroide (latitude/longitude podem ser null para remover)
+	 * @return true se a área foi atualizada
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public boolean updateAreaLocation(Area area) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_LOCATION)) {
+			stmt.setObject(1, area.getLatitude(), Types.DOUBLE);
+			stmt.setObject(2, area.getLongitude(), Types.DOUBLE);
+			stmt.setInt(3, area.getId());
+			return stmt.executeUpdate() > 0;
+		}
+	}
+
 	/**
 	 * Remove uma área pelo id.
 	 *
@@ -114,7 +140,7 @@ public class RepositoryArea {
 	}
 
 	/**
-	 * Lista todas as áreas.
+	 * Lista todas as áreas, ordenadas por nome.
 	 *
 	 * @return lista de áreas (nunca null, pode ser vazia)
 	 * @throws SQLException em erro de acesso ao banco de dados
@@ -144,6 +170,8 @@ public class RepositoryArea {
 		area.setId(rs.getInt("id"));
 		area.setName(rs.getString("name"));
 		area.setFee(rs.getDouble("fee"));
+		area.setLatitude(rs.getObject("latitude") != null ? rs.getDouble("latitude") : null);
+		area.setLongitude(rs.getObject("longitude") != null ? rs.getDouble("longitude") : null);
 		return area;
 	}
 }
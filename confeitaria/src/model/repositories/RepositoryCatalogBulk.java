@@ -0,0 +1,354 @@
+package model.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório das operações em lote do catálogo (reajuste de preços, retirada e exclusão de produtos).
+ *
+ * Cada operação é um único UPDATE/DELETE sobre todas as linhas que atendem ao {@link Filter},
+ * em vez de uma ida ao banco por linha. A prévia ({@code count...}) usa exatamente o mesmo WHERE.
+ * As alterações recebem a quantidade vista na prévia: se o comando afetar outra quantidade
+ * (o catálogo mudou no meio), a transação é desfeita e o método retorna -1.
+ *
+ * Nomes de tabela e coluna vêm só de {@link Target}; os valores do filtro vão sempre como parâmetros.
+ */
+public class RepositoryCatalogBulk {
+
+	/**
+	 * Tabela e coluna de preço de cada cadastro que pode ser reajustado.
+	 */
+	public enum Target {
+		/** Taxa de entrega das áreas. */
+		AREA("area", "fee"),
+		/** Preço adicional dos tamanhos. */
+		SIZE("size", "price"),
+		/** Preço adicional dos níveis de sabor. */
+		FLAVOR_LEVEL("flavor_level", "price"),
+		/** Preço base dos produtos (só os não retirados). */
+		PRODUCT("product", "base_price");
+
+		private final String table;
+		private final String priceColumn;
+
+		Target(String table, String priceColumn) {
+			this.table = table;
+			this.priceColumn = priceColumn;
+		}
+	}
+
+	/**
+	 * Critérios de seleção das linhas (todos opcionais; os informados são combinados com AND).
+	 * Sem nenhum critério, a operação vale para todas as linhas do cadastro.
+	 * Nível, tamanho e sabor só se aplicam a {@link Target#PRODUCT}.
+	 */
+	public static final class Filter {
+		private Integer[] ids;
+		private String nameContains;
+		private Integer flavorLevelId;
+		private Integer sizeId;
+		private Integer flavorId;
+
+		/**
+		 * Restringe aos ids informados.
+		 *
+		 * @param ids ids das linhas
+		 * @return este filtro
+		 */
+		public Filter ids(Integer... ids) {
+			this.ids = ids;
+			return this;
+		}
+
+		/**
+		 * Restringe às linhas cujo nome contém o texto (sem diferença de maiúsculas).
+		 *
+		 * @param text trecho do nome
+		 * @return este filtro
+		 */
+		public Filter nameContains(String text) {
+			this.nameContains = text != null && !text.isBlank() ? text.trim() : null;
+			return this;
+		}
+
+		/**
+		 * Restringe aos produtos de sabores do nível informado.
+		 *
+		 * @param id id do nível de sabor
+		 * @return este filtro
+		 */
+		public Filter flavorLevel(Integer id) {
+			this.flavorLevelId = id;
+			return this;
+		}
+
+		/**
+		 * Restringe aos produtos do tamanho informado.
+		 *
+		 * @param id id do tamanho
+		 * @return este filtro
+		 */
+		public Filter size(Integer id) {
+			this.sizeId = id;
+			return this;
+		}
+
+		/**
+		 * Restringe aos produtos do sabor informado.
+		 *
+		 * @param id id do sabor
+		 * @return este filtro
+		 */
+		public Filter flavor(Integer id) {
+			this.flavorId = id;
+			return this;
+		}
+
+		/**
+		 * Indica se nenhum critério foi informado.
+		 *
+		 * @return true se o filtro seleciona todas as linhas
+		 */
+		public boolean isEmpty() {
+			return (ids == null || ids.length == 0) && nameContains == null
+					&& flavorLevelId == null && sizeId == null && flavorId == null;
+		}
+
+		/**
+		 * Indica se o filtro usa critérios que só existem em produto.
+		 *
+		 * @return true se nível, tamanho ou sabor foram informados
+		 */
+		public boolean hasProductCriteria() {
+			return flavorLevelId != null || sizeId != null || flavorId != null;
+		}
+	}
+
+	/**
+	 * WHERE montado a partir de um filtro, com os parâmetros na ordem dos {@code ?}.
+	 */
+	private static final class Where {
+		private final String sql;
+		private final List<Object> params;
+
+		Where(String sql, List<Object> params) {
+			this.sql = sql;
+			this.params = params;
+		}
+	}
+
+	/**
+	 * Condição extra da exclusão: produto sem nenhum item de pedido (os demais só podem ser retirados).
+	 */
+	private static final String SQL_NOT_ORDERED =
+			" AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.id_product = t.id)";
+
+	/**
+	 * Conta as linhas que um reajuste alteraria (prévia).
+	 *
+	 * @param target cadastro
+	 * @param filter critérios
+	 * @return quantidade de linhas
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int countReprice(Target target, Filter filter) throws SQLException {
+		return count(target, where(target, filter), "");
+	}
+
+	/**
+	 * Reajusta o preço das linhas selecionadas em um único UPDATE:
+	 * {@code preço = GREATEST(0, ROUND(preço * factor + amount, 2))}.
+	 *
+	 * @param target cadastro
+	 * @param filter critérios
+	 * @param factor multiplicador (ex.: 1.10 para +10%)
+	 * @param amount valor somado depois do multiplicador (ex.: 2.00 para +R$2)
+	 * @param expected quantidade vista na prévia (negativa = não conferir)
+	 * @return linhas alteradas, ou -1 se a quantidade diferiu da prévia (nada é alterado)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int reprice(Target target, Filter filter, BigDecimal factor, BigDecimal amount, int expected) throws SQLException {
+		Where w = where(target, filter);
+		String col = target.priceColumn;
+		String sql = "UPDATE " + target.table + " t SET " + col + " = GREATEST(0, ROUND(t." + col + " * ? + ?, 2))" + w.sql;
+
+		List<Object> params = new ArrayList<>();
+		params.add(factor);
+		params.add(amount);
+		params.addAll(w.params);
+		return execute(sql, params, expected);
+	}
+
+	/**
+	 * Conta os produtos que uma retirada alteraria (prévia).
+	 *
+	 * @param filter critérios
+	 * @return quantidade de produtos
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int countRetire(Filter filter) throws SQLException {
+		return count(Target.PRODUCT, where(Target.PRODUCT, filter), "");
+	}
+
+	/**
+	 * Retira do catálogo os produtos selecionados em um único UPDATE ({@code retired_at = now()}).
+	 * Os produtos somem da loja e do carrinho, mas continuam nos pedidos antigos.
+	 *
+	 * @param filter critérios
+	 * @param expected quantidade vista na prévia (negativa = não conferir)
+	 * @return produtos retirados, ou -1 se a quantidade diferiu da prévia (nada é alterado)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int retireProducts(Filter filter, int expected) throws SQLException {
+		Where w = where(Target.PRODUCT, filter);
+		return execute("UPDATE product t SET retired_at = now()" + w.sql, w.params, expected);
+	}
+
+	/**
+	 * Conta os produtos que uma exclusão removeria (prévia): os selecionados que nunca foram pedidos.
+	 *
+	 * @param filter critérios
+	 * @return quantidade de produtos excluíveis
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int countDelete(Filter filter) throws SQLException {
+		return count(Target.PRODUCT, where(Target.PRODUCT, filter), SQL_NOT_ORDERED);
+	}
+
+	/**
+	 * Exclui em um único DELETE os produtos selecionados que nunca foram pedidos.
+	 * Produtos com pedidos ficam de fora (use a retirada para eles).
+	 *
+	 * @param filter critérios
+	 * @param expected quantidade vista na prévia (negativa = não conferir)
+	 * @return produtos excluídos, ou -1 se a quantidade diferiu da prévia (nada é excluído)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public int deleteProducts(Filter filter, int expected) throws SQLException {
+		Where w = where(Target.PRODUCT, filter);
+		return execute("DELETE FROM product t" + w.sql + SQL_NOT_ORDERED, w.params, expected);
+	}
+
+	/**
+	 * Executa um SELECT COUNT(*) com o WHERE do filtro.
+	 *
+	 * @param target cadastro
+	 * @param w WHERE do filtro
+	 * @param extra condição adicional (ou vazio)
+	 * @return quantidade de linhas
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	private int count(Target target, Where w, String extra) throws SQLException {
+		String sql = "SELECT COUNT(*) FROM " + target.table + " t" + w.sql + extra;
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(sql)) {
+			bind(conn, stmt, w.params);
+			try (ResultSet rs = stmt.executeQuery()) {
+				return rs.next() ? rs.getInt(1) : 0;
+			}
+		}
+	}
+
+	/**
+	 * Executa um UPDATE/DELETE em transação, conferindo a quantidade de linhas afetadas.
+	 *
+	 * @param sql comando
+	 * @param params parâmetros na ordem dos {@code ?}
+	 * @param expected quantidade esperada (negativa = não conferir)
+	 * @return linhas afetadas, ou -1 se diferiu da esperada (rollback)
+	 * @throws SQLException em erro de acesso ao banco (rollback)
+	 */
+	private int execute(String sql, List<Object> params, int expected) throws SQLException {
+		try (Connection conn = DBConnection.getConnection()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+				bind(conn, stmt, params);
+				int affected = stmt.executeUpdate();
+				if (expected >= 0 && affected != expected) {
+					conn.rollback();
+					return -1;
+				}
+				conn.commit();
+				return affected;
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Preenche os parâmetros do comando (arrays de Integer viram {@code integer[]}).
+	 *
+	 * @param conn conexão do comando
+	 * @param stmt comando preparado
+	 * @param params parâmetros na ordem dos {@code ?}
+	 * @throws SQLException em erro ao preencher
+	 */
+	private static void bind(Connection conn, PreparedStatement stmt, List<Object> params) throws SQLException {
+		for (int i = 0; i < params.size(); i++) {
+			Object p = params.get(i);
+			if (p instanceof Integer[]) {
+				stmt.setArray(i + 1, conn.createArrayOf("integer", (Integer[]) p));
+			} else {
+				stmt.setObject(i + 1, p);
+			}
+		}
+	}
+
+	/**
+	 * Monta o WHERE (alias {@code t}) a partir do filtro.
+	 * Para produtos, sempre exclui os já retirados.
+	 *
+	 * @param target cadastro
+	 * @param filter critérios (null = todas as linhas)
+	 * @return WHERE e parâmetros
+	 */
+	private static Where where(Target target, Filter filter) {
+		List<String> conds = new ArrayList<>();
+		List<Object> params = new ArrayList<>();
+		if (target == Target.PRODUCT) conds.add("t.retired_at IS NULL");
+
+		if (filter != null) {
+			if (filter.ids != null && filter.ids.length > 0) {
+				conds.add("t.id = ANY(?)");
+				params.add(filter.ids);
+			}
+			if (filter.nameContains != null) {
+				conds.add("t.name ILIKE ? ESCAPE '\\'");
+				params.add("%" + escapeLike(filter.nameContains) + "%");
+			}
+			if (target == Target.PRODUCT) {
+				if (filter.flavorLevelId != null) {
+					conds.add("t.id_flavor IN (SELECT f.id FROM flavor f WHERE f.id_flavor_level = ?)");
+					params.add(filter.flavorLevelId);
+				}
+				if (filter.sizeId != null) {
+					conds.add("t.id_size = ?");
+					params.add(filter.sizeId);
+				}
+				if (filter.flavorId != null) {
+					conds.add("t.id_flavor = ?");
+					params.add(filter.flavorId);
+				}
+			}
+		}
+
+		return new Where(conds.isEmpty() ? "" : " WHERE " + String.join(" AND ", conds), params);
+	}
+
+	/**
+	 * Escapa os curingas do LIKE ({@code \ % _}) para o texto ser procurado literalmente.
+	 *
+	 * @param text texto digitado
+	 * @return texto escapado
+	 */
+	private static String escapeLike(String text) {
+		return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -0,0 +1,486 @@
+package model.repositories;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.entities.Flavor;
+import model.entities.FlavorLevel;
+import model.entities.Product;
+import model.entities.Size;
+
+/**
+ * Repositório da importação/exportação do catálogo (flavor_level, size, flavor, product).
+ *
+ * Exportação ({@link #exportCatalog(Sink)}):
+ * lê cada tabela com cursor no servidor ({@code setFetchSize}, dentro de uma transação), entregando
+ * uma linha por vez ao {@link Sink}; a memória usada não depende do tamanho do catálogo.
+ * A ordem (níveis, tamanhos, sabores, produtos) permite reimportar o arquivo em uma passada.
+ *
+ * Importação ({@link #openSession()}):
+ * uma {@link Session} guarda uma conexão com uma única transação. Sabores e produtos já cadastrados são
+ * procurados por lote de registros, em uma consulta por lote ({@link Session#findFlavors},
+ * {@link Session#findProducts}), sem carregar o catálogo inteiro. Os registros são acumulados em lotes
+ * JDBC ({@code addBatch}) e enviados por {@link Session#flush()} na ordem das dependências
+ * (níveis → tamanhos → sabores → produtos). Os ids de registros novos são reservados nas sequências
+ * em blocos ({@link Session#nextId(String)}), então um produto pode apontar para um sabor
+ * criado no mesmo lote sem ler ids gerados.
+ */
+public class RepositoryCatalogTransfer {
+
+	/**
+	 * Linhas buscadas por ida ao banco na exportação.
+	 */
+	private static final int FETCH_SIZE = 500;
+
+	/**
+	 * Ids reservados por consulta às sequências.
+	 */
+	private static final int ID_BLOCK = 100;
+
+	/**
+	 * SELECT de todos os níveis de sabor.
+	 */
+	private static final String SQL_ALL_LEVELS =
+			"SELECT id, name, price FROM flavor_level ORDER BY id";
+
+	/**
+	 * SELECT de todos os tamanhos.
+	 */
+	private static final String SQL_ALL_SIZES =
+			"SELECT id, name, yield, weight, price FROM \"size\" ORDER BY id";
+
+	/**
+	 * SELECT de todos os sabores, com o nome do nível.
+	 */
+	private static final String SQL_ALL_FLAVORS =
+			"SELECT f.id, f.name, f.description, f.id_flavor_level, fl.name AS level_name "
+			+ "FROM flavor f JOIN flavor_level fl ON fl.id = f.id_flavor_level ORDER BY f.id";
+
+	/**
+	 * SELECT de todos os produtos não retirados, com os nomes do sabor, nível e tamanho.
+	 * Produtos retirados ficam fora da exportação: reimportados em outra loja, voltariam ativos.
+	 */
+	private static final String SQL_ALL_PRODUCTS =
+			"SELECT p.id, p.name, p.base_price, p.description, p.id_flavor, p.id_size, "
+			+ "f.name AS flavor_name, fl.name AS level_name, s.name AS size_name "
+			+ "FROM product p "
+			+ "JOIN flavor f ON f.id = p.id_flavor "
+			+ "JOIN flavor_level fl ON fl.id = f.id_flavor_level "
+			+ "JOIN \"size\" s ON s.id = p.id_size "
+			+ "WHERE p.retired_at IS NULL "
+			+ "ORDER BY p.id";
+
+	/**
+	 * SELECT dos sabores com as chaves informadas (nome em minúsculas + id do nível), uma consulta por lote.
+	 * As chaves vão em dois arrays paralelos, abertos com unnest.
+	 */
+	private static final String SQL_FIND_FLAVORS =
+			"SELECT f.id, f.name, f.description, f.id_flavor_level, fl.name AS level_name "
+			+ "FROM unnest(?::text[], ?::integer[]) AS k(name, id_level) "
+			+ "JOIN flavor f ON lower(f.name) = k.name AND f.id_flavor_level = k.id_level "
+			+ "JOIN flavor_level fl ON fl.id = f.id_flavor_level";
+
+	/**
+	 * SELECT dos produtos com as chaves informadas (nome em minúsculas + id do sabor + id do tamanho),
+	 * uma consulta por lote, com os nomes do sabor, nível e tamanho.
+	 * Só produtos não retirados: um retirado nunca é atualizado pela importação.
+	 */
+	private static final String SQL_FIND_PRODUCTS =
+			"SELECT p.id, p.name, p.base_price, p.description, p.id_flavor, p.id_size, "
+			+ "f.name AS flavor_name, fl.name AS level_name, s.name AS size_name "
+			+ "FROM unnest(?::text[], ?::integer[], ?::integer[]) AS k(name, id_flavor, id_size) "
+			+ "JOIN product p ON lower(p.name) = k.name AND p.id_flavor = k.id_flavor AND p.id_size = k.id_size "
+			+ "AND p.retired_at IS NULL "
+			+ "JOIN flavor f ON f.id = p.id_flavor "
+			+ "JOIN flavor_level fl ON fl.id = f.id_flavor_level "
+			+ "JOIN \"size\" s ON s.id = p.id_size";
+
+	/**
+	 * Reserva um bloco de ids na sequência de uma tabela.
+	 */
+	private static final String SQL_NEXT_IDS =
+			"SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)";
+
+	private static final String SQL_INSERT_LEVEL =
+			"INSERT INTO flavor_level(id, name, price) VALUES (?, ?, ?)";
+	private static final String SQL_UPDATE_LEVEL =
+			"UPDATE flavor_level SET price = ? WHERE id = ?";
+
+	private static final String SQL_INSERT_SIZE =
+			"INSERT INTO \"size\"(id, name, yield, weight, price) VALUES (?, ?, ?, ?, ?)";
+	private static final String SQL_UPDATE_SIZE =
+			"UPDATE \"size\" SET yield = ?, weight = ?, price = ? WHERE id = ?";
+
+	private static final String SQL_INSERT_FLAVOR =
+			"INSERT INTO flavor(id, name, id_flavor_level, description) VALUES (?, ?, ?, ?)";
+	private static final String SQL_UPDATE_FLAVOR =
+			"UPDATE flavor SET description = ? WHERE id = ?";
+
+	private static final String SQL_INSERT_PRODUCT =
+			"INSERT INTO product(id, name, id_flavor, id_size, base_price, description) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String SQL_UPDATE_PRODUCT =
+			"UPDATE product SET base_price = ?, description = ? WHERE id = ?";
+
+	/**
+	 * Recebe as linhas da exportação, uma por vez.
+	 */
+	public interface Sink {
+		void level(FlavorLevel level) throws IOException;
+		void size(Size size) throws IOException;
+		void flavor(Flavor flavor) throws IOException;
+		void product(Product product) throws IOException;
+	}
+
+	/**
+	 * Exporta o catálogo inteiro, tabela por tabela, na ordem das dependências.
+	 *
+	 * @param sink destino das linhas
+	 * @return quantidade de linhas exportadas
+	 * @throws SQLException em erro de acesso ao banco
+	 * @throws IOException em erro ao escrever no destino
+	 */
+	public long exportCatalog(Sink sink) throws SQLException, IOException {
+		long count = 0;
+		try (Connection conn = DBConnection.getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				try (PreparedStatement stmt = streaming(conn, SQL_ALL_LEVELS);
+						ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						sink.level(mapLevel(rs));
+						count++;
+					}
+				}
+				try (PreparedStatement stmt = streaming(conn, SQL_ALL_SIZES);
+						ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						sink.size(mapSize(rs));
+						count++;
+					}
+				}
+				try (PreparedStatement stmt = streaming(conn, SQL_ALL_FLAVORS);
+						ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						sink.flavor(mapFlavor(rs));
+						count++;
+					}
+				}
+				try (PreparedStatement stmt = streaming(conn, SQL_ALL_PRODUCTS);
+						ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						sink.product(mapProduct(rs));
+						count++;
+					}
+				}
+			} finally {
+				conn.rollback();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Abre uma sessão de importação (uma conexão, uma transação).
+	 *
+	 * @return sessão aberta; deve ser fechada (sem {@link Session#commit()}, a transação é desfeita)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public Session openSession() throws SQLException {
+		Connection conn = DBConnection.getConnection();
+		try {
+			conn.setAutoCommit(false);
+			return new Session(conn);
+		} catch (SQLException e) {
+			conn.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sessão de importação: leituras do estado atual e gravações em lote na mesma transação.
+	 */
+	public static final class Session implements AutoCloseable {
+		private final Connection conn;
+		private final Map<String, long[]> idBlocks = new HashMap<>();
+		private final List<PreparedStatement> ordered = new ArrayList<>();
+		private final PreparedStatement insertLevel, updateLevel, insertSize, updateSize;
+		private final PreparedStatement insertFlavor, updateFlavor, insertProduct, updateProduct;
+		private int pending;
+		private boolean committed;
+
+		private Session(Connection conn) throws SQLException {
+			this.conn = conn;
+			this.insertLevel = prepare(SQL_INSERT_LEVEL);
+			this.updateLevel = prepare(SQL_UPDATE_LEVEL);
+			this.insertSize = prepare(SQL_INSERT_SIZE);
+			this.updateSize = prepare(SQL_UPDATE_SIZE);
+			this.insertFlavor = prepare(SQL_INSERT_FLAVOR);
+			this.updateFlavor = prepare(SQL_UPDATE_FLAVOR);
+			this.insertProduct = prepare(SQL_INSERT_PRODUCT);
+			this.updateProduct = prepare(SQL_UPDATE_PRODUCT);
+		}
+
+		private PreparedStatement prepare(String sql) throws SQLException {
+			PreparedStatement stmt = conn.prepareStatement(sql);
+			ordered.add(stmt);
+			return stmt;
+		}
+
+		/**
+		 * @return níveis de sabor atuais
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public List<FlavorLevel> findAllLevels() throws SQLException {
+			List<FlavorLevel> list = new ArrayList<>();
+			try (PreparedStatement stmt = conn.prepareStatement(SQL_ALL_LEVELS);
+					ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) list.add(mapLevel(rs));
+			}
+			return list;
+		}
+
+		/**
+		 * @return tamanhos atuais
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public List<Size> findAllSizes() throws SQLException {
+			List<Size> list = new ArrayList<>();
+			try (PreparedStatement stmt = conn.prepareStatement(SQL_ALL_SIZES);
+					ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) list.add(mapSize(rs));
+			}
+			return list;
+		}
+
+		/**
+		 * Busca os sabores cadastrados com as chaves informadas (uma consulta).
+		 *
+		 * @param names nomes sem espaços nas pontas e em minúsculas
+		 * @param levelIds ids dos níveis, na mesma ordem dos nomes
+		 * @return sabores encontrados (nível com id e nome)
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public List<Flavor> findFlavors(List<String> names, List<Integer> levelIds) throws SQLException {
+			List<Flavor> list = new ArrayList<>();
+			if (names.isEmpty()) return list;
+			try (PreparedStatement stmt = conn.prepareStatement(SQL_FIND_FLAVORS)) {
+				stmt.setArray(1, conn.createArrayOf("text", names.toArray()));
+				stmt.setArray(2, conn.createArrayOf("integer", levelIds.toArray()));
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) list.add(mapFlavor(rs));
+				}
+			}
+			return list;
+		}
+
+		/**
+		 * Busca os produtos cadastrados com as chaves informadas (uma consulta).
+		 *
+		 * @param names nomes sem espaços nas pontas e em minúsculas
+		 * @param flavorIds ids dos sabores, na mesma ordem dos nomes
+		 * @param sizeIds ids dos tamanhos, na mesma ordem dos nomes
+		 * @return produtos não retirados encontrados (sabor e tamanho com id e nome)
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public List<Product> findProducts(List<String> names, List<Integer> flavorIds, List<Integer> sizeIds) throws SQLException {
+			List<Product> list = new ArrayList<>();
+			if (names.isEmpty()) return list;
+			try (PreparedStatement stmt = conn.prepareStatement(SQL_FIND_PRODUCTS)) {
+				stmt.setArray(1, conn.createArrayOf("text", names.toArray()));
+				stmt.setArray(2, conn.createArrayOf("integer", flavorIds.toArray()));
+				stmt.setArray(3, conn.createArrayOf("integer", sizeIds.toArray()));
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) list.add(mapProduct(rs));
+				}
+			}
+			return list;
+		}
+
+		/**
+		 * Reserva o próximo id de uma tabela (buscando {@value RepositoryCatalogTransfer#ID_BLOCK} por vez).
+		 *
+		 * @param table nome da tabela (flavor_level, size, flavor ou product)
+		 * @return id reservado
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public int nextId(String table) throws SQLException {
+			long[] block = idBlocks.get(table);
+			if (block == null || block[0] >= block.length) {
+				block = new long[ID_BLOCK + 1];
+				block[0] = 1;
+				try (PreparedStatement stmt = conn.prepareStatement(SQL_NEXT_IDS)) {
+					stmt.setString(1, "size".equals(table) ? "\"size\"" : table);
+					stmt.setInt(2, ID_BLOCK);
+					try (ResultSet rs = stmt.executeQuery()) {
+						int i = 1;
+						while (rs.next()) block[i++] = rs.getLong(1);
+					}
+				}
+				idBlocks.put(table, block);
+			}
+			return (int) block[(int) block[0]++];
+		}
+
+		public void insertLevel(FlavorLevel l) throws SQLException {
+			insertLevel.setInt(1, l.getId());
+			insertLevel.setString(2, l.getName());
+			insertLevel.setBigDecimal(3, money(l.getPrice()));
+			add(insertLevel);
+		}
+
+		public void updateLevel(FlavorLevel l) throws SQLException {
+			updateLevel.setBigDecimal(1, money(l.getPrice()));
+			updateLevel.setInt(2, l.getId());
+			add(updateLevel);
+		}
+
+		public void insertSize(Size s) throws SQLException {
+			insertSize.setInt(1, s.getId());
+			insertSize.setString(2, s.getName());
+			insertSize.setString(3, s.getYield());
+			insertSize.setString(4, s.getWeight());
+			insertSize.setBigDecimal(5, money(s.getPrice()));
+			add(insertSize);
+		}
+
+		public void updateSize(Size s) throws SQLException {
+			updateSize.setString(1, s.getYield());
+			updateSize.setString(2, s.getWeight());
+			updateSize.setBigDecimal(3, money(s.getPrice()));
+			updateSize.setInt(4, s.getId());
+			add(updateSize);
+		}
+
+		public void insertFlavor(Flavor f) throws SQLException {
+			insertFlavor.setInt(1, f.getId());
+			insertFlavor.setString(2, f.getName());
+			insertFlavor.setInt(3, f.getLevel().getId());
+			insertFlavor.setString(4, f.getDescription());
+			add(insertFlavor);
+		}
+
+		public void updateFlavor(Flavor f) throws SQLException {
+			updateFlavor.setString(1, f.getDescription());
+			updateFlavor.setInt(2, f.getId());
+			add(updateFlavor);
+		}
+
+		public void insertProduct(Product p) throws SQLException {
+			insertProduct.setInt(1, p.getId());
+			insertProduct.setString(2, p.getName());
+			insertProduct.setInt(3, p.getFlavor().getId());
+			insertProduct.setInt(4, p.getSize().getId());
+			insertProduct.setBigDecimal(5, money(p.getBasePrice()));
+			insertProduct.setString(6, p.getDescription());
+			add(insertProduct);
+		}
+
+		public void updateProduct(Product p) throws SQLException {
+			updateProduct.setBigDecimal(1, money(p.getBasePrice()));
+			updateProduct.setString(2, p.getDescription());
+			updateProduct.setInt(3, p.getId());
+			add(updateProduct);
+		}
+
+		/**
+		 * @return comandos acumulados desde o último {@link #flush()}
+		 */
+		public int pending() {
+			return pending;
+		}
+
+		/**
+		 * Envia os lotes acumulados, na ordem das dependências.
+		 *
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public void flush() throws SQLException {
+			if (pending == 0) return;
+			for (PreparedStatement stmt : ordered) {
+				stmt.executeBatch();
+			}
+			pending = 0;
+		}
+
+		/**
+		 * Envia o que falta e confirma a transação.
+		 *
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		public void commit() throws SQLException {
+			flush();
+			conn.commit();
+			committed = true;
+		}
+
+		/**
+		 * Fecha a sessão; sem {@link #commit()}, desfaz tudo.
+		 *
+		 * @throws SQLException em erro de acesso ao banco
+		 */
+		@Override
+		public void close() throws SQLException {
+			try {
+				if (!committed) conn.rollback();
+				for (PreparedStatement stmt : ordered) stmt.close();
+			} finally {
+				conn.close();
+			}
+		}
+
+		private void add(PreparedStatement stmt) throws SQLException {
+			stmt.addBatch();
+			pending++;
+		}
+
+		private static BigDecimal money(Double value) {
+			return value != null ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP) : null;
+		}
+	}
+
+	private static PreparedStatement streaming(Connection conn, String sql) throws SQLException {
+		PreparedStatement stmt = conn.prepareStatement(sql);
+		stmt.setFetchSize(FETCH_SIZE);
+		return stmt;
+	}
+
+	private static FlavorLevel mapLevel(ResultSet rs) throws SQLException {
+		return new FlavorLevel(rs.getInt("id"), rs.getString("name"), rs.getDouble("price"));
+	}
+
+	private static Size mapSize(ResultSet rs) throws SQLException {
+		return new Size(rs.getInt("id"), rs.getString("name"), rs.getString("yield"),
+				rs.getString("weight"), rs.getDouble("price"));
+	}
+
+	private static Flavor mapFlavor(ResultSet rs) throws SQLException {
+		FlavorLevel level = new FlavorLevel();
+		level.setId(rs.getInt("id_flavor_level"));
+		level.setName(rs.getString("level_name"));
+		Flavor f = new Flavor(rs.getString("name"), level, rs.getString("description"));
+		f.setId(rs.getInt("id"));
+		return f;
+	}
+
+	private static Product mapProduct(ResultSet rs) throws SQLException {
+		FlavorLevel level = new FlavorLevel();
+		level.setName(rs.getString("level_name"));
+		Flavor flavor = new Flavor(rs.getString("flavor_name"), level, null);
+		flavor.setId(rs.getInt("id_flavor"));
+		Size size = new Size();
+		size.setId(rs.getInt("id_size"));
+		size.setName(rs.getString("size_name"));
+		Product p = new Product(rs.getString("name"), flavor, size, rs.getDouble("base_price"), rs.getString("description"));
+		p.setId(rs.getInt("id"));
+		return p;
+	}
+}
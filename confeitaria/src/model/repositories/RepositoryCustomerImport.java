@@ -0,0 +1,176 @@
+package model.repositories;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import model.entities.Address;
+import model.entities.User;
+
+/**
+ * Repositório da importação de clientes em lote (endereço + pessoa + usuário).
+ *
+ * Cada lote é gravado em uma única transação, em uma única conexão:
+ * 1. Uma consulta descobre quais e-mails do lote já existem ({@code email = ANY(?)}); esses ficam de fora.
+ * 2. Uma consulta reserva nas sequências os ids de address, person e user de todas as linhas restantes.
+ * 3. Três INSERTs em lote ({@code addBatch}/{@code executeBatch}) gravam as linhas já com os ids,
+ *    sem precisar ler o id gerado de cada linha para ligar endereço → pessoa → usuário.
+ * 4. Commit; em qualquer erro, rollback (o lote inteiro volta).
+ *
+ * Com {@code reWriteBatchedInserts} ({@link DBConnection}), o driver envia cada lote como poucos
+ * INSERTs de várias linhas.
+ */
+public class RepositoryCustomerImport {
+
+	/**
+	 * SELECT dos e-mails de um lote que já estão cadastrados.
+	 */
+	private static final String SQL_FIND_EXISTING_EMAILS =
+			"SELECT email FROM person WHERE email = ANY(?)";
+
+	/**
+	 * Reserva ids nas sequências de address, person e user (uma linha por cliente).
+	 */
+	private static final String SQL_NEXT_IDS =
+			"SELECT nextval(pg_get_serial_sequence('address', 'id')) AS id_address, "
+			+ "nextval(pg_get_serial_sequence('person', 'id')) AS id_person, "
+			+ "nextval(pg_get_serial_sequence('\"user\"', 'id')) AS id_user "
+			+ "FROM generate_series(1, ?)";
+
+	/**
+	 * INSERT na tabela address com id já reservado.
+	 */
+	private static final String SQL_INSERT_ADDRESS =
+			"INSERT INTO address(id, id_area, cep, street, number, complement, reference) VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * INSERT na tabela person com id já reservado.
+	 */
+	private static final String SQL_INSERT_PERSON =
+			"INSERT INTO person(id, first_name, last_name, email, id_address) VALUES(?, ?, ?, ?, ?)";
+
+	/**
+	 * INSERT na tabela user com id já reservado.
+	 */
+	private static final String SQL_INSERT_USER =
+			"INSERT INTO \"user\"(id, id_person, password_hash) VALUES(?, ?, ?)";
+
+	/**
+	 * Grava um lote de clientes em uma transação.
+	 * Cada usuário deve ter endereço (com área), nome, e-mail e hash de senha preenchidos.
+	 * Os ids gerados são preenchidos no endereço, na pessoa e no usuário.
+	 *
+	 * @param users clientes do lote
+	 * @return para cada posição, true se o cliente foi gravado, false se o e-mail já existia
+	 * @throws SQLException em erro de acesso ao banco (o lote inteiro é desfeito)
+	 */
+	public boolean[] insertBatch(List<User> users) throws SQLException {
+		boolean[] inserted = new boolean[users.size()];
+		if (users.isEmpty()) return inserted;
+
+		try (Connection conn = DBConnection.getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				Set<String> existing = findExistingEmails(conn, users);
+
+				int count = 0;
+				for (int i = 0; i < users.size(); i++) {
+					inserted[i] = !existing.contains(users.get(i).getEmail());
+					if (inserted[i]) count++;
+				}
+				if (count == 0) {
+					conn.commit();
+					return inserted;
+				}
+
+				try (PreparedStatement ids = conn.prepareStatement(SQL_NEXT_IDS)) {
+					ids.setInt(1, count);
+					try (ResultSet rs = ids.executeQuery()) {
+						for (int i = 0; i < users.size(); i++) {
+							if (!inserted[i]) continue;
+							if (!rs.next()) throw new SQLException("Sequências não retornaram ids suficientes.");
+							User u = users.get(i);
+							u.getAddress().setInteger(rs.getInt("id_address"));
+							u.setId(rs.getInt("id_person"));
+							u.setIdUser(rs.getInt("id_user"));
+						}
+					}
+				}
+
+				try (PreparedStatement address = conn.prepareStatement(SQL_INSERT_ADDRESS);
+						PreparedStatement person = conn.prepareStatement(SQL_INSERT_PERSON);
+						PreparedStatement user = conn.prepareStatement(SQL_INSERT_USER)) {
+					for (int i = 0; i < users.size(); i++) {
+						if (!inserted[i]) continue;
+						User u = users.get(i);
+						Address a = u.getAddress();
+
+						address.setInt(1, a.getInteger());
+						address.setInt(2, a.getArea().getId());
+						address.setString(3, a.getCep());
+						address.setString(4, a.getStreet());
+						address.setObject(5, a.getNumber());
+						address.setString(6, a.getComplement());
+						address.setString(7, a.getReference());
+						address.addBatch();
+
+						person.setInt(1, u.getId());
+						person.setString(2, u.getFirstName());
+						person.setString(3, u.getLastName());
+						person.setString(4, u.getEmail());
+						person.setInt(5, a.getInteger());
+						person.addBatch();
+
+						user.setInt(1, u.getIdUser());
+						user.setInt(2, u.getId());
+						user.setString(3, u.getPasswordHash());
+						user.addBatch();
+					}
+					address.executeBatch();
+					person.executeBatch();
+					user.executeBatch();
+				}
+
+				conn.commit();
+				return inserted;
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Consulta quais e-mails do lote já existem em {@code person}.
+	 *
+	 * @param conn conexão da transação do lote
+	 * @param users clientes do lote
+	 * @return e-mails já cadastrados
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	private Set<String> findExistingEmails(Connection conn, List<User> users) throws SQLException {
+		String[] emails = new String[users.size()];
+		for (int i = 0; i < emails.length; i++) {
+			emails[i] = users.get(i).getEmail();
+		}
+
+		Set<String> existing = new HashSet<>();
+		Array array = conn.createArrayOf("text", emails);
+		try (PreparedStatement stmt = conn.prepareStatement(SQL_FIND_EXISTING_EMAILS)) {
+			stmt.setArray(1, array);
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					existing.add(rs.getString("email"));
+				}
+			}
+		} finally {
+			array.free();
+		}
+		return existing;
+	}
+}
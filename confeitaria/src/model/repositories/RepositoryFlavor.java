@@ -6,6 +6,7 @@ import model.entities.FlavorLevel;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório responsável pela persistência e consulta de sabores na tabela flavor.
@@ -22,6 +23,47 @@ public class RepositoryFlavor {
     public static final String SQL_INSERT =
             "INSERT INTO flavor(name, id_flavor_level, description) VALUES (?, ?, ?)";
     
+    /**
+     * SQL de INSERT de um sabor que reaproveita o sabor já existente com o mesmo nome e nível.
+     * Usado em upsertFlavorAndReturnId.
+     * O alvo do ON CONFLICT é o índice único {@code ux_flavor_name_level (lower(name), id_flavor_level)}.
+     * O DO UPDATE regrava só id_flavor_level com o mesmo valor: assim o RETURNING devolve o id
+     * também quando o sabor já existe, sem disparar o trigger de busca (que observa name e description).
+     */
+    public static final String SQL_UPSERT =
+            "INSERT INTO flavor(name, id_flavor_level, description) VALUES (?, ?, ?) "
+                    + "ON CONFLICT ((lower(name)), id_flavor_level) "
+                    + "DO UPDATE SET id_flavor_level = EXCLUDED.id_flavor_level "
+                    + "RETURNING id";
+
+    /**
+     * Sabores repetidos (mesmo nome sem diferenciar maiúsculas e mesmo nível) e o sabor que fica
+     * no lugar de cada um (o de menor id do grupo).
+     * Base de SQL_MERGE_REPOINT_PRODUCTS e SQL_MERGE_DELETE_DUPLICATES.
+     */
+    private static final String SQL_DUPLICATES =
+            "SELECT id, keep_id FROM ("
+                    + "SELECT id, MIN(id) OVER (PARTITION BY lower(name), id_flavor_level) AS keep_id FROM flavor"
+                    + ") d WHERE id <> keep_id";
+
+    /**
+     * UPDATE que aponta os produtos dos sabores repetidos para o sabor mantido.
+     * Usado em mergeDuplicateFlavors.
+     */
+    public static final String SQL_MERGE_REPOINT_PRODUCTS =
+            "UPDATE product p SET id_flavor = dup.keep_id "
+                    + "FROM (" + SQL_DUPLICATES + ") dup "
+                    + "WHERE p.id_flavor = dup.id";
+
+    /**
+     * DELETE dos sabores repetidos (já sem produtos apontando para eles).
+     * Usado em mergeDuplicateFlavors.
+     */
+    public static final String SQL_MERGE_DELETE_DUPLICATES =
+            "DELETE FROM flavor f "
+                    + "USING (" + SQL_DUPLICATES + ") dup "
+                    + "WHERE f.id = dup.id";
+
     /**
      * SQL de DELETE de um sabor por id.
      * Usado em deleteFlavor.
@@ -52,6 +94,17 @@ public class RepositoryFlavor {
                     + "FROM flavor f "
                     + "INNER JOIN flavor_level fl ON fl.id = f.id_flavor_level "
                     + "ORDER BY f.id DESC";
+
+    /**
+     * Colunas lidas por mapResultSetToFlavor (aliases de SQL_FIND_BY_ID/SQL_FIND_ALL), por índice.
+     */
+    private static final ColumnLayout FLAVOR_COLUMNS = new ColumnLayout();
+    private static final int COL_FLAVOR_ID = FLAVOR_COLUMNS.column("flavor_id");
+    private static final int COL_FLAVOR_NAME = FLAVOR_COLUMNS.column("flavor_name");
+    private static final int COL_FLAVOR_DESCRIPTION = FLAVOR_COLUMNS.column("flavor_description");
+    private static final int COL_LEVEL_ID = FLAVOR_COLUMNS.column("flavor_level_id");
+    private static final int COL_LEVEL_NAME = FLAVOR_COLUMNS.column("flavor_level_name");
+    private static final int COL_LEVEL_PRICE = FLAVOR_COLUMNS.column("flavor_level_price");
     
     /**
      * Insere um novo sabor na tabela flavor.
@@ -99,6 +152,57 @@ public class RepositoryFlavor {
         }
     }
     
+    /**
+     * Grava o sabor ou reaproveita o existente com o mesmo nome (sem diferenciar maiúsculas) e nível.
+     * Abre conexão, prepara SQL_UPSERT e lê o id devolvido pelo RETURNING.
+     * Quando o sabor já existe, a descrição gravada é mantida.
+     * Requer o índice único criado por {@link CreateTables#createFlavorUniqueIndex()}.
+     *
+     * @param flavor sabor a gravar (não nulo; deve conter nível com id)
+     * @return id do sabor inserido ou já existente, ou null se nada for retornado
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public Integer upsertFlavorAndReturnId(Flavor flavor) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPSERT)) {
+
+            stmt.setString(1, flavor.getName());
+            stmt.setInt(2, flavor.getLevel().getId());
+            stmt.setString(3, flavor.getDescription());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Junta sabores repetidos (mesmo nome sem diferenciar maiúsculas e mesmo nível).
+     * Compactação única, feita antes de criar o índice único de flavor:
+     * 1. Em uma transação, aponta os produtos de cada sabor repetido para o de menor id do grupo.
+     * 2. Remove os sabores repetidos, que já não têm produtos.
+     * 3. Commit; em qualquer erro, rollback (nada muda).
+     *
+     * @return quantidade de sabores removidos (0 se não havia repetidos)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public int mergeDuplicateFlavors() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement repoint = conn.prepareStatement(SQL_MERGE_REPOINT_PRODUCTS);
+                 PreparedStatement delete = conn.prepareStatement(SQL_MERGE_DELETE_DUPLICATES)) {
+
+                repoint.executeUpdate();
+                int removed = delete.executeUpdate();
+                conn.commit();
+                return removed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
     /**
      * Remove um sabor da tabela flavor pelo id.
      * Abre conexão, prepara SQL_DELETE, define o id do sabor, executa e retorna true se removeu ao menos uma linha.
@@ -131,7 +235,7 @@ public class RepositoryFlavor {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() ? mapResultSetToFlavor(rs) : null;
+                return rs.next() ? mapResultSetToFlavor(rs, FLAVOR_COLUMNS.resolve(SQL_FIND_BY_ID, rs)) : null;
             }
         }
     }
@@ -146,39 +250,54 @@ public class RepositoryFlavor {
      */
     public List<Flavor> findAllFlavor() throws SQLException {
         List<Flavor> list = new ArrayList<>();
+        RowMapper<Flavor> mapper = FLAVOR_COLUMNS.bind(SQL_FIND_ALL, this::mapResultSetToFlavor);
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                list.add(mapResultSetToFlavor(rs));
+                list.add(mapper.map(rs));
             }
         }
         return list;
     }
+
+    /**
+     * Lista todos os sabores (com nível) em fluxo, sem montar a lista em memória.
+     * Mesma consulta de findAllFlavor, lida com cursor no servidor ({@link RowStream}).
+     * O Stream segura a conexão até ser fechado: use try-with-resources.
+     *
+     * @return Stream dos registros (precisa ser fechado)
+     * @throws SQLException em erro ao abrir a consulta
+     */
+    public Stream<Flavor> streamAllFlavor() throws SQLException {
+        return RowStream.stream(SQL_FIND_ALL, RowStream.DEFAULT_FETCH_SIZE,
+                FLAVOR_COLUMNS.bind(SQL_FIND_ALL, this::mapResultSetToFlavor));
+    }
     
     /**
-     * Converte a linha atual do ResultSet em um objeto Flavor.
+     * Converte a linha atual do ResultSet em um objeto Flavor, lendo por índice.
      * Espera as colunas com aliases definidos em SQL_FIND_BY_ID/SQL_FIND_ALL.
      * Cria FlavorLevel com id, nome e preço, cria Flavor com nome, nível e descrição, define o id do Flavor.
      *
      * @param rs ResultSet já posicionado em uma linha válida
+     * @param cols índices resolvidos por FLAVOR_COLUMNS
      * @return Flavor mapeado
      * @throws SQLException em erro ao ler colunas
      */
-    private Flavor mapResultSetToFlavor(ResultSet rs) throws SQLException {
+    private Flavor mapResultSetToFlavor(ResultSet rs, int[] cols) throws SQLException {
         FlavorLevel level = new FlavorLevel(
-                rs.getInt("flavor_level_id"),
-                rs.getString("flavor_level_name"),
-                rs.getDouble("flavor_level_price")
+                rs.getInt(cols[COL_LEVEL_ID]),
+                rs.getString(cols[COL_LEVEL_NAME]),
+                rs.getDouble(cols[COL_LEVEL_PRICE])
         );
 
         Flavor flavor = new Flavor(
-                rs.getString("flavor_name"),
+                rs.getString(cols[COL_FLAVOR_NAME]),
                 level,
-                rs.getString("flavor_description")
+                rs.getString(cols[COL_FLAVOR_DESCRIPTION])
         );
-        flavor.setId(rs.getInt("flavor_id"));
+        flavor.setId(rs.getInt(cols[COL_FLAVOR_ID]));
         return flavor;
     }
 }
\ No newline at end of file
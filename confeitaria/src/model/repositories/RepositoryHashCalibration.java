@@ -0,0 +1,126 @@
+package model.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Repositório das calibrações do hash de senha, uma linha por terminal (tabela {@code hash_calibration}).
+ *
+ * Todos os terminais verificam senhas da mesma tabela de usuários, então as iterações dos hashes
+ * precisam servir ao terminal mais lento. Cada terminal grava aqui quantas iterações atingem o
+ * tempo-alvo nele, e todos usam o menor valor entre os terminais medidos recentemente.
+ *
+ * O valor comum em vigor fica em uma linha reservada ({@link #SHARED_CLIENT}), que não conta como terminal.
+ * A data dela é a da última mudança do valor, e serve para limitar a velocidade com que ele pode baixar.
+ */
+public class RepositoryHashCalibration {
+
+	/**
+	 * Nome da linha que guarda o valor comum em vigor (nomes de máquina não têm parênteses).
+	 */
+	public static final String SHARED_CLIENT = "(comum)";
+
+	/**
+	 * Grava (ou atualiza) a calibração de um terminal.
+	 */
+	private static final String SQL_UPSERT =
+			"INSERT INTO hash_calibration (client, iterations, measured_at) VALUES (?, ?, now()) "
+			+ "ON CONFLICT (client) DO UPDATE SET iterations = EXCLUDED.iterations, measured_at = now()";
+
+	/**
+	 * Grava o valor comum; a data só muda quando o valor muda.
+	 */
+	private static final String SQL_UPSERT_SHARED =
+			"INSERT INTO hash_calibration (client, iterations, measured_at) VALUES (?, ?, now()) "
+			+ "ON CONFLICT (client) DO UPDATE SET iterations = EXCLUDED.iterations, measured_at = now() "
+			+ "WHERE hash_calibration.iterations <> EXCLUDED.iterations";
+
+	/**
+	 * Menor calibração entre os terminais medidos nos últimos {@code ?} dias (sem a linha do valor comum).
+	 */
+	private static final String SQL_SHARED =
+			"SELECT MIN(iterations) FROM hash_calibration WHERE measured_at >= now() - make_interval(days => ?) AND client <> ?";
+
+	/**
+	 * Piso do valor comum: o valor em vigor se ele mudou há menos de um dia; senão, ele menos {@code ?}%.
+	 */
+	private static final String SQL_FLOOR =
+			"SELECT CASE WHEN measured_at > now() - interval '1 day' THEN iterations "
+			+ "ELSE iterations::bigint * (100 - ?) / 100 END "
+			+ "FROM hash_calibration WHERE client = ?";
+
+	/**
+	 * Grava a calibração do terminal.
+	 *
+	 * @param client identificação do terminal (nome da máquina)
+	 * @param iterations iterações que atingem o tempo-alvo no terminal
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public void saveCalibration(String client, int iterations) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_UPSERT)) {
+			stmt.setString(1, client);
+			stmt.setInt(2, iterations);
+			stmt.executeUpdate();
+		}
+	}
+
+	/**
+	 * Retorna as iterações comuns a todos os terminais: a menor calibração entre os medidos recentemente.
+	 * Terminais sem medição no período (desativados) não contam.
+	 *
+	 * @param maxAgeDays idade máxima, em dias, de uma calibração considerada
+	 * @return menor calibração, ou null se nenhuma
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public Integer findSharedIterations(int maxAgeDays) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_SHARED)) {
+			stmt.setInt(1, maxAgeDays);
+			stmt.setString(2, SHARED_CLIENT);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (!rs.next()) return null;
+				int min = rs.getInt(1);
+				return rs.wasNull() ? null : min;
+			}
+		}
+	}
+
+	/**
+	 * Retorna o menor valor comum permitido agora: o valor em vigor, reduzido em até
+	 * {@code stepPercent}% se ele não mudou nas últimas 24 horas.
+	 *
+	 * @param stepPercent redução máxima por dia, em porcentagem
+	 * @return piso das iterações comuns, ou null se ainda não há valor comum
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public Integer findSharedFloor(int stepPercent) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_FLOOR)) {
+			stmt.setInt(1, stepPercent);
+			stmt.setString(2, SHARED_CLIENT);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (!rs.next()) return null;
+				long floor = rs.getLong(1);
+				return rs.wasNull() ? null : (int) floor;
+			}
+		}
+	}
+
+	/**
+	 * Grava o valor comum em vigor (a data só é atualizada se o valor mudar).
+	 *
+	 * @param iterations iterações comuns
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public void saveSharedIterations(int iterations) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_UPSERT_SHARED)) {
+			stmt.setString(1, SHARED_CLIENT);
+			stmt.setInt(2, iterations);
+			stmt.executeUpdate();
+		}
+	}
+}
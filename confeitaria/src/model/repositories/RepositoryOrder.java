@@ -1,5 +1,6 @@
 package model.repositories;
 
+import java.math.BigDecimal;
 import java.sql.*;
 
 /**
@@ -20,11 +21,11 @@ public class RepositoryOrder {
 	
 	/**
      * SQL de INSERT na tabela "order".
-     * Campos: id_user, datetime, total_price, delivery, observations.
+     * Campos: id_user, datetime, total_price, discount, delivery, observations.
      */
     private static final String SQL_INSERT =
-            "INSERT INTO \"order\" (id_user, datetime, total_price, delivery, observations) "
-                    + "VALUES (?, ?, ?, ?, ?)";
+            "INSERT INTO \"order\" (id_user, datetime, total_price, discount, delivery, observations) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
     
     /**
      * Insere um pedido e retorna o id gerado.
@@ -34,22 +35,24 @@ public class RepositoryOrder {
      *
      * @param idUser id do usuário (FK para "user")
      * @param datetime data/hora do pedido
-     * @param totalPrice total do pedido
+     * @param totalPrice total do pedido (DECIMAL com 2 casas)
+     * @param discount desconto de promoções já abatido do total (DECIMAL com 2 casas)
      * @param delivery forma de recebimento
      * @param observations observações (pode ser null)
      * @return id do pedido criado ou null se não inserir
      * @throws SQLException em erro de acesso ao banco
      */
-    public Integer createOrderAndReturnId(Integer idUser, Timestamp datetime, Double totalPrice,
-                                          String delivery, String observations) throws SQLException {
+    public Integer createOrderAndReturnId(Integer idUser, Timestamp datetime, BigDecimal totalPrice,
+                                          BigDecimal discount, String delivery, String observations) throws SQLException {
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, idUser);
             stmt.setTimestamp(2, datetime);
-            stmt.setDouble(3, totalPrice);
-            stmt.setString(4, delivery);
-            stmt.setString(5, observations);
+            stmt.setBigDecimal(3, totalPrice);
+            stmt.setBigDecimal(4, discount);
+            stmt.setString(5, delivery);
+            stmt.setString(6, observations);
 
             if (stmt.executeUpdate() == 0) return null;
 
@@ -1,5 +1,6 @@
 package model.repositories;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -35,11 +36,11 @@ public class RepositoryOrderItems {
      * @param idOrder id do pedido (FK para "order")
      * @param idProduct id do produto (FK para product)
      * @param quantity quantidade do item
-     * @param priceAtMoment preço unitário no momento da compra
+     * @param priceAtMoment preço unitário no momento da compra (DECIMAL com 2 casas)
      * @return true se inseriu ao menos uma linha
      * @throws SQLException em erro de acesso ao banco
      */
-    public boolean createOrderItem(Integer idOrder, Integer idProduct, Integer quantity, Double priceAtMoment)
+    public boolean createOrderItem(Integer idOrder, Integer idProduct, Integer quantity, BigDecimal priceAtMoment)
             throws SQLException {
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
@@ -47,7 +48,7 @@ public class RepositoryOrderItems {
             stmt.setInt(1, idOrder);
             stmt.setInt(2, idProduct);
             stmt.setInt(3, quantity);
-            stmt.setDouble(4, priceAtMoment);
+            stmt.setBigDecimal(4, priceAtMoment);
 
             return stmt.executeUpdate() > 0;
         }
@@ -7,9 +7,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import model.entities.Address;
 import model.entities.Area;
+import model.entities.CustomerListRow;
 import model.entities.Person;
 
 /**
@@ -34,7 +36,7 @@ public class RepositoryPerson {
 	private static final String SQL_FIND_BY_ID =
 			"SELECT p.id AS person_id, p.first_name, p.last_name, p.email, p.id_address, "
 			+ "a.id AS address_id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference, "
-			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee "
+			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee, ar.latitude AS area_latitude, ar.longitude AS area_longitude "
 			+ "FROM person p "
             + "INNER JOIN address a ON a.id = p.id_address "
 			+ "INNER JOIN area ar ON ar.id = a.id_area WHERE p.id = ?";
@@ -45,7 +47,7 @@ public class RepositoryPerson {
 	private static final String SQL_FIND_BY_EMAIL =
 			"SELECT p.id AS person_id, p.first_name, p.last_name, p.email, p.id_address, "
 			+ "a.id AS address_id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference, "
-			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee "
+			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee, ar.latitude AS area_latitude, ar.longitude AS area_longitude "
 			+ "FROM person p INNER JOIN address a ON a.id = p.id_address "
 			+ "INNER JOIN area ar ON ar.id = a.id_area WHERE p.email = ?";
 
@@ -55,10 +57,16 @@ public class RepositoryPerson {
 	private static final String SQL_FIND_ALL =
 			"SELECT p.id AS person_id, p.first_name, p.last_name, p.email, p.id_address, "
 			+ "a.id AS address_id, a.id_area, a.cep, a.street, a.number, a.complement, a.reference, "
-			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee "
+			+ "ar.id AS area_id, ar.name AS area_name, ar.fee AS area_fee, ar.latitude AS area_latitude, ar.longitude AS area_longitude "
 			+ "FROM person p INNER JOIN address a ON a.id = p.id_address "
 			+ "INNER JOIN area ar ON ar.id = a.id_area";
 
+	/**
+	 * Página da listagem de clientes ({@link CustomerListRow}): só id, nome e e-mail, sem JOIN.
+	 */
+	private static final String SQL_LIST_ROWS_PAGE =
+			"SELECT id, first_name, last_name, email FROM person ORDER BY first_name, last_name, id LIMIT ? OFFSET ?";
+
 	/**
 	 * DELETE por id.
 	 */
@@ -172,11 +180,51 @@ public class RepositoryPerson {
 		return list;
 	}
 
+	/**
+	 * Lista todos os pessoas (com endereço e área) em fluxo, sem montar a lista em memória.
+	 * Mesma consulta de findAllPerson, lida com cursor no servidor ({@link RowStream}).
+	 * O Stream segura a conexão até ser fechado: use try-with-resources.
+	 *
+	 * @return Stream dos registros (precisa ser fechado)
+	 * @throws SQLException em erro ao abrir a consulta
+	 */
+	public Stream<Person> streamAllPerson() throws SQLException {
+		return RowStream.stream(SQL_FIND_ALL, RowStream.DEFAULT_FETCH_SIZE, this::mapResultSetToPerson);
+	}
+
+	/**
+	 * Lista uma página de clientes com só as colunas da listagem (id, nome e e-mail).
+	 * Não faz JOIN com endereço e área; para o cadastro completo, use findByIdPerson.
+	 *
+	 * @param offset índice do primeiro cliente
+	 * @param limit quantidade máxima de clientes
+	 * @return linhas da página, em ordem alfabética (nunca null, pode ser vazia)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public List<CustomerListRow> findPageCustomerRow(int offset, int limit) throws SQLException {
+		List<CustomerListRow> list = new ArrayList<>();
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_LIST_ROWS_PAGE)) {
+			stmt.setInt(1, limit);
+			stmt.setInt(2, offset);
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					list.add(new CustomerListRow(
+							rs.getInt("id"),
+							rs.getString("first_name"),
+							rs.getString("last_name"),
+							rs.getString("email")));
+				}
+			}
+		}
+		return list;
+	}
+
 	/**
 	 * Mapeia a linha atual do ResultSet para um objeto Person.
 	 * Espera colunas com aliases person_id, first_name, last_name, email, id_address,
 	 * address_id, id_area, cep, street, number, complement, reference,
-	 * area_id, area_name, area_fee (do JOIN com address e area).
+	 * area_id, area_name, area_fee, area_latitude, area_longitude (do JOIN com address e area).
 	 *
 	 * @param rs ResultSet posicionado na linha desejada
 	 * @return instância de Person preenchida com os dados da linha (incluindo Address e Area)
@@ -201,6 +249,8 @@ public class RepositoryPerson {
 		area.setId(rs.getInt("area_id"));
 		area.setName(rs.getString("area_name"));
 		area.setFee(rs.getDouble("area_fee"));
+		area.setLatitude(rs.getObject("area_latitude") != null ? rs.getDouble("area_latitude") : null);
+		area.setLongitude(rs.getObject("area_longitude") != null ? rs.getDouble("area_longitude") : null);
 		address.setArea(area);
 
 		person.setAddress(address);
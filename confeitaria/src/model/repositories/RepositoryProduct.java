@@ -3,18 +3,23 @@ package model.repositories;
 import model.entities.Flavor;
 import model.entities.FlavorLevel;
 import model.entities.Product;
+import model.entities.ProductListRow;
 import model.entities.Size;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório responsável pela persistência e consulta de produtos na tabela product.
  * As consultas fazem JOIN com flavor, flavor_level e size para montar o Product completo.
+ * Produtos retirados do catálogo ({@code retired_at} preenchido) ficam fora das consultas;
+ * as linhas continuam no banco para o histórico de pedidos.
  * Abstrai o acesso a dados via JDBC.
  */
 public class RepositoryProduct {
@@ -47,7 +52,14 @@ public class RepositoryProduct {
                     + "INNER JOIN flavor f ON f.id = p.id_flavor "
                     + "INNER JOIN flavor_level fl ON fl.id = f.id_flavor_level "
                     + "INNER JOIN size s ON s.id = p.id_size "
-                    + "WHERE p.id = ?";
+                    + "WHERE p.id = ? AND p.retired_at IS NULL";
+    
+    /**
+     * SQL do nome de um produto por id, inclusive retirado do catálogo.
+     * Usado para avisar quais itens do carrinho deixaram de estar disponíveis.
+     */
+    private static final String SQL_FIND_NAME_BY_ID =
+            "SELECT name FROM product WHERE id = ?";
     
     /**
      * SQL de SELECT de todos os produtos.
@@ -64,7 +76,126 @@ public class RepositoryProduct {
                     + "INNER JOIN flavor f ON f.id = p.id_flavor "
                     + "INNER JOIN flavor_level fl ON fl.id = f.id_flavor_level "
                     + "INNER JOIN size s ON s.id = p.id_size "
+                    + "WHERE p.retired_at IS NULL "
                     + "ORDER BY p.id DESC";
+
+    /**
+     * SQL de SELECT de uma página de produtos.
+     * Mesma consulta de SQL_FIND_ALL, limitada por LIMIT/OFFSET.
+     */
+    private static final String SQL_FIND_PAGE = SQL_FIND_ALL + " LIMIT ? OFFSET ?";
+
+    /**
+     * SQL de contagem de produtos.
+     */
+    private static final String SQL_COUNT =
+            "SELECT COUNT(*) FROM product WHERE retired_at IS NULL";
+
+    /**
+     * SQL de busca textual paginada.
+     * Usa a coluna search_vector (mantida por trigger, índice GIN) e a configuração pt_unaccent.
+     * A busca aceita a sintaxe de websearch_to_tsquery (aspas, "or", "-termo").
+     * Ordena por relevância (ts_rank_cd) e depois por id desc.
+     */
+    private static final String SQL_SEARCH_PAGE =
+            "SELECT "
+                    + "p.id AS product_id, p.name AS product_name, p.base_price, p.description AS product_description, "
+                    + "f.id AS flavor_id, f.name AS flavor_name, f.description AS flavor_description, "
+                    + "fl.id AS flavor_level_id, fl.name AS flavor_level_name, fl.price AS flavor_level_price, "
+                    + "s.id AS size_id, s.name AS size_name, s.yield AS size_yield, s.weight AS size_weight, s.price AS size_price "
+                    + "FROM product p "
+                    + "CROSS JOIN websearch_to_tsquery('pt_unaccent', ?) q "
+                    + "INNER JOIN flavor f ON f.id = p.id_flavor "
+                    + "INNER JOIN flavor_level fl ON fl.id = f.id_flavor_level "
+                    + "INNER JOIN size s ON s.id = p.id_size "
+                    + "WHERE p.search_vector @@ q AND p.retired_at IS NULL "
+                    + "ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id DESC "
+                    + "LIMIT ? OFFSET ?";
+
+    /**
+     * SQL de contagem dos produtos encontrados pela busca textual.
+     */
+    private static final String SQL_SEARCH_COUNT =
+            "SELECT COUNT(*) FROM product p "
+                    + "CROSS JOIN websearch_to_tsquery('pt_unaccent', ?) q "
+                    + "WHERE p.search_vector @@ q AND p.retired_at IS NULL";
+
+    /**
+     * Colunas e JOINs das listagens ({@link ProductListRow}): só o que as tabelas exibem.
+     * Sem descrições, rendimento e peso; o preço unitário já vem somado.
+     */
+    private static final String SQL_LIST_ROW_SELECT =
+            "SELECT p.id, p.name, p.base_price, (p.base_price + s.price + fl.price) AS unit_price, "
+                    + "f.name AS flavor_name, fl.name AS flavor_level_name, s.name AS size_name "
+                    + "FROM product p "
+                    + "INNER JOIN flavor f ON f.id = p.id_flavor "
+                    + "INNER JOIN flavor_level fl ON fl.id = f.id_flavor_level "
+                    + "INNER JOIN size s ON s.id = p.id_size ";
+
+    /**
+     * Listagem de todos os produtos ({@link ProductListRow}), mais recentes primeiro.
+     */
+    private static final String SQL_LIST_ROWS =
+            SQL_LIST_ROW_SELECT + "WHERE p.retired_at IS NULL ORDER BY p.id DESC";
+
+    /**
+     * Página da listagem ({@link ProductListRow}).
+     */
+    private static final String SQL_LIST_ROWS_PAGE = SQL_LIST_ROWS + " LIMIT ? OFFSET ?";
+
+    /**
+     * Página da busca textual ({@link ProductListRow}), na mesma ordem de SQL_SEARCH_PAGE.
+     */
+    private static final String SQL_SEARCH_ROWS_PAGE =
+            SQL_LIST_ROW_SELECT
+                    + "CROSS JOIN websearch_to_tsquery('pt_unaccent', ?) q "
+                    + "WHERE p.search_vector @@ q AND p.retired_at IS NULL "
+                    + "ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id DESC "
+                    + "LIMIT ? OFFSET ?";
+
+    /**
+     * Colunas lidas por mapResultSetToProduct (aliases de SQL_FIND_BY_ID/SQL_FIND_ALL/SQL_SEARCH_PAGE).
+     * Os índices são resolvidos uma vez por consulta e as linhas são lidas por posição.
+     */
+    private static final ColumnLayout PRODUCT_COLUMNS = new ColumnLayout();
+    private static final int COL_PRODUCT_ID = PRODUCT_COLUMNS.column("product_id");
+    private static final int COL_PRODUCT_NAME = PRODUCT_COLUMNS.column("product_name");
+    private static final int COL_BASE_PRICE = PRODUCT_COLUMNS.column("base_price");
+    private static final int COL_PRODUCT_DESCRIPTION = PRODUCT_COLUMNS.column("product_description");
+    private static final int COL_FLAVOR_ID = PRODUCT_COLUMNS.column("flavor_id");
+    private static final int COL_FLAVOR_NAME = PRODUCT_COLUMNS.column("flavor_name");
+    private static final int COL_FLAVOR_DESCRIPTION = PRODUCT_COLUMNS.column("flavor_description");
+    private static final int COL_LEVEL_ID = PRODUCT_COLUMNS.column("flavor_level_id");
+    private static final int COL_LEVEL_NAME = PRODUCT_COLUMNS.column("flavor_level_name");
+    private static final int COL_LEVEL_PRICE = PRODUCT_COLUMNS.column("flavor_level_price");
+    private static final int COL_SIZE_ID = PRODUCT_COLUMNS.column("size_id");
+    private static final int COL_SIZE_NAME = PRODUCT_COLUMNS.column("size_name");
+    private static final int COL_SIZE_YIELD = PRODUCT_COLUMNS.column("size_yield");
+    private static final int COL_SIZE_WEIGHT = PRODUCT_COLUMNS.column("size_weight");
+    private static final int COL_SIZE_PRICE = PRODUCT_COLUMNS.column("size_price");
+
+    /**
+     * Colunas lidas por mapResultSetToListRow (SQL_LIST_ROW_SELECT).
+     */
+    private static final ColumnLayout LIST_ROW_COLUMNS = new ColumnLayout();
+    private static final int ROW_ID = LIST_ROW_COLUMNS.column("id");
+    private static final int ROW_NAME = LIST_ROW_COLUMNS.column("name");
+    private static final int ROW_FLAVOR_NAME = LIST_ROW_COLUMNS.column("flavor_name");
+    private static final int ROW_LEVEL_NAME = LIST_ROW_COLUMNS.column("flavor_level_name");
+    private static final int ROW_SIZE_NAME = LIST_ROW_COLUMNS.column("size_name");
+    private static final int ROW_BASE_PRICE = LIST_ROW_COLUMNS.column("base_price");
+    private static final int ROW_UNIT_PRICE = LIST_ROW_COLUMNS.column("unit_price");
+
+    /**
+     * Mapa de identidade mantido entre consultas quando o modo compartilhado está ligado.
+     */
+    private static final ReferenceMap SHARED_REFERENCES = new ReferenceMap();
+
+    /**
+     * Indica se as consultas de produto usam SHARED_REFERENCES em vez de um mapa novo por consulta.
+     * Desligado por padrão; liga com a variável de ambiente CATALOG_SHARED_REFS=true ou setSharedReferences.
+     */
+    private static volatile boolean sharedReferences = Boolean.parseBoolean(System.getenv("CATALOG_SHARED_REFS"));
     
     /**
      * Insere um produto.
@@ -89,6 +220,33 @@ public class RepositoryProduct {
         }
     }
     
+    /**
+     * Insere um produto e retorna o id gerado.
+     * Abre conexão, prepara SQL_INSERT com RETURN_GENERATED_KEYS, executa insert.
+     * Se não inseriu, retorna null.
+     *
+     * @param product produto a inserir (não nulo; deve conter flavor e size com id)
+     * @return id gerado ou null se não inserir
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public Integer createProductAndReturnId(Product product) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, product.getName());
+            stmt.setInt(2, product.getFlavor().getId());
+            stmt.setInt(3, product.getSize().getId());
+            stmt.setDouble(4, product.getBasePrice());
+            stmt.setString(5, product.getDescription());
+
+            if (stmt.executeUpdate() == 0) return null;
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+    
     /**
      * Remove um produto pelo id.
      * Abre conexão, prepara SQL_DELETE, define o id, executa e retorna true se removeu.
@@ -121,7 +279,25 @@ public class RepositoryProduct {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() ? mapResultSetToProduct(rs) : null;
+                return rs.next() ? productMapper(SQL_FIND_BY_ID).map(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Busca o nome de um produto por id, mesmo que ele tenha sido retirado do catálogo.
+     *
+     * @param id id do produto
+     * @return nome do produto, ou null se o produto não existir
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public String findNameById(Integer id) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_NAME_BY_ID)) {
+
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
             }
         }
     }
@@ -136,59 +312,295 @@ public class RepositoryProduct {
      */
     public List<Product> findAllProduct() throws SQLException {
         List<Product> list = new ArrayList<>();
+        RowMapper<Product> mapper = productMapper(SQL_FIND_ALL);
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                list.add(mapResultSetToProduct(rs));
+                list.add(mapper.map(rs));
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Lista todos os produtos não retirados (com sabor, nível e tamanho) em fluxo, sem montar a lista em memória.
+     * Mesma consulta de findAllProduct, lida com cursor no servidor ({@link RowStream}).
+     * O Stream segura a conexão até ser fechado: use try-with-resources.
+     *
+     * @return Stream dos registros (precisa ser fechado)
+     * @throws SQLException em erro ao abrir a consulta
+     */
+    public Stream<Product> streamAllProduct() throws SQLException {
+        return RowStream.stream(SQL_FIND_ALL, RowStream.DEFAULT_FETCH_SIZE, productMapper(SQL_FIND_ALL));
+    }
+
+    /**
+     * Lista uma página de produtos, na mesma ordem de findAllProduct (mais recentes primeiro).
+     * Usado pelas tabelas paginadas, que carregam apenas as páginas visitadas.
+     *
+     * @param offset índice do primeiro produto
+     * @param limit quantidade máxima de produtos
+     * @return lista de produtos da página (nunca null, pode ser vazia)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public List<Product> findPageProduct(int offset, int limit) throws SQLException {
+        List<Product> list = new ArrayList<>();
+        RowMapper<Product> mapper = productMapper(SQL_FIND_PAGE);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_FIND_PAGE)) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
             }
         }
 
         return list;
     }
 
-    
     /**
-     * Mapeia a linha atual do ResultSet para um objeto Product.
-     * Espera aliases definidos em SQL_FIND_BY_ID/SQL_FIND_ALL.
-     * Cria FlavorLevel, cria Flavor apontando para o nível, cria Size, cria Product apontando para flavor e size, define id do product e do flavor.
+     * Conta os produtos cadastrados.
+     *
+     * @return quantidade de produtos
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public int countProduct() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Busca produtos por texto (nome, sabor e descrições), ordenados por relevância.
+     *
+     * @param query texto da busca (sem acentos/maiúsculas importarem)
+     * @param offset índice do primeiro resultado
+     * @param limit quantidade máxima de resultados
+     * @return lista de produtos da página (nunca null, pode ser vazia)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public List<Product> searchProduct(String query, int offset, int limit) throws SQLException {
+        List<Product> list = new ArrayList<>();
+        RowMapper<Product> mapper = productMapper(SQL_SEARCH_PAGE);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SEARCH_PAGE)) {
+
+            stmt.setString(1, query);
+            stmt.setInt(2, limit);
+            stmt.setInt(3, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Conta os produtos encontrados pela busca textual.
+     *
+     * @param query texto da busca
+     * @return quantidade de produtos encontrados
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public int countSearchProduct(String query) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SEARCH_COUNT)) {
+
+            stmt.setString(1, query);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Lista todos os produtos como linhas de listagem (sem descrições, rendimento e peso).
+     *
+     * @return linhas da listagem (nunca null, pode ser vazia)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public List<ProductListRow> findAllProductRow() throws SQLException {
+        List<ProductListRow> list = new ArrayList<>();
+        RowMapper<ProductListRow> mapper = LIST_ROW_COLUMNS.bind(SQL_LIST_ROWS, this::mapResultSetToListRow);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_LIST_ROWS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(mapper.map(rs));
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Lista uma página de produtos como linhas de listagem, na mesma ordem de findAllProductRow.
+     *
+     * @param offset índice do primeiro produto
+     * @param limit quantidade máxima de produtos
+     * @return linhas da página (nunca null, pode ser vazia)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public List<ProductListRow> findPageProductRow(int offset, int limit) throws SQLException {
+        List<ProductListRow> list = new ArrayList<>();
+        RowMapper<ProductListRow> mapper = LIST_ROW_COLUMNS.bind(SQL_LIST_ROWS_PAGE, this::mapResultSetToListRow);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_LIST_ROWS_PAGE)) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Busca produtos por texto e devolve linhas de listagem, ordenadas por relevância.
+     *
+     * @param query texto da busca
+     * @param offset índice do primeiro resultado
+     * @param limit quantidade máxima de resultados
+     * @return linhas da página (nunca null, pode ser vazia)
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public List<ProductListRow> searchProductRow(String query, int offset, int limit) throws SQLException {
+        List<ProductListRow> list = new ArrayList<>();
+        RowMapper<ProductListRow> mapper = LIST_ROW_COLUMNS.bind(SQL_SEARCH_ROWS_PAGE, this::mapResultSetToListRow);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SEARCH_ROWS_PAGE)) {
+
+            stmt.setString(1, query);
+            stmt.setInt(2, limit);
+            stmt.setInt(3, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Liga ou desliga o modo compartilhado: níveis, tamanhos e sabores dos produtos passam a ser
+     * as mesmas instâncias entre consultas (útil quando o carrinho carrega produto por produto).
+     * Ao desligar, as instâncias guardadas são descartadas.
+     *
+     * @param enabled true para compartilhar entre consultas
+     */
+    public static void setSharedReferences(boolean enabled) {
+        sharedReferences = enabled;
+        if (!enabled) SHARED_REFERENCES.clear();
+    }
+
+    /**
+     * Descarta as instâncias guardadas pelo modo compartilhado (a próxima leitura recria).
+     * Registrado no {@code CacheRegistry} sob o escopo do catálogo.
+     */
+    public static void invalidateSharedReferences() {
+        SHARED_REFERENCES.clear();
+    }
+
+    /**
+     * Monta o mapeador de Product de uma consulta: índices de PRODUCT_COLUMNS e o mapa de identidade
+     * (o compartilhado, ou um novo só para esta consulta).
+     *
+     * @param sql consulta executada (formato das colunas)
+     * @return mapeador da linha atual
+     */
+    private RowMapper<Product> productMapper(String sql) {
+        ReferenceMap refs = sharedReferences ? SHARED_REFERENCES : new ReferenceMap();
+        return PRODUCT_COLUMNS.bind(sql, (rs, cols) -> mapResultSetToProduct(rs, cols, refs));
+    }
+
+    /**
+     * Mapeia a linha atual do ResultSet para um {@link ProductListRow}, lendo por índice.
+     * Espera as colunas de SQL_LIST_ROW_SELECT/SQL_SEARCH_ROWS_PAGE.
+     *
+     * @param rs ResultSet posicionado na linha
+     * @param cols índices resolvidos por LIST_ROW_COLUMNS
+     * @return linha da listagem
+     * @throws SQLException em erro ao ler colunas
+     */
+    private ProductListRow mapResultSetToListRow(ResultSet rs, int[] cols) throws SQLException {
+        return new ProductListRow(
+                rs.getInt(cols[ROW_ID]),
+                rs.getString(cols[ROW_NAME]),
+                rs.getString(cols[ROW_FLAVOR_NAME]),
+                rs.getString(cols[ROW_LEVEL_NAME]),
+                rs.getString(cols[ROW_SIZE_NAME]),
+                rs.getDouble(cols[ROW_BASE_PRICE]),
+                rs.getDouble(cols[ROW_UNIT_PRICE])
+        );
+    }
+
+    /**
+     * Mapeia a linha atual do ResultSet para um objeto Product, lendo por índice.
+     * Espera aliases definidos em SQL_FIND_BY_ID/SQL_FIND_ALL/SQL_SEARCH_PAGE.
+     * Obtém FlavorLevel, Flavor e Size do mapa de identidade (instâncias repetidas são reaproveitadas),
+     * cria Product apontando para flavor e size e define o id do product.
      *
      * @param rs ResultSet posicionado na linha
+     * @param cols índices resolvidos por PRODUCT_COLUMNS
+     * @param refs mapa de identidade da consulta
      * @return Product mapeado (com flavor/level e size)
      * @throws SQLException em erro ao ler colunas
      */
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
-        FlavorLevel level = new FlavorLevel(
-                rs.getInt("flavor_level_id"),
-                rs.getString("flavor_level_name"),
-                rs.getDouble("flavor_level_price")
+    private Product mapResultSetToProduct(ResultSet rs, int[] cols, ReferenceMap refs) throws SQLException {
+        FlavorLevel level = refs.level(
+                rs.getInt(cols[COL_LEVEL_ID]),
+                rs.getString(cols[COL_LEVEL_NAME]),
+                rs.getDouble(cols[COL_LEVEL_PRICE])
         );
         
-        Flavor flavor = new Flavor(
-                rs.getString("flavor_name"),
+        Flavor flavor = refs.flavor(
+                rs.getInt(cols[COL_FLAVOR_ID]),
+                rs.getString(cols[COL_FLAVOR_NAME]),
                 level,
-                rs.getString("flavor_description")
+                rs.getString(cols[COL_FLAVOR_DESCRIPTION])
         );
-        flavor.setId(rs.getInt("flavor_id"));
-
-        Size size = new Size(
-                rs.getInt("size_id"),
-                rs.getString("size_name"),
-                rs.getString("size_yield"),
-                rs.getString("size_weight"),
-                rs.getDouble("size_price")
+
+        Size size = refs.size(
+                rs.getInt(cols[COL_SIZE_ID]),
+                rs.getString(cols[COL_SIZE_NAME]),
+                rs.getString(cols[COL_SIZE_YIELD]),
+                rs.getString(cols[COL_SIZE_WEIGHT]),
+                rs.getDouble(cols[COL_SIZE_PRICE])
         );
 
         Product product = new Product(
-                rs.getString("product_name"),
+                rs.getString(cols[COL_PRODUCT_NAME]),
                 flavor,
                 size,
-                rs.getDouble("base_price"),
-                rs.getString("product_description")
+                rs.getDouble(cols[COL_BASE_PRICE]),
+                rs.getString(cols[COL_PRODUCT_DESCRIPTION])
         );
-        product.setId(rs.getInt("product_id"));
+        product.setId(rs.getInt(cols[COL_PRODUCT_ID]));
 
         return product;
     }
@@ -0,0 +1,181 @@
+package model.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.entities.DiscountType;
+import model.entities.Promotion;
+
+/**
+ * Repositório responsável pela persistência e consulta de promoções
+ * na tabela {@code promotion}. Abstrai o acesso a dados via JDBC.
+ *
+ * Toda alteração grava {@code updated_at = now()}, o que permite ao checkout detectar
+ * mudanças com uma consulta barata ({@link #findFingerprint()}) e recarregar as regras.
+ */
+public class RepositoryPromotion {
+
+	/**
+	 * INSERT na tabela promotion, retornando o id gerado.
+	 */
+	private static final String SQL_INSERT =
+			"INSERT INTO promotion (name, code, type, value, id_product, id_size, id_flavor_level, id_area, "
+			+ "min_quantity, starts_at, ends_at, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * UPDATE do status (ativa/inativa) por id.
+	 */
+	private static final String SQL_SET_ACTIVE =
+			"UPDATE promotion SET active = ?, updated_at = now() WHERE id = ?";
+
+	/**
+	 * DELETE por id.
+	 */
+	private static final String SQL_DELETE = "DELETE FROM promotion WHERE id = ?";
+
+	/**
+	 * SELECT das promoções que podem valer agora ou no futuro (ativas e não encerradas).
+	 */
+	private static final String SQL_FIND_ACTIVE =
+			"SELECT id, name, code, type, value, id_product, id_size, id_flavor_level, id_area, "
+			+ "min_quantity, starts_at, ends_at, active "
+			+ "FROM promotion WHERE active AND (ends_at IS NULL OR ends_at >= now()) ORDER BY id";
+
+	/**
+	 * Impressão digital da tabela: quantidade de linhas e última alteração.
+	 * Muda sempre que uma promoção é inserida, alterada ou removida.
+	 */
+	private static final String SQL_FINGERPRINT =
+			"SELECT COUNT(*) AS total, MAX(updated_at) AS last_update FROM promotion";
+
+	/**
+	 * Insere uma promoção.
+	 *
+	 * @param promotion promoção a ser persistida (não nula)
+	 * @return id gerado, ou null se nada foi inserido
+	 * @throws SQLException em erro de acesso ao banco (ex.: cupom repetido)
+	 */
+	public Integer createPromotion(Promotion promotion) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+			stmt.setString(1, promotion.getName());
+			stmt.setString(2, promotion.getCode());
+			stmt.setString(3, promotion.getType().name());
+			stmt.setDouble(4, promotion.getValue());
+			stmt.setObject(5, promotion.getIdProduct(), Types.INTEGER);
+			stmt.setObject(6, promotion.getIdSize(), Types.INTEGER);
+			stmt.setObject(7, promotion.getIdFlavorLevel(), Types.INTEGER);
+			stmt.setObject(8, promotion.getIdArea(), Types.INTEGER);
+			stmt.setInt(9, promotion.getMinQuantity());
+			stmt.setTimestamp(10, promotion.getStartsAt() != null ? Timestamp.valueOf(promotion.getStartsAt()) : null);
+			stmt.setTimestamp(11, promotion.getEndsAt() != null ? Timestamp.valueOf(promotion.getEndsAt()) : null);
+			stmt.setBoolean(12, promotion.isActive());
+
+			if (stmt.executeUpdate() == 0) return null;
+			try (ResultSet rs = stmt.getGeneratedKeys()) {
+				return rs.next() ? rs.getInt(1) : null;
+			}
+		}
+	}
+
+	/**
+	 * Ativa ou desativa uma promoção.
+	 *
+	 * @param id id da promoção
+	 * @param active novo status
+	 * @return true se a promoção foi atualizada
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public boolean setActivePromotion(int id, boolean active) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_SET_ACTIVE)) {
+			stmt.setBoolean(1, active);
+			stmt.setInt(2, id);
+			return stmt.executeUpdate() > 0;
+		}
+	}
+
+	/**
+	 * Remove uma promoção pelo id.
+	 *
+	 * @param id id da promoção
+	 * @return true se a promoção foi removida
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public boolean deletePromotion(int id) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_DELETE)) {
+			stmt.setInt(1, id);
+			return stmt.executeUpdate() > 0;
+		}
+	}
+
+	/**
+	 * Lista as promoções ativas e não encerradas (as que ainda não começaram também vêm;
+	 * a janela de datas é conferida na avaliação).
+	 *
+	 * @return lista de promoções (nunca null, pode ser vazia)
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public List<Promotion> findActivePromotion() throws SQLException {
+		List<Promotion> list = new ArrayList<>();
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_FIND_ACTIVE);
+				ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				list.add(mapResultSetToPromotion(rs));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Retorna a impressão digital da tabela (quantidade de linhas e última alteração).
+	 *
+	 * @return texto que muda sempre que a tabela muda
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public String findFingerprint() throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_FINGERPRINT);
+				ResultSet rs = stmt.executeQuery()) {
+			if (!rs.next()) return "";
+			Timestamp last = rs.getTimestamp("last_update");
+			return rs.getLong("total") + "@" + (last != null ? last.getTime() : 0L);
+		}
+	}
+
+	/**
+	 * Mapeia a linha atual do ResultSet para um objeto Promotion.
+	 *
+	 * @param rs ResultSet posicionado na linha desejada
+	 * @return instância de Promotion preenchida com os dados da linha
+	 * @throws SQLException em erro ao ler colunas
+	 */
+	private Promotion mapResultSetToPromotion(ResultSet rs) throws SQLException {
+		Promotion p = new Promotion();
+		p.setId(rs.getInt("id"));
+		p.setName(rs.getString("name"));
+		p.setCode(rs.getString("code"));
+		p.setType(DiscountType.valueOf(rs.getString("type")));
+		p.setValue(rs.getDouble("value"));
+		p.setIdProduct((Integer) rs.getObject("id_product"));
+		p.setIdSize((Integer) rs.getObject("id_size"));
+		p.setIdFlavorLevel((Integer) rs.getObject("id_flavor_level"));
+		p.setIdArea((Integer) rs.getObject("id_area"));
+		p.setMinQuantity(rs.getInt("min_quantity"));
+		Timestamp starts = rs.getTimestamp("starts_at");
+		Timestamp ends = rs.getTimestamp("ends_at");
+		p.setStartsAt(starts != null ? starts.toLocalDateTime() : null);
+		p.setEndsAt(ends != null ? ends.toLocalDateTime() : null);
+		p.setActive(rs.getBoolean("active"));
+		return p;
+	}
+}
@@ -0,0 +1,101 @@
+package model.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import model.entities.Address;
+import model.entities.Person;
+
+/**
+ * Repositório do cadastro de clientes: grava endereço, pessoa e usuário em um único comando.
+ *
+ * O INSERT usa CTEs que modificam dados ({@code WITH ... INSERT ... RETURNING}):
+ * o id do endereço alimenta a pessoa e o id da pessoa alimenta o usuário, tudo em uma ida ao banco.
+ * Como é um único comando, ou as três linhas são gravadas ou nenhuma é
+ * (não sobra endereço órfão quando o e-mail já existe).
+ *
+ * Não há SELECT prévio de e-mail nem de área: valem as restrições do banco.
+ * - e-mail repetido viola o UNIQUE de {@code person.email} ({@link #isUniqueViolation(SQLException)})
+ * - área inexistente viola a FK de {@code address.id_area} ({@link #isForeignKeyViolation(SQLException)})
+ */
+public class RepositoryRegistration {
+
+	/**
+	 * SQLState do PostgreSQL para violação de UNIQUE.
+	 */
+	private static final String UNIQUE_VIOLATION = "23505";
+
+	/**
+	 * SQLState do PostgreSQL para violação de FOREIGN KEY.
+	 */
+	private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+	/**
+	 * INSERT encadeado address → person → "user", retornando os ids gerados.
+	 */
+	private static final String SQL_REGISTER =
+			"WITH new_address AS ("
+			+ "INSERT INTO address(id_area, cep, street, number, complement, reference) VALUES(?, ?, ?, ?, ?, ?) RETURNING id"
+			+ "), new_person AS ("
+			+ "INSERT INTO person(first_name, last_name, email, id_address) SELECT ?, ?, ?, id FROM new_address RETURNING id"
+			+ "), new_user AS ("
+			+ "INSERT INTO \"user\"(id_person, password_hash) SELECT id, ? FROM new_person RETURNING id, id_person"
+			+ ") "
+			+ "SELECT new_user.id AS id_user, new_user.id_person, new_address.id AS id_address "
+			+ "FROM new_user, new_address";
+
+	/**
+	 * Cadastra endereço, pessoa e usuário em um único comando.
+	 * Em caso de sucesso, preenche os ids gerados em {@code address} e {@code person}.
+	 *
+	 * @param address endereço (getArea().getId() não nulo)
+	 * @param person pessoa (nome, sobrenome e email)
+	 * @param passwordHash hash da senha já calculado
+	 * @return id gerado na tabela user, ou null se nada foi inserido
+	 * @throws SQLException em erro de acesso ao banco (ex.: e-mail repetido, área inexistente)
+	 */
+	public Integer register(Address address, Person person, String passwordHash) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_REGISTER)) {
+			stmt.setInt(1, address.getArea().getId());
+			stmt.setString(2, address.getCep());
+			stmt.setString(3, address.getStreet());
+			stmt.setObject(4, address.getNumber());
+			stmt.setString(5, address.getComplement());
+			stmt.setString(6, address.getReference());
+			stmt.setString(7, person.getFirstName());
+			stmt.setString(8, person.getLastName());
+			stmt.setString(9, person.getEmail());
+			stmt.setString(10, passwordHash);
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (!rs.next()) return null;
+				address.setInteger(rs.getInt("id_address"));
+				person.setId(rs.getInt("id_person"));
+				return rs.getInt("id_user");
+			}
+		}
+	}
+
+	/**
+	 * Indica se o erro é violação de UNIQUE (ex.: e-mail já cadastrado).
+	 *
+	 * @param e erro do banco
+	 * @return true se for violação de UNIQUE
+	 */
+	public static boolean isUniqueViolation(SQLException e) {
+		return UNIQUE_VIOLATION.equals(e.getSQLState());
+	}
+
+	/**
+	 * Indica se o erro é violação de FOREIGN KEY (ex.: área inexistente).
+	 *
+	 * @param e erro do banco
+	 * @return true se for violação de FOREIGN KEY
+	 */
+	public static boolean isForeignKeyViolation(SQLException e) {
+		return FOREIGN_KEY_VIOLATION.equals(e.getSQLState());
+	}
+}
@@ -1,5 +1,6 @@
 package model.repositories;
 
+import model.entities.CredentialRow;
 import model.entities.User;
 import java.sql.Connection;
 import java.sql.SQLException; 
@@ -7,6 +8,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 
@@ -14,6 +16,8 @@ import java.util.List;
  * Repositório responsável pela persistência e consulta de usuários
  * na tabela {@code user}. Abstrai o acesso a dados via JDBC.
  * A tabela user referencia {@code person} via id_person.
+ * As consultas de usuário não trazem {@code password_hash}; só {@link #findCredentialByEmail(String)},
+ * usada pelo login, lê o hash.
  */
 
 public class RepositoryUser {
@@ -30,13 +34,20 @@ public class RepositoryUser {
 	 * SELECT por id com JOIN em person (first_name, last_name, email).
 	 */
 	private static final String SQL_FIND_BY_ID =
-			"SELECT u.id, u.id_person, u.password_hash, p.first_name, p.last_name, p.email "
+			"SELECT u.id, u.id_person, p.first_name, p.last_name, p.email "
 			+ "FROM \"user\" u JOIN person p ON u.id_person = p.id WHERE u.id = ?";
 
 	/**
 	 * SELECT por email com JOIN em person.
 	 */
 	private static final String SQL_FIND_BY_EMAIL =
+			"SELECT u.id, u.id_person, p.first_name, p.last_name, p.email "
+			+ "FROM \"user\" u JOIN person p ON u.id_person = p.id WHERE p.email = ?";
+
+	/**
+	 * SELECT das credenciais (com password_hash) por email, usado só no login.
+	 */
+	private static final String SQL_FIND_CREDENTIAL_BY_EMAIL =
 			"SELECT u.id, u.id_person, u.password_hash, p.first_name, p.last_name, p.email "
 			+ "FROM \"user\" u JOIN person p ON u.id_person = p.id WHERE p.email = ?";
 
@@ -44,7 +55,7 @@ public class RepositoryUser {
 	 * SELECT de todos os usuários com JOIN em person.
 	 */
 	private static final String SQL_FIND_ALL =
-			"SELECT u.id, u.id_person, u.password_hash, p.first_name, p.last_name, p.email "
+			"SELECT u.id, u.id_person, p.first_name, p.last_name, p.email "
 			+ "FROM \"user\" u JOIN person p ON u.id_person = p.id";
 
 	/**
@@ -53,6 +64,12 @@ public class RepositoryUser {
 	 */
 	private static final String DELETE_FIND_BY_ID  = "DELETE FROM \"user\" WHERE id = ? ";
 
+	/**
+	 * UPDATE do hash da senha por id (usado na atualização transparente após o login).
+	 */
+	private static final String SQL_UPDATE_PASSWORD =
+			"UPDATE \"user\" SET password_hash = ? WHERE id = ?";
+
 
 	/**
 	 * Insere um novo usuário. A person deve já existir (user.getId() != null).
@@ -88,6 +105,23 @@ public class RepositoryUser {
 		}
 	}
 	
+	/**
+	 * Substitui o hash da senha de um usuário.
+	 *
+	 * @param idUser id da tabela user
+	 * @param passwordHash novo hash (formato de {@link services.EncryptionService})
+	 * @return true se o usuário foi atualizado
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public boolean updatePasswordHash(int idUser, String passwordHash) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_PASSWORD)) {
+			stmt.setString(1, passwordHash);
+			stmt.setInt(2, idUser);
+			return stmt.executeUpdate() > 0;
+		}
+	}
+
 	/**
 	 * Busca usuário pelo identificador.
 	 * 
@@ -123,6 +157,31 @@ public class RepositoryUser {
 		}
 	}
 
+	/**
+	 * Busca as credenciais (ids, nome, e-mail e hash da senha) pelo email.
+	 * É a única consulta que lê o hash; usada só para conferir a senha no login.
+	 *
+	 * @param email do usuário
+	 * @return as credenciais ou null se não existir
+	 * @throws SQLException em erro de acesso ao banco de dados
+	 */
+	public CredentialRow findCredentialByEmail(String email) throws SQLException {
+		try (Connection conn = DBConnection.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(SQL_FIND_CREDENTIAL_BY_EMAIL)) {
+			stmt.setString(1, email);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (!rs.next()) return null;
+				return new CredentialRow(
+						rs.getInt("id"),
+						rs.getInt("id_person"),
+						rs.getString("first_name"),
+						rs.getString("last_name"),
+						rs.getString("email"),
+						rs.getString("password_hash"));
+			}
+		}
+	}
+
 	/**
 	 * Lista todos os usuários
 	 * @return lista de usuários (nunca null, pode ser vazia)
@@ -142,9 +201,22 @@ public class RepositoryUser {
 
 	}
 
+	/**
+	 * Lista todos os usuários em fluxo, sem montar a lista em memória.
+	 * Mesma consulta de findAllUser, lida com cursor no servidor ({@link RowStream}).
+	 * O Stream segura a conexão até ser fechado: use try-with-resources.
+	 *
+	 * @return Stream dos registros (precisa ser fechado)
+	 * @throws SQLException em erro ao abrir a consulta
+	 */
+	public Stream<User> streamAllUser() throws SQLException {
+		return RowStream.stream(SQL_FIND_ALL, RowStream.DEFAULT_FETCH_SIZE, this::mapResultSetToUser);
+	}
+
 	/**
 	 *  Mapeia a linha atual do ResultSet para um objeto User.
 	 *  Não avança o cursor; espera-se que o chamador tenha posicionado next().
+	 *  O hash da senha não é lido (fica null no User).
 	 * 
 	 * @param rs ResultSet posicionado na linha desejada
 	 * @return instância de User preenchida com os dados da linha
@@ -157,7 +229,6 @@ public class RepositoryUser {
 		user.setFirstName(rs.getString("first_name"));
 		user.setLastName(rs.getString("last_name"));
 		user.setEmail(rs.getString("email"));
-		user.setPasswordHash(rs.getString("password_hash"));
 		
 		return user;
 	}
@@ -0,0 +1,26 @@
+package model.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha atual de um {@link ResultSet} em um objeto.
+ *
+ * É a forma dos métodos {@code mapResultSetToX} dos repositórios, para que eles possam ser
+ * passados como referência ({@code this::mapResultSetToUser}) às leituras em fluxo de {@link RowStream}.
+ * O mapeador não deve avançar o cursor.
+ *
+ * @param <T> tipo do objeto mapeado
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+	/**
+	 * Mapeia a linha atual.
+	 *
+	 * @param rs ResultSet já posicionado em uma linha válida
+	 * @return objeto mapeado
+	 * @throws SQLException em erro ao ler colunas
+	 */
+	T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,194 @@
+package model.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Leitura de consultas grandes em fluxo, com cursor no servidor.
+ *
+ * Os métodos {@code findAllX} dos repositórios montam a lista inteira em memória. Para exportações,
+ * relatórios e migrações que percorrem a tabela toda, esta classe lê as linhas aos poucos:
+ * - a conexão fica com autocommit desligado e o comando com {@code setFetchSize}; nessas condições
+ *   o driver do PostgreSQL usa um cursor e busca {@code fetchSize} linhas por ida ao banco
+ * - cada linha é mapeada e entregue antes da próxima ser lida, então a memória usada não depende
+ *   do tamanho da tabela
+ * - a transação é só de leitura e termina com rollback ao fechar
+ *
+ * Duas formas de uso:
+ * - {@link #forEach}: entrega cada linha a um callback e fecha tudo ao terminar (preferível)
+ * - {@link #stream}: devolve um {@link Stream} que segura a conexão até ser fechado;
+ *   deve ser usado em try-with-resources. Erros de banco durante a leitura chegam como
+ *   {@link UncheckedSQLException}.
+ */
+public final class RowStream {
+
+	/**
+	 * Linhas buscadas por ida ao banco, quando o chamador não informa outro valor.
+	 */
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+
+	/**
+	 * Erro de banco ocorrido durante a leitura de um {@link Stream} de {@link RowStream#stream}.
+	 * A causa é sempre a {@link SQLException} original.
+	 */
+	public static final class UncheckedSQLException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		UncheckedSQLException(SQLException cause) {
+			super(cause.getMessage(), cause);
+		}
+
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException) super.getCause();
+		}
+	}
+
+	/**
+	 * Construtor privado para impedir instanciação.
+	 */
+	private RowStream() {}
+
+	/**
+	 * Percorre o resultado da consulta, entregando cada linha mapeada ao callback.
+	 * A conexão é aberta e fechada aqui; nenhuma lista é montada.
+	 *
+	 * @param sql consulta
+	 * @param fetchSize linhas por ida ao banco
+	 * @param mapper mapeamento da linha
+	 * @param action callback chamado para cada linha, na ordem da consulta
+	 * @param params parâmetros da consulta, na ordem dos {@code ?}
+	 * @param <T> tipo do objeto mapeado
+	 * @return quantidade de linhas lidas
+	 * @throws SQLException em erro de acesso ao banco
+	 */
+	public static <T> long forEach(String sql, int fetchSize, RowMapper<T> mapper, Consumer<? super T> action,
+			Object... params) throws SQLException {
+		try (Connection conn = DBConnection.getConnection()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement stmt = prepare(conn, sql, fetchSize, params);
+					ResultSet rs = stmt.executeQuery()) {
+				long count = 0;
+				while (rs.next()) {
+					action.accept(mapper.map(rs));
+					count++;
+				}
+				return count;
+			} finally {
+				conn.rollback();
+			}
+		}
+	}
+
+	/**
+	 * Abre a consulta e devolve as linhas como um {@link Stream} sequencial, lido sob demanda.
+	 * O Stream segura conexão, comando e cursor até {@link Stream#close()}: use sempre
+	 * try-with-resources. Erros de banco durante a leitura viram {@link UncheckedSQLException}.
+	 *
+	 * @param sql consulta
+	 * @param fetchSize linhas por ida ao banco
+	 * @param mapper mapeamento da linha
+	 * @param params parâmetros da consulta, na ordem dos {@code ?}
+	 * @param <T> tipo do objeto mapeado
+	 * @return Stream das linhas (precisa ser fechado)
+	 * @throws SQLException em erro ao abrir a consulta (nada fica aberto)
+	 */
+	public static <T> Stream<T> stream(String sql, int fetchSize, RowMapper<T> mapper, Object... params)
+			throws SQLException {
+		Connection conn = DBConnection.getConnection();
+		PreparedStatement stmt = null;
+		try {
+			conn.setAutoCommit(false);
+			stmt = prepare(conn, sql, fetchSize, params);
+			ResultSet rs = stmt.executeQuery();
+			PreparedStatement opened = stmt;
+
+			Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+				@Override
+				public boolean tryAdvance(Consumer<? super T> action) {
+					try {
+						if (!rs.next()) return false;
+						action.accept(mapper.map(rs));
+						return true;
+					} catch (SQLException e) {
+						throw new UncheckedSQLException(e);
+					}
+				}
+			};
+
+			return StreamSupport.stream(rows, false).onClose(() -> close(conn, opened, rs));
+		} catch (SQLException | RuntimeException e) {
+			try {
+				close(conn, stmt, null);
+			} catch (UncheckedSQLException suppressed) {
+				e.addSuppressed(suppressed.getCause());
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Prepara o comando somente leitura, de avanço único, com o fetch size e os parâmetros.
+	 *
+	 * @param conn conexão com autocommit desligado
+	 * @param sql consulta
+	 * @param fetchSize linhas por ida ao banco
+	 * @param params parâmetros da consulta
+	 * @return comando preparado
+	 * @throws SQLException em erro ao preparar
+	 */
+	private static PreparedStatement prepare(Connection conn, String sql, int fetchSize, Object... params)
+			throws SQLException {
+		PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			stmt.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+			for (int i = 0; i < params.length; i++) {
+				stmt.setObject(i + 1, params[i]);
+			}
+			return stmt;
+		} catch (SQLException e) {
+			stmt.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Fecha cursor, comando e conexão (com rollback da transação de leitura).
+	 * Tenta fechar tudo mesmo se um passo falhar; o primeiro erro é relançado no fim.
+	 *
+	 * @param conn conexão
+	 * @param stmt comando (pode ser null)
+	 * @param rs cursor (pode ser null)
+	 */
+	private static void close(Connection conn, PreparedStatement stmt, ResultSet rs) {
+		SQLException first = null;
+		try {
+			if (rs != null) rs.close();
+		} catch (SQLException e) {
+			first = e;
+		}
+		try {
+			if (stmt != null) stmt.close();
+		} catch (SQLException e) {
+			if (first == null) first = e; else first.addSuppressed(e);
+		}
+		try {
+			conn.rollback();
+		} catch (SQLException e) {
+			if (first == null) first = e; else first.addSuppressed(e);
+		}
+		try {
+			conn.close();
+		} catch (SQLException e) {
+			if (first == null) first = e; else first.addSuppressed(e);
+		}
+		if (first != null) throw new UncheckedSQLException(first);
+	}
+}
@@ -0,0 +1,111 @@
+package model.repositories;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro do SQL em execução por thread, usado para diagnóstico.
+ *
+ * Quando habilitado, {@link DBConnection#getConnection()} devolve a conexão "embrulhada"
+ * por um proxy que anota, para a thread atual, o último SQL preparado naquela conexão.
+ * A anotação é removida quando a conexão é fechada.
+ *
+ * Fica desabilitado por padrão: sem ele, as conexões são devolvidas sem nenhum custo extra.
+ * O watchdog da EDT ({@code app.EdtWatchdog}) habilita o registro ao iniciar.
+ */
+public final class SqlActivity {
+
+	/**
+	 * Indica se o registro está ativo.
+	 */
+	private static volatile boolean enabled = false;
+
+	/**
+	 * Último SQL preparado por thread (somente conexões ainda abertas).
+	 */
+	private static final Map<Thread, String> CURRENT = new ConcurrentHashMap<>();
+
+	/**
+	 * Construtor privado para impedir instanciação.
+	 */
+	private SqlActivity() {}
+
+	/**
+	 * Liga ou desliga o registro de SQL.
+	 *
+	 * @param on true para habilitar
+	 */
+	public static void setEnabled(boolean on) {
+		enabled = on;
+		if (!on) CURRENT.clear();
+	}
+
+	/**
+	 * Indica se o registro está ativo.
+	 *
+	 * @return true se habilitado
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Retorna o SQL que a thread informada está executando (ou executou por último na conexão aberta).
+	 *
+	 * @param thread thread consultada
+	 * @return SQL ou null se a thread não estiver com conexão aberta
+	 */
+	public static String currentFor(Thread thread) {
+		if (thread == null) return null;
+		return CURRENT.get(thread);
+	}
+
+	/**
+	 * Envolve a conexão com o proxy de registro, se habilitado.
+	 *
+	 * @param conn conexão real
+	 * @return a própria conexão (desabilitado) ou o proxy
+	 */
+	static Connection track(Connection conn) {
+		if (!enabled) return conn;
+		return (Connection) Proxy.newProxyInstance(
+				Connection.class.getClassLoader(),
+				new Class<?>[]{Connection.class},
+				new TrackingHandler(conn));
+	}
+
+	/**
+	 * Handler do proxy: anota prepareStatement/prepareCall e limpa no close().
+	 */
+	private static final class TrackingHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		TrackingHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			if ((name.equals("prepareStatement") || name.equals("prepareCall"))
+					&& args != null && args.length > 0 && args[0] instanceof String) {
+				CURRENT.put(Thread.currentThread(), (String) args[0]);
+			} else if (name.equals("close")) {
+				CURRENT.remove(Thread.currentThread());
+			}
+
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
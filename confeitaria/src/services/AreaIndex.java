@@ -0,0 +1,193 @@
+package services;
+
+import model.entities.Area;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Índice de prefixos sobre os nomes das áreas (bairros), sem diferença de acentos e maiúsculas.
+ *
+ * Estrutura (montada uma única vez a partir da lista de áreas):
+ * - chaves normalizadas ({@link TextNormalizer}) ordenadas em um array, com o índice da área ao lado
+ * - cada área entra com o nome completo ("anapolis city") e com cada início de palavra
+ *   ("city"), para que "city" também encontre "Anápolis City"
+ *
+ * Uma busca por prefixo é uma busca binária pelo primeiro elemento >= prefixo,
+ * seguida de uma varredura enquanto as chaves começarem com ele:
+ * O(log n + resultados), sem depender do tamanho total da lista.
+ * Isso mantém a consulta abaixo de 1 ms mesmo com listas estaduais de bairros.
+ *
+ * Imutável e seguro para uso entre threads depois de construído.
+ */
+public final class AreaIndex {
+
+    /**
+     * Áreas, na ordem alfabética (normalizada) do nome.
+     */
+    private final Area[] areas;
+
+    /**
+     * Chaves de nome completo, ordenadas; nameArea[k] é o índice da área da chave k.
+     */
+    private final String[] nameKeys;
+    private final int[] nameArea;
+
+    /**
+     * Chaves de início de palavra (a partir da segunda palavra), ordenadas.
+     */
+    private final String[] wordKeys;
+    private final int[] wordArea;
+
+    /**
+     * Monta o índice.
+     *
+     * Funcionamento:
+     * 1. Normaliza o nome de cada área e ordena as áreas por esse nome.
+     * 2. Gera as chaves de início de palavra de cada nome.
+     * 3. Ordena as chaves de palavra mantendo o índice da área ao lado.
+     *
+     * @param source áreas de referência (nomes null são ignorados)
+     */
+    public AreaIndex(List<Area> source) {
+        List<Area> valid = new ArrayList<>();
+        for (Area a : source) {
+            if (a != null && a.getName() != null) valid.add(a);
+        }
+
+        int n = valid.size();
+        String[] normalized = new String[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            normalized[i] = TextNormalizer.normalize(valid.get(i).getName());
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> normalized[x].compareTo(normalized[y]));
+
+        this.areas = new Area[n];
+        this.nameKeys = new String[n];
+        this.nameArea = new int[n];
+
+        List<String> words = new ArrayList<>();
+        List<Integer> wordOwners = new ArrayList<>();
+
+        for (int k = 0; k < n; k++) {
+            String key = normalized[order[k]];
+            areas[k] = valid.get(order[k]);
+            nameKeys[k] = key;
+            nameArea[k] = k;
+
+            for (int pos = key.indexOf(' '); pos >= 0; pos = key.indexOf(' ', pos + 1)) {
+                words.add(key.substring(pos + 1));
+                wordOwners.add(k);
+            }
+        }
+
+        int w = words.size();
+        Integer[] wordOrder = new Integer[w];
+        for (int i = 0; i < w; i++) wordOrder[i] = i;
+        Arrays.sort(wordOrder, (x, y) -> words.get(x).compareTo(words.get(y)));
+
+        this.wordKeys = new String[w];
+        this.wordArea = new int[w];
+        for (int i = 0; i < w; i++) {
+            wordKeys[i] = words.get(wordOrder[i]);
+            wordArea[i] = wordOwners.get(wordOrder[i]);
+        }
+    }
+
+    /**
+     * Busca as áreas cujo nome (ou alguma palavra do nome) começa com o texto informado.
+     *
+     * Ordem do resultado:
+     * 1. Áreas cujo nome completo começa com o texto (ordem alfabética).
+     * 2. Áreas em que outra palavra do nome começa com o texto.
+     *
+     * @param prefix texto digitado (acentos e maiúsculas não importam)
+     * @param limit quantidade máxima de resultados
+     * @return áreas encontradas (vazia se o texto for vazio)
+     */
+    public List<Area> lookup(String prefix, int limit) {
+        String p = TextNormalizer.normalize(prefix);
+        if (p.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        List<Area> result = new ArrayList<>();
+        BitSet seen = new BitSet(areas.length);
+
+        collect(nameKeys, nameArea, p, limit, seen, result);
+        collect(wordKeys, wordArea, p, limit, seen, result);
+
+        return result;
+    }
+
+    /**
+     * Retorna todas as áreas em ordem alfabética.
+     *
+     * @return áreas (lista imutável)
+     */
+    public List<Area> all() {
+        return Collections.unmodifiableList(Arrays.asList(areas));
+    }
+
+    /**
+     * Busca uma área pelo nome exato (sem diferença de acentos e maiúsculas).
+     *
+     * @param name nome da área
+     * @return a área ou null se não existir
+     */
+    public Area findByName(String name) {
+        String key = TextNormalizer.normalize(name);
+        int k = Arrays.binarySearch(nameKeys, key);
+        return k >= 0 ? areas[nameArea[k]] : null;
+    }
+
+    /**
+     * Retorna a quantidade de áreas indexadas.
+     *
+     * @return quantidade de áreas
+     */
+    public int size() {
+        return areas.length;
+    }
+
+    /**
+     * Acrescenta ao resultado as áreas de uma faixa de chaves com o prefixo.
+     *
+     * @param keys chaves ordenadas
+     * @param owners índice da área de cada chave
+     * @param prefix prefixo normalizado
+     * @param limit limite total de resultados
+     * @param seen áreas já incluídas
+     * @param result lista de resultado
+     */
+    private void collect(String[] keys, int[] owners, String prefix, int limit, BitSet seen, List<Area> result) {
+        for (int k = lowerBound(keys, prefix); k < keys.length && result.size() < limit; k++) {
+            if (!keys[k].startsWith(prefix)) break;
+            int a = owners[k];
+            if (seen.get(a)) continue;
+            seen.set(a);
+            result.add(areas[a]);
+        }
+    }
+
+    /**
+     * Retorna a primeira posição cuja chave é maior ou igual ao texto.
+     *
+     * @param keys chaves ordenadas
+     * @param key texto procurado
+     * @return posição (keys.length se todas forem menores)
+     */
+    private static int lowerBound(String[] keys, String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
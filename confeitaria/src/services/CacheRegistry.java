@@ -0,0 +1,129 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro central dos caches em memória da aplicação.
+ *
+ * Cada cache (índice de bairros, taxas de entrega, cotação, sabores, CEP, perfil da sessão...)
+ * se registra uma vez, no carregamento da classe dona, com o dado de origem de que depende
+ * ({@link Scope}). Quem altera esse dado no banco chama {@link #invalidate(Scope...)}
+ * e todos os caches afetados são descartados de uma vez, sem precisar conhecer cada um.
+ *
+ * Um cache cuja classe ainda não foi carregada não está registrado, e também não tem nada guardado.
+ * Os invalidadores devem ser rápidos e não acessar o banco (só descartam a referência;
+ * a próxima leitura recarrega).
+ */
+public final class CacheRegistry {
+
+    /**
+     * Dado de origem de um cache.
+     */
+    public enum Scope {
+        /** Áreas (bairros) e suas taxas de entrega. */
+        AREAS,
+        /** Níveis de sabor, tamanhos, sabores e produtos, incluindo preços. */
+        CATALOG,
+        /** Regras de promoção e cupons. */
+        PROMOTIONS,
+        /** Índice de CEPs. */
+        CEP
+    }
+
+    /**
+     * Cache registrado: nome (para log) e ação que o descarta.
+     */
+    private static final class Entry {
+        private final String name;
+        private final Runnable invalidator;
+
+        Entry(String name, Runnable invalidator) {
+            this.name = name;
+            this.invalidator = invalidator;
+        }
+    }
+
+    /**
+     * Caches registrados por escopo (acesso sincronizado em CacheRegistry.class).
+     */
+    private static final Map<Scope, List<Entry>> ENTRIES = new EnumMap<>(Scope.class);
+
+    /**
+     * Construtor privado para impedir instanciação.
+     */
+    private CacheRegistry() {}
+
+    /**
+     * Registra um cache nos escopos de que ele depende.
+     *
+     * @param name nome do cache (ex.: "checkout.deliveryFees")
+     * @param invalidator ação que descarta o cache
+     * @param scopes dados de origem do cache (ao menos um)
+     */
+    public static synchronized void register(String name, Runnable invalidator, Scope... scopes) {
+        if (invalidator == null || scopes.length == 0)
+            throw new IllegalArgumentException("Cache sem invalidador ou sem escopo: " + name);
+
+        Entry entry = new Entry(name, invalidator);
+        for (Scope scope : scopes) {
+            ENTRIES.computeIfAbsent(scope, s -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    /**
+     * Descarta todos os caches que dependem de algum dos escopos informados.
+     * Cada cache é descartado uma única vez, mesmo que esteja em mais de um escopo.
+     * Uma falha em um invalidador é registrada no log e não impede os demais.
+     *
+     * @param scopes escopos alterados
+     * @return quantidade de caches descartados
+     */
+    public static int invalidate(Scope... scopes) {
+        List<Entry> targets = new ArrayList<>();
+        synchronized (CacheRegistry.class) {
+            for (Scope scope : scopes) {
+                for (Entry e : ENTRIES.getOrDefault(scope, List.of())) {
+                    if (!targets.contains(e)) targets.add(e);
+                }
+            }
+        }
+
+        for (Entry e : targets) {
+            try {
+                e.invalidator.run();
+            } catch (RuntimeException ex) {
+                System.err.println("Falha ao invalidar o cache " + e.name + ": " + ex.getMessage());
+            }
+        }
+        return targets.size();
+    }
+
+    /**
+     * Descarta todos os caches registrados.
+     *
+     * @return quantidade de caches descartados
+     */
+    public static int invalidateAll() {
+        return invalidate(Scope.values());
+    }
+
+    /**
+     * Descreve os caches registrados (para diagnóstico).
+     *
+     * @return texto no formato "ESCOPO: nome, nome; ..."
+     */
+    public static synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Scope, List<Entry>> e : ENTRIES.entrySet()) {
+            if (sb.length() > 0) sb.append("; ");
+            sb.append(e.getKey()).append(':');
+            for (int i = 0; i < e.getValue().size(); i++) {
+                sb.append(i == 0 ? " " : ", ").append(e.getValue().get(i).name);
+            }
+        }
+        return sb.toString();
+    }
+}
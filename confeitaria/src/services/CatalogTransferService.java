@@ -0,0 +1,767 @@
+package services;
+
+import exceptions.ValidationException;
+import model.entities.Flavor;
+import model.entities.FlavorLevel;
+import model.entities.Product;
+import model.entities.Size;
+import model.factories.FlavorFactory;
+import model.factories.FlavorLevelFactory;
+import model.factories.ProductFactory;
+import model.factories.SizeFactory;
+import model.repositories.RepositoryCatalogTransfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Importação e exportação do catálogo (níveis de sabor, tamanhos, sabores e produtos) em CSV ou JSON Lines.
+ *
+ * Formato CSV (separador ";", UTF-8; linhas vazias ou iniciadas por "#" são ignoradas).
+ * O primeiro campo é o tipo do registro e a descrição é sempre o último campo. Um campo com ";" ou aspas
+ * vai entre aspas duplas, com as aspas internas dobradas ({@code "Bolo ""Especial""; 2 andares"}).
+ * Por compatibilidade com arquivos antigos, a descrição sem aspas fica com o resto da linha, mesmo com ";":
+ * <pre>
+ * level;nome;preco
+ * size;nome;rendimento;peso;preco
+ * flavor;nome;nivel;descricao
+ * product;nome;sabor;nivel;tamanho;preco_base;descricao
+ * </pre>
+ *
+ * Formato JSON Lines: um objeto por linha, com os mesmos campos
+ * ({@code kind, name, price, yield, weight, level, flavor, size, base_price, description}).
+ *
+ * Referências são por nome (sem diferença de maiúsculas): o sabor por nome + nível, o produto por
+ * nome + sabor + tamanho. Um registro que já existe é atualizado só nos campos que mudaram.
+ * Produtos retirados do catálogo não são exportados nem atualizados: um produto do arquivo com a
+ * mesma chave de um retirado é inserido como produto novo (o retirado fica no histórico de pedidos).
+ *
+ * Importação ({@link #importCatalog(BufferedReader, Format, boolean, Writer)}):
+ * 1. Carrega os níveis de sabor e os tamanhos (tabelas de referência, com poucas linhas).
+ * 2. Lê o arquivo em lotes de {@value #BATCH_SIZE} registros. Para cada lote, envia as gravações pendentes
+ *    e busca no banco, em uma consulta para sabores e outra para produtos, só os registros citados no lote.
+ * 3. Para cada registro: valida com as factories, resolve as referências e decide entre
+ *    inserir, atualizar ou manter; o diff vai para o relatório.
+ * 4. Todas as gravações ficam em uma única transação. Se algum registro tiver erro, nada é gravado
+ *    (rollback). Em modo simulação (dry-run), o relatório é gerado mas nada é gravado.
+ *
+ * Memória: na gravação, só o lote atual (os lotes anteriores já foram enviados e o banco os devolve).
+ * Sem gravação (simulação, ou depois de um erro), também os sabores e produtos criados ou alterados pela
+ * importação, que ocupam o lugar das linhas do banco nos lotes seguintes: assim a simulação relata o
+ * mesmo diff que a gravação. O catálogo existente não é carregado.
+ *
+ * Exportação ({@link #exportCatalog(Writer, Format)}): grava o catálogo em ordem de dependência,
+ * de forma que o arquivo exportado possa ser importado de volta.
+ */
+public final class CatalogTransferService {
+
+    /**
+     * Formato do arquivo.
+     */
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Escolhe o formato pela extensão ({@code .jsonl}/{@code .json} são JSON Lines; o resto é CSV).
+         *
+         * @param fileName nome do arquivo
+         * @return formato
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            return name.endsWith(".jsonl") || name.endsWith(".json") ? JSONL : CSV;
+        }
+    }
+
+    /**
+     * Comandos por lote enviado ao banco.
+     */
+    public static final int BATCH_SIZE = 500;
+
+    private static final String[] LEVEL_COLUMNS = {"kind", "name", "price"};
+    private static final String[] SIZE_COLUMNS = {"kind", "name", "yield", "weight", "price"};
+    private static final String[] FLAVOR_COLUMNS = {"kind", "name", "level", "description"};
+    private static final String[] PRODUCT_COLUMNS = {"kind", "name", "flavor", "level", "size", "base_price", "description"};
+
+    private final RepositoryCatalogTransfer repo;
+
+    public CatalogTransferService() {
+        this(new RepositoryCatalogTransfer());
+    }
+
+    public CatalogTransferService(RepositoryCatalogTransfer repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Exporta o catálogo.
+     *
+     * @param out destino
+     * @param format formato
+     * @return quantidade de registros exportados
+     * @throws IOException em erro de escrita
+     * @throws SQLException em erro de acesso ao banco
+     */
+    public long exportCatalog(Writer out, Format format) throws IOException, SQLException {
+        return repo.exportCatalog(new RepositoryCatalogTransfer.Sink() {
+            public void level(FlavorLevel l) throws IOException {
+                write(out, format, LEVEL_COLUMNS, "level", l.getName(), money(l.getPrice()));
+            }
+
+            public void size(Size s) throws IOException {
+                write(out, format, SIZE_COLUMNS, "size", s.getName(), s.getYield(), s.getWeight(), money(s.getPrice()));
+            }
+
+            public void flavor(Flavor f) throws IOException {
+                write(out, format, FLAVOR_COLUMNS, "flavor", f.getName(), f.getLevel().getName(), f.getDescription());
+            }
+
+            public void product(Product p) throws IOException {
+                write(out, format, PRODUCT_COLUMNS, "product", p.getName(), p.getFlavor().getName(),
+                        p.getFlavor().getLevel().getName(), p.getSize().getName(), money(p.getBasePrice()), p.getDescription());
+            }
+        });
+    }
+
+    /**
+     * Importa o catálogo.
+     * Depois do commit, descarta os caches do catálogo ({@link CacheRegistry}).
+     *
+     * @param in arquivo de entrada
+     * @param format formato
+     * @param dryRun true para só gerar o relatório, sem gravar
+     * @param report destino do relatório (diff e erros)
+     * @return totais da importação
+     * @throws IOException em erro de leitura/escrita
+     * @throws SQLException em erro de acesso ao banco (a transação é desfeita)
+     */
+    public Result importCatalog(BufferedReader in, Format format, boolean dryRun, Writer report)
+            throws IOException, SQLException {
+
+        Result result = new Result(dryRun);
+        try (RepositoryCatalogTransfer.Session session = repo.openSession()) {
+            State state = new State(session, dryRun);
+            List<Record> batch = new ArrayList<>(BATCH_SIZE);
+
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+                try {
+                    batch.add(new Record(lineNo, format == Format.JSONL ? parseJson(trimmed) : parseCsv(trimmed), null));
+                } catch (ValidationException e) {
+                    batch.add(new Record(lineNo, null, e.getMessage()));
+                }
+
+                if (batch.size() >= BATCH_SIZE) {
+                    state.applyBatch(batch, result, report);
+                    batch.clear();
+                }
+            }
+            state.applyBatch(batch, result, report);
+
+            if (state.writing) {
+                session.commit();
+                result.committed = true;
+                CacheRegistry.invalidate(CacheRegistry.Scope.CATALOG);
+            }
+        }
+
+        report.write(result.describe() + System.lineSeparator());
+        report.flush();
+        return result;
+    }
+
+    /**
+     * Registro lido do arquivo: campos, ou a mensagem de erro da leitura.
+     */
+    private static final class Record {
+        private final long lineNo;
+        private final Map<String, String> fields;
+        private final String error;
+
+        Record(long lineNo, Map<String, String> fields, String error) {
+            this.lineNo = lineNo;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Estado da importação e regras de inserção/atualização.
+     */
+    private static final class State {
+        private final RepositoryCatalogTransfer.Session session;
+        /**
+         * false na simulação e depois do primeiro erro (a transação será desfeita, não adianta acumular lotes).
+         */
+        private boolean writing;
+        private final Map<String, FlavorLevel> levels = new HashMap<>();
+        private final Map<String, Size> sizes = new HashMap<>();
+        /**
+         * Sabores e produtos do lote atual: os encontrados no banco e os criados no lote.
+         */
+        private final Map<String, Flavor> batchFlavors = new HashMap<>();
+        private final Map<String, Product> batchProducts = new HashMap<>();
+        /**
+         * Sabores e produtos criados ou alterados sem gravação, por chave natural.
+         * Vazios enquanto a importação grava: o banco já devolve o que foi enviado.
+         */
+        private final Map<String, Flavor> unsavedFlavors = new HashMap<>();
+        private final Map<String, Product> unsavedProducts = new HashMap<>();
+        private int fakeId;
+
+        State(RepositoryCatalogTransfer.Session session, boolean dryRun) throws SQLException {
+            this.session = session;
+            this.writing = !dryRun;
+            for (FlavorLevel l : session.findAllLevels()) levels.put(key(l.getName()), l);
+            for (Size s : session.findAllSizes()) sizes.put(key(s.getName()), s);
+        }
+
+        /**
+         * Aplica um lote de registros, na ordem do arquivo.
+         * Antes, envia as gravações pendentes (o banco passa a ver os registros dos lotes anteriores)
+         * e busca os sabores e produtos citados no lote.
+         */
+        void applyBatch(List<Record> batch, Result result, Writer report) throws IOException, SQLException {
+            if (batch.isEmpty()) return;
+            if (writing) session.flush();
+            prefetch(batch);
+
+            for (Record r : batch) {
+                String error = r.error;
+                if (error == null) {
+                    try {
+                        String change = apply(r.fields, result);
+                        if (change != null) report.write(change + System.lineSeparator());
+                    } catch (ValidationException e) {
+                        error = e.getMessage();
+                    }
+                }
+                if (error != null) {
+                    result.errors++;
+                    stopWriting();
+                    report.write("! linha " + r.lineNo + ": " + error + System.lineSeparator());
+                }
+            }
+        }
+
+        /**
+         * Para de gravar depois de um erro (a transação será desfeita).
+         * Envia antes o que já foi enfileirado, para que os lotes seguintes continuem encontrando no banco
+         * os registros gravados até aqui; daí em diante, criados e alterados ficam em memória.
+         */
+        private void stopWriting() throws SQLException {
+            if (!writing) return;
+            session.flush();
+            writing = false;
+        }
+
+        /**
+         * Guarda um sabor criado ou alterado quando ele não vai para o banco.
+         */
+        private void keepUnsaved(String k, Flavor flavor) {
+            if (!writing) unsavedFlavors.put(k, flavor);
+        }
+
+        /**
+         * Guarda um produto criado ou alterado quando ele não vai para o banco.
+         */
+        private void keepUnsaved(String k, Product product) {
+            if (!writing) unsavedProducts.put(k, product);
+        }
+
+        /**
+         * Busca no banco os sabores e depois os produtos citados no lote (uma consulta para cada).
+         * Os que foram criados ou alterados sem gravação substituem os do banco.
+         * Referências a níveis, sabores ou tamanhos que ainda não existem são ignoradas:
+         * o que depende deles também não pode existir.
+         */
+        private void prefetch(List<Record> batch) throws SQLException {
+            batchFlavors.clear();
+            batchProducts.clear();
+
+            Set<String> seen = new HashSet<>();
+            List<String> names = new ArrayList<>();
+            List<Integer> levelIds = new ArrayList<>();
+            for (Record r : batch) {
+                if (r.fields == null) continue;
+                String kind = r.fields.get("kind");
+                if (!"flavor".equals(kind) && !"product".equals(kind)) continue;
+                String name = r.fields.get("flavor".equals(kind) ? "name" : "flavor");
+                FlavorLevel level = levels.get(key(r.fields.get("level")));
+                if (name == null || level == null) continue;
+                if (seen.add(flavorKey(name, level.getId()))) {
+                    names.add(key(name));
+                    levelIds.add(level.getId());
+                }
+            }
+            for (Flavor f : session.findFlavors(names, levelIds)) {
+                batchFlavors.put(flavorKey(f.getName(), f.getLevel().getId()), f);
+            }
+            if (!unsavedFlavors.isEmpty()) {
+                for (String k : seen) {
+                    Flavor f = unsavedFlavors.get(k);
+                    if (f != null) batchFlavors.put(k, f);
+                }
+            }
+
+            seen.clear();
+            names.clear();
+            List<Integer> flavorIds = new ArrayList<>();
+            List<Integer> sizeIds = new ArrayList<>();
+            for (Record r : batch) {
+                if (r.fields == null || !"product".equals(r.fields.get("kind"))) continue;
+                String name = r.fields.get("name");
+                FlavorLevel level = levels.get(key(r.fields.get("level")));
+                Flavor flavor = level != null ? batchFlavors.get(flavorKey(r.fields.get("flavor"), level.getId())) : null;
+                Size size = sizes.get(key(r.fields.get("size")));
+                if (name == null || flavor == null || size == null) continue;
+                if (seen.add(productKey(name, flavor.getId(), size.getId()))) {
+                    names.add(key(name));
+                    flavorIds.add(flavor.getId());
+                    sizeIds.add(size.getId());
+                }
+            }
+            for (Product p : session.findProducts(names, flavorIds, sizeIds)) {
+                batchProducts.put(productKey(p.getName(), p.getFlavor().getId(), p.getSize().getId()), p);
+            }
+            if (!unsavedProducts.isEmpty()) {
+                for (String k : seen) {
+                    Product p = unsavedProducts.get(k);
+                    if (p != null) batchProducts.put(k, p);
+                }
+            }
+        }
+
+        /**
+         * Aplica um registro.
+         *
+         * @return linha do diff, ou null se nada mudou
+         */
+        String apply(Map<String, String> f, Result result) throws ValidationException, SQLException {
+            String kind = f.getOrDefault("kind", "");
+            switch (kind) {
+                case "level": return level(f, result);
+                case "size": return size(f, result);
+                case "flavor": return flavor(f, result);
+                case "product": return product(f, result);
+                default: throw new ValidationException("Tipo de registro desconhecido: " + kind);
+            }
+        }
+
+        private String level(Map<String, String> f, Result result) throws ValidationException, SQLException {
+            FlavorLevel in = FlavorLevelFactory.create(null, f.get("name"), price(f, "price"));
+            if (in.getName().length() > 12) throw new ValidationException("Nome do nível com mais de 12 caracteres: " + in.getName());
+            FlavorLevel cur = levels.get(key(in.getName()));
+            if (cur == null) {
+                in.setId(newId("flavor_level"));
+                levels.put(key(in.getName()), in);
+                if (writing) session.insertLevel(in);
+                result.inserted++;
+                return "+ nível " + in.getName() + " (" + money(in.getPrice()) + ")";
+            }
+            if (sameMoney(cur.getPrice(), in.getPrice())) {
+                result.unchanged++;
+                return null;
+            }
+            String diff = "~ nível " + cur.getName() + ": preço " + money(cur.getPrice()) + " → " + money(in.getPrice());
+            cur.setPrice(in.getPrice());
+            if (writing) session.updateLevel(cur);
+            result.updated++;
+            return diff;
+        }
+
+        private String size(Map<String, String> f, Result result) throws ValidationException, SQLException {
+            Size in = SizeFactory.create(null, f.get("name"), f.get("yield"), f.get("weight"), price(f, "price"));
+            if (in.getName().length() > 4) throw new ValidationException("Nome do tamanho com mais de 4 caracteres: " + in.getName());
+            if (in.getYield().length() > 20 || in.getWeight().length() > 10) {
+                throw new ValidationException("Rendimento (até 20) ou peso (até 10 caracteres) longo demais: " + in.getName());
+            }
+            Size cur = sizes.get(key(in.getName()));
+            if (cur == null) {
+                in.setId(newId("size"));
+                sizes.put(key(in.getName()), in);
+                if (writing) session.insertSize(in);
+                result.inserted++;
+                return "+ tamanho " + in.getName() + " (" + money(in.getPrice()) + ")";
+            }
+            StringBuilder diff = new StringBuilder();
+            if (!Objects.equals(cur.getYield(), in.getYield())) diff.append(" rendimento ").append(cur.getYield()).append(" → ").append(in.getYield());
+            if (!Objects.equals(cur.getWeight(), in.getWeight())) diff.append(" peso ").append(cur.getWeight()).append(" → ").append(in.getWeight());
+            if (!sameMoney(cur.getPrice(), in.getPrice())) diff.append(" preço ").append(money(cur.getPrice())).append(" → ").append(money(in.getPrice()));
+            if (diff.length() == 0) {
+                result.unchanged++;
+                return null;
+            }
+            cur.setYield(in.getYield());
+            cur.setWeight(in.getWeight());
+            cur.setPrice(in.getPrice());
+            if (writing) session.updateSize(cur);
+            result.updated++;
+            return "~ tamanho " + cur.getName() + ":" + diff;
+        }
+
+        private String flavor(Map<String, String> f, Result result) throws ValidationException, SQLException {
+            FlavorLevel level = requireLevel(f.get("level"));
+            Flavor in = FlavorFactory.create(null, f.get("name"), level, f.get("description"));
+            String k = flavorKey(in.getName(), level.getId());
+            Flavor cur = batchFlavors.get(k);
+            if (cur == null) {
+                in.setId(newId("flavor"));
+                batchFlavors.put(k, in);
+                keepUnsaved(k, in);
+                if (writing) session.insertFlavor(in);
+                result.inserted++;
+                return "+ sabor " + in.getName() + " (" + level.getName() + ")";
+            }
+            if (Objects.equals(cur.getDescription(), in.getDescription())) {
+                result.unchanged++;
+                return null;
+            }
+            cur.setDescription(in.getDescription());
+            keepUnsaved(k, cur);
+            if (writing) session.updateFlavor(cur);
+            result.updated++;
+            return "~ sabor " + cur.getName() + " (" + level.getName() + "): descrição";
+        }
+
+        private String product(Map<String, String> f, Result result) throws ValidationException, SQLException {
+            FlavorLevel level = requireLevel(f.get("level"));
+            Flavor flavor = batchFlavors.get(flavorKey(f.get("flavor"), level.getId()));
+            if (flavor == null) {
+                throw new ValidationException("Sabor não encontrado: " + f.get("flavor") + " (" + level.getName() + ")");
+            }
+            Size size = sizes.get(key(f.get("size")));
+            if (size == null) throw new ValidationException("Tamanho não encontrado: " + f.get("size"));
+
+            Product in = ProductFactory.create(null, f.get("name"), flavor, size, price(f, "base_price"), f.get("description"));
+            String k = productKey(in.getName(), flavor.getId(), size.getId());
+            Product cur = batchProducts.get(k);
+            if (cur == null) {
+                in.setId(newId("product"));
+                batchProducts.put(k, in);
+                keepUnsaved(k, in);
+                if (writing) session.insertProduct(in);
+                result.inserted++;
+                return "+ produto " + in.getName() + " " + size.getName() + " (" + money(in.getBasePrice()) + ")";
+            }
+
+            StringBuilder diff = new StringBuilder();
+            if (!sameMoney(cur.getBasePrice(), in.getBasePrice())) {
+                diff.append(" preço ").append(money(cur.getBasePrice())).append(" → ").append(money(in.getBasePrice()));
+            }
+            if (!Objects.equals(cur.getDescription(), in.getDescription())) diff.append(" descrição");
+            if (diff.length() == 0) {
+                result.unchanged++;
+                return null;
+            }
+            cur.setBasePrice(in.getBasePrice());
+            cur.setDescription(in.getDescription());
+            keepUnsaved(k, cur);
+            if (writing) session.updateProduct(cur);
+            result.updated++;
+            return "~ produto " + cur.getName() + " " + size.getName() + ":" + diff;
+        }
+
+        private FlavorLevel requireLevel(String name) throws ValidationException {
+            FlavorLevel level = levels.get(key(name));
+            if (level == null) throw new ValidationException("Nível de sabor não encontrado: " + name);
+            return level;
+        }
+
+        /**
+         * Id de um registro novo: reservado na sequência, ou negativo (provisório) na simulação.
+         */
+        private int newId(String table) throws SQLException {
+            return writing ? session.nextId(table) : --fakeId;
+        }
+    }
+
+    /**
+     * Totais de uma importação.
+     */
+    public static final class Result {
+        private final boolean dryRun;
+        private long inserted;
+        private long updated;
+        private long unchanged;
+        private long errors;
+        private boolean committed;
+
+        Result(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public long getInserted() {
+            return inserted;
+        }
+
+        public long getUpdated() {
+            return updated;
+        }
+
+        public long getUnchanged() {
+            return unchanged;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return true se as alterações foram gravadas
+         */
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        /**
+         * Resumo em uma linha (última linha do relatório).
+         *
+         * @return resumo
+         */
+        public String describe() {
+            String status = dryRun ? "simulação, nada gravado"
+                    : committed ? "gravado" : "nada gravado (corrija os erros e importe de novo)";
+            return "= " + inserted + " novos, " + updated + " alterados, " + unchanged + " sem mudança, "
+                    + errors + " erros (" + status + ")";
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String flavorKey(String name, Integer levelId) {
+        return key(name) + '\u0000' + levelId;
+    }
+
+    private static String productKey(String name, Integer flavorId, Integer sizeId) {
+        return key(name) + '\u0000' + flavorId + '\u0000' + sizeId;
+    }
+
+    private static boolean sameMoney(Double a, Double b) {
+        return PricingEngine.toCents(a) == PricingEngine.toCents(b);
+    }
+
+    private static String money(Double value) {
+        return PricingEngine.toDecimal(PricingEngine.toCents(value)).toPlainString();
+    }
+
+    private static Double price(Map<String, String> f, String field) throws ValidationException {
+        String raw = f.get(field);
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return Double.valueOf(raw.trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Valor inválido em " + field + ": " + raw);
+        }
+    }
+
+    /**
+     * Lê uma linha CSV. Campos entre aspas duplas podem conter ";" (aspas internas dobradas);
+     * o último campo (descrição) sem aspas fica com o resto da linha.
+     */
+    private static Map<String, String> parseCsv(String line) throws ValidationException {
+        String kind = line.substring(0, Math.max(0, line.indexOf(';'))).trim();
+        String[] columns;
+        switch (kind) {
+            case "level": columns = LEVEL_COLUMNS; break;
+            case "size": columns = SIZE_COLUMNS; break;
+            case "flavor": columns = FLAVOR_COLUMNS; break;
+            case "product": columns = PRODUCT_COLUMNS; break;
+            default: throw new ValidationException("Tipo de registro desconhecido: " + kind);
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        int pos = 0;
+        for (int i = 0; i < columns.length && pos <= line.length(); i++) {
+            while (pos < line.length() && line.charAt(pos) == ' ') pos++;
+            String v;
+            if (pos < line.length() && line.charAt(pos) == '"') {
+                StringBuilder sb = new StringBuilder();
+                pos++;
+                while (true) {
+                    if (pos >= line.length()) throw new ValidationException("CSV inválido: aspas sem fim em " + columns[i]);
+                    char c = line.charAt(pos++);
+                    if (c != '"') {
+                        sb.append(c);
+                    } else if (pos < line.length() && line.charAt(pos) == '"') {
+                        sb.append('"');
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                while (pos < line.length() && line.charAt(pos) == ' ') pos++;
+                if (pos < line.length() && line.charAt(pos) != ';') {
+                    throw new ValidationException("CSV inválido: texto depois das aspas em " + columns[i]);
+                }
+                v = sb.toString();
+                pos++;
+            } else {
+                int end = i < columns.length - 1 ? line.indexOf(';', pos) : -1;
+                if (end < 0) end = line.length();
+                v = line.substring(pos, end);
+                pos = end + 1;
+            }
+            v = v.trim();
+            if (!v.isEmpty()) fields.put(columns[i], v);
+        }
+        return fields;
+    }
+
+    /**
+     * Lê um objeto JSON plano (só textos, números, booleanos e null).
+     */
+    private static Map<String, String> parseJson(String line) throws ValidationException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int[] pos = {0};
+        skipSpaces(line, pos);
+        expect(line, pos, '{');
+        skipSpaces(line, pos);
+        if (peek(line, pos) == '}') return fields;
+
+        while (true) {
+            skipSpaces(line, pos);
+            String name = readString(line, pos);
+            skipSpaces(line, pos);
+            expect(line, pos, ':');
+            skipSpaces(line, pos);
+            String value;
+            if (peek(line, pos) == '"') {
+                value = readString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) pos[0]++;
+                value = line.substring(start, pos[0]);
+                if (value.isEmpty()) throw new ValidationException("JSON inválido na posição " + start);
+                if (value.equals("null")) value = null;
+            }
+            if (value != null && !value.isBlank()) fields.put(name, value.trim());
+
+            skipSpaces(line, pos);
+            char c = peek(line, pos);
+            pos[0]++;
+            if (c == '}') return fields;
+            if (c != ',') throw new ValidationException("JSON inválido na posição " + (pos[0] - 1));
+        }
+    }
+
+    private static String readString(String s, int[] pos) throws ValidationException {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (pos[0] < s.length()) {
+            char c = s.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= s.length()) break;
+            char e = s.charAt(pos[0]++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > s.length()) throw new ValidationException("JSON inválido: escape \\u incompleto");
+                    try {
+                        sb.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw new ValidationException("JSON inválido: escape \\u" + s.substring(pos[0], pos[0] + 4));
+                    }
+                    pos[0] += 4;
+                    break;
+                default: sb.append(e);
+            }
+        }
+        throw new ValidationException("JSON inválido: texto sem fim");
+    }
+
+    private static void skipSpaces(String s, int[] pos) {
+        while (pos[0] < s.length() && Character.isWhitespace(s.charAt(pos[0]))) pos[0]++;
+    }
+
+    private static char peek(String s, int[] pos) throws ValidationException {
+        if (pos[0] >= s.length()) throw new ValidationException("JSON inválido: fim inesperado");
+        return s.charAt(pos[0]);
+    }
+
+    private static void expect(String s, int[] pos, char c) throws ValidationException {
+        if (peek(s, pos) != c) throw new ValidationException("JSON inválido: esperado '" + c + "' na posição " + pos[0]);
+        pos[0]++;
+    }
+
+    /**
+     * Escreve um registro no formato escolhido.
+     */
+    private static void write(Writer out, Format format, String[] columns, String... values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (format == Format.JSONL) {
+            sb.append('{');
+            boolean first = true;
+            for (int i = 0; i < columns.length; i++) {
+                if (values[i] == null) continue;
+                if (!first) sb.append(',');
+                first = false;
+                sb.append('"').append(columns[i]).append("\":");
+                boolean number = columns[i].equals("price") || columns[i].equals("base_price");
+                if (number) sb.append(values[i]);
+                else appendJsonString(sb, values[i]);
+            }
+            sb.append('}');
+        } else {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) sb.append(';');
+                String v = values[i] != null ? values[i].replaceAll("[\\r\\n]+", " ") : "";
+                if (v.indexOf(';') >= 0 || v.indexOf('"') >= 0) {
+                    sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+                } else {
+                    sb.append(v);
+                }
+            }
+        }
+        sb.append(System.lineSeparator());
+        out.write(sb.toString());
+    }
+
+    private static void appendJsonString(StringBuilder sb, String v) {
+        sb.append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
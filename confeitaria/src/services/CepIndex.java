@@ -0,0 +1,267 @@
+package services;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Índice de faixas de CEP para área (bairro), lido de um arquivo binário mapeado em memória.
+ *
+ * O arquivo é gerado por {@link CepIndexBuilder} a partir de um CSV de faixas. Formato (big-endian):
+ * <pre>
+ * int magic ('CEPX'), int versão, int quantidade de faixas, int quantidade de nomes
+ * faixas: (int cepInicial, int cepFinal, int índiceDoNome), ordenadas por cepInicial, sem sobreposição
+ * nomes:  (short tamanho, bytes UTF-8)
+ * </pre>
+ *
+ * Em tempo de execução:
+ * - o arquivo é mapeado (mmap) e as faixas são lidas direto do mapeamento, sem cópia;
+ *   abrir o índice custa só a leitura dos nomes, mesmo com dados do país inteiro
+ * - {@link #lookup(CharSequence)} faz busca binária nas faixas sem criar objetos
+ *
+ * O arquivo padrão é {@value #DEFAULT_FILE} (ou o caminho em {@code CEP_INDEX_FILE}).
+ * Se ele não existir, {@link #getDefault()} retorna null e a resolução por CEP fica desligada.
+ */
+public final class CepIndex {
+
+    /**
+     * Identificador do formato ("CEPX").
+     */
+    static final int MAGIC = 0x43455058;
+
+    /**
+     * Versão do formato.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Tamanho do cabeçalho em bytes.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Tamanho de cada faixa em bytes.
+     */
+    static final int RECORD_BYTES = 12;
+
+    /**
+     * Arquivo padrão do índice.
+     */
+    public static final String DEFAULT_FILE = "data/cep-index.bin";
+
+    /**
+     * Índice padrão já aberto (ou null).
+     */
+    private static volatile CepIndex defaultIndex;
+
+    /**
+     * Indica que a abertura do índice padrão já foi tentada.
+     */
+    private static volatile boolean defaultLoaded = false;
+
+    static {
+        CacheRegistry.register("cep.defaultIndex", CepIndex::reset, CacheRegistry.Scope.CEP);
+    }
+
+    /**
+     * Mapeamento do arquivo.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Quantidade de faixas.
+     */
+    private final int count;
+
+    /**
+     * Nomes das áreas, referenciados pelas faixas.
+     */
+    private final String[] names;
+
+    private CepIndex(MappedByteBuffer buffer, int count, String[] names) {
+        this.buffer = buffer;
+        this.count = count;
+        this.names = names;
+    }
+
+    /**
+     * Abre um arquivo de índice.
+     *
+     * Funcionamento:
+     * 1. Mapeia o arquivo inteiro em modo somente leitura.
+     * 2. Valida magic, versão e tamanho das faixas.
+     * 3. Lê a tabela de nomes, conferindo cada tamanho contra o fim do arquivo.
+     *
+     * @param file arquivo gerado pelo {@link CepIndexBuilder}
+     * @return índice aberto
+     * @throws IOException se o arquivo não existir ou estiver em formato inválido
+     */
+    public static CepIndex open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo de índice de CEP inválido: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versão do índice de CEP não suportada: " + buffer.getInt(4));
+        }
+
+        int count = buffer.getInt(8);
+        int nameCount = buffer.getInt(12);
+        long namesStart = HEADER_BYTES + (long) count * RECORD_BYTES;
+        if (count < 0 || nameCount < 0 || namesStart > buffer.limit()
+                || nameCount > (buffer.limit() - namesStart) / 2) {
+            throw new IOException("Índice de CEP corrompido: " + file);
+        }
+
+        String[] names = new String[nameCount];
+        int pos = (int) namesStart;
+        for (int i = 0; i < nameCount; i++) {
+            if (pos + 2 > buffer.limit()) throw new IOException("Índice de CEP corrompido: " + file);
+            int len = buffer.getShort(pos) & 0xFFFF;
+            if (pos + 2 + len > buffer.limit()) throw new IOException("Índice de CEP corrompido: " + file);
+            byte[] bytes = new byte[len];
+            buffer.get(pos + 2, bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+            pos += 2 + len;
+        }
+
+        return new CepIndex(buffer, count, names);
+    }
+
+    /**
+     * Retorna o índice padrão, abrindo-o na primeira chamada.
+     *
+     * @return índice ou null se o arquivo não existir ou for inválido
+     */
+    public static CepIndex getDefault() {
+        if (!defaultLoaded) {
+            synchronized (CepIndex.class) {
+                if (!defaultLoaded) {
+                    defaultIndex = openDefault();
+                    defaultLoaded = true;
+                }
+            }
+        }
+        return defaultIndex;
+    }
+
+    /**
+     * Descarta o índice padrão (a próxima chamada de getDefault() reabre o arquivo).
+     */
+    public static synchronized void reset() {
+        defaultIndex = null;
+        defaultLoaded = false;
+    }
+
+    /**
+     * Procura a área de um CEP.
+     * Aceita o CEP com ou sem máscara ("74000-000" ou "74000000").
+     *
+     * @param cep CEP digitado
+     * @return índice do nome da área (ver {@link #areaName(int)}), ou -1 se inválido ou sem faixa
+     */
+    public int lookup(CharSequence cep) {
+        int value = parseCep(cep);
+        return value < 0 ? -1 : lookup(value);
+    }
+
+    /**
+     * Procura a área de um CEP numérico.
+     *
+     * Funcionamento:
+     * 1. Busca binária pela última faixa com cepInicial menor ou igual ao CEP.
+     * 2. Se o CEP não passar do cepFinal dessa faixa, retorna o índice do nome.
+     *
+     * @param cep CEP com 8 dígitos, como inteiro
+     * @return índice do nome da área, ou -1 se não houver faixa
+     */
+    public int lookup(int cep) {
+        int lo = 0;
+        int hi = count - 1;
+        int found = -1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(HEADER_BYTES + mid * RECORD_BYTES) <= cep) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        if (found < 0) return -1;
+        int base = HEADER_BYTES + found * RECORD_BYTES;
+        return cep <= buffer.getInt(base + 4) ? buffer.getInt(base + 8) : -1;
+    }
+
+    /**
+     * Retorna o nome de uma área do índice.
+     *
+     * @param nameIndex índice retornado por lookup
+     * @return nome da área, ou null se o índice for -1
+     */
+    public String areaName(int nameIndex) {
+        return nameIndex >= 0 && nameIndex < names.length ? names[nameIndex] : null;
+    }
+
+    /**
+     * Retorna a quantidade de faixas do índice.
+     *
+     * @return quantidade de faixas
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Converte um CEP para inteiro, ignorando pontos, hífens e espaços.
+     *
+     * @param cep CEP digitado
+     * @return CEP como inteiro, ou -1 se não tiver exatamente 8 dígitos
+     */
+    public static int parseCep(CharSequence cep) {
+        if (cep == null) return -1;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 8) return -1;
+                value = value * 10 + (c - '0');
+            } else if (c != '-' && c != '.' && c != ' ') {
+                return -1;
+            }
+        }
+        return digits == 8 ? value : -1;
+    }
+
+    /**
+     * Abre o índice do caminho padrão (ou de CEP_INDEX_FILE).
+     *
+     * @return índice ou null se ausente ou inválido
+     */
+    private static CepIndex openDefault() {
+        String env = System.getenv("CEP_INDEX_FILE");
+        Path file = Paths.get(env != null && !env.isBlank() ? env : DEFAULT_FILE);
+        if (!Files.isRegularFile(file)) return null;
+
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Índice de CEP ignorado: " + e.getMessage());
+            return null;
+        }
+    }
+}
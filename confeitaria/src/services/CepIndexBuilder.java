@@ -0,0 +1,144 @@
+package services;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gera o arquivo binário do {@link CepIndex} a partir de um CSV de faixas de CEP.
+ *
+ * Formato do CSV (separador ";", UTF-8; linhas vazias, iniciadas por "#" ou cabeçalho são ignoradas):
+ * <pre>
+ * cep_inicial;cep_final;bairro
+ * 74000000;74099999;Setor Central
+ * </pre>
+ *
+ * Funcionamento:
+ * 1. Lê o CSV linha a linha, guardando as faixas em arrays de int e os nomes sem repetição.
+ * 2. Ordena as faixas por CEP inicial e recusa faixas sobrepostas.
+ * 3. Grava em um arquivo temporário e o move para o destino (quem estiver lendo o arquivo
+ *    antigo não vê um arquivo pela metade).
+ */
+public final class CepIndexBuilder {
+
+    /**
+     * Construtor privado para impedir instanciação.
+     */
+    private CepIndexBuilder() {}
+
+    /**
+     * Gera o índice.
+     *
+     * @param csv arquivo CSV de faixas
+     * @param out arquivo binário de saída
+     * @return quantidade de faixas gravadas
+     * @throws IOException em falha de leitura/escrita ou se o CSV for inválido (com o número da linha)
+     */
+    public static int build(Path csv, Path out) throws IOException {
+        int[] starts = new int[1024];
+        int[] ends = new int[1024];
+        int[] owners = new int[1024];
+        int count = 0;
+
+        Map<String, Integer> nameIds = new HashMap<>();
+        String[] names = new String[64];
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] parts = line.split(";", -1);
+                if (parts.length < 3) throw new IOException("Linha " + lineNo + ": esperado cep_inicial;cep_final;bairro");
+
+                int start = CepIndex.parseCep(parts[0].trim());
+                int end = CepIndex.parseCep(parts[1].trim());
+                if (start < 0 || end < 0) {
+                    if (lineNo == 1) continue;
+                    throw new IOException("Linha " + lineNo + ": CEP inválido");
+                }
+                if (end < start) throw new IOException("Linha " + lineNo + ": CEP final menor que o inicial");
+
+                String name = parts[2].trim();
+                if (name.isEmpty()) throw new IOException("Linha " + lineNo + ": bairro vazio");
+                if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+                    throw new IOException("Linha " + lineNo + ": nome do bairro longo demais");
+                }
+
+                Integer id = nameIds.get(name);
+                if (id == null) {
+                    id = nameIds.size();
+                    nameIds.put(name, id);
+                    if (id == names.length) names = Arrays.copyOf(names, names.length * 2);
+                    names[id] = name;
+                }
+
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                    owners = Arrays.copyOf(owners, count * 2);
+                }
+                starts[count] = start;
+                ends[count] = end;
+                owners[count] = id;
+                count++;
+            }
+        }
+
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) starts[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        for (int k = 1; k < count; k++) {
+            int prev = (int) order[k - 1];
+            int cur = (int) order[k];
+            if (starts[cur] <= ends[prev]) {
+                throw new IOException("Faixas sobrepostas: " + starts[prev] + "-" + ends[prev]
+                        + " e " + starts[cur] + "-" + ends[cur]);
+            }
+        }
+
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "cep-index", ".tmp");
+
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            data.writeInt(CepIndex.MAGIC);
+            data.writeInt(CepIndex.VERSION);
+            data.writeInt(count);
+            data.writeInt(nameIds.size());
+
+            for (int k = 0; k < count; k++) {
+                int i = (int) order[k];
+                data.writeInt(starts[i]);
+                data.writeInt(ends[i]);
+                data.writeInt(owners[i]);
+            }
+
+            for (int i = 0; i < nameIds.size(); i++) {
+                byte[] bytes = names[i].getBytes(StandardCharsets.UTF_8);
+                data.writeShort(bytes.length);
+                data.write(bytes);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+}
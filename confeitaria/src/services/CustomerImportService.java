@@ -0,0 +1,502 @@
+package services;
+
+import exceptions.ValidationException;
+import model.entities.Address;
+import model.entities.Area;
+import model.entities.User;
+import model.factories.AddressFactory;
+import model.factories.PersonFactory;
+import model.repositories.RepositoryArea;
+import model.repositories.RepositoryCustomerImport;
+import model.repositories.RepositoryRegistration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importação em lote de clientes a partir de um CSV (migração do sistema antigo).
+ *
+ * Formato do CSV (separador ";", UTF-8; linhas vazias, iniciadas por "#" ou cabeçalho são ignoradas):
+ * <pre>
+ * nome;sobrenome;email;senha;bairro;cep;rua;numero;complemento;referencia
+ * Ana;Silva;ana@exemplo.com;segredo1;Setor Central;74000000;Rua 1;10;Apto 2;Perto da praça
+ * </pre>
+ * O bairro pode ser o nome (sem diferença de acentos/maiúsculas) ou o id da área.
+ * Os campos não podem conter ";".
+ *
+ * Funcionamento:
+ * 1. Carrega as áreas uma vez.
+ * 2. Lê o CSV linha a linha (o arquivo nunca fica inteiro em memória), validando cada linha com as
+ *    mesmas regras do cadastro ({@link AddressFactory}, {@link PersonFactory}, senha mínima).
+ * 3. A cada {@code batchSize} linhas válidas, calcula os hashes das senhas em paralelo em um
+ *    {@link ForkJoinPool} próprio e grava o lote em uma transação ({@link RepositoryCustomerImport}).
+ *    Se o lote falhar, cada linha do lote é gravada sozinha ({@link RepositoryRegistration}) para
+ *    separar as linhas com problema.
+ * 4. Linhas recusadas vão para o relatório de erros ({@code linha;email;erro}), junto com o checkpoint:
+ *    ficam em memória até o lote ser gravado (ou até juntar {@code batchSize} recusadas).
+ * 5. Depois de cada lote gravado, as recusadas são escritas no relatório e a última linha processada vai
+ *    para o arquivo de checkpoint, com o tamanho do relatório nesse momento. Uma nova execução com o mesmo
+ *    checkpoint corta do relatório o que foi escrito depois dele e continua da linha seguinte, então
+ *    nenhuma linha aparece duas vezes no relatório. Ao terminar, o checkpoint é apagado.
+ *    Se a execução parar entre o commit de um lote e a gravação do checkpoint, as linhas desse lote
+ *    aparecem no relatório da nova execução como "E-mail já cadastrado".
+ *
+ * E-mails repetidos: dentro do lote atual, a segunda linha é recusada como repetida no arquivo; entre
+ * lotes, quem recusa é o banco (o e-mail da linha anterior já foi gravado), como "E-mail já cadastrado".
+ * Assim só os e-mails do lote atual ficam em memória.
+ *
+ * Hash das senhas:
+ * usa {@link EncryptionService#MIN_ITERATIONS} em vez das iterações calibradas para o login,
+ * para que milhares de clientes sejam importados em minutos; o hash é refeito com o custo atual
+ * no primeiro login de cada cliente ({@link EncryptionService#needsRehash(String)}).
+ */
+public final class CustomerImportService {
+
+    /**
+     * Linhas válidas por lote (e por transação).
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Cabeçalho do relatório de erros.
+     */
+    private static final String ERROR_HEADER = "linha;email;erro";
+
+    private final RepositoryCustomerImport repoImport;
+    private final RepositoryRegistration repoRegistration;
+    private final RepositoryArea repoArea;
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Cria o serviço com os repositórios padrão, lotes de {@value #DEFAULT_BATCH_SIZE} linhas
+     * e um hash em paralelo por núcleo.
+     */
+    public CustomerImportService() {
+        this(new RepositoryCustomerImport(), new RepositoryRegistration(), new RepositoryArea(),
+                DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param repoImport repositório da gravação em lote
+     * @param repoRegistration repositório do cadastro individual (usado quando um lote falha)
+     * @param repoArea repositório de áreas
+     * @param batchSize linhas válidas por lote
+     * @param parallelism threads de hashing
+     */
+    public CustomerImportService(RepositoryCustomerImport repoImport, RepositoryRegistration repoRegistration,
+                                 RepositoryArea repoArea, int batchSize, int parallelism) {
+        this.repoImport = repoImport;
+        this.repoRegistration = repoRegistration;
+        this.repoArea = repoArea;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Importa os clientes de um CSV.
+     *
+     * @param csv arquivo de clientes
+     * @param errors relatório de erros (acrescentado ao retomar de um checkpoint)
+     * @param checkpoint arquivo de checkpoint (lido se existir; apagado ao terminar)
+     * @return totais da importação
+     * @throws IOException em falha de leitura/escrita dos arquivos
+     * @throws SQLException em falha ao carregar as áreas ou ao gravar (a não ser erros de dados de uma linha)
+     */
+    public Result importCsv(Path csv, Path errors, Path checkpoint) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Result result = new Result();
+
+        long[] resume = readCheckpoint(checkpoint);
+        long resumeAfter = resume[0];
+        result.resumedAfterLine = resumeAfter;
+        if (resumeAfter > 0) truncateReport(errors, resume[1]);
+
+        AreaLookup areas = new AreaLookup(repoArea.findAllArea());
+        Map<String, Long> seenEmails = new HashMap<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        List<Row> rejected = new ArrayList<>();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             BufferedWriter report = openReport(errors, resumeAfter > 0)) {
+
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo <= resumeAfter) continue;
+
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                if (result.read == 0 && trimmed.toLowerCase(Locale.ROOT).startsWith("nome;")) continue;
+
+                result.read++;
+                Row row = parse(lineNo, trimmed, areas);
+                if (row.error == null) {
+                    Long first = seenEmails.putIfAbsent(row.user.getEmail(), lineNo);
+                    if (first != null) {
+                        row.error = "E-mail repetido no arquivo (linha " + first + ").";
+                        Arrays.fill(row.password, '\0');
+                        row.user = null;
+                    }
+                }
+
+                if (row.error != null) {
+                    rejected.add(row);
+                    if (rejected.size() >= batchSize) {
+                        commit(batch, rejected, pool, report, errors, result, checkpoint, lineNo);
+                        seenEmails.clear();
+                    }
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    commit(batch, rejected, pool, report, errors, result, checkpoint, lineNo);
+                    seenEmails.clear();
+                }
+            }
+
+            flush(batch, pool, rejected, result);
+            writeRejected(rejected, report, result);
+        } finally {
+            pool.shutdown();
+        }
+
+        Files.deleteIfExists(checkpoint);
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    /**
+     * Grava o lote, escreve as recusadas no relatório e avança o checkpoint, nesta ordem:
+     * o checkpoint guarda o tamanho do relatório depois das recusadas até {@code lineNo}.
+     */
+    private void commit(List<Row> batch, List<Row> rejected, ForkJoinPool pool, BufferedWriter report, Path errors,
+                        Result result, Path checkpoint, long lineNo) throws IOException, SQLException {
+        flush(batch, pool, rejected, result);
+        writeRejected(rejected, report, result);
+        writeCheckpoint(checkpoint, lineNo, Files.size(errors));
+    }
+
+    /**
+     * Escreve as linhas recusadas no relatório e o descarrega no disco.
+     */
+    private static void writeRejected(List<Row> rejected, BufferedWriter report, Result result) throws IOException {
+        for (Row row : rejected) {
+            writeError(report, row, result);
+        }
+        report.flush();
+        rejected.clear();
+    }
+
+    /**
+     * Calcula os hashes do lote em paralelo, grava o lote e junta as linhas recusadas a {@code rejected}.
+     */
+    private void flush(List<Row> batch, ForkJoinPool pool, List<Row> rejected, Result result)
+            throws IOException, SQLException {
+        if (batch.isEmpty()) return;
+
+        try {
+            pool.submit(() -> batch.parallelStream().forEach(CustomerImportService::hash)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Falha ao calcular os hashes das senhas: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<User> users = new ArrayList<>(batch.size());
+        List<Row> ready = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (row.error != null) {
+                rejected.add(row);
+            } else {
+                users.add(row.user);
+                ready.add(row);
+            }
+        }
+
+        try {
+            boolean[] inserted = repoImport.insertBatch(users);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    result.imported++;
+                } else {
+                    ready.get(i).error = "E-mail já cadastrado no sistema.";
+                    rejected.add(ready.get(i));
+                }
+            }
+        } catch (SQLException batchError) {
+            for (Row row : ready) {
+                insertOne(row, rejected, result);
+            }
+        }
+
+        batch.clear();
+    }
+
+    /**
+     * Grava uma linha sozinha (usado quando o lote falha), registrando o motivo se for recusada.
+     * Erros que não são da linha (ex.: banco fora do ar) interrompem a importação sem avançar o checkpoint.
+     */
+    private void insertOne(Row row, List<Row> rejected, Result result) throws SQLException {
+        try {
+            if (repoRegistration.register(row.user.getAddress(), row.user, row.user.getPasswordHash()) != null) {
+                result.imported++;
+                return;
+            }
+            row.error = "Nenhuma linha gravada.";
+        } catch (SQLException e) {
+            if (RepositoryRegistration.isUniqueViolation(e)) row.error = "E-mail já cadastrado no sistema.";
+            else if (RepositoryRegistration.isForeignKeyViolation(e)) row.error = "Bairro inválido.";
+            else if (isDataError(e)) row.error = "Dados recusados pelo banco: " + e.getMessage();
+            else throw e;
+        }
+        rejected.add(row);
+    }
+
+    /**
+     * Indica se o erro é de dados da linha (classes 22 e 23 do SQLState: valor inválido, restrição violada).
+     */
+    private static boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    /**
+     * Calcula o hash da senha da linha e limpa a senha em memória.
+     */
+    private static void hash(Row row) {
+        try {
+            row.user.setPasswordHash(EncryptionService.hashPassword(row.password, EncryptionService.MIN_ITERATIONS));
+        } catch (Exception e) {
+            row.error = "Não foi possível processar a senha.";
+        } finally {
+            Arrays.fill(row.password, '\0');
+        }
+    }
+
+    /**
+     * Converte e valida uma linha do CSV.
+     */
+    private static Row parse(long lineNo, String line, AreaLookup areas) {
+        Row row = new Row(lineNo);
+        String[] f = line.split(";", -1);
+        if (f.length < 7) {
+            row.error = "Esperado nome;sobrenome;email;senha;bairro;cep;rua;numero;complemento;referencia.";
+            return row;
+        }
+        row.email = f[2].trim();
+
+        try {
+            String email = row.email;
+            if (email.isEmpty()) throw new ValidationException("E-mail é obrigatório.");
+            if (!email.contains("@") || !email.contains(".com")) throw new ValidationException("E-mail inválido.");
+
+            char[] password = f[3].toCharArray();
+            if (password.length < 4) throw new ValidationException("Senha deve ter pelo menos 4 caracteres.");
+
+            Area area = areas.resolve(f[4].trim());
+            if (area == null) throw new ValidationException("Bairro não encontrado: " + f[4].trim());
+
+            Integer number = null;
+            String rawNumber = field(f, 7);
+            if (rawNumber != null) {
+                try {
+                    number = Integer.valueOf(rawNumber);
+                } catch (NumberFormatException e) {
+                    throw new ValidationException("Número inválido: " + rawNumber);
+                }
+            }
+
+            Address address = AddressFactory.create(null, area, field(f, 5), f[6], number, field(f, 8), field(f, 9));
+            PersonFactory.create(null, f[0], f[1], email, address);
+
+            User user = new User();
+            user.setFirstName(f[0].trim());
+            user.setLastName(f[1].trim().isEmpty() ? null : f[1].trim());
+            user.setEmail(email);
+            user.setAddress(address);
+
+            row.user = user;
+            row.password = password;
+        } catch (ValidationException e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+
+    /**
+     * Retorna o campo sem espaços nas pontas, ou null se ausente/vazio.
+     */
+    private static String field(String[] f, int i) {
+        if (i >= f.length) return null;
+        String v = f[i].trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static void writeError(BufferedWriter report, Row row, Result result) throws IOException {
+        result.failed++;
+        report.write(row.line + ";" + (row.email != null ? row.email : "") + ";" + row.error.replace(';', ','));
+        report.newLine();
+    }
+
+    private static BufferedWriter openReport(Path errors, boolean append) throws IOException {
+        Path parent = errors.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        boolean header = !append || !Files.exists(errors);
+        BufferedWriter w = append
+                ? Files.newBufferedWriter(errors, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(errors, StandardCharsets.UTF_8);
+        if (header) {
+            w.write(ERROR_HEADER);
+            w.newLine();
+        }
+        return w;
+    }
+
+    /**
+     * Lê o checkpoint ({@code linha;bytes}): a última linha já processada e o tamanho do relatório nesse ponto.
+     * Sem checkpoint, devolve linha 0; checkpoints antigos (só a linha) devolvem tamanho -1 (desconhecido).
+     *
+     * @return {linha, tamanho do relatório}
+     */
+    private static long[] readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) return new long[] {0L, -1L};
+        String text = Files.readString(checkpoint, StandardCharsets.UTF_8).trim();
+        try {
+            if (text.isEmpty()) return new long[] {0L, -1L};
+            int sep = text.indexOf(';');
+            if (sep < 0) return new long[] {Long.parseLong(text), -1L};
+            return new long[] {Long.parseLong(text.substring(0, sep)), Long.parseLong(text.substring(sep + 1))};
+        } catch (NumberFormatException e) {
+            throw new IOException("Checkpoint inválido em " + checkpoint + ": " + text);
+        }
+    }
+
+    /**
+     * Grava o checkpoint em um arquivo temporário e o move para o destino (nunca fica pela metade).
+     */
+    private static void writeCheckpoint(Path checkpoint, long lineNo, long reportBytes) throws IOException {
+        Path parent = checkpoint.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, "import", ".tmp");
+        Files.writeString(tmp, lineNo + ";" + reportBytes, StandardCharsets.UTF_8);
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Corta do relatório o que foi escrito depois do checkpoint (linhas que a nova execução vai reprocessar).
+     */
+    private static void truncateReport(Path errors, long reportBytes) throws IOException {
+        if (reportBytes < 0 || !Files.exists(errors) || Files.size(errors) <= reportBytes) return;
+        try (FileChannel channel = FileChannel.open(errors, StandardOpenOption.WRITE)) {
+            channel.truncate(reportBytes);
+        }
+    }
+
+    /**
+     * Linha do CSV em processamento.
+     */
+    private static final class Row {
+        final long line;
+        String email;
+        User user;
+        char[] password;
+        String error;
+
+        Row(long line) {
+            this.line = line;
+        }
+    }
+
+    /**
+     * Áreas por nome normalizado e por id.
+     */
+    private static final class AreaLookup {
+        private final Map<String, Area> byName = new HashMap<>();
+        private final Map<Integer, Area> byId = new HashMap<>();
+
+        AreaLookup(List<Area> areas) {
+            for (Area a : areas) {
+                if (a == null || a.getId() == null) continue;
+                byId.put(a.getId(), a);
+                if (a.getName() != null) byName.put(TextNormalizer.normalize(a.getName()), a);
+            }
+        }
+
+        Area resolve(String value) {
+            if (value.isEmpty()) return null;
+            Area a = byName.get(TextNormalizer.normalize(value));
+            if (a != null) return a;
+            try {
+                return byId.get(Integer.valueOf(value));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Totais de uma importação.
+     */
+    public static final class Result {
+        private long read;
+        private long imported;
+        private long failed;
+        private long resumedAfterLine;
+        private long elapsedMillis;
+
+        /**
+         * @return linhas de dados lidas nesta execução
+         */
+        public long getRead() {
+            return read;
+        }
+
+        /**
+         * @return clientes gravados
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * @return linhas recusadas (ver relatório de erros)
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return linha do checkpoint de onde a execução continuou (0 se começou do início)
+         */
+        public long getResumedAfterLine() {
+            return resumedAfterLine;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package services;
+
+import model.entities.Area;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de taxa de entrega por distância.
+ *
+ * Regra:
+ * - se a confeitaria tiver localização configurada e a área tiver centroide (latitude/longitude),
+ *   taxa = base + valorPorKm * distância (haversine, em km), arredondada para centavos
+ * - caso contrário, vale a taxa fixa da área ({@link Area#getFee()}), como antes
+ *
+ * Configuração (variáveis de ambiente):
+ * - {@code BAKERY_LAT} / {@code BAKERY_LON}: localização da confeitaria (sem elas o motor usa só a taxa fixa)
+ * - {@code DELIVERY_FEE_BASE}: valor fixo por entrega (padrão 5.00)
+ * - {@code DELIVERY_FEE_PER_KM}: valor por km (padrão 1.50)
+ *
+ * Desempenho:
+ * - a taxa de cada área é calculada uma vez e guardada em cache por id
+ *   (a partir daí uma cotação é só uma consulta a um mapa)
+ * - {@link #nearestArea(double, double)} e {@link #areasWithin(double, double, double)} usam uma {@link KdTree}
+ *   sobre os centroides, então continuam rápidos com milhares de áreas
+ *
+ * Imutável (exceto o cache, que é thread-safe).
+ */
+public final class DeliveryFeeEngine {
+
+    /**
+     * Raio médio da Terra em km (fórmula de haversine).
+     */
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final double DEFAULT_BASE = 5.00;
+    private static final double DEFAULT_PER_KM = 1.50;
+
+    /**
+     * Localização da confeitaria (null = motor por distância desligado).
+     */
+    private final Double bakeryLat;
+    private final Double bakeryLon;
+
+    private final double base;
+    private final double perKm;
+
+    /**
+     * Áreas com centroide, na mesma ordem dos pontos da árvore.
+     */
+    private final Area[] located;
+
+    /**
+     * Árvore k-d dos centroides.
+     */
+    private final KdTree tree;
+
+    /**
+     * Taxa calculada por id de área.
+     */
+    private final Map<Integer, Double> feeCache = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o motor.
+     *
+     * @param areas áreas conhecidas (as sem centroide ficam fora da árvore)
+     * @param bakeryLat latitude da confeitaria (ou null)
+     * @param bakeryLon longitude da confeitaria (ou null)
+     * @param base valor fixo por entrega
+     * @param perKm valor por km
+     */
+    public DeliveryFeeEngine(List<Area> areas, Double bakeryLat, Double bakeryLon, double base, double perKm) {
+        this.bakeryLat = bakeryLat;
+        this.bakeryLon = bakeryLon;
+        this.base = base;
+        this.perKm = perKm;
+
+        List<Area> withLocation = new ArrayList<>();
+        for (Area a : areas) {
+            if (a != null && a.hasLocation()) withLocation.add(a);
+        }
+        this.located = withLocation.toArray(new Area[0]);
+
+        double[] lats = new double[located.length];
+        double[] lons = new double[located.length];
+        for (int i = 0; i < located.length; i++) {
+            lats[i] = located[i].getLatitude();
+            lons[i] = located[i].getLongitude();
+        }
+        this.tree = new KdTree(lats, lons);
+    }
+
+    /**
+     * Cria o motor com a configuração das variáveis de ambiente.
+     *
+     * @param areas áreas conhecidas
+     * @return motor configurado
+     */
+    public static DeliveryFeeEngine fromEnvironment(List<Area> areas) {
+        return new DeliveryFeeEngine(areas,
+                envDouble("BAKERY_LAT", null),
+                envDouble("BAKERY_LON", null),
+                envDouble("DELIVERY_FEE_BASE", DEFAULT_BASE),
+                envDouble("DELIVERY_FEE_PER_KM", DEFAULT_PER_KM));
+    }
+
+    /**
+     * Indica se o cálculo por distância está ligado (localização da confeitaria configurada).
+     *
+     * @return true se ligado
+     */
+    public boolean isDistanceEnabled() {
+        return bakeryLat != null && bakeryLon != null;
+    }
+
+    /**
+     * Cota a taxa de entrega de uma área.
+     *
+     * Funcionamento:
+     * 1. Sem área: 0.0.
+     * 2. Motor desligado, área sem centroide ou sem id: taxa fixa da área.
+     * 3. Caso contrário: taxa por distância, calculada uma vez por área e reaproveitada do cache.
+     *
+     * @param area área do endereço de entrega
+     * @return taxa de entrega
+     */
+    public double quote(Area area) {
+        if (area == null) return 0.0;
+        if (!isDistanceEnabled() || !area.hasLocation() || area.getId() == null) return area.getFee();
+
+        return feeCache.computeIfAbsent(area.getId(),
+                id -> feeForDistance(distanceKm(bakeryLat, bakeryLon, area.getLatitude(), area.getLongitude())));
+    }
+
+    /**
+     * Retorna a área cujo centroide está mais próximo de um ponto.
+     *
+     * @param latitude latitude do ponto
+     * @param longitude longitude do ponto
+     * @return área mais próxima, ou null se nenhuma área tiver centroide
+     */
+    public Area nearestArea(double latitude, double longitude) {
+        int i = tree.nearest(latitude, longitude);
+        return i >= 0 ? located[i] : null;
+    }
+
+    /**
+     * Lista as áreas com centroide dentro de um raio (ex.: cobertura de entrega).
+     *
+     * @param latitude latitude do centro
+     * @param longitude longitude do centro
+     * @param radiusKm raio em km
+     * @return áreas encontradas (sem ordem definida)
+     */
+    public List<Area> areasWithin(double latitude, double longitude, double radiusKm) {
+        List<Area> result = new ArrayList<>();
+        tree.withinRadius(latitude, longitude, radiusKm, i -> result.add(located[i]));
+        return result;
+    }
+
+    /**
+     * Distância entre dois pontos pela fórmula de haversine.
+     *
+     * @param lat1 latitude do ponto 1
+     * @param lon1 longitude do ponto 1
+     * @param lat2 latitude do ponto 2
+     * @param lon2 longitude do ponto 2
+     * @return distância em km
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * Aplica a regra de preço a uma distância.
+     *
+     * @param km distância em km
+     * @return taxa arredondada para centavos
+     */
+    private double feeForDistance(double km) {
+        return Math.round((base + perKm * km) * 100.0) / 100.0;
+    }
+
+    /**
+     * Lê uma variável de ambiente numérica.
+     *
+     * @param name nome da variável
+     * @param fallback valor usado se ausente ou inválida
+     * @return valor lido ou fallback
+     */
+    private static Double envDouble(String name, Double fallback) {
+        String raw = System.getenv(name);
+        if (raw == null || raw.isBlank()) return fallback;
+        try {
+            return Double.parseDouble(raw.trim().replace(",", "."));
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido em " + name + ": " + raw);
+            return fallback;
+        }
+    }
+}
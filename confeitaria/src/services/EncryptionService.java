@@ -1,102 +1,520 @@
 package services;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.ECField;
-import java.security.spec.KeySpec;
-import java.util.Arrays;
+import java.sql.SQLException;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+import model.repositories.RepositoryHashCalibration;
+
 /**
  * Serviço responsável por hashing e verificação de senha.
  * Implementa hashing usando PBKDF2 (Password-Based Key Derivation Function 2), com salt aleatório e múltiplas iterações.
- * Saída do hash: base64(salt) + ":" + base64(hash)
  * Evita armazenar senha em texto puro no banco.
  * Usa salt para evitar ataques com rainbow tables.
  * Usa iterações para aumentar o custo de brute force.
+ *
+ * Formato do hash (versionado, guarda os parâmetros usados):
+ * {@code pbkdf2_sha256$iteracoes$base64(salt)$base64(hash)}
+ * O formato antigo {@code base64(salt):base64(hash)} (PBKDF2WithHmacSHA1, 65536 iterações, 128 bits)
+ * continua sendo aceito na verificação.
+ *
+ * Iterações comuns a todos os terminais ({@link #loadSharedIterations()}):
+ * os terminais verificam senhas da mesma tabela de usuários, então um hash gravado por um caixa rápido
+ * precisa ser verificado em tempo aceitável pelo mais lento. Depois da criação das tabelas, cada terminal
+ * mede quantas iterações atingem o tempo-alvo nele ({@link #calibrate()}, HASH_TARGET_MS, padrão 250 ms),
+ * grava a medição no banco ({@link RepositoryHashCalibration}) e passa a usar a menor medição entre os
+ * terminais ativos. HASH_ITERATIONS fixa um valor para todos e dispensa a calibração.
+ *
+ * Compromisso entre o terminal mais lento e a força do hash: uma única medição baixa (máquina sobrecarregada
+ * na partida, ou uma linha adulterada na tabela) não pode derrubar o custo de uma vez. O valor comum em vigor
+ * só baixa {@value #SHARED_STEP_PERCENT}% por dia ({@link RepositoryHashCalibration#findSharedFloor(int)}), e
+ * nunca abaixo de {@link #MIN_ITERATIONS} (acima das {@value #LEGACY_ITERATIONS} do formato antigo).
+ * Subir é imediato. O preço: um terminal realmente mais lento que os demais leva alguns dias para chegar
+ * ao tempo-alvo e, nesse meio-tempo, demora mais a verificar senhas.
+ *
+ * Atualização transparente ({@link #needsRehash(String)}):
+ * hashes no formato antigo, com outro algoritmo ou com menos iterações que as comuns são refeitos após
+ * um login bem-sucedido (a senha só está disponível nesse momento). Um hash nunca é refeito para menos
+ * iterações: se o valor comum baixar, os hashes mais fortes continuam como estão.
+ *
+ * Desempenho (login de vários atendentes ao mesmo tempo):
+ * - o {@link SecretKeyFactory} é criado uma vez por thread e reaproveitado (obtê-lo do provider a cada hash é caro)
+ * - a verificação pode ser feita em um pool próprio e limitado ({@link #verifyAsync(char[], String)}):
+ *   no máximo metade dos núcleos deriva hashes ao mesmo tempo e a fila tem tamanho fixo,
+ *   então uma rajada de logins não ocupa todos os núcleos nem acumula trabalho sem limite
  */
 
 public class EncryptionService {
+
 	/**
-     * Algoritmo usado pelo {@link SecretKeyFactory}.
-     * O nome do algoritmo depende do provider Java.
+	 * Identificador do formato atual (primeiro campo do hash).
+	 */
+	private static final String SCHEME = "pbkdf2_sha256";
+
+	/**
+     * Algoritmo do formato atual usado pelo {@link SecretKeyFactory}.
      */
-	private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
-	
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
 	/**
-     * Número de iterações do PBKDF2.
-     * Quanto maior, mais custoso fica gerar/verificar senha (mais seguro, mas mais lento).
+	 * Algoritmo do formato antigo ({@code salt:hash}).
+	 */
+	private static final String LEGACY_ALGORITHM = "PBKDF2WithHmacSHA1";
+
+	/**
+     * Número de iterações do formato antigo.
      */
-    private static final int ITERATIONS = 65536; 
-    
+    private static final int LEGACY_ITERATIONS = 65536;
+
+    /**
+     * Tamanho da chave do formato antigo em bits.
+     */
+    private static final int LEGACY_KEY_LENGTH = 128;
+
+    /**
+     * Menor quantidade de iterações aceita pela calibração (máquinas lentas não enfraquecem o hash abaixo disso).
+     */
+    public static final int MIN_ITERATIONS = 100_000;
+
+    /**
+     * Maior quantidade de iterações escolhida pela calibração.
+     */
+    private static final int MAX_ITERATIONS = 5_000_000;
+
+    /**
+     * Tempo-alvo padrão de uma verificação, em milissegundos.
+     */
+    private static final long DEFAULT_TARGET_MS = 250;
+
+    /**
+     * Calibrações mais antigas que isto (em dias) não contam para as iterações comuns
+     * (terminal desativado ou trocado).
+     */
+    private static final int CALIBRATION_MAX_AGE_DAYS = 60;
+
+    /**
+     * Quanto o valor comum pode baixar por dia, em porcentagem.
+     */
+    private static final int SHARED_STEP_PERCENT = 10;
+
     /**
      * Tamanho da chave derivada (hash) em bits.
      */
-    private static final int KEY_LENGTH = 128;  
-    
+    private static final int KEY_LENGTH = 256;
+
+    /**
+     * Tamanho do salt em bytes.
+     */
+    private static final int SALT_BYTES = 16;
+
+    /**
+     * Quantidade máxima de verificações aguardando na fila do pool.
+     */
+    private static final int HASH_QUEUE_LIMIT = 64;
+
     /**
-    * Gera um hash para a senha informada, com salt aleatório.
-    * Cria um {@link SecureRandom}.
-    * Gera um salt aleatório (14 bytes) - estamos gerando com um salt fixo
-    * Deriva o hash com PBKDF2 via {@link #generateHash(char[], byte[])}.
-    * Codifica salt e hash em Base64.
-    * Retorna no formato {@code saltBase64:hashBase64}.
+     * Iterações usadas para novos hashes (ajustadas por {@link #loadSharedIterations()}).
+     */
+    private static volatile int iterations = 210_000;
+
+    /**
+     * Indica se as iterações comuns já foram definidas. Antes disso, {@link #needsRehash(String)}
+     * não refaz hashes por quantidade de iterações (o valor atual ainda é o padrão).
+     */
+    private static volatile boolean sharedLoaded;
+
+    /**
+     * Hash de uma senha aleatória, com as iterações atuais, verificado quando o e-mail não existe
+     * ({@link #decoyHash()}). Refeito quando as iterações mudam.
+     */
+    private static volatile String decoy;
+
+    /**
+     * Gerador do salt (thread-safe, criado uma vez).
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Fábricas PBKDF2 de cada thread (SecretKeyFactory não é thread-safe, mas pode ser reaproveitado na mesma thread).
+     */
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> factory(ALGORITHM));
+    private static final ThreadLocal<SecretKeyFactory> LEGACY_FACTORY = ThreadLocal.withInitial(() -> factory(LEGACY_ALGORITHM));
+
+    /**
+     * Pool dedicado à derivação de hashes: threads limitadas a metade dos núcleos e fila de tamanho fixo.
+     * As threads são daemon e encerram após 30 s sem uso.
+     */
+    private static final ThreadPoolExecutor HASH_POOL = createHashPool();
+
+    /**
+    * Gera um hash para a senha informada, com salt aleatório, no formato atual.
+    * Gera um salt aleatório (16 bytes).
+    * Deriva o hash com PBKDF2-SHA256 e as iterações calibradas.
+    * Retorna no formato {@code pbkdf2_sha256$iteracoes$saltBase64$hashBase64}.
     * @param password senha em char[]
-    * @return string com salt e hash em Base64
+    * @return hash versionado
     * @throws Exception se ocorrer falha ao derivar a chave (provider/algoritmo/etc.)
     */
     public static String hashPassword(char[] password) throws Exception{
-  
-    	SecureRandom random = new SecureRandom();
-    	byte[] salt = new byte[14];
-    	
-    	
-    	byte[] hash = generateHash(password,salt);
-    	
-    	String saltStr = Base64.getEncoder().encodeToString(salt);
-    	String hashStr = Base64.getEncoder().encodeToString(hash);
-    	
-    	return saltStr + ":" + hashStr;
-    }
-    
+    	return hashPassword(password, iterations);
+    }
+
+    /**
+     * Gera um hash no formato atual com uma quantidade de iterações específica
+     * (nunca abaixo de {@link #MIN_ITERATIONS}).
+     * Usado em cargas em lote, que podem gravar com o mínimo e deixar a atualização para o primeiro login
+     * ({@link #needsRehash(String)}).
+     * @param password senha em char[]
+     * @param iter iterações desejadas
+     * @return hash versionado
+     * @throws Exception se ocorrer falha ao derivar a chave
+     */
+    public static String hashPassword(char[] password, int iter) throws Exception{
+    	iter = Math.max(MIN_ITERATIONS, iter);
+    	byte[] salt = new byte[SALT_BYTES];
+    	RANDOM.nextBytes(salt);
+
+    	byte[] hash = generateHash(FACTORY.get(), password, salt, iter, KEY_LENGTH);
+
+    	Base64.Encoder b64 = Base64.getEncoder();
+    	return SCHEME + "$" + iter + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
     /**
      * Verifica se a senha digitada corresponde ao hash armazenado.
-     * Divide {@code passwordHash} no formato {@code salt:hash}.
-     * Decodifica o salt e o hash original de Base64.
-     * Gera um novo hash a partir da senha digitada e do mesmo salt.
-     * Compara {@code originHash} e {@code newHash} usando {@link Arrays#equals(byte[], byte[])}.
+     * Aceita o formato atual ({@code pbkdf2_sha256$...}) e o antigo ({@code salt:hash}).
+     * Deriva um novo hash com o mesmo salt e parâmetros do hash armazenado.
+     * Compara em tempo constante ({@link MessageDigest#isEqual(byte[], byte[])}).
+     * Hash armazenado ausente ou fora do formato resulta em false.
      * @param password senha digitada
-     * @param passwordHash hash armazenado no banco (formato {@code saltBase64:hashBase64})
+     * @param passwordHash hash armazenado no banco
      * @return true se a senha corresponder ao hash, false caso contrário
      * @throws Exception se ocorrer falha ao derivar a chave
      */
     public static boolean checkPassword(char[] password,String passwordHash) throws Exception {
-    	String[] encryptPassoword = passwordHash.split(":");
-    	byte[] salt = Base64.getDecoder().decode(encryptPassoword[0]);
-    	byte[] originHash = Base64.getDecoder().decode(encryptPassoword[1]);
-    
-    	byte[] newHash = generateHash(password,salt); 
-    	
-    	return Arrays.equals(originHash, newHash);
+    	if (passwordHash == null) return false;
+
+    	try {
+    		if (passwordHash.startsWith(SCHEME + "$")) {
+    			String[] parts = passwordHash.split("\\$");
+    			if (parts.length != 4) return false;
+    			int iter = Integer.parseInt(parts[1]);
+    			if (iter <= 0) return false;
+    			byte[] salt = Base64.getDecoder().decode(parts[2]);
+    			byte[] originHash = Base64.getDecoder().decode(parts[3]);
+    			byte[] newHash = generateHash(FACTORY.get(), password, salt, iter, originHash.length * 8);
+    			return MessageDigest.isEqual(originHash, newHash);
+    		}
+
+    		String[] parts = passwordHash.split(":");
+    		if (parts.length != 2) return false;
+    		byte[] salt = Base64.getDecoder().decode(parts[0]);
+    		byte[] originHash = Base64.getDecoder().decode(parts[1]);
+    		byte[] newHash = generateHash(LEGACY_FACTORY.get(), password, salt, LEGACY_ITERATIONS, LEGACY_KEY_LENGTH);
+    		return MessageDigest.isEqual(originHash, newHash);
+    	} catch (IllegalArgumentException e) {
+    		return false;
+    	}
+    }
+
+    /**
+     * Indica se um hash armazenado deve ser refeito no próximo login bem-sucedido:
+     * formato antigo, outro algoritmo, ou iterações abaixo das comuns (nunca para baixar o custo).
+     * A comparação de iterações só vale depois de {@link #loadSharedIterations()}.
+     * @param passwordHash hash armazenado
+     * @return true se o hash deve ser atualizado
+     */
+    public static boolean needsRehash(String passwordHash) {
+    	if (passwordHash == null || !passwordHash.startsWith(SCHEME + "$")) return true;
+    	String[] parts = passwordHash.split("\\$");
+    	if (parts.length != 4) return true;
+    	try {
+    		int iter = Integer.parseInt(parts[1]);
+    		return sharedLoaded && iter < iterations;
+    	} catch (NumberFormatException e) {
+    		return true;
+    	}
     }
-    
-    
+
+    /**
+     * Verifica a senha e, se ela conferir e o hash estiver desatualizado, gera o hash novo.
+     * @param password senha digitada
+     * @param passwordHash hash armazenado no banco
+     * @return resultado da verificação
+     * @throws Exception se ocorrer falha ao derivar a chave
+     */
+    public static Verification verify(char[] password, String passwordHash) throws Exception {
+    	if (!checkPassword(password, passwordHash)) return Verification.FAILED;
+    	String upgraded = needsRehash(passwordHash) ? hashPassword(password) : null;
+    	return new Verification(true, upgraded);
+    }
+
+    /**
+     * Retorna um hash que nenhuma senha digitada confere, com as iterações atuais.
+     * O login o verifica quando o e-mail não existe, para que a resposta leve o mesmo tempo
+     * de uma senha errada (o tempo não revela quais e-mails estão cadastrados).
+     * @return hash isca no formato atual
+     * @throws Exception se ocorrer falha ao derivar a chave
+     */
+    public static String decoyHash() throws Exception {
+    	String d = decoy;
+    	if (d != null && d.startsWith(SCHEME + "$" + iterations + "$")) return d;
+
+    	byte[] secret = new byte[32];
+    	RANDOM.nextBytes(secret);
+    	char[] password = Base64.getEncoder().encodeToString(secret).toCharArray();
+    	d = hashPassword(password);
+    	decoy = d;
+    	return d;
+    }
+
+    /**
+     * Agenda {@link #verify(char[], String)} no pool de hashing.
+     * O array {@code password} não deve ser alterado até o resultado ficar pronto.
+     * @param password senha digitada
+     * @param passwordHash hash armazenado no banco
+     * @return resultado futuro da verificação
+     * @throws RejectedExecutionException se a fila do pool estiver cheia
+     */
+    public static Future<Verification> verifyAsync(char[] password, String passwordHash) {
+    	return HASH_POOL.submit(() -> verify(password, passwordHash));
+    }
+
+    /**
+     * Executa {@link #loadSharedIterations()} em uma thread daemon ("password-hash-calibration").
+     * Deve ser chamado depois da criação das tabelas (a medição não disputa CPU com o DDL
+     * e a tabela {@code hash_calibration} já existe). Até terminar, novos hashes usam o valor padrão.
+     * Ao final, já prepara o {@link #decoyHash()} com as iterações definidas.
+     */
+    public static void startCalibration() {
+    	Thread t = new Thread(() -> {
+    		int iter = loadSharedIterations();
+    		System.out.println("Hash de senha: " + iter + " iterações (comuns a todos os terminais).");
+    		try {
+    			decoyHash();
+    		} catch (Exception e) {
+    			System.err.println("Falha ao preparar o hash isca do login: " + e.getMessage());
+    		}
+    	}, "password-hash-calibration");
+    	t.setDaemon(true);
+    	t.start();
+    }
+
+    /**
+     * Define as iterações usadas para novos hashes, iguais em todos os terminais.
+     *
+     * Funcionamento:
+     * 1. Se HASH_ITERATIONS estiver definida, usa esse valor (sem medir nem acessar o banco).
+     * 2. Senão, mede este terminal ({@link #calibrate()}) e grava a medição com o nome da máquina.
+     * 3. Usa a menor medição entre os terminais calibrados nos últimos
+     *    {@value #CALIBRATION_MAX_AGE_DAYS} dias (o terminal mais lento define o custo),
+     *    mas não abaixo do piso: o valor comum anterior menos {@value #SHARED_STEP_PERCENT}% por dia.
+     * 4. Grava o resultado como novo valor comum.
+     * 5. Sem acesso ao banco, usa a medição deste terminal.
+     *
+     * O resultado fica entre {@link #MIN_ITERATIONS} e {@value #MAX_ITERATIONS}.
+     * @return iterações em uso
+     */
+    public static int loadSharedIterations() {
+    	String fixed = System.getenv("HASH_ITERATIONS");
+    	if (fixed != null && !fixed.isBlank()) {
+    		try {
+    			iterations = clampIterations(Long.parseLong(fixed.trim()));
+    			sharedLoaded = true;
+    			return iterations;
+    		} catch (NumberFormatException e) {
+    			System.err.println("Valor inválido em HASH_ITERATIONS: " + fixed);
+    		}
+    	}
+
+    	int local = calibrate();
+    	int chosen = local;
+    	try {
+    		RepositoryHashCalibration repo = new RepositoryHashCalibration();
+    		repo.saveCalibration(LoginRateLimiter.localClient(), local);
+    		Integer shared = repo.findSharedIterations(CALIBRATION_MAX_AGE_DAYS);
+    		Integer floor = repo.findSharedFloor(SHARED_STEP_PERCENT);
+    		if (shared != null) chosen = Math.min(shared, local);
+    		if (floor != null) chosen = Math.max(chosen, floor);
+    		chosen = clampIterations(chosen);
+    		repo.saveSharedIterations(chosen);
+    	} catch (SQLException e) {
+    		System.err.println("Calibração comum do hash indisponível (usando a deste terminal): " + e.getMessage());
+    	}
+
+    	iterations = clampIterations(chosen);
+    	sharedLoaded = true;
+    	return iterations;
+    }
+
+    /**
+     * Mede este terminal para o tempo-alvo de HASH_TARGET_MS (padrão 250 ms).
+     * Ver {@link #calibrate(long)}.
+     * @return iterações medidas
+     */
+    public static int calibrate() {
+    	long target = DEFAULT_TARGET_MS;
+    	String raw = System.getenv("HASH_TARGET_MS");
+    	if (raw != null && !raw.isBlank()) {
+    		try {
+    			target = Math.max(1L, Long.parseLong(raw.trim()));
+    		} catch (NumberFormatException e) {
+    			System.err.println("Valor inválido em HASH_TARGET_MS: " + raw);
+    		}
+    	}
+    	return calibrate(target);
+    }
+
+    /**
+     * Mede o custo de uma derivação nesta máquina e calcula as iterações que atingem o tempo-alvo.
+     * Não altera as iterações em uso (quem decide é {@link #loadSharedIterations()}).
+     *
+     * Funcionamento:
+     * 1. Aquece o provider com uma derivação curta.
+     * 2. Mede três derivações de amostra e fica com a mais rápida (menos ruído de agendamento).
+     * 3. Extrapola as iterações para o tempo-alvo, arredonda para milhar e limita a
+     *    [{@link #MIN_ITERATIONS}, {@value #MAX_ITERATIONS}].
+     *
+     * Em caso de falha, retorna as iterações atuais.
+     * @param targetMs tempo-alvo de uma verificação em milissegundos
+     * @return iterações medidas
+     */
+    public static int calibrate(long targetMs) {
+    	final int sample = 20_000;
+    	char[] probe = "calibration".toCharArray();
+    	byte[] salt = new byte[SALT_BYTES];
+
+    	try {
+    		SecretKeyFactory f = FACTORY.get();
+    		generateHash(f, probe, salt, 1_000, KEY_LENGTH);
+
+    		long best = Long.MAX_VALUE;
+    		for (int i = 0; i < 3; i++) {
+    			long start = System.nanoTime();
+    			generateHash(f, probe, salt, sample, KEY_LENGTH);
+    			best = Math.min(best, System.nanoTime() - start);
+    		}
+
+    		double perIteration = (double) best / sample;
+    		long wanted = Math.round(targetMs * 1_000_000.0 / perIteration / 1000.0) * 1000L;
+    		return clampIterations(wanted);
+    	} catch (Exception e) {
+    		System.err.println("Calibração do hash de senha falhou (mantidas " + iterations + " iterações): " + e.getMessage());
+    		return iterations;
+    	}
+    }
+
+    /**
+     * Limita as iterações a [{@link #MIN_ITERATIONS}, {@value #MAX_ITERATIONS}].
+     * @param iter iterações desejadas
+     * @return iterações dentro dos limites
+     */
+    private static int clampIterations(long iter) {
+    	return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, iter));
+    }
+
+    /**
+     * Retorna as iterações usadas para novos hashes.
+     * @return iterações atuais
+     */
+    public static int getIterations() {
+    	return iterations;
+    }
+
     /**
      * Deriva o hash PBKDF2 a partir de uma senha e salt.
      * Monta um {@link PBEKeySpec} com a senha, salt, iterações e tamanho da chave.
-     * Obtém {@link SecretKeyFactory} para o algoritmo {@link #ALGORITHM}.
-     * Gera a chave derivada ({@code encoded}).
+     * Gera a chave derivada ({@code encoded}) e limpa a cópia da senha guardada no spec.
+     * @param factory fábrica da thread atual para o algoritmo desejado
      * @param password senha
      * @param salt salt
+     * @param iter iterações
+     * @param keyLength tamanho da chave em bits
      * @return bytes do hash derivado
-     * @throws Exception se o algoritmo não existir ou houver falha no provider
+     * @throws Exception se houver falha no provider
+     */
+    private static byte[] generateHash(SecretKeyFactory factory, char[] password, byte[] salt, int iter, int keyLength) throws Exception{
+    	PBEKeySpec spec = new PBEKeySpec(password,salt,iter,keyLength);
+    	try {
+    		return factory.generateSecret(spec).getEncoded();
+    	} finally {
+    		spec.clearPassword();
+    	}
+    }
+
+    /**
+     * Obtém a fábrica de um algoritmo PBKDF2.
+     * @param algorithm nome do algoritmo
+     * @return fábrica
+     */
+    private static SecretKeyFactory factory(String algorithm) {
+    	try {
+    		return SecretKeyFactory.getInstance(algorithm);
+    	} catch (NoSuchAlgorithmException e) {
+    		throw new IllegalStateException("Algoritmo de hash indisponível: " + algorithm, e);
+    	}
+    }
+
+    /**
+     * Cria o pool de hashing.
+     * @return executor com metade dos núcleos (mínimo 1) e fila limitada
+     */
+    private static ThreadPoolExecutor createHashPool() {
+    	int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    	AtomicInteger seq = new AtomicInteger();
+    	ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+    			new ArrayBlockingQueue<>(HASH_QUEUE_LIMIT),
+    			r -> {
+    				Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+    				t.setDaemon(true);
+    				return t;
+    			},
+    			new ThreadPoolExecutor.AbortPolicy());
+    	pool.allowCoreThreadTimeOut(true);
+    	return pool;
+    }
+
+    /**
+     * Resultado de {@link #verify(char[], String)}.
      */
-    private static byte[] generateHash(char[] password, byte[] salt) throws Exception{
-    	
-    	KeySpec spec = new PBEKeySpec(password,salt,ITERATIONS,KEY_LENGTH);
-    	SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-    	return factory.generateSecret(spec).getEncoded();
+    public static final class Verification {
+
+    	/**
+    	 * Resultado de senha incorreta.
+    	 */
+    	static final Verification FAILED = new Verification(false, null);
+
+    	private final boolean matches;
+    	private final String upgradedHash;
+
+    	Verification(boolean matches, String upgradedHash) {
+    		this.matches = matches;
+    		this.upgradedHash = upgradedHash;
+    	}
+
+    	/**
+    	 * @return true se a senha conferiu
+    	 */
+    	public boolean matches() {
+    		return matches;
+    	}
+
+    	/**
+    	 * @return hash novo a ser gravado, ou null se o armazenado já está atualizado
+    	 */
+    	public String getUpgradedHash() {
+    		return upgradedHash;
+    	}
     }
 }
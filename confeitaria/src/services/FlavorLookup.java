@@ -0,0 +1,112 @@
+package services;
+
+import model.entities.Flavor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Consulta em memória dos sabores já cadastrados, por nome e nível.
+ *
+ * A chave segue a mesma regra do índice único {@code ux_flavor_name_level} do banco:
+ * nome sem espaços nas pontas e em minúsculas, mais o id do nível.
+ * Assim a tela de produtos sabe, antes de salvar, se o sabor digitado será reaproveitado
+ * (o upsert do repositório devolve o id do sabor existente) ou criado.
+ *
+ * Imutável: {@link #with(Flavor)} devolve uma cópia com o sabor acrescentado,
+ * então a mesma instância pode ser lida por várias threads sem sincronização.
+ */
+public final class FlavorLookup {
+
+    /**
+     * Sabores por chave (nome normalizado + id do nível).
+     */
+    private final Map<String, Flavor> byKey;
+
+    /**
+     * Monta a consulta a partir da lista de sabores.
+     * Sabores sem nome ou sem nível com id são ignorados; em chaves repetidas fica o primeiro.
+     *
+     * @param flavors sabores cadastrados
+     */
+    public FlavorLookup(List<Flavor> flavors) {
+        Map<String, Flavor> map = new HashMap<>(Math.max(16, flavors.size() * 2));
+        for (Flavor f : flavors) {
+            String key = keyOf(f);
+            if (key != null) map.putIfAbsent(key, f);
+        }
+        this.byKey = map;
+    }
+
+    /**
+     * Construtor interno usado por {@link #with(Flavor)}.
+     *
+     * @param byKey mapa já montado (não é copiado)
+     */
+    private FlavorLookup(Map<String, Flavor> byKey) {
+        this.byKey = byKey;
+    }
+
+    /**
+     * Busca o sabor cadastrado com o nome e o nível informados.
+     *
+     * @param name nome do sabor (maiúsculas e espaços nas pontas não importam)
+     * @param levelId id do nível do sabor
+     * @return o sabor ou null se não existir
+     */
+    public Flavor find(String name, Integer levelId) {
+        String key = key(name, levelId);
+        return key != null ? byKey.get(key) : null;
+    }
+
+    /**
+     * Devolve uma cópia da consulta com o sabor acrescentado (ou substituído, se a chave já existir).
+     *
+     * @param flavor sabor gravado (com id e nível)
+     * @return nova consulta
+     */
+    public FlavorLookup with(Flavor flavor) {
+        String key = keyOf(flavor);
+        if (key == null) return this;
+
+        Map<String, Flavor> copy = new HashMap<>(byKey);
+        copy.put(key, flavor);
+        return new FlavorLookup(copy);
+    }
+
+    /**
+     * Retorna a quantidade de sabores na consulta.
+     *
+     * @return quantidade de sabores
+     */
+    public int size() {
+        return byKey.size();
+    }
+
+    /**
+     * Monta a chave de um sabor.
+     *
+     * @param f sabor
+     * @return chave ou null se faltar nome ou nível
+     */
+    private static String keyOf(Flavor f) {
+        if (f == null || f.getLevel() == null) return null;
+        return key(f.getName(), f.getLevel().getId());
+    }
+
+    /**
+     * Monta a chave a partir do nome e do id do nível (mesma regra de {@code lower(name)} do banco).
+     *
+     * @param name nome do sabor
+     * @param levelId id do nível
+     * @return chave ou null se faltar nome ou nível
+     */
+    private static String key(String name, Integer levelId) {
+        if (name == null || levelId == null) return null;
+        String n = name.trim();
+        if (n.isEmpty()) return null;
+        return n.toLowerCase(Locale.ROOT) + '\u0000' + levelId;
+    }
+}
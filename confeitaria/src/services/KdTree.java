@@ -0,0 +1,180 @@
+package services;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore k-d (2 dimensões) sobre pontos geográficos, para consultas de vizinho mais próximo e de raio.
+ *
+ * Os pontos (latitude/longitude) são projetados em um plano em quilômetros (equiretangular,
+ * centrado na latitude média), o que é preciso o bastante na escala de uma cidade ou estado.
+ * A árvore é implícita: os arrays são reordenados na construção de forma que o elemento do meio
+ * de cada faixa seja o nó que divide aquela faixa, alternando o eixo x/y a cada nível.
+ * Não há objetos por nó, e as consultas não criam objetos por nó visitado.
+ *
+ * Consultas retornam o índice do ponto na ordem em que foi informado ao construtor.
+ * Imutável e seguro para uso entre threads depois de construída.
+ */
+public final class KdTree {
+
+    /**
+     * Quilômetros por grau de latitude.
+     */
+    private static final double KM_PER_DEGREE = 111.32;
+
+    /**
+     * Fator de correção da longitude (cosseno da latitude média).
+     */
+    private final double lonScale;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] ids;
+
+    /**
+     * Monta a árvore.
+     *
+     * @param latitudes latitudes dos pontos, em graus
+     * @param longitudes longitudes dos pontos, em graus (mesmo tamanho de latitudes)
+     */
+    public KdTree(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+
+        double meanLat = 0.0;
+        for (double lat : latitudes) meanLat += lat;
+        meanLat = n > 0 ? meanLat / n : 0.0;
+        this.lonScale = Math.cos(Math.toRadians(meanLat));
+
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = projectX(longitudes[i]);
+            ys[i] = projectY(latitudes[i]);
+            ids[i] = i;
+        }
+
+        build(0, n, 0);
+    }
+
+    /**
+     * Retorna o ponto mais próximo.
+     *
+     * @param latitude latitude da consulta
+     * @param longitude longitude da consulta
+     * @return índice do ponto mais próximo, ou -1 se a árvore estiver vazia
+     */
+    public int nearest(double latitude, double longitude) {
+        if (ids.length == 0) return -1;
+        double x = projectX(longitude);
+        double y = projectY(latitude);
+
+        double[] best = {Double.MAX_VALUE};
+        int[] bestId = {-1};
+        nearest(0, ids.length, 0, x, y, best, bestId);
+        return bestId[0];
+    }
+
+    /**
+     * Visita todos os pontos dentro de um raio.
+     *
+     * @param latitude latitude do centro
+     * @param longitude longitude do centro
+     * @param radiusKm raio em quilômetros
+     * @param visitor recebe o índice de cada ponto encontrado (sem ordem definida)
+     */
+    public void withinRadius(double latitude, double longitude, double radiusKm, IntConsumer visitor) {
+        within(0, ids.length, 0, projectX(longitude), projectY(latitude), radiusKm * radiusKm, visitor);
+    }
+
+    /**
+     * Retorna a quantidade de pontos.
+     *
+     * @return quantidade de pontos
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Organiza a faixa [lo, hi) como subárvore: mediana no meio, menores à esquerda, maiores à direita.
+     */
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth & 1);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quickselect: posiciona em k o elemento que estaria ali se a faixa estivesse ordenada pelo eixo.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coord((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coord(i, axis) < pivot) i++;
+                while (coord(j, axis) > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private void nearest(int lo, int hi, int depth, double x, double y, double[] best, int[] bestId) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        double d = dx * dx + dy * dy;
+        if (d < best[0]) {
+            best[0] = d;
+            bestId[0] = ids[mid];
+        }
+
+        double diff = (depth & 1) == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, best, bestId);
+            if (diff * diff < best[0]) nearest(mid + 1, hi, depth + 1, x, y, best, bestId);
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, best, bestId);
+            if (diff * diff < best[0]) nearest(lo, mid, depth + 1, x, y, best, bestId);
+        }
+    }
+
+    private void within(int lo, int hi, int depth, double x, double y, double r2, IntConsumer visitor) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        if (dx * dx + dy * dy <= r2) visitor.accept(ids[mid]);
+
+        double diff = (depth & 1) == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff <= 0 || diff * diff <= r2) within(lo, mid, depth + 1, x, y, r2, visitor);
+        if (diff >= 0 || diff * diff <= r2) within(mid + 1, hi, depth + 1, x, y, r2, visitor);
+    }
+
+    private double coord(int i, int axis) {
+        return axis == 0 ? xs[i] : ys[i];
+    }
+
+    private void swap(int a, int b) {
+        double tx = xs[a]; xs[a] = xs[b]; xs[b] = tx;
+        double ty = ys[a]; ys[a] = ys[b]; ys[b] = ty;
+        int ti = ids[a]; ids[a] = ids[b]; ids[b] = ti;
+    }
+
+    private double projectX(double longitude) {
+        return longitude * KM_PER_DEGREE * lonScale;
+    }
+
+    private double projectY(double latitude) {
+        return latitude * KM_PER_DEGREE;
+    }
+}
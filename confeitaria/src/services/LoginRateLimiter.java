@@ -0,0 +1,328 @@
+package services;
+
+import java.net.InetAddress;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de tentativas de login (token bucket), por conta e por cliente.
+ *
+ * Cada tentativa de login custa uma derivação PBKDF2 inteira; uma rajada de tentativas erradas
+ * ocuparia todos os núcleos do servidor da loja. O limitador recusa a tentativa antes de qualquer
+ * consulta ao banco ou hashing.
+ *
+ * Regra:
+ * - cada chave (e-mail normalizado ou cliente) tem um balde com {@code capacity} fichas
+ * - cada tentativa consome uma ficha; as fichas voltam à taxa de uma a cada {@code refillMillis}
+ * - o cliente é conferido primeiro (barra quem testa muitos e-mails), depois a conta
+ * - login bem-sucedido devolve o balde da conta ao estado cheio ({@link #onSuccess(String)})
+ *
+ * Tabela em memória sem locks:
+ * - {@link ConcurrentHashMap} de chave para balde; cada balde é um único {@link AtomicLong}
+ *   com fichas (em milésimos) e o instante da última recarga, atualizado por compare-and-set
+ * - baldes que já teriam voltado a ficar cheios são removidos por uma varredura periódica,
+ *   então a tabela não cresce com e-mails digitados uma única vez
+ *
+ * Métricas ({@link LongAdder}): tentativas liberadas, recusadas por conta, recusadas por cliente
+ * e baldes expirados; ver {@link #getAllowed()} e {@link #describe()}.
+ * {@link #startMetricsLog()} escreve o resumo do limitador do login no console a cada
+ * LOGIN_METRICS_INTERVAL_MIN minutos (padrão {@link #DEFAULT_METRICS_INTERVAL_MIN}; só quando algo mudou)
+ * e uma última vez ao encerrar a aplicação.
+ */
+public final class LoginRateLimiter {
+
+    /**
+     * Limitador usado pelo login: 5 tentativas por conta (uma nova a cada 12 s)
+     * e 20 por cliente (uma nova a cada 3 s).
+     */
+    private static final LoginRateLimiter DEFAULT = new LoginRateLimiter(5, 12_000, 20, 3_000);
+
+    /**
+     * Bits do instante (ms desde a criação do limitador) no valor do balde; os bits altos guardam as fichas.
+     */
+    private static final int TIME_BITS = 44;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    /**
+     * Fichas são guardadas em milésimos, para a recarga parcial não se perder.
+     */
+    private static final long MILLI = 1000L;
+
+    /**
+     * A cada quantas tentativas a tabela é varrida atrás de baldes expirados.
+     */
+    private static final int SWEEP_EVERY = 1024;
+
+    /**
+     * Intervalo padrão (minutos) do log periódico das métricas.
+     */
+    private static final long DEFAULT_METRICS_INTERVAL_MIN = 15;
+
+    private final Limit account;
+    private final Limit client;
+    private final long origin = System.currentTimeMillis();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedAccount = new LongAdder();
+    private final LongAdder rejectedClient = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * Nome da máquina local (cliente padrão), resolvido na primeira vez que é pedido.
+     */
+    private static volatile String localClient;
+
+    /**
+     * Indica se o log das métricas já foi ligado ({@link #startMetricsLog()}).
+     */
+    private static boolean metricsLogStarted;
+
+    /**
+     * Cria um limitador.
+     *
+     * @param accountCapacity tentativas seguidas permitidas por conta (1 a 1000, como client)
+     * @param accountRefillMillis intervalo para devolver uma tentativa à conta
+     * @param clientCapacity tentativas seguidas permitidas por cliente
+     * @param clientRefillMillis intervalo para devolver uma tentativa ao cliente
+     */
+    public LoginRateLimiter(int accountCapacity, long accountRefillMillis, int clientCapacity, long clientRefillMillis) {
+        this.account = new Limit(accountCapacity, accountRefillMillis);
+        this.client = new Limit(clientCapacity, clientRefillMillis);
+    }
+
+    /**
+     * Retorna o limitador usado pelo login.
+     *
+     * @return limitador compartilhado
+     */
+    public static LoginRateLimiter getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Tenta liberar uma tentativa de login.
+     *
+     * @param email e-mail digitado
+     * @param clientId identificação do cliente (ex.: nome da máquina)
+     * @return 0 se liberada; se recusada, segundos até a próxima tentativa possível (no mínimo 1)
+     */
+    public long tryAcquire(String email, String clientId) {
+        long now = System.currentTimeMillis() - origin;
+        if (calls.incrementAndGet() % SWEEP_EVERY == 0) sweep(now);
+
+        long wait = client.tryAcquire(clientKey(clientId), now);
+        if (wait > 0) {
+            rejectedClient.increment();
+            return toSeconds(wait);
+        }
+
+        wait = account.tryAcquire(accountKey(email), now);
+        if (wait > 0) {
+            rejectedAccount.increment();
+            return toSeconds(wait);
+        }
+
+        allowed.increment();
+        return 0L;
+    }
+
+    /**
+     * Registra um login bem-sucedido: a conta volta a ter todas as tentativas.
+     *
+     * @param email e-mail autenticado
+     */
+    public void onSuccess(String email) {
+        account.buckets.remove(accountKey(email));
+    }
+
+    /**
+     * Normaliza o e-mail usado como chave da conta (sem espaços nas pontas, minúsculo).
+     *
+     * @param email e-mail digitado
+     * @return chave da conta
+     */
+    public static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Retorna a identificação da máquina local, usada como cliente quando nenhum é informado.
+     * Usa COMPUTERNAME/HOSTNAME se definidos, senão o nome do host (resolvido uma vez).
+     *
+     * @return nome da máquina, ou "local"
+     */
+    public static String localClient() {
+        String c = localClient;
+        if (c != null) return c;
+
+        c = System.getenv("COMPUTERNAME");
+        if (c == null || c.isBlank()) c = System.getenv("HOSTNAME");
+        if (c == null || c.isBlank()) {
+            try {
+                c = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                c = "local";
+            }
+        }
+        localClient = c;
+        return c;
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejectedByAccount() {
+        return rejectedAccount.sum();
+    }
+
+    public long getRejectedByClient() {
+        return rejectedClient.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * Retorna a quantidade de baldes em memória (contas + clientes).
+     *
+     * @return quantidade de baldes
+     */
+    public int getTrackedKeys() {
+        return account.buckets.size() + client.buckets.size();
+    }
+
+    /**
+     * Resumo das métricas em uma linha (para log).
+     *
+     * @return texto com as métricas
+     */
+    public String describe() {
+        return "login-rate-limit allowed=" + getAllowed()
+                + " rejectedAccount=" + getRejectedByAccount()
+                + " rejectedClient=" + getRejectedByClient()
+                + " expired=" + getExpired()
+                + " tracked=" + getTrackedKeys();
+    }
+
+    /**
+     * Liga o log das métricas do limitador do login: uma thread daemon escreve {@link #describe()}
+     * no console a cada LOGIN_METRICS_INTERVAL_MIN minutos, se houve tentativas desde o último log
+     * (0 desliga o log periódico), e um shutdown hook escreve o resumo final.
+     * Chamadas repetidas não criam outra thread.
+     */
+    public static synchronized void startMetricsLog() {
+        if (metricsLogStarted) return;
+        metricsLogStarted = true;
+
+        long minutes = DEFAULT_METRICS_INTERVAL_MIN;
+        String raw = System.getenv("LOGIN_METRICS_INTERVAL_MIN");
+        if (raw != null && !raw.isBlank()) {
+            try {
+                minutes = Math.max(0L, Long.parseLong(raw.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Valor inválido em LOGIN_METRICS_INTERVAL_MIN: " + raw);
+            }
+        }
+
+        if (minutes > 0) {
+            long intervalMillis = minutes * 60_000L;
+            Thread t = new Thread(() -> {
+                long lastCalls = 0;
+                while (true) {
+                    try {
+                        Thread.sleep(intervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long current = DEFAULT.calls.get();
+                    if (current != lastCalls) {
+                        lastCalls = current;
+                        System.out.println(DEFAULT.describe());
+                    }
+                }
+            }, "login-rate-limit-metrics");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(DEFAULT.describe()),
+                "login-rate-limit-summary"));
+    }
+
+    /**
+     * Remove os baldes que já estariam cheios (ninguém tentou por tempo suficiente).
+     */
+    private void sweep(long now) {
+        expired.add(account.sweep(now));
+        expired.add(client.sweep(now));
+    }
+
+    private static String clientKey(String clientId) {
+        return clientId == null || clientId.isBlank() ? "local" : clientId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1L, (millis + 999L) / 1000L);
+    }
+
+    /**
+     * Baldes de um tipo de chave, com a mesma capacidade e taxa de recarga.
+     */
+    private static final class Limit {
+        final long capacityMilli;
+        final long refillMillis;
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        Limit(int capacity, long refillMillis) {
+            this.capacityMilli = Math.max(1, Math.min(1000, capacity)) * MILLI;
+            this.refillMillis = Math.max(1L, refillMillis);
+        }
+
+        /**
+         * Consome uma ficha da chave.
+         *
+         * @return 0 se consumiu; senão, milissegundos até haver uma ficha
+         */
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(capacityMilli, now)));
+            while (true) {
+                long state = bucket.get();
+                long tokens = refilled(state, now);
+                if (tokens < MILLI) {
+                    return (MILLI - tokens) * refillMillis / MILLI + 1;
+                }
+                if (bucket.compareAndSet(state, pack(tokens - MILLI, now))) return 0L;
+            }
+        }
+
+        /**
+         * Fichas (em milésimos) do balde no instante informado, já com a recarga.
+         */
+        long refilled(long state, long now) {
+            long tokens = state >>> TIME_BITS;
+            long elapsed = Math.max(0L, now - (state & TIME_MASK));
+            if (elapsed >= refillMillis * (capacityMilli / MILLI)) return capacityMilli;
+            return Math.min(capacityMilli, tokens + elapsed * MILLI / refillMillis);
+        }
+
+        int sweep(long now) {
+            int removed = 0;
+            for (Map.Entry<String, AtomicLong> e : buckets.entrySet()) {
+                AtomicLong bucket = e.getValue();
+                long state = bucket.get();
+                if (refilled(state, now) >= capacityMilli && buckets.remove(e.getKey(), bucket)) removed++;
+            }
+            return removed;
+        }
+
+        private static long pack(long tokensMilli, long now) {
+            return (tokensMilli << TIME_BITS) | (now & TIME_MASK);
+        }
+    }
+}
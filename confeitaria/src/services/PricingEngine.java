@@ -0,0 +1,176 @@
+package services;
+
+import model.entities.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Regra única de preço dos produtos, em centavos ({@code long}).
+ *
+ * Regra:
+ * unitário = basePrice + size.price + flavor.level.price (ausentes contam como 0)
+ *
+ * Por que centavos:
+ * - as colunas de preço são DECIMAL(10,2); somar {@code double} acumula erro binário
+ *   (ex.: 0.1 + 0.2) que acabava gravado nos totais
+ * - cada preço lido do banco é convertido uma vez para centavos ({@link #toCents(Double)}),
+ *   as contas são inteiras e exatas, e a gravação volta para DECIMAL com {@link #toDecimal(long)}
+ *
+ * Uso de tabela:
+ * {@link #of(Collection)} pré-calcula o unitário de cada produto em arrays paralelos ordenados por id;
+ * {@link #priceLines(int[], int[], int, long[])} precifica um carrinho inteiro sem criar objetos por linha
+ * (busca binária + multiplicação/soma inteiras, com verificação de estouro).
+ *
+ * Imutável depois de criado.
+ */
+public final class PricingEngine {
+
+    /**
+     * Ids dos produtos, em ordem crescente.
+     */
+    private final int[] ids;
+
+    /**
+     * Unitário em centavos de cada produto (mesma posição de ids).
+     */
+    private final long[] unitCents;
+
+    private PricingEngine(int[] ids, long[] unitCents) {
+        this.ids = ids;
+        this.unitCents = unitCents;
+    }
+
+    /**
+     * Monta a tabela de preços de um conjunto de produtos.
+     * Produtos null ou sem id são ignorados; ids repetidos ficam com o último preço informado.
+     *
+     * @param products produtos carregados (com size e flavor/level quando aplicável)
+     * @return tabela de preços
+     */
+    public static PricingEngine of(Collection<Product> products) {
+        int n = products.size();
+        long[] packed = new long[n];
+        long[] prices = new long[n];
+        int count = 0;
+
+        for (Product p : products) {
+            if (p == null || p.getId() == null) continue;
+            prices[count] = unitPriceCents(p);
+            packed[count] = ((long) p.getId() << 32) | count;
+            count++;
+        }
+        Arrays.sort(packed, 0, count);
+
+        int[] ids = new int[count];
+        long[] units = new long[count];
+        int m = 0;
+        for (int k = 0; k < count; k++) {
+            int id = (int) (packed[k] >> 32);
+            long price = prices[(int) packed[k]];
+            if (m > 0 && ids[m - 1] == id) {
+                units[m - 1] = price;
+            } else {
+                ids[m] = id;
+                units[m] = price;
+                m++;
+            }
+        }
+
+        return new PricingEngine(Arrays.copyOf(ids, m), Arrays.copyOf(units, m));
+    }
+
+    /**
+     * Retorna o unitário de um produto da tabela.
+     *
+     * @param productId id do produto
+     * @return unitário em centavos, ou -1 se o produto não estiver na tabela
+     */
+    public long unitCents(int productId) {
+        int i = Arrays.binarySearch(ids, productId);
+        return i >= 0 ? unitCents[i] : -1L;
+    }
+
+    /**
+     * Precifica linhas de um carrinho.
+     *
+     * Funcionamento:
+     * 1. Para cada linha, busca o unitário do produto na tabela.
+     * 2. Grava o unitário em unitOut (ou -1 se o produto não existir; a linha não entra no total).
+     * 3. Soma unitário * quantidade no subtotal.
+     *
+     * @param productIds ids dos produtos
+     * @param quantities quantidades (mesmo tamanho)
+     * @param n quantidade de linhas a considerar
+     * @param unitOut recebe o unitário de cada linha (pode ser null)
+     * @return subtotal em centavos
+     * @throws ArithmeticException se o total passar do limite de um long
+     */
+    public long priceLines(int[] productIds, int[] quantities, int n, long[] unitOut) {
+        long subtotal = 0L;
+        for (int i = 0; i < n; i++) {
+            long unit = unitCents(productIds[i]);
+            if (unitOut != null) unitOut[i] = unit;
+            if (unit < 0) continue;
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(unit, (long) quantities[i]));
+        }
+        return subtotal;
+    }
+
+    /**
+     * Retorna a quantidade de produtos na tabela.
+     *
+     * @return quantidade de produtos
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Calcula o unitário de um produto em centavos.
+     *
+     * @param p produto (com size e flavor/level quando aplicável)
+     * @return unitário em centavos (0 se p for null)
+     */
+    public static long unitPriceCents(Product p) {
+        if (p == null) return 0L;
+        long cents = toCents(p.getBasePrice());
+        if (p.getSize() != null) cents += toCents(p.getSize().getPrice());
+        if (p.getFlavor() != null && p.getFlavor().getLevel() != null) cents += toCents(p.getFlavor().getLevel().getPrice());
+        return cents;
+    }
+
+    /**
+     * Converte um valor em reais para centavos.
+     * Valores lidos de colunas DECIMAL(10,2) voltam exatamente para o centavo original.
+     *
+     * @param reais valor em reais (null vira 0)
+     * @return valor em centavos
+     */
+    public static long toCents(Double reais) {
+        return reais != null ? Math.round(reais * 100.0) : 0L;
+    }
+
+    /**
+     * Converte um valor decimal em centavos (arredondando para 2 casas, meia para cima).
+     *
+     * @param value valor em reais (null vira 0)
+     * @return valor em centavos
+     */
+    public static long toCents(BigDecimal value) {
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    /**
+     * Converte centavos para o valor gravado nas colunas DECIMAL(10,2).
+     * Também serve para formatar ({@code String.format("%.2f", toDecimal(c))}) sem erro de arredondamento.
+     *
+     * @param cents valor em centavos
+     * @return valor decimal com 2 casas
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,313 @@
+package services;
+
+import model.entities.DiscountType;
+import model.entities.Promotion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Motor de promoções e cupons do checkout, compilado a partir das regras da tabela {@code promotion}.
+ *
+ * Compilação ({@link #compile(List)}):
+ * - cada regra vira um objeto enxuto com valores já em centavos / pontos-base e datas em milissegundos
+ * - a regra é indexada pelo seu critério mais seletivo: produto, depois nível do sabor, depois tamanho,
+ *   depois área; regras sem critério ficam em uma lista geral e regras com cupom só no índice de cupons
+ * - os índices são arrays ordenados (busca binária), então a avaliação não cria objetos por linha
+ *
+ * Avaliação ({@link #apply}):
+ * - para cada linha do carrinho, só as regras candidatas dos índices daquela linha são conferidas
+ *   (produto, tamanho, nível, área do cliente, gerais e as do cupom informado)
+ * - cada candidata confere todos os seus critérios (produto, tamanho, nível, área, quantidade mínima, datas)
+ * - as promoções não se acumulam: vale o maior desconto de cada linha, limitado ao total da linha
+ *
+ * Com milhares de regras ativas, o custo por linha depende só das candidatas daquela linha.
+ * O resultado de uma avaliação vale até a próxima borda de período de alguma regra
+ * ({@link #nextChangeAfter(long)}): quem guarda uma cotação deve descartá-la a partir daí.
+ * Imutável: para recarregar as regras, compila-se um motor novo e troca-se a referência.
+ */
+public final class PromotionEngine {
+
+    private static final Rule[] NONE = new Rule[0];
+
+    /**
+     * Motor sem regras.
+     */
+    public static final PromotionEngine EMPTY = compile(new ArrayList<>());
+
+    private final IntIndex byProduct;
+    private final IntIndex byLevel;
+    private final IntIndex bySize;
+    private final IntIndex byArea;
+
+    /**
+     * Regras sem nenhum critério indexável (valem para qualquer linha).
+     */
+    private final Rule[] anywhere;
+
+    /**
+     * Regras de cupom, por código normalizado.
+     */
+    private final Map<String, Rule[]> byCoupon;
+
+    private final int ruleCount;
+
+    /**
+     * Instantes (ms, ordenados) em que alguma regra entra ou sai do período de validade.
+     */
+    private final long[] boundaries;
+
+    private PromotionEngine(IntIndex byProduct, IntIndex byLevel, IntIndex bySize, IntIndex byArea,
+                            Rule[] anywhere, Map<String, Rule[]> byCoupon, int ruleCount, long[] boundaries) {
+        this.byProduct = byProduct;
+        this.byLevel = byLevel;
+        this.bySize = bySize;
+        this.byArea = byArea;
+        this.anywhere = anywhere;
+        this.byCoupon = byCoupon;
+        this.ruleCount = ruleCount;
+        this.boundaries = boundaries;
+    }
+
+    /**
+     * Compila as regras.
+     * Regras inativas, sem tipo ou sem valor são ignoradas.
+     *
+     * @param promotions promoções carregadas do banco
+     * @return motor compilado
+     */
+    public static PromotionEngine compile(List<Promotion> promotions) {
+        Map<Integer, List<Rule>> product = new HashMap<>();
+        Map<Integer, List<Rule>> level = new HashMap<>();
+        Map<Integer, List<Rule>> size = new HashMap<>();
+        Map<Integer, List<Rule>> area = new HashMap<>();
+        List<Rule> any = new ArrayList<>();
+        Map<String, List<Rule>> coupon = new HashMap<>();
+        long[] bounds = new long[promotions.size() * 2];
+        int boundCount = 0;
+        int count = 0;
+
+        for (Promotion p : promotions) {
+            if (p == null || !p.isActive() || p.getType() == null || p.getValue() == null) continue;
+            Rule r = new Rule(p);
+            count++;
+            if (r.startMillis != Long.MIN_VALUE) bounds[boundCount++] = r.startMillis;
+            if (r.endMillis != Long.MAX_VALUE) bounds[boundCount++] = r.endMillis + 1;
+
+            if (r.coupon != null) coupon.computeIfAbsent(r.coupon, k -> new ArrayList<>()).add(r);
+            else if (r.productId >= 0) product.computeIfAbsent(r.productId, k -> new ArrayList<>()).add(r);
+            else if (r.levelId >= 0) level.computeIfAbsent(r.levelId, k -> new ArrayList<>()).add(r);
+            else if (r.sizeId >= 0) size.computeIfAbsent(r.sizeId, k -> new ArrayList<>()).add(r);
+            else if (r.areaId >= 0) area.computeIfAbsent(r.areaId, k -> new ArrayList<>()).add(r);
+            else any.add(r);
+        }
+
+        Map<String, Rule[]> coupons = new HashMap<>();
+        for (Map.Entry<String, List<Rule>> e : coupon.entrySet()) {
+            coupons.put(e.getKey(), e.getValue().toArray(NONE));
+        }
+
+        bounds = Arrays.copyOf(bounds, boundCount);
+        Arrays.sort(bounds);
+
+        return new PromotionEngine(IntIndex.of(product), IntIndex.of(level), IntIndex.of(size), IntIndex.of(area),
+                any.toArray(NONE), coupons, count, bounds);
+    }
+
+    /**
+     * Retorna o primeiro instante depois de {@code nowMillis} em que alguma regra começa ou termina.
+     * Até lá, avaliar o mesmo carrinho dá o mesmo desconto.
+     *
+     * @param nowMillis instante da avaliação (epoch em ms)
+     * @return próxima borda de período (epoch em ms), ou {@link Long#MAX_VALUE} se nenhuma
+     */
+    public long nextChangeAfter(long nowMillis) {
+        int i = Arrays.binarySearch(boundaries, nowMillis);
+        i = i >= 0 ? i + 1 : -i - 1;
+        while (i < boundaries.length && boundaries[i] <= nowMillis) i++;
+        return i < boundaries.length ? boundaries[i] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Indica se existe alguma regra com o cupom informado.
+     *
+     * @param code cupom digitado
+     * @return true se o cupom existir
+     */
+    public boolean hasCoupon(String code) {
+        String key = normalizeCoupon(code);
+        return key != null && byCoupon.containsKey(key);
+    }
+
+    /**
+     * Retorna a quantidade de regras compiladas.
+     *
+     * @return quantidade de regras
+     */
+    public int size() {
+        return ruleCount;
+    }
+
+    /**
+     * Aplica as promoções às linhas de um carrinho.
+     *
+     * @param productIds id do produto de cada linha
+     * @param sizeIds id do tamanho de cada linha (-1 se não houver)
+     * @param levelIds id do nível do sabor de cada linha (-1 se não houver)
+     * @param quantities quantidade de cada linha
+     * @param unitCents unitário de cada linha, em centavos
+     * @param n quantidade de linhas
+     * @param areaId área de entrega do cliente (-1 se não houver)
+     * @param coupon cupom informado (ou null)
+     * @param nowMillis instante da avaliação (epoch em ms)
+     * @param discountOut recebe o desconto de cada linha em centavos (pode ser null)
+     * @return desconto total em centavos
+     */
+    public long apply(int[] productIds, int[] sizeIds, int[] levelIds, int[] quantities, long[] unitCents, int n,
+                      int areaId, String coupon, long nowMillis, long[] discountOut) {
+        String key = normalizeCoupon(coupon);
+        Rule[] couponRules = key != null ? byCoupon.getOrDefault(key, NONE) : NONE;
+        Rule[] areaRules = byArea.get(areaId);
+
+        long total = 0L;
+        for (int i = 0; i < n; i++) {
+            int pid = productIds[i];
+            int sid = sizeIds[i];
+            int lid = levelIds[i];
+            int qty = quantities[i];
+            long lineCents = unitCents[i] * qty;
+
+            long best = 0L;
+            best = best(byProduct.get(pid), pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+            best = best(byLevel.get(lid), pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+            best = best(bySize.get(sid), pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+            best = best(areaRules, pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+            best = best(anywhere, pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+            best = best(couponRules, pid, sid, lid, qty, areaId, nowMillis, lineCents, best);
+
+            if (discountOut != null) discountOut[i] = best;
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Normaliza um cupom para comparação (sem espaços nas pontas, maiúsculo).
+     *
+     * @param code cupom digitado
+     * @return cupom normalizado, ou null se vazio
+     */
+    public static String normalizeCoupon(String code) {
+        if (code == null) return null;
+        String c = code.trim();
+        return c.isEmpty() ? null : c.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Retorna o maior desconto entre o atual e o das regras candidatas que se aplicam à linha.
+     */
+    private static long best(Rule[] rules, int pid, int sid, int lid, int qty, int areaId,
+                             long now, long lineCents, long best) {
+        for (Rule r : rules) {
+            if (!r.matches(pid, sid, lid, qty, areaId, now)) continue;
+            long d = Math.min(r.discount(qty, lineCents), lineCents);
+            if (d > best) best = d;
+        }
+        return best;
+    }
+
+    /**
+     * Regra compilada. Critérios ausentes valem -1 (qualquer um).
+     */
+    private static final class Rule {
+        final String coupon;
+        final boolean percent;
+
+        /**
+         * Pontos-base (1% = 100) em PERCENT, centavos por unidade em AMOUNT.
+         */
+        final long value;
+
+        final int productId;
+        final int sizeId;
+        final int levelId;
+        final int areaId;
+        final int minQuantity;
+        final long startMillis;
+        final long endMillis;
+
+        Rule(Promotion p) {
+            this.coupon = normalizeCoupon(p.getCode());
+            this.percent = p.getType() == DiscountType.PERCENT;
+            this.value = percent
+                    ? Math.min(10_000L, Math.max(0L, Math.round(p.getValue() * 100.0)))
+                    : Math.max(0L, PricingEngine.toCents(p.getValue()));
+            this.productId = orAny(p.getIdProduct());
+            this.sizeId = orAny(p.getIdSize());
+            this.levelId = orAny(p.getIdFlavorLevel());
+            this.areaId = orAny(p.getIdArea());
+            this.minQuantity = Math.max(1, p.getMinQuantity());
+            this.startMillis = p.getStartsAt() != null ? toMillis(p.getStartsAt()) : Long.MIN_VALUE;
+            this.endMillis = p.getEndsAt() != null ? toMillis(p.getEndsAt()) : Long.MAX_VALUE;
+        }
+
+        boolean matches(int pid, int sid, int lid, int qty, int area, long now) {
+            return (productId < 0 || productId == pid)
+                    && (sizeId < 0 || sizeId == sid)
+                    && (levelId < 0 || levelId == lid)
+                    && (areaId < 0 || areaId == area)
+                    && qty >= minQuantity
+                    && now >= startMillis && now <= endMillis;
+        }
+
+        long discount(int qty, long lineCents) {
+            return percent ? (lineCents * value + 5_000L) / 10_000L : value * qty;
+        }
+
+        private static int orAny(Integer id) {
+            return id != null ? id : -1;
+        }
+
+        private static long toMillis(LocalDateTime t) {
+            return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Índice imutável de id para regras: chaves ordenadas e busca binária.
+     */
+    private static final class IntIndex {
+        private final int[] keys;
+        private final Rule[][] values;
+
+        private IntIndex(int[] keys, Rule[][] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        static IntIndex of(Map<Integer, List<Rule>> map) {
+            int[] keys = new int[map.size()];
+            int i = 0;
+            for (Integer k : map.keySet()) keys[i++] = k;
+            Arrays.sort(keys);
+
+            Rule[][] values = new Rule[keys.length][];
+            for (int k = 0; k < keys.length; k++) {
+                values[k] = map.get(keys[k]).toArray(NONE);
+            }
+            return new IntIndex(keys, values);
+        }
+
+        Rule[] get(int key) {
+            if (key < 0 || keys.length == 0) return NONE;
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? values[i] : NONE;
+        }
+    }
+}
@@ -32,7 +32,8 @@ import java.util.List;
  *
  * Arquivo CSV de áreas: 
  * - Nome do arquivo: {@code areas.csv}
- * - Formato esperado por linha: nome;taxa
+ * - Formato esperado por linha: nome;taxa[;latitude;longitude]
+ *   (o centroide é opcional e habilita a taxa por distância; veja {@link DeliveryFeeEngine})
  *
  * Onde colocar o arquivo areas.csv?
  * - A leitura tenta primeiro como resource do classpath e, se não encontrar, faz fallback
@@ -69,8 +70,8 @@ public final class SeedService {
      * Lê o arquivo {@code areas.csv} e insere áreas no banco caso ainda não existam.
      * Estratégia de inserção:
      * - Para cada linha válida do CSV, busca se já existe uma área com o mesmo nome usando {@code RepositoryArea.findByNameArea(name)}.
-     * - Se já existir, ignora (não insere duplicado).
-     * - Se não existir, insere usando {@code RepositoryArea.createArea(new Area(name, fee))}.
+     * - Se já existir, não insere duplicado; apenas grava o centroide do CSV se a área ainda não tiver um.
+     * - Se não existir, insere usando {@code RepositoryArea.createArea(new Area(name, fee))}, com o centroide quando houver.
      * - Não utiliza o AreaFactory
      * 
      * Linhas inválidas são ignoradas:
@@ -78,6 +79,7 @@ public final class SeedService {
      * - linha iniciada com {@code #}
      * - linha sem o separador {@code ;} com pelo menos 2 partes
      * - taxa não numérica
+     * Latitude/longitude ausentes ou inválidas são ignoradas (a área fica sem centroide).
      * 
      * este método não remove áreas antigas e não atualiza taxas já existentes — apenas garante que todas as áreas do CSV estejam presentes.
      *
@@ -106,16 +108,48 @@ public final class SeedService {
                     continue; 
                 }
 
+                Double latitude = parts.length >= 4 ? parseCoordinate(parts[2]) : null;
+                Double longitude = parts.length >= 4 ? parseCoordinate(parts[3]) : null;
+                if (latitude == null || longitude == null) {
+                    latitude = null;
+                    longitude = null;
+                }
+
                 Area existing = repoArea.findByNameArea(name);
-                if (existing != null) continue;
+                if (existing != null) {
+                    if (!existing.hasLocation() && latitude != null) {
+                        existing.setLatitude(latitude);
+                        existing.setLongitude(longitude);
+                        repoArea.updateAreaLocation(existing);
+                    }
+                    continue;
+                }
 
-                repoArea.createArea(new Area(name, fee));
+                Area area = new Area(name, fee);
+                area.setLatitude(latitude);
+                area.setLongitude(longitude);
+                repoArea.createArea(area);
             }
         } catch (Exception e) {
             throw new SQLException("Erro ao ler areas.csv: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Converte uma coordenada do CSV (aceita vírgula ou ponto).
+     *
+     * @param raw texto da coluna
+     * @return coordenada, ou null se vazia ou inválida
+     */
+    private static Double parseCoordinate(String raw) {
+        if (raw == null || raw.trim().isEmpty()) return null;
+        try {
+            return Double.parseDouble(raw.trim().replace(",", "."));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Abre o arquivo {@code areas.csv} para leitura em UTF-8.
      * Classpath resource: {@code areas.csv}
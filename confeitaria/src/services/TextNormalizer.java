@@ -0,0 +1,59 @@
+package services;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto para buscas sem diferença de acentos e maiúsculas.
+ *
+ * Regra:
+ * - decompõe os caracteres (NFD) e remove as marcas de acento ("Açúcar" vira "acucar")
+ * - converte para minúsculas
+ * - troca sequências de espaços por um único espaço e remove espaços das pontas
+ *
+ * Usada tanto nas chaves pré-calculadas do catálogo quanto no texto digitado pelo usuário,
+ * para que as duas pontas da comparação passem pela mesma regra.
+ */
+public final class TextNormalizer {
+
+    /**
+     * Marcas combinantes (acentos) após a decomposição NFD.
+     */
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Sequências de espaços.
+     */
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /**
+     * Construtor privado para impedir instanciação.
+     */
+    private TextNormalizer() {}
+
+    /**
+     * Normaliza um texto para comparação.
+     *
+     * @param text texto original (pode ser null)
+     * @return texto normalizado ("" se null)
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) return "";
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = MARKS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Normaliza um texto e o separa em termos (palavras).
+     *
+     * @param text texto original (pode ser null)
+     * @return termos normalizados (vazio se não houver texto)
+     */
+    public static String[] terms(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+}
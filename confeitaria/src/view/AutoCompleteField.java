@@ -0,0 +1,213 @@
+package view;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Campo de texto com sugestões (autocomplete) em uma lista suspensa.
+ *
+ * A cada alteração do texto chama a função de busca (que deve ser rápida, em memória)
+ * e mostra até {@link #MAX_SUGGESTIONS} sugestões abaixo do campo.
+ *
+ * Interação:
+ * - setas para cima/baixo: navegam nas sugestões
+ * - Enter ou clique: escolhe a sugestão
+ * - Esc ou perda de foco: fecha a lista
+ *
+ * O valor escolhido fica em {@link #getSelected()}. Editar o texto depois de escolher
+ * desfaz a escolha, para que o texto exibido e o valor nunca fiquem diferentes.
+ *
+ * @param <T> tipo dos itens sugeridos
+ */
+public class AutoCompleteField<T> extends JTextField {
+
+    /**
+     * Quantidade máxima de sugestões exibidas.
+     */
+    public static final int MAX_SUGGESTIONS = 8;
+
+    /**
+     * Função de busca: texto digitado para sugestões.
+     */
+    private final Function<String, List<T>> lookup;
+
+    /**
+     * Lista de sugestões.
+     */
+    private final JList<T> list = new JList<>();
+
+    /**
+     * Popup que contém a lista.
+     */
+    private final JPopupMenu popup = new JPopupMenu();
+
+    /**
+     * Item escolhido (null se nenhum).
+     */
+    private T selected;
+
+    /**
+     * Indica que o texto está sendo alterado pelo próprio campo (não deve desfazer a escolha).
+     */
+    private boolean updating = false;
+
+    /**
+     * Cria o campo.
+     *
+     * @param columns número de colunas
+     * @param lookup função de busca (chamada na EDT a cada alteração; pode retornar null)
+     */
+    public AutoCompleteField(int columns, Function<String, List<T>> lookup) {
+        super(columns);
+        this.lookup = lookup;
+
+        setFont(ViewTheme.FONT_LABEL);
+        setBackground(ViewTheme.INPUT_BG);
+
+        list.setFont(ViewTheme.FONT_LABEL);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) choose(list.getModel().getElementAt(index));
+            }
+        });
+
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createLineBorder(ViewTheme.BORDER));
+        popup.setFocusable(false);
+        popup.setBorder(BorderFactory.createEmptyBorder());
+        popup.add(scroll);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { onTextChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { onTextChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { onTextChanged(); }
+        });
+
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                onKeyPressed(e);
+            }
+        });
+
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+    }
+
+    /**
+     * Retorna o item escolhido.
+     *
+     * @return item escolhido ou null
+     */
+    public T getSelected() {
+        return selected;
+    }
+
+    /**
+     * Define o item escolhido e exibe seu texto (toString) no campo.
+     *
+     * @param item item (null limpa o campo)
+     */
+    public void setSelected(T item) {
+        updating = true;
+        try {
+            selected = item;
+            setText(item != null ? item.toString() : "");
+        } finally {
+            updating = false;
+        }
+        popup.setVisible(false);
+    }
+
+    /**
+     * Atualiza as sugestões quando o usuário altera o texto.
+     * Se o texto deixou de ser o do item escolhido, a escolha é desfeita.
+     */
+    private void onTextChanged() {
+        if (updating) return;
+        if (selected != null && !Objects.equals(selected.toString(), getText())) {
+            selected = null;
+        }
+
+        List<T> found = lookup.apply(getText());
+        if (found == null) found = Collections.emptyList();
+        if (found.size() > MAX_SUGGESTIONS) found = found.subList(0, MAX_SUGGESTIONS);
+
+        DefaultListModel<T> model = new DefaultListModel<>();
+        for (T item : found) model.addElement(item);
+        list.setModel(model);
+
+        if (model.isEmpty() || !isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(model.size());
+        popup.setPopupSize(getWidth(), list.getPreferredScrollableViewportSize().height + 4);
+        if (popup.isVisible()) popup.pack();
+        else popup.show(this, 0, getHeight());
+    }
+
+    /**
+     * Navegação por teclado na lista de sugestões.
+     *
+     * @param e evento de tecla
+     */
+    private void onKeyPressed(KeyEvent e) {
+        if (!popup.isVisible()) return;
+
+        int size = list.getModel().getSize();
+        int index = list.getSelectedIndex();
+
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                list.setSelectedIndex(Math.min(size - 1, index + 1));
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                list.setSelectedIndex(Math.max(0, index - 1));
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (index >= 0) choose(list.getModel().getElementAt(index));
+                e.consume();
+                break;
+            case KeyEvent.VK_ESCAPE:
+                popup.setVisible(false);
+                e.consume();
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Escolhe uma sugestão: guarda o item, mostra seu texto e fecha a lista.
+     *
+     * @param item item escolhido
+     */
+    private void choose(T item) {
+        setSelected(item);
+        requestFocusInWindow();
+    }
+}
@@ -0,0 +1,125 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+
+/**
+ * Camada de "carregando" exibida sobre uma janela enquanto existe trabalho em segundo plano.
+ * É instalada como glass pane do JFrame pelo {@link ViewTaskRunner}.
+ *
+ * Enquanto visível:
+ * - pinta um véu translúcido com a mensagem da tarefa
+ * - consome cliques e teclas, impedindo que o usuário dispare a mesma ação duas vezes
+ *
+ * Para evitar "piscar" em consultas rápidas, a camada só aparece depois de {@link #SHOW_DELAY_MS}.
+ * O controle é por contagem: várias tarefas podem estar ativas ao mesmo tempo e a camada
+ * só some quando a última terminar.
+ */
+public class LoadingOverlay extends JComponent {
+
+    /**
+     * Atraso (ms) antes de exibir a camada.
+     * Tarefas que terminam antes disso não mostram nada na tela.
+     */
+    private static final int SHOW_DELAY_MS = 150;
+
+    /**
+     * Cor do véu pintado sobre a janela (fundo do tema com transparência).
+     */
+    private static final Color VEIL = new Color(0xF7, 0xB6, 0xBD, 170);
+
+    /**
+     * Quantidade de tarefas ativas que pediram a camada.
+     */
+    private int pending = 0;
+
+    /**
+     * Mensagem exibida no centro da camada.
+     */
+    private String message = "Carregando...";
+
+    /**
+     * Timer usado para atrasar a exibição.
+     */
+    private final Timer showTimer;
+
+    /**
+     * Cria a camada (invisível) e registra os listeners que bloqueiam a interação.
+     */
+    public LoadingOverlay() {
+        setOpaque(false);
+        setVisible(false);
+        setFocusTraversalKeysEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        addMouseListener(new MouseAdapter() {});
+        addMouseMotionListener(new MouseAdapter() {});
+        addMouseWheelListener(e -> e.consume());
+        addKeyListener(new KeyAdapter() {
+            @Override public void keyPressed(KeyEvent e) { e.consume(); }
+            @Override public void keyReleased(KeyEvent e) { e.consume(); }
+            @Override public void keyTyped(KeyEvent e) { e.consume(); }
+        });
+
+        showTimer = new Timer(SHOW_DELAY_MS, e -> {
+            if (pending > 0) {
+                setVisible(true);
+                requestFocusInWindow();
+            }
+        });
+        showTimer.setRepeats(false);
+    }
+
+    /**
+     * Registra uma nova tarefa ativa.
+     * Se for a primeira, agenda a exibição da camada.
+     *
+     * @param text mensagem a exibir (se null, mantém a atual)
+     */
+    public void acquire(String text) {
+        if (text != null) message = text;
+        pending++;
+        if (pending == 1) showTimer.restart();
+        repaint();
+    }
+
+    /**
+     * Libera uma tarefa ativa.
+     * Quando não há mais tarefas, esconde a camada.
+     */
+    public void release() {
+        if (pending == 0) return;
+        pending--;
+        if (pending == 0) {
+            showTimer.stop();
+            setVisible(false);
+        }
+    }
+
+    /**
+     * Pinta o véu translúcido e a mensagem centralizada.
+     *
+     * @param g contexto gráfico
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setColor(VEIL);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(ViewTheme.FONT_SUBTITLE);
+            g2.setColor(ViewTheme.TEXT);
+            FontMetrics fm = g2.getFontMetrics();
+            int x = (getWidth() - fm.stringWidth(message)) / 2;
+            int y = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
+            g2.drawString(message, x, y);
+        } finally {
+            g2.dispose();
+        }
+    }
+}
@@ -0,0 +1,749 @@
+package view;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Modelo de tabela paginado, com armazenamento por coluna em arrays primitivos.
+ *
+ * Substitui o DefaultTableModel nas tabelas de produtos, carrinho e pedidos:
+ * - as linhas ficam em páginas de {@link #PAGE_SIZE} linhas; cada página guarda
+ *   uma coluna por array (String[], int[] ou long[] em centavos), sem Vector nem boxing
+ * - valores monetários são formatados apenas quando a célula é exibida pela primeira vez,
+ *   e o texto formatado fica em cache na página
+ * - cada linha tem uma "chave" (id da entidade), usada para materializar a entidade
+ *   completa só quando o usuário precisa dela (ex.: abrir detalhes)
+ *
+ * Duas formas de preencher:
+ * - {@link #setRows(List, RowWriter)}: dados já em memória (carrinho, pedidos)
+ * - {@link #setSource(int, PageSource)}: só a contagem é conhecida; cada página é carregada
+ *   em segundo plano quando a tabela tenta exibir uma de suas linhas (tabelas grandes abrem
+ *   na hora e só as páginas visitadas ocupam memória)
+ *
+ * Alterações pontuais ({@link #insertRow(int, Object, RowWriter)} e {@link #removeRow(int)})
+ * deslocam apenas as linhas em memória e notificam a tabela de uma única linha, preservando
+ * seleção e rolagem. Páginas que dependeriam de uma página ainda não carregada para se
+ * deslocar são descartadas e recarregadas sob demanda (a fonte já reflete a alteração).
+ *
+ * Enquanto uma página carrega, suas células mostram {@link #LOADING}.
+ * Deve ser usado apenas na EDT (como todo TableModel).
+ */
+public class PagedTableModel extends AbstractTableModel {
+
+    /**
+     * Quantidade de linhas por página.
+     */
+    public static final int PAGE_SIZE = 200;
+
+    /**
+     * Texto exibido nas células de uma página ainda não carregada.
+     */
+    public static final String LOADING = "…";
+
+    /**
+     * Tipo de armazenamento de uma coluna.
+     */
+    public enum ColumnType {
+        /** Texto (String[]). */
+        TEXT,
+        /** Inteiro (int[]). */
+        INT,
+        /** Valor monetário em centavos (long[]), exibido como "R$ 0,00". */
+        MONEY
+    }
+
+    /**
+     * Fonte de páginas para tabelas grandes.
+     * O método load é chamado fora da EDT.
+     */
+    public interface PageSource {
+
+        /**
+         * Carrega as linhas [offset, offset + limit) na página informada.
+         *
+         * @param offset índice da primeira linha
+         * @param limit quantidade máxima de linhas
+         * @param page página a preencher (via {@link Page#append(int)} e setters)
+         * @throws Exception em falha de carregamento (exibida pelo tratador de erros do modelo)
+         */
+        void load(int offset, int limit, Page page) throws Exception;
+    }
+
+    /**
+     * Escritor de uma linha a partir de um objeto em memória.
+     *
+     * @param <T> tipo do objeto de origem
+     */
+    public interface RowWriter<T> {
+
+        /**
+         * Escreve o objeto como linha da página.
+         *
+         * @param item objeto de origem
+         * @param page página de destino
+         */
+        void write(T item, Page page);
+    }
+
+    /**
+     * Nomes das colunas.
+     */
+    private final String[] columnNames;
+
+    /**
+     * Tipos das colunas.
+     */
+    private final ColumnType[] columnTypes;
+
+    /**
+     * Páginas carregadas (null = ainda não carregada).
+     */
+    private Page[] pages = new Page[0];
+
+    /**
+     * Páginas já solicitadas à fonte (carregando, carregadas ou com falha).
+     */
+    private final BitSet requested = new BitSet();
+
+    /**
+     * Quantidade total de linhas.
+     */
+    private int rowCount = 0;
+
+    /**
+     * Fonte das páginas (null quando os dados vieram de setRows).
+     */
+    private PageSource source;
+
+    /**
+     * Geração dos dados; páginas de uma geração anterior são descartadas ao chegar.
+     */
+    private int generation = 0;
+
+    /**
+     * Tratador de falhas no carregamento de páginas.
+     */
+    private Consumer<Throwable> errorHandler = e -> System.err.println("Erro ao carregar página: " + e.getMessage());
+
+    /**
+     * Cria o modelo com as colunas informadas.
+     *
+     * @param columnNames nomes das colunas
+     * @param columnTypes tipos das colunas (mesmo tamanho de columnNames)
+     */
+    public PagedTableModel(String[] columnNames, ColumnType[] columnTypes) {
+        if (columnNames.length != columnTypes.length) {
+            throw new IllegalArgumentException("Quantidade de nomes e tipos de coluna diferente.");
+        }
+        this.columnNames = columnNames.clone();
+        this.columnTypes = columnTypes.clone();
+    }
+
+    /**
+     * Define o tratador de falhas no carregamento de páginas (ex.: ViewTaskRunner::showError).
+     *
+     * @param handler tratador chamado na EDT
+     */
+    public void setErrorHandler(Consumer<Throwable> handler) {
+        this.errorHandler = handler;
+    }
+
+    /**
+     * Substitui o conteúdo por uma lista já em memória.
+     *
+     * @param items itens de origem
+     * @param writer escritor de cada item como linha
+     * @param <T> tipo dos itens
+     */
+    public <T> void setRows(List<T> items, RowWriter<T> writer) {
+        reset(items.size(), null);
+
+        for (int p = 0; p < pages.length; p++) {
+            int from = p * PAGE_SIZE;
+            int to = Math.min(rowCount, from + PAGE_SIZE);
+            Page page = new Page(to - from);
+            for (int i = from; i < to; i++) {
+                writer.write(items.get(i), page);
+            }
+            pages[p] = page;
+            requested.set(p);
+        }
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * Substitui o conteúdo por uma fonte paginada.
+     * Nenhuma linha é carregada agora: as páginas vêm sob demanda.
+     *
+     * @param totalRows quantidade total de linhas da fonte
+     * @param source fonte das páginas
+     */
+    public void setSource(int totalRows, PageSource source) {
+        reset(totalRows, source);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Remove todas as linhas.
+     */
+    public void clear() {
+        reset(0, null);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Reinicia o armazenamento para uma nova quantidade de linhas.
+     *
+     * @param totalRows quantidade de linhas
+     * @param newSource fonte (ou null)
+     */
+    private void reset(int totalRows, PageSource newSource) {
+        generation++;
+        rowCount = Math.max(0, totalRows);
+        source = newSource;
+        pages = new Page[(rowCount + PAGE_SIZE - 1) / PAGE_SIZE];
+        requested.clear();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnTypes[column] == ColumnType.INT ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    /**
+     * Retorna o valor exibido na célula.
+     *
+     * Funcionamento:
+     * 1. Localiza a página da linha.
+     * 2. Se a página não estiver carregada, solicita o carregamento e retorna {@link #LOADING}.
+     * 3. Caso contrário, retorna o valor da coluna (monetário já formatado e em cache).
+     *
+     * @param row linha
+     * @param column coluna
+     * @return valor da célula
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page page = pageOf(row);
+        if (page == null) return LOADING;
+
+        int i = row % PAGE_SIZE;
+        if (i >= page.size) return LOADING;
+        return page.display(i, column);
+    }
+
+    /**
+     * Insere uma linha na posição informada, deslocando as seguintes.
+     *
+     * Funcionamento:
+     * 1. Escreve o item em uma página auxiliar de uma linha.
+     * 2. Percorre as páginas a partir da página da posição:
+     *    - página carregada: recebe a linha vinda da anterior e, se estiver cheia,
+     *      passa a sua última linha adiante
+     *    - página não carregada: continua não carregada; as páginas carregadas depois
+     *      dela são descartadas (não há como deslocá-las) e voltam sob demanda
+     * 3. Notifica a tabela com fireTableRowsInserted(row, row).
+     *
+     * @param row posição da nova linha (0..getRowCount())
+     * @param item item a inserir
+     * @param writer escritor do item
+     * @param <T> tipo do item
+     */
+    public <T> void insertRow(int row, T item, RowWriter<T> writer) {
+        if (row < 0 || row > rowCount) throw new IndexOutOfBoundsException("Linha inválida: " + row);
+
+        dropPendingLoads();
+        Page carry = new Page(1);
+        writer.write(item, carry);
+
+        int newCount = rowCount + 1;
+        int newPages = (newCount + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (newPages > pages.length) pages = Arrays.copyOf(pages, newPages);
+
+        boolean known = true;
+        for (int q = row / PAGE_SIZE; q < pages.length; q++) {
+            Page page = pages[q];
+
+            if (page == null) {
+                if (known && q * PAGE_SIZE >= rowCount) {
+                    page = new Page(PAGE_SIZE);
+                    page.insert(0, carry, 0);
+                    pages[q] = page;
+                    requested.set(q);
+                    break;
+                }
+                known = false;
+                continue;
+            }
+
+            if (!known) {
+                invalidate(q);
+                continue;
+            }
+
+            Page out = null;
+            if (page.size >= PAGE_SIZE) {
+                out = new Page(1);
+                out.insert(0, page, page.size - 1);
+                page.size--;
+            }
+            page.insert(q == row / PAGE_SIZE ? row % PAGE_SIZE : 0, carry, 0);
+
+            if (out == null) break;
+            carry = out;
+        }
+
+        rowCount = newCount;
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Remove a linha informada, deslocando as seguintes.
+     *
+     * Funcionamento:
+     * 1. Remove a linha da sua página.
+     * 2. Cada página carregada puxa a primeira linha da página seguinte;
+     *    se a seguinte não estiver carregada, a página é descartada e volta sob demanda.
+     * 3. Notifica a tabela com fireTableRowsDeleted(row, row).
+     *
+     * @param row linha a remover
+     */
+    public void removeRow(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Linha inválida: " + row);
+
+        dropPendingLoads();
+        int first = row / PAGE_SIZE;
+        for (int q = first; q < pages.length; q++) {
+            Page page = pages[q];
+            if (page == null) continue;
+
+            page.remove(q == first ? row % PAGE_SIZE : 0);
+
+            if (q + 1 < pages.length) {
+                Page next = pages[q + 1];
+                if (next != null && next.size > 0) {
+                    page.insert(page.size, next, 0);
+                } else {
+                    invalidate(q);
+                }
+            }
+        }
+
+        rowCount--;
+        int newPages = (rowCount + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (newPages < pages.length) {
+            pages = Arrays.copyOf(pages, newPages);
+            requested.clear(newPages, requested.length() + 1);
+        }
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Procura, entre as linhas carregadas, a linha com a chave informada.
+     *
+     * @param key chave (id da entidade)
+     * @return índice da linha, ou -1 se não estiver carregada
+     */
+    public int indexOfKey(int key) {
+        for (int p = 0; p < pages.length; p++) {
+            Page page = pages[p];
+            if (page == null) continue;
+            for (int i = 0; i < page.size; i++) {
+                if (page.keys[i] == key) return p * PAGE_SIZE + i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Descarta as cargas de página em andamento: foram pedidas com os offsets de antes
+     * do deslocamento. As páginas voltam a ser solicitadas quando forem exibidas.
+     */
+    private void dropPendingLoads() {
+        generation++;
+        for (int p = 0; p < pages.length; p++) {
+            if (pages[p] == null) requested.clear(p);
+        }
+    }
+
+    /**
+     * Descarta uma página carregada para que volte a ser buscada na fonte.
+     * Sem fonte (dados de setRows), a página é mantida: não haveria de onde recarregá-la.
+     *
+     * @param p índice da página
+     */
+    private void invalidate(int p) {
+        if (source == null) return;
+        pages[p] = null;
+        requested.clear(p);
+    }
+
+    /**
+     * Indica se a linha já está carregada em memória.
+     *
+     * @param row linha
+     * @return true se carregada
+     */
+    public boolean isLoaded(int row) {
+        if (row < 0 || row >= rowCount) return false;
+        Page page = pages[row / PAGE_SIZE];
+        return page != null && row % PAGE_SIZE < page.size;
+    }
+
+    /**
+     * Retorna a chave (id da entidade) da linha.
+     *
+     * @param row linha
+     * @return chave, ou -1 se a linha não estiver carregada
+     */
+    public int getKey(int row) {
+        if (!isLoaded(row)) return -1;
+        return pages[row / PAGE_SIZE].keys[row % PAGE_SIZE];
+    }
+
+    /**
+     * Retorna o texto bruto de uma coluna TEXT.
+     *
+     * @param row linha
+     * @param column coluna
+     * @return texto, ou null se a linha não estiver carregada
+     */
+    public String getText(int row, int column) {
+        if (!isLoaded(row)) return null;
+        return ((String[]) pages[row / PAGE_SIZE].columns[column])[row % PAGE_SIZE];
+    }
+
+    /**
+     * Retorna o valor bruto de uma coluna INT.
+     *
+     * @param row linha
+     * @param column coluna
+     * @return valor, ou 0 se a linha não estiver carregada
+     */
+    public int getInt(int row, int column) {
+        if (!isLoaded(row)) return 0;
+        return ((int[]) pages[row / PAGE_SIZE].columns[column])[row % PAGE_SIZE];
+    }
+
+    /**
+     * Retorna o valor bruto (centavos) de uma coluna MONEY.
+     *
+     * @param row linha
+     * @param column coluna
+     * @return centavos, ou 0 se a linha não estiver carregada
+     */
+    public long getMoneyCents(int row, int column) {
+        if (!isLoaded(row)) return 0L;
+        return ((long[]) pages[row / PAGE_SIZE].columns[column])[row % PAGE_SIZE];
+    }
+
+    /**
+     * Retorna a página da linha, solicitando o carregamento quando necessário.
+     *
+     * @param row linha
+     * @return página carregada ou null
+     */
+    private Page pageOf(int row) {
+        int p = row / PAGE_SIZE;
+        if (p < 0 || p >= pages.length) return null;
+
+        Page page = pages[p];
+        if (page == null && source != null && !requested.get(p)) {
+            requestPage(p);
+        }
+        return page;
+    }
+
+    /**
+     * Carrega uma página da fonte em segundo plano.
+     *
+     * Funcionamento:
+     * 1. Marca a página como solicitada (não é pedida de novo, nem em caso de falha,
+     *    até a próxima troca de dados).
+     * 2. Em um SwingWorker, chama source.load(offset, limit, page).
+     * 3. Na EDT, se a geração não mudou, instala a página e notifica a tabela
+     *    apenas das linhas daquela página.
+     *
+     * @param p índice da página
+     */
+    private void requestPage(int p) {
+        requested.set(p);
+
+        final int gen = generation;
+        final PageSource src = source;
+        final int offset = p * PAGE_SIZE;
+        final int limit = Math.min(PAGE_SIZE, rowCount - offset);
+
+        new SwingWorker<Page, Void>() {
+            @Override
+            protected Page doInBackground() throws Exception {
+                Page page = new Page(limit);
+                src.load(offset, limit, page);
+                return page;
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generation) return;
+                try {
+                    pages[p] = get();
+                    fireTableRowsUpdated(offset, offset + limit - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    errorHandler.accept(e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Formata centavos como "R$ 0,00" (mesmo formato das telas).
+     *
+     * @param cents valor em centavos
+     * @return texto formatado
+     */
+    static String formatMoney(long cents) {
+        return String.format("R$ %.2f", cents / 100.0);
+    }
+
+    /**
+     * Página de linhas, com uma coluna por array.
+     * É preenchida pela fonte (fora da EDT) antes de ser publicada para a tabela.
+     */
+    public final class Page {
+
+        /**
+         * Capacidade da página (cresce até {@link #PAGE_SIZE} em inserções).
+         */
+        private int capacity;
+
+        /**
+         * Quantidade de linhas escritas.
+         */
+        private int size = 0;
+
+        /**
+         * Chave (id) de cada linha.
+         */
+        private int[] keys;
+
+        /**
+         * Arrays das colunas (String[], int[] ou long[], conforme o tipo).
+         */
+        private final Object[] columns;
+
+        /**
+         * Cache do texto formatado das colunas MONEY (criado sob demanda).
+         */
+        private final String[][] formatted;
+
+        /**
+         * Cria uma página vazia.
+         *
+         * @param capacity capacidade em linhas
+         */
+        private Page(int capacity) {
+            this.capacity = capacity;
+            this.keys = new int[capacity];
+            this.columns = new Object[columnTypes.length];
+            this.formatted = new String[columnTypes.length][];
+
+            for (int c = 0; c < columnTypes.length; c++) {
+                switch (columnTypes[c]) {
+                    case INT:
+                        columns[c] = new int[capacity];
+                        break;
+                    case MONEY:
+                        columns[c] = new long[capacity];
+                        break;
+                    default:
+                        columns[c] = new String[capacity];
+                }
+            }
+        }
+
+        /**
+         * Acrescenta uma linha e retorna seu índice na página.
+         *
+         * @param key chave da linha (id da entidade)
+         * @return índice da linha na página, usado nos setters
+         */
+        public int append(int key) {
+            if (size >= capacity) throw new IllegalStateException("Página cheia.");
+            keys[size] = key;
+            return size++;
+        }
+
+        /**
+         * Define o valor de uma coluna TEXT.
+         *
+         * @param i índice da linha na página
+         * @param column coluna
+         * @param value texto (null vira vazio)
+         */
+        public void setText(int i, int column, String value) {
+            ((String[]) columns[column])[i] = value != null ? value : "";
+        }
+
+        /**
+         * Define o valor de uma coluna INT.
+         *
+         * @param i índice da linha na página
+         * @param column coluna
+         * @param value valor
+         */
+        public void setInt(int i, int column, int value) {
+            ((int[]) columns[column])[i] = value;
+        }
+
+        /**
+         * Define o valor de uma coluna MONEY a partir de reais (arredondado para centavos).
+         *
+         * @param i índice da linha na página
+         * @param column coluna
+         * @param value valor em reais (null vira 0)
+         */
+        public void setMoney(int i, int column, Double value) {
+            ((long[]) columns[column])[i] = value != null ? Math.round(value * 100.0) : 0L;
+        }
+
+        /**
+         * Define o valor de uma coluna MONEY já em centavos.
+         *
+         * @param i índice da linha na página
+         * @param column coluna
+         * @param cents valor em centavos
+         */
+        public void setMoneyCents(int i, int column, long cents) {
+            ((long[]) columns[column])[i] = cents;
+        }
+
+        /**
+         * Copia a linha si de outra página para a posição i desta, deslocando as linhas seguintes.
+         * Copia também o texto formatado em cache, quando existir.
+         *
+         * @param i posição de destino (0..size)
+         * @param src página de origem
+         * @param si linha de origem
+         */
+        private void insert(int i, Page src, int si) {
+            ensureCapacity(size + 1);
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            keys[i] = src.keys[si];
+
+            for (int c = 0; c < columns.length; c++) {
+                System.arraycopy(columns[c], i, columns[c], i + 1, size - i);
+                if (formatted[c] != null) System.arraycopy(formatted[c], i, formatted[c], i + 1, size - i);
+
+                switch (columnTypes[c]) {
+                    case INT:
+                        ((int[]) columns[c])[i] = ((int[]) src.columns[c])[si];
+                        break;
+                    case MONEY:
+                        ((long[]) columns[c])[i] = ((long[]) src.columns[c])[si];
+                        if (formatted[c] != null) {
+                            formatted[c][i] = src.formatted[c] != null ? src.formatted[c][si] : null;
+                        }
+                        break;
+                    default:
+                        ((String[]) columns[c])[i] = ((String[]) src.columns[c])[si];
+                }
+            }
+            size++;
+        }
+
+        /**
+         * Remove a linha i, deslocando as seguintes para trás.
+         *
+         * @param i linha a remover
+         */
+        private void remove(int i) {
+            int moved = size - i - 1;
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            for (int c = 0; c < columns.length; c++) {
+                System.arraycopy(columns[c], i + 1, columns[c], i, moved);
+                if (formatted[c] != null) {
+                    System.arraycopy(formatted[c], i + 1, formatted[c], i, moved);
+                    formatted[c][size - 1] = null;
+                }
+                if (columnTypes[c] == ColumnType.TEXT) ((String[]) columns[c])[size - 1] = null;
+            }
+            size--;
+        }
+
+        /**
+         * Garante capacidade para a quantidade de linhas informada.
+         *
+         * @param needed quantidade de linhas
+         */
+        private void ensureCapacity(int needed) {
+            if (needed <= capacity) return;
+            int newCapacity = Math.max(needed, Math.min(PAGE_SIZE, capacity * 2));
+
+            keys = Arrays.copyOf(keys, newCapacity);
+            for (int c = 0; c < columns.length; c++) {
+                switch (columnTypes[c]) {
+                    case INT:
+                        columns[c] = Arrays.copyOf((int[]) columns[c], newCapacity);
+                        break;
+                    case MONEY:
+                        columns[c] = Arrays.copyOf((long[]) columns[c], newCapacity);
+                        break;
+                    default:
+                        columns[c] = Arrays.copyOf((String[]) columns[c], newCapacity);
+                }
+                if (formatted[c] != null) formatted[c] = Arrays.copyOf(formatted[c], newCapacity);
+            }
+            capacity = newCapacity;
+        }
+
+        /**
+         * Retorna o valor de exibição de uma célula.
+         *
+         * @param i índice da linha na página
+         * @param column coluna
+         * @return valor de exibição
+         */
+        private Object display(int i, int column) {
+            switch (columnTypes[column]) {
+                case INT:
+                    return ((int[]) columns[column])[i];
+                case MONEY:
+                    String[] cache = formatted[column];
+                    if (cache == null) cache = formatted[column] = new String[capacity];
+                    String text = cache[i];
+                    if (text == null) text = cache[i] = formatMoney(((long[]) columns[column])[i]);
+                    return text;
+                default:
+                    return ((String[]) columns[column])[i];
+            }
+        }
+    }
+}
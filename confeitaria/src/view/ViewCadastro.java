@@ -1,16 +1,15 @@
 package view;
 
 import controller.ControllerCadastro;
-import exceptions.AppException;
-import exceptions.ConflictException;
-import exceptions.DataAccessException;
-import exceptions.NotFoundException;
-import exceptions.ValidationException;
 import model.entities.Area;
+import services.AreaIndex;
+import services.CepIndex;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Tela de cadastro de usuário.
@@ -42,10 +41,16 @@ public class ViewCadastro extends JFrame {
     private JPasswordField fieldPassword;
 
     /**
-     * Combo de seleção de área/bairro (obrigatório no cadastro).
-     * O conteúdo é carregado a partir do banco via ControllerCadastro.
+     * Campo de bairro com autocomplete (obrigatório no cadastro).
+     * As sugestões vêm do {@link AreaIndex} carregado via ControllerCadastro:
+     * busca por prefixo sem diferença de acentos ("anapolis" encontra "Anápolis City").
      */
-    private JComboBox<Area> comboArea;
+    private AutoCompleteField<Area> fieldArea;
+
+    /**
+     * Índice de bairros (null até a carga terminar).
+     */
+    private AreaIndex areaIndex;
 
     /**
      * Campo de texto da rua (obrigatório no cadastro).
@@ -60,9 +65,15 @@ public class ViewCadastro extends JFrame {
 
     /**
      * Campo de texto do CEP (opcional).
+     * Quando completo (8 dígitos), preenche o bairro pelo índice de CEP, se instalado.
      */
     private JTextField fieldCep;
 
+    /**
+     * Aviso exibido quando o bairro foi preenchido a partir do CEP.
+     */
+    private JLabel labelCepHint;
+
     /**
      * Campo de texto do complemento (opcional).
      */
@@ -79,6 +90,11 @@ public class ViewCadastro extends JFrame {
      */
     private final ControllerCadastro controller;
 
+    /**
+     * Executor das operações de banco e do hash de senha fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
+
     /**
      * Construtor da tela de cadastro.
      * Inicializa o controller e monta a UI.
@@ -186,10 +202,10 @@ public class ViewCadastro extends JFrame {
 
     /**
      * Monta a seção de endereço do formulário e inicializa os campos.
-     * Também chama loadAreas para preencher o combo de áreas.
+     * Também chama loadAreas para carregar o índice de bairros do autocomplete.
      *
      * Campos criados:
-     * - Bairro/Área (combo)
+     * - Bairro/Área (autocomplete)
      * - Rua
      * - Número
      * - CEP
@@ -208,8 +224,11 @@ public class ViewCadastro extends JFrame {
         content.add(ViewTheme.createFieldLabel("Bairro (região) *"));
         content.add(Box.createVerticalStrut(4));
 
-        comboArea = new JComboBox<>();
-        content.add(comboArea);
+        fieldArea = new AutoCompleteField<>(20,
+                typed -> areaIndex != null ? areaIndex.lookup(typed, AutoCompleteField.MAX_SUGGESTIONS) : null);
+        fieldArea.setToolTipText("Digite o início do nome do bairro");
+        fieldArea.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        content.add(fieldArea);
 
         content.add(Box.createVerticalStrut(8));
         content.add(addFieldRow("Rua *", fieldStreet = ViewTheme.createTextField(20)));
@@ -217,6 +236,14 @@ public class ViewCadastro extends JFrame {
         content.add(addFieldRow("Número", fieldNumber = ViewTheme.createTextField(10)));
         content.add(Box.createVerticalStrut(8));
         content.add(addFieldRow("CEP", fieldCep = ViewTheme.createTextField(10)));
+        fieldCep.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { onCepChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { onCepChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { onCepChanged(); }
+        });
+        labelCepHint = ViewTheme.createFieldLabel(" ");
+        labelCepHint.setForeground(ViewTheme.TEXT_MUTED);
+        content.add(labelCepHint);
         content.add(Box.createVerticalStrut(8));
         content.add(addFieldRow("Complemento", fieldComplement = ViewTheme.createTextField(20)));
         content.add(Box.createVerticalStrut(8));
@@ -260,28 +287,36 @@ public class ViewCadastro extends JFrame {
     }
 
     /**
-     * Carrega as áreas/bairros disponíveis no banco e preenche o comboArea.
-     * Chama controller.listAreas().
-     * Limpa o combo e adiciona as áreas retornadas.
-     * Se ocorrer erro de acesso, exibe mensagem ao usuário.
+     * Carrega o índice de bairros usado pelo autocomplete.
+     * Chama controller.loadAreaIndex() em segundo plano (o índice é montado uma vez e reaproveitado).
+     * Se ocorrer erro de acesso, o ViewTaskRunner exibe mensagem ao usuário.
      */
     private void loadAreas() {
-        try {
-            List<Area> areas = controller.listAreas();
-            comboArea.removeAllItems();
+        tasks.run("areas", "Carregando bairros...", controller::loadAreaIndex, index -> areaIndex = index);
+    }
 
-            if (areas != null) {
-                for (Area a : areas) {
-                    comboArea.addItem(a);
-                }
-            }
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao carregar áreas: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+    /**
+     * Preenche o bairro a partir do CEP digitado.
+     *
+     * Funcionamento:
+     * 1. Ignora enquanto o CEP não tiver 8 dígitos.
+     * 2. Em segundo plano, resolve a área com controller.resolveAreaByCep(cep)
+     *    (busca binária no índice mapeado em memória; não acessa o banco se as áreas já estiverem em cache).
+     * 3. Se encontrar, seleciona a área no campo de bairro e mostra um aviso.
+     *    Se não houver índice instalado ou o CEP não estiver nele, nada muda.
+     */
+    private void onCepChanged() {
+        String cep = fieldCep.getText();
+        if (CepIndex.parseCep(cep) < 0) {
+            labelCepHint.setText(" ");
+            return;
         }
+
+        tasks.run("cep", "Consultando CEP...", () -> controller.resolveAreaByCep(cep), area -> {
+            if (area == null) return;
+            fieldArea.setSelected(area);
+            labelCepHint.setText("Bairro preenchido pelo CEP: " + area.getName());
+        });
     }
 
     /**
@@ -289,12 +324,12 @@ public class ViewCadastro extends JFrame {
      * Lê os campos do formulário, faz conversões simples e chama o controller para registrar.
      *
      * Lê nome, sobrenome, email e senha.
-     * Obtém a área selecionada e extrai idArea.
+     * Obtém a área escolhida no autocomplete (ou digitada com o nome exato) e extrai idArea.
      * Lê rua, número, CEP, complemento e referência.
      * Converte número de String para Integer quando possível.
-     * Chama controller.register(...) com os dados.
+     * Chama controller.register(...) em segundo plano (inclui o hash da senha).
      * Em caso de sucesso, exibe mensagem e fecha a janela.
-     * Em caso de erro, exibe mensagem apropriada.
+     * Em caso de erro, o ViewTaskRunner exibe a mensagem apropriada.
      * Limpa o array de senha ao final.
      */
     private void onRegister() {
@@ -303,7 +338,10 @@ public class ViewCadastro extends JFrame {
         String email = fieldEmail.getText();
         char[] password = fieldPassword.getPassword();
 
-        Area area = (Area) comboArea.getSelectedItem();
+        Area area = fieldArea.getSelected();
+        if (area == null && areaIndex != null) {
+            area = areaIndex.findByName(fieldArea.getText());
+        }
         Integer idArea = area != null ? area.getId() : null;
 
         String street = fieldStreet.getText();
@@ -311,17 +349,18 @@ public class ViewCadastro extends JFrame {
         String complement = fieldComplement.getText();
         String reference = fieldReference.getText();
 
-        Integer number = null;
+        Integer parsedNumber = null;
         try {
             String n = fieldNumber.getText();
             if (n != null && !n.trim().isEmpty()) {
-                number = Integer.parseInt(n.trim());
+                parsedNumber = Integer.parseInt(n.trim());
             }
         } catch (Exception ignored) {
-            number = null;
+            parsedNumber = null;
         }
+        Integer number = parsedNumber;
 
-        try {
+        tasks.runWrite("register", "Cadastrando...", () -> {
             controller.register(
                     firstName,
                     lastName,
@@ -334,28 +373,12 @@ public class ViewCadastro extends JFrame {
                     complement,
                     reference
             );
-
+            return null;
+        }, ignored -> {
             JOptionPane.showMessageDialog(this, "Cadastro realizado com sucesso!", "Cadastro", JOptionPane.INFORMATION_MESSAGE);
             setVisible(false);
             dispose();
-
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (ConflictException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Conflito", JOptionPane.WARNING_MESSAGE);
-        } catch (NotFoundException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro inesperado: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            if (password != null) {
-                java.util.Arrays.fill(password, '\0');
-            }
-        }
+        }, () -> Arrays.fill(password, '\0'));
     }
 
     /**
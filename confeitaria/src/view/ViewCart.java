@@ -1,15 +1,15 @@
 package view;
 
 import app.CartSession;
-import model.entities.Product;
-import model.repositories.RepositoryProduct;
+import controller.ControllerCartView;
+import controller.ControllerCartView.CartRow;
+import services.PricingEngine;
+
+import view.PagedTableModel.ColumnType;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -19,15 +19,20 @@ import java.util.Map;
  * - remover um item selecionado
  * - navegar para o checkout
  *
- * Esta tela consulta o banco para carregar o Product completo a partir do id armazenado no carrinho.
+ * Os produtos e preços são montados pelo ControllerCartView, em segundo plano.
  */
 public class ViewCart extends JFrame {
 
     /**
-     * Repositório de produtos usado para buscar o produto completo no banco a partir do id do carrinho.
+     * Controller que monta as linhas do carrinho (produto, unitário e total) a partir dos ids da sessão.
      * É necessário porque o carrinho armazena apenas o id do produto e a quantidade.
      */
-    private final RepositoryProduct repoProduct = new RepositoryProduct();
+    private final ControllerCartView controller = new ControllerCartView();
+
+    /**
+     * Executor das consultas da tela fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
 
     /**
      * Tabela Swing que exibe os itens do carrinho.
@@ -37,8 +42,9 @@ public class ViewCart extends JFrame {
     /**
      * Modelo da tabela com as colunas:
      * Produto, Qtd, Unitário, Total.
+     * A chave de cada linha é o id do produto, usada em onRemoveSelected().
      */
-    private DefaultTableModel model;
+    private PagedTableModel model;
 
     /**
      * Label de subtotal exibido no cabeçalho.
@@ -46,13 +52,6 @@ public class ViewCart extends JFrame {
      */
     private JLabel labelSubtotal;
 
-    /**
-     * Lista paralela ao model da JTable para manter o id do produto por linha.
-     * O índice desta lista corresponde ao índice da linha da tabela.
-     * É usada em onRemoveSelected() para descobrir qual produto remover do carrinho.
-     */
-    private final List<Integer> productIds = new ArrayList<>();
-
     /**
      * Construtor da tela.
      * Configura a janela, monta o conteúdo e carrega os dados do carrinho.
@@ -144,7 +143,7 @@ public class ViewCart extends JFrame {
 
     /**
      * Monta a tabela do carrinho.
-     * Cria DefaultTableModel com colunas e células não editáveis.
+     * Cria PagedTableModel com as colunas (valores em centavos).
      * Cria JTable e define modo de seleção para apenas uma linha.
      * Coloca a tabela em JScrollPane.
      * Aplica borda e encapsula em um card (wrapCard).
@@ -152,9 +151,10 @@ public class ViewCart extends JFrame {
      * @return componente com a tabela
      */
     private Component buildTable() {
-        model = new DefaultTableModel(new String[]{"Produto", "Qtd", "Unitário", "Total"}, 0) {
-            @Override public boolean isCellEditable(int r, int c) { return false; }
-        };
+        model = new PagedTableModel(
+                new String[]{"Produto", "Qtd", "Unitário", "Total"},
+                new ColumnType[]{ColumnType.TEXT, ColumnType.INT, ColumnType.MONEY, ColumnType.MONEY}
+        );
 
         table = new JTable(model);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -168,61 +168,37 @@ public class ViewCart extends JFrame {
      * Recarrega os itens do carrinho e atualiza a tabela e o subtotal.
      *
      * Funcionamento:
-     * 1. Limpa a tabela e a lista productIds.
+     * 1. Limpa a tabela.
      * 2. Se o carrinho estiver vazio:
      *    - atualiza subtotal para 0
      *    - retorna
-     * 3. Para cada entrada (productId -> qty) do carrinho:
-     *    - busca Product no banco via repoProduct.findByIdProduct(productId)
-     *    - calcula unitário via computeUnitPrice(product)
-     *    - calcula total do item (unit * qty)
-     *    - adiciona a linha na tabela
-     *    - adiciona productId na lista productIds para manter vínculo com a linha
-     * 4. Atualiza labelSubtotal com a soma dos totais.
+     * 3. Tira uma cópia dos itens do carrinho e, em segundo plano,
+     *    chama controller.loadCartData(itens) (busca produtos e calcula preços).
+     * 4. Ao terminar, escreve cada CartRow como linha da tabela (chave = productId).
+     * 5. Atualiza labelSubtotal com o subtotal calculado.
      *
-     * Se ocorrer SQLException ao buscar um produto, exibe mensagem e interrompe o refresh.
+     * Se ocorrer DataAccessException, o ViewTaskRunner exibe a mensagem.
      */
     private void refresh() {
-        model.setRowCount(0);
-        productIds.clear();
+        model.clear();
 
         if (CartSession.isEmpty()) {
             labelSubtotal.setText("Subtotal: R$ 0,00");
             return;
         }
 
-        double subtotal = 0.0;
-
-        for (Map.Entry<Integer, Integer> entry : CartSession.getItems().entrySet()) {
-            Integer productId = entry.getKey();
-            Integer qty = entry.getValue();
-
-            try {
-                Product p = repoProduct.findByIdProduct(productId);
-                if (p == null) continue;
-
-                double unit = computeUnitPrice(p);
-                double total = unit * qty;
-                subtotal += total;
-
-                productIds.add(productId);
-                model.addRow(new Object[]{
-                        p.getName(),
-                        qty,
-                        String.format("R$ %.2f", unit),
-                        String.format("R$ %.2f", total)
-                });
-
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this,
-                        "Erro ao carregar produto do carrinho: " + e.getMessage(),
-                        "Erro",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-        }
-
-        labelSubtotal.setText(String.format("Subtotal: R$ %.2f", subtotal));
+        Map<Integer, Integer> items = new LinkedHashMap<>(CartSession.getItems());
+        tasks.run("cart", "Carregando carrinho...", () -> controller.loadCartData(items), data -> {
+            model.setRows(data.getRows(), (CartRow row, PagedTableModel.Page page) -> {
+                int i = page.append(row.getProductId());
+                page.setText(i, 0, row.getProductName());
+                page.setInt(i, 1, row.getQty());
+                page.setMoneyCents(i, 2, row.getUnitCents());
+                page.setMoneyCents(i, 3, row.getTotalCents());
+            });
+
+            labelSubtotal.setText(String.format("Subtotal: R$ %.2f", PricingEngine.toDecimal(data.getSubtotalCents())));
+        });
     }
 
     /**
@@ -230,13 +206,14 @@ public class ViewCart extends JFrame {
      *
      * Obtém a linha selecionada na JTable.
      * Se não houver linha selecionada, exibe mensagem e retorna.
-     * Usa a lista productIds para descobrir o productId associado à linha.
-     * Remove do carrinho via CartSession.remove(productId).
+     * Usa a chave da linha no modelo para descobrir o productId associado.
+     * Remove do carrinho via controller.removeByProductId(productId).
      * Atualiza a tabela chamando refresh().
      */
     private void onRemoveSelected() {
         int row = table.getSelectedRow();
-        if (row < 0 || row >= productIds.size()) {
+        int productId = row >= 0 ? model.getKey(row) : -1;
+        if (productId < 0) {
             JOptionPane.showMessageDialog(this,
                     "Selecione um item para remover.",
                     "Carrinho",
@@ -244,8 +221,7 @@ public class ViewCart extends JFrame {
             return;
         }
 
-        Integer productId = productIds.get(row);
-        CartSession.remove(productId);
+        controller.removeByProductId(productId);
         refresh();
     }
 
@@ -268,27 +244,4 @@ public class ViewCart extends JFrame {
         card.add(content, BorderLayout.CENTER);
         return card;
     }
-
-    /**
-     * Calcula o preço unitário final de um produto no carrinho.
-     *
-     * preço unitário = basePrice + size.price + flavor.level.price
-     *
-     * Lê basePrice (se null assume 0).
-     * Lê price do Size (se não existir assume 0).
-     * Lê price do FlavorLevel (se não existir assume 0).
-     * Retorna a soma.
-     *
-     * @param p produto carregado do banco
-     * @return preço unitário final
-     */
-    private static double computeUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-
-        double sizePrice = (p.getSize() != null && p.getSize().getPrice() != null) ? p.getSize().getPrice() : 0.0;
-        double levelPrice = (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null)
-                ? p.getFlavor().getLevel().getPrice() : 0.0;
-
-        return base + sizePrice + levelPrice;
-    }
-}
\ No newline at end of file
+}
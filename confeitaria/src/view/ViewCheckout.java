@@ -1,19 +1,20 @@
 package view;
 
 import app.CartSession;
+import app.CustomerProfile;
 import app.Session;
+import controller.ControllerCadastro;
+import controller.CheckoutQuote;
 import controller.ControllerCheckout;
-import exceptions.AppException;
+import controller.ControllerProfile;
 import exceptions.DataAccessException;
-import exceptions.ValidationException;
-import model.entities.Person;
-import model.entities.Product;
-import model.repositories.RepositoryPerson;
-import model.repositories.RepositoryProduct;
+import model.entities.Area;
+import model.entities.DeliveryType;
+import services.PricingEngine;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -25,22 +26,26 @@ import java.util.Map;
 public class ViewCheckout extends JFrame {
 
     /**
-     * Repositório de produtos usado para calcular subtotal.
-     * O carrinho armazena apenas ids e quantidades, então é necessário buscar o Product no banco.
+     * Controller do perfil do cliente (endereço e área), mantido na sessão desde o login.
+     * A taxa de entrega é calculada com base na área do endereço do perfil.
      */
-    private final RepositoryProduct repoProduct = new RepositoryProduct();
+    private final ControllerProfile controllerProfile = new ControllerProfile();
 
     /**
-     * Repositório de pessoas usado para obter o endereço e a taxa de entrega associada à área do usuário.
-     * A taxa de entrega é calculada com base na área do Address da Person.
+     * Controller responsável por cotar o carrinho e persistir o pedido e os itens no banco.
+     * A cotação é feita uma vez e reaproveitada na confirmação.
      */
-    private final RepositoryPerson repoPerson = new RepositoryPerson();
+    private final ControllerCheckout controllerCheckout = new ControllerCheckout();
 
     /**
-     * Controller responsável por persistir o pedido e os itens no banco.
-     * Recebe o total, tipo de recebimento, observações e itens do carrinho.
+     * Controller de cadastro, usado para conferir o bairro do endereço pelo CEP.
      */
-    private final ControllerCheckout controllerCheckout = new ControllerCheckout();
+    private final ControllerCadastro controllerCadastro = new ControllerCadastro();
+
+    /**
+     * Executor das consultas e da confirmação do pedido fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
 
     /**
      * RadioButton para seleção de entrega.
@@ -65,6 +70,16 @@ public class ViewCheckout extends JFrame {
      */
     private JLabel labelSubtotal;
 
+    /**
+     * Label que exibe o desconto das promoções (e do cupom, se aplicado).
+     */
+    private JLabel labelDesconto;
+
+    /**
+     * Campo do cupom de desconto (opcional), aplicado pelo botão "Aplicar".
+     */
+    private JTextField fieldCoupon;
+
     /**
      * Label que exibe a taxa de entrega calculada a partir da área do usuário.
      * Só é aplicada quando a opção de entrega estiver selecionada.
@@ -72,26 +87,33 @@ public class ViewCheckout extends JFrame {
     private JLabel labelTaxa;
 
     /**
-     * Label que exibe o total final (subtotal + taxaEntrega).
+     * Label que exibe o total final (subtotal - desconto + taxa de entrega).
      */
     private JLabel labelTotal;
 
     /**
-     * Subtotal calculado com base nos itens do carrinho.
-     * Atualizado em recalcTotals().
+     * Label com o endereço de entrega do usuário.
+     * Preenchido quando loadCheckoutData() termina.
+     */
+    private JLabel labelAddress;
+
+    /**
+     * Aviso exibido quando o CEP do endereço pertence a outro bairro (taxa possivelmente errada).
+     * Fica vazio quando o bairro confere ou não há índice de CEP instalado.
      */
-    private double subtotal = 0.0;
+    private JLabel labelCepWarning;
 
     /**
-     * Taxa de entrega calculada com base na área do usuário.
-     * Atualizada em recalcTotals().
+     * Cotação do carrinho (preços, subtotal, desconto e taxa), calculada uma única vez em loadCheckoutData()
+     * e de novo só quando o cupom é aplicado.
+     * Enquanto null, o pedido não pode ser confirmado.
      */
-    private double taxaEntrega = 0.0;
+    private CheckoutQuote quote;
 
     /**
      * Construtor da tela.
      * Valida pré-condições (usuário logado e carrinho não vazio).
-     * Em seguida configura a janela, monta a UI e calcula os totais.
+     * Em seguida configura a janela, monta a UI e carrega os totais em segundo plano.
      */
     public ViewCheckout() {
         if (!Session.isLoggedIn()) {
@@ -114,7 +136,7 @@ public class ViewCheckout extends JFrame {
 
         configureFrame();
         setContentPane(buildMainPanel());
-        recalcTotals();
+        loadCheckoutData();
     }
 
     /**
@@ -184,7 +206,7 @@ public class ViewCheckout extends JFrame {
      * 3. Define entrega como padrão.
      * 4. Adiciona listeners que chamam recalcTotals() ao mudar a opção.
      * 5. Cria campo de observações com scroll.
-     * 6. Carrega texto do endereço do usuário via loadUserAddressText().
+     * 6. Cria o label do endereço, preenchido por loadCheckoutData().
      *
      * @return componente do painel de entrega
      */
@@ -228,9 +250,14 @@ public class ViewCheckout extends JFrame {
         p.add(ViewTheme.createSubtitleLabel("Endereço de entrega:"));
         p.add(Box.createVerticalStrut(6));
 
-        JLabel lblAddress = ViewTheme.createSubtitleLabel(loadUserAddressText());
-        lblAddress.setAlignmentX(Component.LEFT_ALIGNMENT);
-        p.add(lblAddress);
+        labelAddress = ViewTheme.createSubtitleLabel("(carregando endereço...)");
+        labelAddress.setAlignmentX(Component.LEFT_ALIGNMENT);
+        p.add(labelAddress);
+
+        labelCepWarning = ViewTheme.createFieldLabel(" ");
+        labelCepWarning.setForeground(ViewTheme.ACCENT);
+        labelCepWarning.setAlignmentX(Component.LEFT_ALIGNMENT);
+        p.add(labelCepWarning);
 
         return p;
     }
@@ -253,19 +280,48 @@ public class ViewCheckout extends JFrame {
 
         p.add(Box.createVerticalStrut(10));
         labelSubtotal = ViewTheme.createSubtitleLabel("Subtotal: R$ 0,00");
+        labelDesconto = ViewTheme.createSubtitleLabel("Desconto: R$ 0,00");
         labelTaxa = ViewTheme.createSubtitleLabel("Taxa de entrega: R$ 0,00");
         labelTotal = ViewTheme.createSubtitleLabel("Total: R$ 0,00");
 
         p.add(labelSubtotal);
         p.add(Box.createVerticalStrut(6));
+        p.add(labelDesconto);
+        p.add(Box.createVerticalStrut(6));
         p.add(labelTaxa);
         p.add(Box.createVerticalStrut(12));
         p.add(labelTotal);
 
+        p.add(Box.createVerticalStrut(14));
+        p.add(ViewTheme.createFieldLabel("Cupom"));
+        p.add(Box.createVerticalStrut(6));
+
+        JPanel couponRow = new JPanel(new BorderLayout(6, 0));
+        couponRow.setBackground(ViewTheme.CARD_BG);
+        couponRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+        fieldCoupon = ViewTheme.createTextField(12);
+        JButton btnCoupon = ViewTheme.createSecondaryButton("Aplicar");
+        btnCoupon.addActionListener(e -> onApplyCoupon());
+        fieldCoupon.addActionListener(e -> onApplyCoupon());
+        couponRow.add(fieldCoupon, BorderLayout.CENTER);
+        couponRow.add(btnCoupon, BorderLayout.EAST);
+        couponRow.setMaximumSize(new Dimension(Integer.MAX_VALUE, couponRow.getPreferredSize().height));
+        p.add(couponRow);
+
         p.add(Box.createVerticalGlue());
         return p;
     }
 
+    /**
+     * Aplica (ou remove, se o campo estiver vazio) o cupom digitado.
+     * Descarta a cotação atual e cota de novo com o cupom; enquanto isso a confirmação fica bloqueada.
+     * Cupom inexistente é informado pelo ViewTaskRunner (ValidationException).
+     */
+    private void onApplyCoupon() {
+        quote = null;
+        loadCheckoutData();
+    }
+
     /**
      * Monta o rodapé com botões:
      * - Fechar: fecha a tela
@@ -289,137 +345,160 @@ public class ViewCheckout extends JFrame {
     }
 
     /**
-     * Recalcula subtotal, taxa de entrega e total e atualiza os labels.
+     * Carrega do banco, em segundo plano, tudo o que o checkout precisa.
      *
      * Funcionamento:
-     * 1. Calcula subtotal chamando computeSubtotalFromCart().
-     * 2. Se entrega estiver selecionada, calcula taxa chamando computeDeliveryFeeFromUserArea(),
-     *    caso contrário taxa é 0.
-     * 3. Atualiza labelSubtotal, labelTaxa e labelTotal.
+     * 1. Obtém o email do usuário logado.
+     * 2. Em segundo plano:
+     *    - obtém o perfil da sessão (carregado no login, sem nova consulta)
+     *    - cota o carrinho com controllerCheckout.quote(...): preços, promoções (e cupom digitado),
+     *      subtotal e taxa da área, uma única vez para esta versão do carrinho
+     *    - confere o bairro do endereço pelo CEP (checkCepArea)
+     * 3. Ao terminar (na EDT), se a cotação tiver produtos indisponíveis (retirados do catálogo),
+     *    tira-os do carrinho, avisa o cliente com os nomes e cota de novo (ou fecha, se o carrinho esvaziou).
+     * 4. Caso contrário, guarda a cotação, exibe o endereço (e o aviso do CEP, se houver)
+     *    e chama recalcTotals().
+     *
+     * Tratamento de erro:
+     * - DataAccessException e ValidationException (cupom inválido): exibidas pelo ViewTaskRunner
+     *   (a confirmação permanece bloqueada até uma cotação válida).
      */
-    private void recalcTotals() {
-        subtotal = computeSubtotalFromCart();
-        taxaEntrega = radioEntrega != null && radioEntrega.isSelected() ? computeDeliveryFeeFromUserArea() : 0.0;
-
-        labelSubtotal.setText(String.format("Subtotal: R$ %.2f", subtotal));
-        labelTaxa.setText(String.format("Taxa de entrega: R$ %.2f", taxaEntrega));
-        labelTotal.setText(String.format("Total: R$ %.2f", subtotal + taxaEntrega));
+    private void loadCheckoutData() {
+        Map<Integer, Integer> items = new LinkedHashMap<>(CartSession.getItems());
+        long cartVersion = CartSession.version();
+        String coupon = fieldCoupon.getText();
+
+        tasks.run("checkout", "Calculando total...", () -> {
+            CustomerProfile profile = controllerProfile.getSessionProfile();
+            Area area = profile != null ? profile.getArea() : null;
+            CheckoutQuote q = controllerCheckout.quote(items, cartVersion, area, coupon);
+            return new CheckoutData(q, formatAddress(profile), checkCepArea(profile));
+        }, data -> {
+            if (data.quote.hasUnavailable()) {
+                removeUnavailable(data.quote);
+                return;
+            }
+            quote = data.quote;
+            labelAddress.setText(data.addressText);
+            labelCepWarning.setText(data.cepWarning != null ? data.cepWarning : " ");
+            recalcTotals();
+        });
     }
 
     /**
-     * Calcula o subtotal do carrinho.
+     * Tira do carrinho os produtos que deixaram de estar disponíveis e avisa o cliente.
+     * Executado na EDT.
      *
      * Funcionamento:
-     * 1. Itera sobre CartSession.getItems() (productId -> qty).
-     * 2. Para cada item, busca o Product no banco.
-     * 3. Calcula unitário com computeUnitPrice(Product).
-     * 4. Soma unit * qty no acumulador.
-     * 5. Em caso de erro SQL, exibe mensagem e retorna 0.0.
+     * 1. Remove cada produto indisponível da CartSession (a versão do carrinho muda).
+     * 2. Exibe os nomes dos produtos removidos.
+     * 3. Se sobrou algum item, cota o carrinho de novo; se não, fecha a tela.
      *
-     * @return subtotal calculado
+     * @param q cotação com produtos indisponíveis
      */
-    private double computeSubtotalFromCart() {
-        double sum = 0.0;
-
-        for (Map.Entry<Integer, Integer> entry : CartSession.getItems().entrySet()) {
-            Integer productId = entry.getKey();
-            Integer qty = entry.getValue();
-
-            try {
-                Product p = repoProduct.findByIdProduct(productId);
-                if (p == null) continue;
-
-                double unit = computeUnitPrice(p);
-                sum += unit * qty;
-
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this,
-                        "Erro ao calcular subtotal: " + e.getMessage(),
-                        "Erro",
-                        JOptionPane.ERROR_MESSAGE);
-                return 0.0;
-            }
+    private void removeUnavailable(CheckoutQuote q) {
+        for (int productId : q.getUnavailableIds()) {
+            CartSession.remove(productId);
+        }
+
+        JOptionPane.showMessageDialog(this,
+                "Estes produtos não estão mais disponíveis e foram removidos do carrinho:\n" + q.getUnavailableNames(),
+                "Checkout", JOptionPane.WARNING_MESSAGE);
+
+        if (CartSession.isEmpty()) {
+            dispose();
+            return;
         }
+        loadCheckoutData();
+    }
 
-        return sum;
+    /**
+     * Recalcula a taxa de entrega aplicada e o total e atualiza os labels.
+     * Não acessa o banco: é só uma conta sobre a cotação carregada em loadCheckoutData().
+     *
+     * Funcionamento:
+     * 1. Sem cotação ainda, não faz nada (os labels continuam zerados).
+     * 2. Se entrega estiver selecionada, aplica a taxa da área; caso contrário taxa é 0.
+     * 3. Atualiza labelSubtotal, labelDesconto, labelTaxa e labelTotal.
+     */
+    private void recalcTotals() {
+        if (quote == null) return;
+        boolean delivery = radioEntrega != null && radioEntrega.isSelected();
+
+        labelSubtotal.setText(String.format("Subtotal: R$ %.2f", PricingEngine.toDecimal(quote.getSubtotalCents())));
+        labelDesconto.setText(String.format("Desconto: R$ %.2f", PricingEngine.toDecimal(quote.getDiscountCents())));
+        labelTaxa.setText(String.format("Taxa de entrega: R$ %.2f", PricingEngine.toDecimal(quote.feeCentsFor(delivery))));
+        labelTotal.setText(String.format("Total: R$ %.2f", PricingEngine.toDecimal(quote.totalCentsFor(delivery))));
     }
 
     /**
-     * Calcula a taxa de entrega do usuário logado a partir da sua área/bairro.
+     * Confere se o CEP do endereço pertence ao bairro cadastrado.
+     * Executado fora da EDT.
      *
      * Funcionamento:
-     * 1. Obtém o email do usuário logado.
-     * 2. Busca a Person no banco via repoPerson.findByEmailPerson(email).
-     * 3. Se não encontrar Person/Address/Area, retorna 0.0.
-     * 4. Retorna Area.fee (ou 0.0 se estiver null).
-     * 5. Em caso de erro SQL, exibe mensagem e retorna 0.0.
+     * 1. Resolve a área do CEP com controllerCadastro.resolveAreaByCep(cep).
+     * 2. Se não for possível resolver (sem índice, CEP ausente ou fora do índice), não avisa.
+     * 3. Se a área do CEP for diferente da área do endereço, monta o aviso com as duas taxas.
      *
-     * @return taxa de entrega do usuário
+     * @param p perfil do usuário logado (pode ser null)
+     * @return texto do aviso, ou null se o bairro confere ou não puder ser conferido
+     * @throws DataAccessException se ocorrer erro ao carregar as áreas
      */
-    private double computeDeliveryFeeFromUserArea() {
-        try {
-            String email = Session.getLoggedUser().getEmail();
-            Person p = repoPerson.findByEmailPerson(email);
-            if (p == null || p.getAddress() == null || p.getAddress().getArea() == null) return 0.0;
-            Double fee = p.getAddress().getArea().getFee();
-            return fee != null ? fee : 0.0;
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erro ao obter taxa de entrega: " + e.getMessage(),
-                    "Erro",
-                    JOptionPane.ERROR_MESSAGE);
-            return 0.0;
-        }
+    private String checkCepArea(CustomerProfile p) throws DataAccessException {
+        if (p == null || p.getArea() == null) return null;
+
+        Area byCep = controllerCadastro.resolveAreaByCep(p.getCep());
+        Area registered = p.getArea();
+        if (byCep == null || byCep.getId() == null || byCep.getId().equals(registered.getId())) return null;
+
+        return String.format("Atenção: o CEP pertence a %s (taxa R$ %.2f), mas o endereço está em %s (taxa R$ %.2f).",
+                byCep.getName(), controllerCheckout.quoteDeliveryFee(byCep),
+                registered.getName(), controllerCheckout.quoteDeliveryFee(registered));
     }
 
     /**
-     * Carrega uma string resumida do endereço do usuário logado para exibição.
+     * Monta uma string resumida do endereço para exibição.
      *
      * Funcionamento:
-     * 1. Obtém email do usuário logado.
-     * 2. Busca Person por email no banco.
-     * 3. Se não encontrar Person/Address, retorna texto padrão.
-     * 4. Extrai área, rua, número e CEP, substituindo null por string vazia.
-     * 5. Monta e retorna a string no formato:
+     * 1. Se não houver perfil/endereço, retorna texto padrão.
+     * 2. Extrai área, rua, número e CEP, substituindo null por string vazia.
+     * 3. Monta e retorna a string no formato:
      *    "rua, numero - area | CEP: cep"
      *
+     * @param p perfil do usuário logado (pode ser null)
      * @return texto do endereço para exibição na tela
      */
-    private String loadUserAddressText() {
-        try {
-            String email = Session.getLoggedUser().getEmail();
-            Person p = repoPerson.findByEmailPerson(email);
-            if (p == null || p.getAddress() == null) return "(endereço não encontrado)";
-
-            String area = (p.getAddress().getArea() != null) ? p.getAddress().getArea().getName() : "";
-            String street = p.getAddress().getStreet() != null ? p.getAddress().getStreet() : "";
-            String number = p.getAddress().getNumber() != null ? String.valueOf(p.getAddress().getNumber()) : "";
-            String cep = p.getAddress().getCep() != null ? p.getAddress().getCep() : "";
-            return street + ", " + number + " - " + area + " | CEP: " + cep;
-
-        } catch (SQLException e) {
-            return "(erro ao carregar endereço: " + e.getMessage() + ")";
-        }
+    private static String formatAddress(CustomerProfile p) {
+        if (p == null || !p.hasAddress()) return "(endereço não encontrado)";
+
+        String area = p.getAreaName() != null ? p.getAreaName() : "";
+        String street = p.getStreet() != null ? p.getStreet() : "";
+        String number = p.getNumber() != null ? String.valueOf(p.getNumber()) : "";
+        String cep = p.getCep() != null ? p.getCep() : "";
+        return street + ", " + number + " - " + area + " | CEP: " + cep;
     }
 
     /**
      * Confirma o pedido e persiste no banco.
      *
      * Funcionamento:
-     * 1. Se o carrinho estiver vazio, mostra mensagem e retorna.
+     * 1. Se o carrinho estiver vazio ou a cotação ainda não foi carregada, mostra mensagem e retorna.
+     *    Se o carrinho ou as promoções mudaram desde a cotação, cota de novo e retorna.
      * 2. Determina o tipo de recebimento:
      *    - ENTREGA se radioEntrega estiver selecionado
      *    - RETIRADA caso contrário
      * 3. Lê observações (trim), podendo resultar em null.
-     * 4. Calcula total como subtotal + taxaEntrega.
-     * 5. Obtém idUser da sessão.
-     * 6. Chama controllerCheckout.confirmOrder(...) para criar pedido e itens.
-     * 7. Se der certo:
+     * 4. Obtém idUser da sessão.
+     * 5. Chama controllerCheckout.confirmOrder(...) em segundo plano com a cotação
+     *    (o total e os preços dos itens vêm dela, sem novas consultas de produto).
+     *    É uma gravação (ViewTaskRunner.runWrite): fechar a tela não a interrompe, e o carrinho
+     *    é limpo quando ela termina.
+     * 6. Se der certo:
      *    - limpa o carrinho
      *    - mostra mensagem de sucesso com número do pedido
      *    - fecha a tela
-     * 8. Em caso de erro:
-     *    - exibe a mensagem conforme exceção (ValidationException, DataAccessException, AppException)
+     * 7. Em caso de erro:
+     *    - o ViewTaskRunner exibe a mensagem conforme exceção (ValidationException, DataAccessException, AppException)
      */
     private void onConfirm() {
         if (CartSession.isEmpty()) {
@@ -427,51 +506,31 @@ public class ViewCheckout extends JFrame {
             return;
         }
 
-        String delivery = radioEntrega.isSelected() ? "ENTREGA" : "RETIRADA";
-        String obs = fieldObs.getText() != null ? fieldObs.getText().trim() : null;
-
-        double total = subtotal + taxaEntrega;
-
-        try {
-            Integer idUser = Session.getLoggedUser().getIdUser();
-
-            Integer idOrder = controllerCheckout.confirmOrder(
-                    idUser,
-                    total,
-                    delivery,
-                    obs,
-                    CartSession.getItems()
-            );
-
-            CartSession.clear();
-            JOptionPane.showMessageDialog(this, "Pedido confirmado com sucesso! (Pedido #" + idOrder + ")");
-            dispose();
+        if (quote == null) {
+            JOptionPane.showMessageDialog(this, "Aguarde o cálculo do total.", "Checkout", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        if (!quote.isCurrent()) {
+            JOptionPane.showMessageDialog(this, "O carrinho ou as promoções mudaram. O total será recalculado.", "Checkout", JOptionPane.INFORMATION_MESSAGE);
+            quote = null;
+            loadCheckoutData();
+            return;
         }
-    }
 
-    /**
-     * Calcula o preço unitário final de um produto para fins de subtotal/total.
-     *
-     * Regra usada:
-     * unitário = basePrice + size.price + flavor.level.price
-     *
-     * @param p produto carregado do banco
-     * @return preço unitário final
-     */
-    private static double computeUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-        double sizePrice = (p.getSize() != null && p.getSize().getPrice() != null) ? p.getSize().getPrice() : 0.0;
-        double levelPrice = (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null)
-                ? p.getFlavor().getLevel().getPrice() : 0.0;
+        String delivery = radioEntrega.isSelected() ? DeliveryType.ENTREGA.name() : DeliveryType.RETIRADA.name();
+        String obs = fieldObs.getText() != null ? fieldObs.getText().trim() : null;
 
-        return base + sizePrice + levelPrice;
+        Integer idUser = Session.getLoggedUser().getIdUser();
+        CheckoutQuote q = quote;
+
+        tasks.runWrite("confirm", "Confirmando pedido...",
+                () -> controllerCheckout.confirmOrder(idUser, q, delivery, obs),
+                idOrder -> {
+                    CartSession.clear();
+                    JOptionPane.showMessageDialog(this, "Pedido confirmado com sucesso! (Pedido #" + idOrder + ")");
+                    dispose();
+                });
     }
 
     /**
@@ -490,4 +549,20 @@ public class ViewCheckout extends JFrame {
         card.add(content, BorderLayout.CENTER);
         return card;
     }
-}
\ No newline at end of file
+
+    /**
+     * Dados do checkout carregados em segundo plano:
+     * cotação do carrinho, texto do endereço e aviso do CEP.
+     */
+    private static class CheckoutData {
+        private final CheckoutQuote quote;
+        private final String addressText;
+        private final String cepWarning;
+
+        CheckoutData(CheckoutQuote quote, String addressText, String cepWarning) {
+            this.quote = quote;
+            this.addressText = addressText;
+            this.cepWarning = cepWarning;
+        }
+    }
+}
@@ -2,11 +2,7 @@ package view;
 
 import app.Session;
 import controller.ControllerLogin;
-import exceptions.AppException;
-import exceptions.AuthenticationException;
-import exceptions.DataAccessException;
-import exceptions.ValidationException;
-import model.entities.User;
+import controller.ControllerProfile;
 
 import javax.swing.*;
 import java.awt.*;
@@ -38,6 +34,16 @@ public class ViewLogin extends JFrame {
      */
     private final ControllerLogin controller = new ControllerLogin();
 
+    /**
+     * Controller do perfil do cliente, carregado em segundo plano após o login.
+     */
+    private final ControllerProfile controllerProfile = new ControllerProfile();
+
+    /**
+     * Executor da autenticação fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
+
     /**
      * Construtor da tela de login.
      * Configura a janela e monta o painel principal.
@@ -113,41 +119,29 @@ public class ViewLogin extends JFrame {
      * Funcionamento:
      * 1. Obtém o e-mail do campo, aplicando trim e tratando null como string vazia.
      * 2. Obtém a senha do campo como char[].
-     * 3. Chama controller.login(email, password) para autenticar.
+     * 3. Chama controller.login(email, password) em segundo plano
+     *    (consulta ao banco e verificação do hash não travam a tela).
      * 4. Em caso de sucesso:
      *    - grava o usuário na sessão com Session.setLoggedUser(user)
+     *    - dispara a carga do perfil (pessoa, endereço e área) em segundo plano
      *    - mostra mensagem de boas-vindas
      *    - fecha a janela
-     * 5. Em caso de erro:
-     *    - ValidationException: dados inválidos (exibe aviso)
-     *    - AuthenticationException: credenciais incorretas (exibe erro)
-     *    - DataAccessException: falha ao acessar banco (exibe erro)
-     *    - AppException: outros erros do domínio (exibe erro)
-     * 6. No finally, limpa o array de senha com Arrays.fill para reduzir tempo de permanência em memória.
+     * 5. Em caso de erro, o ViewTaskRunner exibe a mensagem apropriada:
+     *    - ValidationException: dados inválidos (aviso)
+     *    - AuthenticationException / DataAccessException / AppException: erro
+     * 6. Ao final, limpa o array de senha com Arrays.fill para reduzir tempo de permanência em memória.
      */
     private void onLogin() {
         String email = fieldEmail.getText() != null ? fieldEmail.getText().trim() : "";
         char[] password = fieldPassword.getPassword();
 
-        try {
-            User user = controller.login(email, password);
-
+        tasks.run("login", "Entrando...", () -> controller.login(email, password), user -> {
             Session.setLoggedUser(user);
+            controllerProfile.startSessionProfileLoad(user.getEmail());
             JOptionPane.showMessageDialog(this, "Bem-vindo(a), " + user.getFirstName() + "!");
 
             setVisible(false);
             dispose();
-
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (AuthenticationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            if (password != null) Arrays.fill(password, '\0');
-        }
+        }, () -> Arrays.fill(password, '\0'));
     }
-}
\ No newline at end of file
+}
@@ -2,18 +2,14 @@ package view;
 
 import app.Session;
 import controller.ControllerMyOrders;
-import exceptions.AppException;
-import exceptions.DataAccessException;
-import exceptions.ValidationException;
 import model.entities.OrderItemSummary;
 import model.entities.OrderSummary;
 
+import view.PagedTableModel.ColumnType;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Tela "Meus pedidos".
@@ -29,6 +25,11 @@ public class ViewMyOrders extends JFrame {
      */
     private final ControllerMyOrders controller = new ControllerMyOrders();
 
+    /**
+     * Executor das consultas da tela fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
+
     /**
      * Tabela que exibe a lista de pedidos.
      * Cada linha corresponde a um OrderSummary.
@@ -39,8 +40,9 @@ public class ViewMyOrders extends JFrame {
      * Modelo da tabela de pedidos.
      * Colunas:
      * ID, Data/Hora, Tipo, Total.
+     * A chave de cada linha é o id do pedido.
      */
-    private DefaultTableModel modelOrders;
+    private PagedTableModel modelOrders;
 
     /**
      * Tabela que exibe os itens do pedido selecionado.
@@ -53,7 +55,7 @@ public class ViewMyOrders extends JFrame {
      * Colunas:
      * Produto, Qtd, Unitário, Total.
      */
-    private DefaultTableModel modelItems;
+    private PagedTableModel modelItems;
 
     /**
      * Label que indica qual pedido está selecionado no painel de itens.
@@ -61,13 +63,6 @@ public class ViewMyOrders extends JFrame {
      */
     private JLabel labelOrderTitle;
 
-    /**
-     * Lista de pedidos carregados do banco.
-     * O índice desta lista corresponde ao índice da linha na tableOrders.
-     * É usada em onOrderSelected() para obter o OrderSummary selecionado.
-     */
-    private List<OrderSummary> orders = new ArrayList<>();
-
     /**
      * Formatador de data/hora usado para exibir o Timestamp do pedido na tabela.
      */
@@ -165,7 +160,7 @@ public class ViewMyOrders extends JFrame {
      * Monta o painel da lista de pedidos.
      *
      * Funcionamento:
-     * 1. Cria o modelOrders com colunas e células não editáveis.
+     * 1. Cria o modelOrders paginado com as colunas (total em centavos).
      * 2. Cria tableOrders e define seleção de linha única.
      * 3. Adiciona listener de seleção para chamar onOrderSelected().
      * 4. Coloca tableOrders dentro de JScrollPane e aplica borda do tema.
@@ -179,9 +174,10 @@ public class ViewMyOrders extends JFrame {
         JLabel title = ViewTheme.createSubtitleLabel("Pedidos");
         p.add(title, BorderLayout.NORTH);
 
-        modelOrders = new DefaultTableModel(new String[]{"ID", "Data/Hora", "Tipo", "Total"}, 0) {
-            @Override public boolean isCellEditable(int r, int c) { return false; }
-        };
+        modelOrders = new PagedTableModel(
+                new String[]{"ID", "Data/Hora", "Tipo", "Total"},
+                new ColumnType[]{ColumnType.INT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.MONEY}
+        );
 
         tableOrders = new JTable(modelOrders);
         tableOrders.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -199,7 +195,7 @@ public class ViewMyOrders extends JFrame {
      *
      * Funcionamento:
      * 1. Cria labelOrderTitle com texto inicial pedindo seleção de pedido.
-     * 2. Cria modelItems com colunas e células não editáveis.
+     * 2. Cria modelItems paginado com as colunas (valores em centavos).
      * 3. Cria tableItems e define seleção de linha única.
      * 4. Coloca tableItems dentro de JScrollPane e aplica borda do tema.
      *
@@ -212,9 +208,10 @@ public class ViewMyOrders extends JFrame {
         labelOrderTitle = ViewTheme.createSubtitleLabel("Itens do pedido: (selecione um pedido)");
         p.add(labelOrderTitle, BorderLayout.NORTH);
 
-        modelItems = new DefaultTableModel(new String[]{"Produto", "Qtd", "Unitário", "Total"}, 0) {
-            @Override public boolean isCellEditable(int r, int c) { return false; }
-        };
+        modelItems = new PagedTableModel(
+                new String[]{"Produto", "Qtd", "Unitário", "Total"},
+                new ColumnType[]{ColumnType.TEXT, ColumnType.INT, ColumnType.MONEY, ColumnType.MONEY}
+        );
 
         tableItems = new JTable(modelItems);
         tableItems.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -233,45 +230,32 @@ public class ViewMyOrders extends JFrame {
      * Funcionamento:
      * 1. Limpa modelOrders e modelItems.
      * 2. Reseta labelOrderTitle.
-     * 3. Reseta a lista orders.
-     * 4. Obtém idUser da Session.
-     * 5. Chama controller.listOrdersByUser(idUser).
-     * 6. Para cada OrderSummary:
+     * 3. Obtém idUser da Session.
+     * 4. Chama controller.listOrdersByUser(idUser) em segundo plano.
+     * 5. Ao terminar, para cada OrderSummary:
      *    - formata data/hora
-     *    - adiciona linha na tabela com id, data, tipo e total
+     *    - escreve a linha com id, data, tipo e total (chave = id do pedido)
      *
      * Tratamento de erro:
-     * - ValidationException: exibe aviso
-     * - DataAccessException: exibe erro
-     * - AppException: exibe erro
+     * - ValidationException / DataAccessException / AppException: exibidas pelo ViewTaskRunner.
      */
     private void loadOrders() {
-        modelOrders.setRowCount(0);
-        modelItems.setRowCount(0);
+        modelOrders.clear();
+        modelItems.clear();
         labelOrderTitle.setText("Itens do pedido: (selecione um pedido)");
-        orders = new ArrayList<>();
-
-        try {
-            Integer idUser = Session.getLoggedUser().getIdUser();
-            orders = controller.listOrdersByUser(idUser);
-
-            for (OrderSummary o : orders) {
-                String dt = o.getDatetime() != null ? fmt.format(o.getDatetime()) : "";
-                modelOrders.addRow(new Object[]{
-                        o.getId(),
-                        dt,
-                        o.getDelivery(),
-                        String.format("R$ %.2f", o.getTotalPrice() != null ? o.getTotalPrice() : 0.0)
-                });
-            }
-
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+
+        Integer idUser = Session.getLoggedUser().getIdUser();
+        tasks.run("orders", "Carregando pedidos...",
+                () -> controller.listOrdersByUser(idUser),
+                orders -> modelOrders.setRows(orders, (OrderSummary o, PagedTableModel.Page page) -> {
+                    String dt = o.getDatetime() != null ? fmt.format(o.getDatetime()) : "";
+
+                    int i = page.append(o.getId());
+                    page.setInt(i, 0, o.getId());
+                    page.setText(i, 1, dt);
+                    page.setText(i, 2, o.getDelivery());
+                    page.setMoney(i, 3, o.getTotalPrice());
+                }));
     }
 
     /**
@@ -280,15 +264,15 @@ public class ViewMyOrders extends JFrame {
      * Funcionamento:
      * 1. Obtém a linha selecionada.
      * 2. Se não houver seleção válida, retorna.
-     * 3. Obtém o OrderSummary correspondente na lista orders.
+     * 3. Obtém o id do pedido pela chave da linha.
      * 4. Chama loadItems(idPedido) para carregar os itens.
      */
     private void onOrderSelected() {
         int row = tableOrders.getSelectedRow();
-        if (row < 0 || row >= orders.size()) return;
+        int idOrder = row >= 0 ? modelOrders.getKey(row) : -1;
+        if (idOrder < 0) return;
 
-        OrderSummary selected = orders.get(row);
-        loadItems(selected.getId());
+        loadItems(idOrder);
     }
 
     /**
@@ -296,44 +280,37 @@ public class ViewMyOrders extends JFrame {
      *
      * Funcionamento:
      * 1. Limpa modelItems.
-     * 2. Chama controller.listItems(idOrder).
+     * 2. Chama controller.listItems(idOrder) em segundo plano.
+     *    Se outro pedido for selecionado antes do fim, esta carga é descartada.
      * 3. Atualiza labelOrderTitle com o número do pedido.
      * 4. Para cada item:
      *    - obtém preço unitário e quantidade tratando null como 0
-     *    - adiciona linha com produto, qtd, unitário e total do item
+     *    - escreve a linha com produto, qtd, unitário e total do item
      *
      * Tratamento de erro:
-     * - ValidationException: exibe aviso
-     * - DataAccessException: exibe erro
-     * - AppException: exibe erro
+     * - ValidationException / DataAccessException / AppException: exibidas pelo ViewTaskRunner.
      *
      * @param idOrder id do pedido
      */
     private void loadItems(Integer idOrder) {
-        modelItems.setRowCount(0);
-
-        try {
-            List<OrderItemSummary> items = controller.listItems(idOrder);
-            labelOrderTitle.setText("Itens do pedido: #" + idOrder);
-
-            for (OrderItemSummary it : items) {
-                double unit = it.getPriceAtMoment() != null ? it.getPriceAtMoment() : 0.0;
-                int qty = it.getQuantity() != null ? it.getQuantity() : 0;
-
-                modelItems.addRow(new Object[]{
-                        it.getProductName(),
-                        qty,
-                        String.format("R$ %.2f", unit),
-                        String.format("R$ %.2f", unit * qty)
+        modelItems.clear();
+
+        tasks.run("items", "Carregando itens...",
+                () -> controller.listItems(idOrder),
+                items -> {
+                    labelOrderTitle.setText("Itens do pedido: #" + idOrder);
+
+                    modelItems.setRows(items, (OrderItemSummary it, PagedTableModel.Page page) -> {
+                        double unit = it.getPriceAtMoment() != null ? it.getPriceAtMoment() : 0.0;
+                        int qty = it.getQuantity() != null ? it.getQuantity() : 0;
+
+                        int i = page.append(0);
+                        page.setText(i, 0, it.getProductName());
+                        page.setInt(i, 1, qty);
+                        page.setMoney(i, 2, unit);
+                        page.setMoney(i, 3, unit * qty);
+                    });
                 });
-            }
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (AppException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
     }
 
     /**
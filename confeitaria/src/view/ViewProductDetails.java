@@ -3,6 +3,7 @@ package view;
 import controller.ControllerCart;
 import exceptions.ValidationException;
 import model.entities.Product;
+import services.PricingEngine;
 
 import javax.swing.*;
 import java.awt.*;
@@ -201,48 +202,17 @@ public class ViewProductDetails extends JFrame {
      * Recalcula e atualiza os labels de preço unitário e total.
      *
      * Funcionamento:
-     * 1. Calcula preço unitário chamando computeUnitPrice(product).
+     * 1. Calcula preço unitário em centavos com PricingEngine.unitPriceCents(product).
      * 2. Obtém quantidade atual do spinner.
-     * 3. Calcula total como unit * qty.
+     * 3. Calcula total como unit * qty (conta inteira, sem erro de arredondamento).
      * 4. Atualiza labelUnitPrice e labelTotal.
      */
     private void updateTotals() {
-        double unit = computeUnitPrice(product);
+        long unit = PricingEngine.unitPriceCents(product);
         int qty = spinnerQty != null ? (Integer) spinnerQty.getValue() : 1;
-        double total = unit * qty;
+        long total = unit * qty;
 
-        labelUnitPrice.setText(String.format("Preço unitário: R$ %.2f", unit));
-        labelTotal.setText(String.format("Total: R$ %.2f", total));
+        labelUnitPrice.setText(String.format("Preço unitário: R$ %.2f", PricingEngine.toDecimal(unit)));
+        labelTotal.setText(String.format("Total: R$ %.2f", PricingEngine.toDecimal(total)));
     }
-
-    /**
-     * Calcula o preço unitário final do produto.
-     *
-     * Regra usada:
-     * unitário = basePrice + size.price + flavor.level.price
-     *
-     * Funcionamento:
-     * 1. Lê basePrice (se null assume 0).
-     * 2. Lê price do Size (se não existir assume 0).
-     * 3. Lê price do FlavorLevel (se não existir assume 0).
-     * 4. Retorna a soma.
-     *
-     * @param p produto para cálculo
-     * @return valor unitário final
-     */
-    private static double computeUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-
-        double sizePrice = 0.0;
-        if (p.getSize() != null && p.getSize().getPrice() != null) {
-            sizePrice = p.getSize().getPrice();
-        }
-
-        double levelPrice = 0.0;
-        if (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null) {
-            levelPrice = p.getFlavor().getLevel().getPrice();
-        }
-
-        return base + sizePrice + levelPrice;
-    }
-}
\ No newline at end of file
+}
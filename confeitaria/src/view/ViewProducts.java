@@ -1,22 +1,27 @@
 package view;
 
 import controller.ControllerProductAdmin;
-import exceptions.DataAccessException;
-import exceptions.ValidationException;
+import model.entities.Flavor;
 import model.entities.FlavorLevel;
 import model.entities.Product;
+import model.entities.ProductListRow;
 import model.entities.Size;
+import services.FlavorLookup;
+import services.PricingEngine;
+
+import view.PagedTableModel.ColumnType;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Tela de administração de produtos.
  * Permite cadastrar um novo produto (criando também um novo sabor) e listar os produtos existentes.
- * Também permite excluir um produto selecionado na tabela.
+ * Também permite excluir um produto selecionado na tabela
+ * e buscar produtos por texto (busca textual do banco, ordenada por relevância).
  * Utiliza ControllerProductAdmin para carregar dados do banco e executar as operações.
  */
 public class ViewProducts extends JFrame {
@@ -31,6 +36,11 @@ public class ViewProducts extends JFrame {
      */
     private final ControllerProductAdmin controller = new ControllerProductAdmin();
 
+    /**
+     * Executor das operações de banco da tela fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
+
     /**
      * Campo de texto do nome do produto a ser cadastrado.
      */
@@ -43,11 +53,21 @@ public class ViewProducts extends JFrame {
     private JTextField fieldBasePrice;
 
     /**
-     * Campo de texto do nome do sabor (novo).
-     * A tela assume que o sabor será criado junto do produto.
+     * Campo de texto do nome do sabor.
+     * Se já existir sabor com esse nome no nível selecionado, ele é reaproveitado; senão é criado junto do produto.
      */
     private JTextField fieldFlavorName;
 
+    /**
+     * Aviso exibido abaixo do nome do sabor: indica se o sabor será reaproveitado ou criado.
+     */
+    private JLabel labelFlavorHint;
+
+    /**
+     * Sabores já cadastrados (carregados em loadCombos()), usados por updateFlavorHint().
+     */
+    private FlavorLookup flavorLookup;
+
     /**
      * Campo de texto multilinha da descrição do produto.
      * Pode ser vazio, e é enviado como null ou string (dependendo do conteúdo) para o controller.
@@ -68,29 +88,40 @@ public class ViewProducts extends JFrame {
 
     /**
      * Tabela que lista os produtos cadastrados.
-     * Cada linha representa um Product da lista products.
      */
     private JTable tableProducts;
 
     /**
-     * Modelo da tabela de produtos.
+     * Modelo paginado da tabela de produtos.
      * Colunas:
      * Produto, Sabor, Nível, Tamanho, Preço final.
+     * A chave de cada linha é o id do produto, usada em onDelete().
+     */
+    private PagedTableModel tableModel;
+
+    /**
+     * Atraso entre a última tecla digitada na busca e a nova consulta, em milissegundos.
      */
-    private DefaultTableModel tableModel;
+    private static final int SEARCH_DELAY_MS = 300;
 
     /**
-     * Lista de produtos carregada do banco.
-     * O índice nesta lista corresponde ao índice da linha na tableProducts.
-     * É usada em onDelete() para identificar o produto selecionado.
+     * Campo de busca da tabela (vazio = lista todos os produtos).
      */
-    private List<Product> products = new ArrayList<>();
+    private JTextField fieldSearch;
+
+    /**
+     * Timer de debounce da busca: reiniciado a cada tecla, consulta o banco
+     * uma única vez quando o usuário para de digitar.
+     */
+    private final Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> refreshTable());
 
     /**
      * Construtor da tela.
      * Configura a janela, monta o painel principal, carrega os combos e carrega a tabela.
      */
     public ViewProducts() {
+        searchTimer.setRepeats(false);
+
         configureFrame();
         setContentPane(buildMainPanel());
         loadCombos();
@@ -183,15 +214,24 @@ public class ViewProducts extends JFrame {
         form.add(fieldBasePrice);
         form.add(Box.createVerticalStrut(10));
 
-        form.add(ViewTheme.createFieldLabel("Nome do sabor (novo)"));
+        form.add(ViewTheme.createFieldLabel("Nome do sabor"));
         fieldFlavorName = ViewTheme.createTextField(24);
+        fieldFlavorName.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { updateFlavorHint(); }
+            @Override public void removeUpdate(DocumentEvent e) { updateFlavorHint(); }
+            @Override public void changedUpdate(DocumentEvent e) { updateFlavorHint(); }
+        });
         form.add(fieldFlavorName);
+        labelFlavorHint = ViewTheme.createFieldLabel(" ");
+        labelFlavorHint.setForeground(ViewTheme.TEXT_MUTED);
+        form.add(labelFlavorHint);
         form.add(Box.createVerticalStrut(10));
 
         form.add(ViewTheme.createFieldLabel("Nível do sabor"));
         comboFlavorLevel = new JComboBox<>();
         comboFlavorLevel.setRenderer(new NamedCellRenderer());
         styleComboBox(comboFlavorLevel);
+        comboFlavorLevel.addActionListener(e -> updateFlavorHint());
         form.add(comboFlavorLevel);
         form.add(Box.createVerticalStrut(10));
 
@@ -256,9 +296,10 @@ public class ViewProducts extends JFrame {
      * Monta o painel da tabela de produtos.
      *
      * Funcionamento:
-     * 1. Cria tableModel com colunas e células não editáveis.
+     * 1. Cria tableModel paginado com as colunas (preço final em centavos).
      * 2. Cria tableProducts e define seleção única.
      * 3. Coloca tabela em JScrollPane e aplica borda do tema.
+     * 4. Adiciona o campo de busca acima da tabela (cada tecla reinicia o searchTimer).
      *
      * @return componente do painel de tabela
      */
@@ -266,11 +307,11 @@ public class ViewProducts extends JFrame {
         JPanel tablePanel = new JPanel(new BorderLayout(0, 8));
         tablePanel.setBackground(ViewTheme.CARD_BG);
 
-        tableModel = new DefaultTableModel(
-                new String[]{"Produto", "Sabor", "Nível", "Tamanho", "Preço final"}, 0
-        ) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new PagedTableModel(
+                new String[]{"Produto", "Sabor", "Nível", "Tamanho", "Preço final"},
+                new ColumnType[]{ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.MONEY}
+        );
+        tableModel.setErrorHandler(tasks::showError);
 
         tableProducts = new JTable(tableModel);
         tableProducts.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -279,118 +320,174 @@ public class ViewProducts extends JFrame {
         scroll.setBorder(BorderFactory.createLineBorder(ViewTheme.BORDER));
         tablePanel.add(scroll, BorderLayout.CENTER);
 
+        fieldSearch = ViewTheme.createTextField(24);
+        fieldSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        });
+
+        JPanel searchBar = new JPanel(new BorderLayout(8, 0));
+        searchBar.setBackground(ViewTheme.CARD_BG);
+        searchBar.add(ViewTheme.createFieldLabel("Buscar"), BorderLayout.WEST);
+        searchBar.add(fieldSearch, BorderLayout.CENTER);
+        tablePanel.add(searchBar, BorderLayout.NORTH);
+
         return tablePanel;
     }
 
     /**
-     * Carrega os combos de nível de sabor e tamanho.
+     * Carrega os combos de nível de sabor e tamanho, e os sabores já cadastrados.
      *
      * Funcionamento:
-     * 1. Limpa comboFlavorLevel e adiciona itens retornados por controller.listFlavorLevels().
-     * 2. Limpa comboSize e adiciona itens retornados por controller.listSizes().
+     * 1. Em segundo plano, chama controller.listFlavorLevels(), controller.listSizes()
+     *    e controller.loadFlavorLookup() (em cache no controller depois da primeira carga).
+     * 2. Ao terminar, limpa e preenche comboFlavorLevel e comboSize e atualiza o aviso do sabor.
      * 3. Se algum combo ficar vazio, avisa o usuário que pode faltar seed no banco.
      *
      * Tratamento de erro:
-     * - DataAccessException: exibe mensagem de erro.
+     * - DataAccessException: exibida pelo ViewTaskRunner.
      */
     private void loadCombos() {
-        try {
-            comboFlavorLevel.removeAllItems();
-            for (FlavorLevel lvl : controller.listFlavorLevels()) {
-                comboFlavorLevel.addItem(lvl);
-            }
-
-            comboSize.removeAllItems();
-            for (Size size : controller.listSizes()) {
-                comboSize.addItem(size);
-            }
-
-            if (comboFlavorLevel.getItemCount() == 0 || comboSize.getItemCount() == 0) {
-                JOptionPane.showMessageDialog(this,
-                        "Não existem níveis de sabor ou tamanhos no banco.\n" +
-                                "Verifique o SeedService.",
-                        "Atenção",
-                        JOptionPane.WARNING_MESSAGE);
-            }
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+        tasks.run("combos", "Carregando cadastros...",
+                () -> new ComboData(controller.listFlavorLevels(), controller.listSizes(), controller.loadFlavorLookup()),
+                data -> {
+                    flavorLookup = data.flavors;
+
+                    comboFlavorLevel.removeAllItems();
+                    for (FlavorLevel lvl : data.levels) {
+                        comboFlavorLevel.addItem(lvl);
+                    }
+
+                    comboSize.removeAllItems();
+                    for (Size size : data.sizes) {
+                        comboSize.addItem(size);
+                    }
+                    updateFlavorHint();
+
+                    if (comboFlavorLevel.getItemCount() == 0 || comboSize.getItemCount() == 0) {
+                        JOptionPane.showMessageDialog(this,
+                                "Não existem níveis de sabor ou tamanhos no banco.\n" +
+                                        "Verifique o SeedService.",
+                                "Atenção",
+                                JOptionPane.WARNING_MESSAGE);
+                    }
+                });
     }
 
     /**
      * Recarrega a lista de produtos do banco e atualiza a tabela.
      *
      * Funcionamento:
-     * 1. Chama controller.listProducts() e armazena em products.
-     * 2. Limpa as linhas do tableModel.
-     * 3. Para cada produto:
-     *    - extrai strings de sabor, nível e tamanho tratando null
-     *    - calcula preço final com computeFinalUnitPrice(Product)
-     *    - adiciona uma linha na tabela
+     * 1. Lê o texto da busca.
+     * 2. Sem busca: conta os produtos (controller.countProducts()) e usa loadPage como fonte.
+     * 3. Com busca: conta os resultados (controller.countSearchProducts(query)) e usa
+     *    controller.searchProductsPage(query, ...) como fonte, mais relevantes primeiro.
+     * 4. Em ambos os casos cada página só é buscada quando for exibida.
      *
      * Tratamento de erro:
-     * - DataAccessException: exibe mensagem de erro.
+     * - DataAccessException: exibida pelo ViewTaskRunner.
      */
     private void refreshTable() {
-        try {
-            products = controller.listProducts();
-            tableModel.setRowCount(0);
-
-            for (Product p : products) {
-                String flavorName = (p.getFlavor() != null) ? p.getFlavor().getName() : "";
-                String levelName = (p.getFlavor() != null && p.getFlavor().getLevel() != null) ? p.getFlavor().getLevel().getName() : "";
-                String sizeName = (p.getSize() != null) ? p.getSize().getName() : "";
-
-                double finalPrice = computeFinalUnitPrice(p);
-
-                tableModel.addRow(new Object[]{
-                        p.getName(),
-                        flavorName,
-                        levelName,
-                        sizeName,
-                        String.format("R$ %.2f", finalPrice)
-                });
-            }
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        searchTimer.stop();
+        String query = currentQuery();
+
+        if (query.isEmpty()) {
+            tasks.run("products", "Carregando produtos...", controller::countProducts,
+                    count -> tableModel.setSource(count, this::loadPage));
+            return;
         }
+
+        tasks.run("products", "Buscando produtos...", () -> controller.countSearchProducts(query),
+                count -> tableModel.setSource(count, (offset, limit, page) -> {
+                    for (ProductListRow p : controller.searchProductsPage(query, offset, limit)) {
+                        writeRow(p, page);
+                    }
+                }));
+    }
+
+    /**
+     * Retorna o texto atual da busca.
+     *
+     * @return texto sem espaços nas pontas ("" se vazio)
+     */
+    private String currentQuery() {
+        return fieldSearch != null ? text(fieldSearch) : "";
     }
 
     /**
-     * Calcula o preço final unitário exibido na tabela.
+     * Carrega uma página de produtos no modelo da tabela (executado fora da EDT).
      *
-     * Regra usada:
-     * finalUnitPrice = basePrice + size.price + flavor.level.price
+     * Funcionamento:
+     * 1. Busca os produtos da página com controller.listProductsPage(offset, limit).
+     * 2. Escreve cada produto com writeRow(ProductListRow, Page), usando o id do produto como chave.
      *
-     * @param p produto para cálculo
-     * @return preço final unitário
-     */
-    private static double computeFinalUnitPrice(Product p) {
-        double base = p.getBasePrice() != null ? p.getBasePrice() : 0.0;
-        double sizePrice = (p.getSize() != null && p.getSize().getPrice() != null) ? p.getSize().getPrice() : 0.0;
-        double levelPrice = (p.getFlavor() != null && p.getFlavor().getLevel() != null && p.getFlavor().getLevel().getPrice() != null)
-                ? p.getFlavor().getLevel().getPrice()
-                : 0.0;
-        return base + sizePrice + levelPrice;
+     * @param offset índice do primeiro produto
+     * @param limit quantidade máxima de produtos
+     * @param page página a preencher
+     * @throws Exception se falhar ao acessar o banco
+     */
+    private void loadPage(int offset, int limit, PagedTableModel.Page page) throws Exception {
+        for (ProductListRow p : controller.listProductsPage(offset, limit)) {
+            writeRow(p, page);
+        }
+    }
+
+    /**
+     * Escreve um produto como linha da tabela.
+     * Usado tanto no carregamento das páginas quanto na inserção de um produto recém-criado.
+     *
+     * @param p linha da listagem
+     * @param page página de destino
+     */
+    private void writeRow(ProductListRow p, PagedTableModel.Page page) {
+        int i = page.append(p.getId());
+        page.setText(i, 0, p.getName());
+        page.setText(i, 1, p.getFlavorName() != null ? p.getFlavorName() : "");
+        page.setText(i, 2, p.getLevelName() != null ? p.getLevelName() : "");
+        page.setText(i, 3, p.getSizeName() != null ? p.getSizeName() : "");
+        page.setMoneyCents(i, 4, PricingEngine.toCents(p.getUnitPrice()));
+    }
+
+    /**
+     * Atualiza o aviso abaixo do nome do sabor.
+     * Consulta só a memória (flavorLookup), então pode rodar a cada tecla na EDT:
+     * - nome vazio ou sabores ainda não carregados: sem aviso
+     * - sabor já cadastrado no nível selecionado: avisa que ele será reaproveitado
+     * - caso contrário: avisa que um novo sabor será criado
+     */
+    private void updateFlavorHint() {
+        String name = text(fieldFlavorName);
+        FlavorLevel level = (FlavorLevel) comboFlavorLevel.getSelectedItem();
+        if (flavorLookup == null || name.isEmpty() || level == null) {
+            labelFlavorHint.setText(" ");
+            return;
+        }
+
+        Flavor existing = flavorLookup.find(name, level.getId());
+        labelFlavorHint.setText(existing != null
+                ? "Sabor já cadastrado: \"" + existing.getName() + "\" será reaproveitado."
+                : "Novo sabor: será criado junto do produto.");
     }
 
     /**
-     * Salva um novo produto com um novo sabor.
+     * Salva um novo produto, criando o sabor ou reaproveitando o já cadastrado.
      *
      * Funcionamento:
      * 1. Lê e normaliza textos do formulário.
      * 2. Obtém o nível de sabor e o tamanho selecionados.
      * 3. Converte o preço base para Double aceitando vírgula ou ponto.
-     * 4. Chama controller.createProductWithNewFlavor(...) para criar sabor e produto.
+     * 4. Chama controller.createProductWithNewFlavor(...) em segundo plano para gravar sabor e produto.
      * 5. Se der certo:
+     *    - acrescenta o sabor gravado aos sabores em memória (o aviso passa a valer para ele)
      *    - limpa o formulário
-     *    - recarrega a tabela
+     *    - insere só a nova linha no topo da tabela (a lista é ordenada por id decrescente),
+     *      sem recarregar a tabela nem os combos; com busca ativa, refaz a busca
      *    - mostra mensagem de sucesso
      *
      * Tratamento de erro:
      * - Preço inválido: exibe mensagem e retorna.
-     * - ValidationException: exibe aviso.
-     * - DataAccessException: exibe erro.
+     * - ValidationException / DataAccessException: exibidas pelo ViewTaskRunner.
      */
     private void onSave() {
         String productName = text(fieldProductName);
@@ -409,17 +506,18 @@ public class ViewProducts extends JFrame {
             return;
         }
 
-        try {
-            controller.createProductWithNewFlavor(productName, basePrice, flavorName, level, size, description);
-            clearForm();
-            refreshTable();
-            JOptionPane.showMessageDialog(this, "Produto salvo com sucesso!", "Produtos", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+        tasks.runWrite("save", "Salvando produto...",
+                () -> controller.createProductWithNewFlavor(productName, basePrice, flavorName, level, size, description),
+                change -> {
+                    if (flavorLookup != null) flavorLookup = flavorLookup.with(change.getProduct().getFlavor());
+                    clearForm();
+                    if (currentQuery().isEmpty()) {
+                        tableModel.insertRow(0, ProductListRow.of(change.getProduct()), this::writeRow);
+                    } else {
+                        refreshTable();
+                    }
+                    JOptionPane.showMessageDialog(this, "Produto salvo com sucesso!", "Produtos", JOptionPane.INFORMATION_MESSAGE);
+                });
     }
 
     /**
@@ -427,22 +525,22 @@ public class ViewProducts extends JFrame {
      *
      * Funcionamento:
      * 1. Obtém a linha selecionada.
-     * 2. Se não houver seleção válida, mostra mensagem e retorna.
-     * 3. Obtém o Product correspondente na lista products.
+     * 2. Se não houver seleção válida (ou a linha ainda estiver carregando), mostra mensagem e retorna.
+     * 3. Monta um Product com id e nome a partir da linha da tabela.
      * 4. Pede confirmação ao usuário.
-     * 5. Se confirmado, chama controller.deleteProduct(selected).
+     * 5. Se confirmado, chama controller.deleteProduct(selected) em segundo plano.
      * 6. Se der certo:
      *    - limpa formulário
-     *    - recarrega tabela
+     *    - remove só a linha do produto (se ela não estiver mais carregada, recarrega a tabela)
      *    - mostra mensagem de sucesso
      *
      * Tratamento de erro:
-     * - ValidationException: exibe aviso.
-     * - DataAccessException: exibe erro.
+     * - ValidationException / DataAccessException: exibidas pelo ViewTaskRunner.
      */
     private void onDelete() {
         int row = tableProducts.getSelectedRow();
-        if (row < 0 || row >= products.size()) {
+        int productId = row >= 0 ? tableModel.getKey(row) : -1;
+        if (productId < 0) {
             JOptionPane.showMessageDialog(this,
                     "Selecione um produto na tabela para excluir.",
                     "Produtos",
@@ -450,7 +548,9 @@ public class ViewProducts extends JFrame {
             return;
         }
 
-        Product selected = products.get(row);
+        Product selected = new Product();
+        selected.setId(productId);
+        selected.setName(tableModel.getText(row, 0));
 
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Deseja excluir o produto \"" + selected.getName() + "\"?",
@@ -459,17 +559,16 @@ public class ViewProducts extends JFrame {
 
         if (confirm != JOptionPane.YES_OPTION) return;
 
-        try {
-            controller.deleteProduct(selected);
+        tasks.runWrite("delete", "Excluindo produto...", () -> controller.deleteProduct(selected), change -> {
             clearForm();
-            refreshTable();
+            int index = tableModel.indexOfKey(change.getProductId());
+            if (index >= 0) {
+                tableModel.removeRow(index);
+            } else {
+                refreshTable();
+            }
             JOptionPane.showMessageDialog(this, "Produto excluído com sucesso!", "Produtos", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     /**
@@ -524,6 +623,22 @@ public class ViewProducts extends JFrame {
         combo.setFont(ViewTheme.FONT_LABEL);
     }
 
+    /**
+     * Resultado da carga dos combos (níveis de sabor e tamanhos) e dos sabores cadastrados,
+     * usado para levar tudo de uma vez do segundo plano para a EDT.
+     */
+    private static class ComboData {
+        private final List<FlavorLevel> levels;
+        private final List<Size> sizes;
+        private final FlavorLookup flavors;
+
+        ComboData(List<FlavorLevel> levels, List<Size> sizes, FlavorLookup flavors) {
+            this.levels = levels;
+            this.sizes = sizes;
+            this.flavors = flavors;
+        }
+    }
+
     /**
      * Renderer de itens para combos que exibem objetos (FlavorLevel e Size).
      * Converte o objeto em texto visível no combo usando getName().
@@ -2,24 +2,31 @@ package view;
 
 import app.Session;
 import controller.ControllerShop;
-import exceptions.DataAccessException;
-import model.entities.Product;
+import controller.ShopCatalog;
+import controller.ShopCatalog.SortKey;
+
+import view.PagedTableModel.ColumnType;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Tela de compra de produtos.
  * Exibe a lista de produtos disponíveis para o usuário logado e permite:
  * - atualizar a lista
+ * - buscar por nome, sabor, nível ou tamanho enquanto digita (sem acentos/maiúsculas)
+ * - filtrar por faixa de preço e ordenar por até dois critérios
  * - abrir detalhes de um produto para adicionar ao carrinho
  * - abrir o carrinho
  * - abrir a tela de "Meus pedidos"
  *
- * A listagem é carregada através do ControllerShop.
+ * A listagem é carregada uma vez através do ControllerShop como um {@link ShopCatalog};
+ * busca, filtro de preço e ordenação rodam sobre esse catálogo em memória, sem acessar o banco.
  */
 public class ViewShopProducts extends JFrame {
 
@@ -29,24 +36,61 @@ public class ViewShopProducts extends JFrame {
      */
     private final ControllerShop controller = new ControllerShop();
 
+    /**
+     * Executor das consultas da tela fora da EDT.
+     */
+    private final ViewTaskRunner tasks = new ViewTaskRunner(this);
+
     /**
      * Tabela Swing que exibe os produtos disponíveis.
      */
     private JTable tableProducts;
 
     /**
-     * Modelo da tabela de produtos.
+     * Modelo paginado da tabela de produtos.
      * Colunas:
      * Produto, Sabor, Nível, Tamanho, Preço base.
+     * A chave de cada linha é o id do produto, usado em openDetails().
+     */
+    private PagedTableModel tableModel;
+
+    /**
+     * Atraso entre a última tecla digitada e a aplicação do filtro, em milissegundos.
+     */
+    private static final int SEARCH_DELAY_MS = 200;
+
+    /**
+     * Catálogo carregado (null até a primeira carga terminar).
      */
-    private DefaultTableModel tableModel;
+    private ShopCatalog catalog;
 
     /**
-     * Lista de produtos carregada do banco.
-     * O índice na lista corresponde ao índice da linha na tabela.
-     * É usada no método openDetails() para recuperar o Product selecionado.
+     * Campo de busca (nome, sabor, nível, tamanho).
      */
-    private List<Product> products = new ArrayList<>();
+    private JTextField fieldSearch;
+
+    /**
+     * Campos da faixa de preço (aceitam vírgula ou ponto; vazio = sem limite).
+     */
+    private JTextField fieldMinPrice;
+    private JTextField fieldMaxPrice;
+
+    /**
+     * Critérios de ordenação: principal e desempate.
+     */
+    private JComboBox<SortKey> comboSortFirst;
+    private JComboBox<SortKey> comboSortThen;
+
+    /**
+     * Quantidade de produtos exibidos / total do catálogo.
+     */
+    private JLabel labelCount;
+
+    /**
+     * Timer de debounce da busca: reiniciado a cada alteração nos campos,
+     * dispara applyFilter() uma única vez quando o usuário para de digitar.
+     */
+    private final Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> applyFilter());
 
     /**
      * Construtor da tela.
@@ -64,6 +108,8 @@ public class ViewShopProducts extends JFrame {
             return;
         }
 
+        searchTimer.setRepeats(false);
+
         configureFrame();
         setContentPane(buildMainPanel());
         refreshTable();
@@ -91,7 +137,7 @@ public class ViewShopProducts extends JFrame {
      * Funcionamento:
      * 1. Cria painel raiz com padding e BorderLayout.
      * 2. Adiciona cabeçalho com título e botões de ação.
-     * 3. Adiciona painel com tabela no centro.
+     * 3. Adiciona painel com filtros e tabela no centro.
      *
      * @return painel principal
      */
@@ -154,10 +200,11 @@ public class ViewShopProducts extends JFrame {
      *
      * Funcionamento:
      * 1. Cria um painel com background de card.
-     * 2. Cria tableModel com as colunas e células não editáveis.
+     * 2. Cria tableModel paginado com as colunas (preço em centavos).
      * 3. Cria tableProducts e define seleção de linha única.
      * 4. Encapsula a tabela em JScrollPane com borda do tema.
-     * 5. Envolve o painel em um card via wrapCard().
+     * 5. Adiciona a barra de filtros acima da tabela.
+     * 6. Envolve o painel em um card via wrapCard().
      *
      * @return componente do painel da tabela
      */
@@ -165,11 +212,11 @@ public class ViewShopProducts extends JFrame {
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBackground(ViewTheme.CARD_BG);
 
-        tableModel = new DefaultTableModel(
-                new String[]{"Produto", "Sabor", "Nível", "Tamanho", "Preço base"}, 0
-        ) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new PagedTableModel(
+                new String[]{"Produto", "Sabor", "Nível", "Tamanho", "Preço base"},
+                new ColumnType[]{ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.MONEY}
+        );
+        tableModel.setErrorHandler(tasks::showError);
 
         tableProducts = new JTable(tableModel);
         tableProducts.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -177,44 +224,126 @@ public class ViewShopProducts extends JFrame {
         JScrollPane scroll = new JScrollPane(tableProducts);
         scroll.setBorder(BorderFactory.createLineBorder(ViewTheme.BORDER));
         tablePanel.add(scroll, BorderLayout.CENTER);
+        tablePanel.add(buildFilterBar(), BorderLayout.NORTH);
 
         return wrapCard(tablePanel);
     }
 
     /**
-     * Recarrega a lista de produtos e atualiza a tabela.
+     * Monta a barra de filtros: busca, faixa de preço, ordenação e contador.
      *
      * Funcionamento:
-     * 1. Chama controller.listAllProducts() e armazena em products.
-     * 2. Limpa as linhas do tableModel.
-     * 3. Para cada produto, extrai sabor, nível e tamanho tratando null.
-     * 4. Adiciona linha na tabela com informações do produto.
+     * - busca e preços: cada alteração reinicia o searchTimer (debounce de SEARCH_DELAY_MS)
+     * - combos de ordenação: aplicam o filtro na hora
+     *
+     * @return componente da barra de filtros
+     */
+    private Component buildFilterBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        bar.setBackground(ViewTheme.CARD_BG);
+        bar.setBorder(BorderFactory.createEmptyBorder(0, 0, 12, 0));
+
+        fieldSearch = ViewTheme.createTextField(18);
+        fieldMinPrice = ViewTheme.createTextField(5);
+        fieldMaxPrice = ViewTheme.createTextField(5);
+
+        DocumentListener restartTimer = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        };
+        fieldSearch.getDocument().addDocumentListener(restartTimer);
+        fieldMinPrice.getDocument().addDocumentListener(restartTimer);
+        fieldMaxPrice.getDocument().addDocumentListener(restartTimer);
+
+        comboSortFirst = new JComboBox<>(SortKey.values());
+        comboSortThen = new JComboBox<>(SortKey.values());
+        comboSortFirst.setFont(ViewTheme.FONT_LABEL);
+        comboSortThen.setFont(ViewTheme.FONT_LABEL);
+        comboSortFirst.addActionListener(e -> applyFilter());
+        comboSortThen.addActionListener(e -> applyFilter());
+
+        labelCount = ViewTheme.createFieldLabel("");
+
+        bar.add(ViewTheme.createFieldLabel("Buscar"));
+        bar.add(fieldSearch);
+        bar.add(ViewTheme.createFieldLabel("Preço de"));
+        bar.add(fieldMinPrice);
+        bar.add(ViewTheme.createFieldLabel("até"));
+        bar.add(fieldMaxPrice);
+        bar.add(ViewTheme.createFieldLabel("Ordenar por"));
+        bar.add(comboSortFirst);
+        bar.add(ViewTheme.createFieldLabel("depois por"));
+        bar.add(comboSortThen);
+        bar.add(labelCount);
+
+        return bar;
+    }
+
+    /**
+     * Recarrega o catálogo e reaplica o filtro atual.
+     *
+     * Funcionamento:
+     * 1. Carrega o catálogo em segundo plano (controller.loadCatalog()),
+     *    que já chega com as chaves de busca normalizadas.
+     * 2. Ao terminar, guarda o catálogo e chama applyFilter().
      *
      * Tratamento de erro:
-     * - DataAccessException: exibe mensagem de erro.
+     * - DataAccessException: exibida pelo ViewTaskRunner.
      */
     private void refreshTable() {
+        tasks.run("products", "Carregando produtos...", controller::loadCatalog, loaded -> {
+            catalog = loaded;
+            applyFilter();
+        });
+    }
+
+    /**
+     * Aplica busca, faixa de preço e ordenação ao catálogo em memória e atualiza a tabela.
+     *
+     * Funcionamento:
+     * 1. Se o catálogo ainda não carregou, não faz nada (refreshTable() chamará de novo).
+     * 2. Lê os filtros; preço vazio ou inválido é tratado como "sem limite".
+     * 3. Chama catalog.filter(...) para obter os índices na ordem de exibição.
+     * 4. Preenche o tableModel com essas linhas e atualiza o contador.
+     */
+    private void applyFilter() {
+        searchTimer.stop();
+        ShopCatalog current = catalog;
+        if (current == null) return;
+
+        int[] found = current.filter(
+                fieldSearch.getText(),
+                parseCents(fieldMinPrice.getText()),
+                parseCents(fieldMaxPrice.getText()),
+                (SortKey) comboSortFirst.getSelectedItem(),
+                (SortKey) comboSortThen.getSelectedItem());
+
+        List<Integer> rows = Arrays.stream(found).boxed().collect(Collectors.toList());
+        tableModel.setRows(rows, (i, page) -> {
+            int r = page.append(current.getId(i));
+            page.setText(r, 0, current.getName(i));
+            page.setText(r, 1, current.getFlavor(i));
+            page.setText(r, 2, current.getLevel(i));
+            page.setText(r, 3, current.getSize(i));
+            page.setMoneyCents(r, 4, current.getPriceCents(i));
+        });
+
+        labelCount.setText(found.length + " de " + current.size() + " produtos");
+    }
+
+    /**
+     * Converte o texto de um campo de preço para centavos.
+     *
+     * @param text texto digitado (aceita vírgula ou ponto)
+     * @return centavos, ou null se vazio ou inválido
+     */
+    private static Long parseCents(String text) {
+        if (text == null || text.trim().isEmpty()) return null;
         try {
-            products = controller.listAllProducts();
-            tableModel.setRowCount(0);
-
-            for (Product p : products) {
-                String flavorName = p.getFlavor() != null ? p.getFlavor().getName() : "";
-                String levelName = (p.getFlavor() != null && p.getFlavor().getLevel() != null)
-                        ? p.getFlavor().getLevel().getName()
-                        : "";
-                String sizeName = p.getSize() != null ? p.getSize().getName() : "";
-
-                tableModel.addRow(new Object[]{
-                        p.getName(),
-                        flavorName,
-                        levelName,
-                        sizeName,
-                        p.getBasePrice()
-                });
-            }
-        } catch (DataAccessException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+            return Math.round(Double.parseDouble(text.trim().replace(",", ".")) * 100.0);
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
@@ -222,14 +351,15 @@ public class ViewShopProducts extends JFrame {
      * Abre a tela de detalhes do produto selecionado.
      *
      * Funcionamento:
-     * 1. Obtém a linha selecionada na tabela.
-     * 2. Se não houver seleção válida, exibe mensagem e retorna.
-     * 3. Obtém o Product correspondente na lista products.
+     * 1. Obtém a linha selecionada na tabela e a chave (id do produto).
+     * 2. Se não houver seleção válida (ou a linha ainda estiver carregando), exibe mensagem e retorna.
+     * 3. Busca o Product completo em segundo plano (materializa só a linha escolhida).
      * 4. Abre ViewProductDetails passando o produto.
      */
     private void openDetails() {
         int row = tableProducts.getSelectedRow();
-        if (row < 0 || row >= products.size()) {
+        int productId = row >= 0 ? tableModel.getKey(row) : -1;
+        if (productId < 0) {
             JOptionPane.showMessageDialog(this,
                     "Selecione um produto.",
                     "Produtos",
@@ -237,8 +367,16 @@ public class ViewShopProducts extends JFrame {
             return;
         }
 
-        Product selected = products.get(row);
-        new ViewProductDetails(selected).setVisible(true);
+        tasks.run("details", "Abrindo produto...", () -> controller.findProductById(productId), selected -> {
+            if (selected == null) {
+                JOptionPane.showMessageDialog(this,
+                        "Produto não encontrado. Atualize a lista.",
+                        "Produtos",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            new ViewProductDetails(selected).setVisible(true);
+        });
     }
 
     /**
@@ -0,0 +1,291 @@
+package view;
+
+import exceptions.AppException;
+import exceptions.AuthenticationException;
+import exceptions.ConflictException;
+import exceptions.DataAccessException;
+import exceptions.NotFoundException;
+import exceptions.ValidationException;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Executa o trabalho pesado das telas (consultas JDBC, hash de senha) fora da EDT.
+ *
+ * Cada tela cria um ViewTaskRunner próprio e dispara as tarefas por uma "chave"
+ * (ex.: "products", "items", "login").
+ *
+ * Regras:
+ * - o job roda em um SwingWorker; o callback de sucesso roda de volta na EDT
+ * - enquanto houver tarefa ativa, a janela mostra o {@link LoadingOverlay}
+ * - disparar uma nova tarefa com a mesma chave cancela a anterior;
+ *   se a anterior terminar mesmo assim, o resultado é descartado (resultado "velho")
+ * - ao fechar a janela, as tarefas de leitura são canceladas e seus callbacks não são executados
+ * - tarefas de gravação ({@link #runWrite}) nunca são interrompidas: nem por outra tarefa da mesma
+ *   chave, nem ao fechar a janela. Elas terminam e entregam o resultado (ou o erro) mesmo com a janela
+ *   fechada, para que o efeito da gravação (ex.: limpar o carrinho depois do pedido) não se perca
+ * - exceções do job são exibidas nos mesmos diálogos usados pelas telas
+ *   (ValidationException em "Atenção", ConflictException em "Conflito", demais em "Erro")
+ *
+ * Todos os métodos públicos devem ser chamados na EDT.
+ */
+public class ViewTaskRunner {
+
+    /**
+     * Janela dona das tarefas (pai dos diálogos e dona do overlay).
+     */
+    private final JFrame frame;
+
+    /**
+     * Camada de carregamento instalada como glass pane da janela.
+     */
+    private final LoadingOverlay overlay = new LoadingOverlay();
+
+    /**
+     * Tarefa mais recente de cada chave.
+     * Uma tarefa só entrega o resultado se ainda for a registrada para sua chave.
+     */
+    private final Map<String, Task<?>> current = new HashMap<>();
+
+    /**
+     * Indica que a janela foi fechada (nenhum callback deve rodar).
+     */
+    private boolean closed = false;
+
+    /**
+     * Cria o executor para uma janela.
+     *
+     * Funcionamento:
+     * 1. Instala o overlay como glass pane.
+     * 2. Registra listener para cancelar as tarefas quando a janela for fechada.
+     *
+     * @param frame janela dona das tarefas
+     */
+    public ViewTaskRunner(JFrame frame) {
+        this.frame = frame;
+        frame.setGlassPane(overlay);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelAll();
+            }
+        });
+    }
+
+    /**
+     * Executa um job em segundo plano.
+     *
+     * @param key chave da tarefa (tarefas com a mesma chave substituem umas às outras)
+     * @param message mensagem exibida no overlay
+     * @param job trabalho a executar fora da EDT
+     * @param onSuccess callback executado na EDT com o resultado (pode ser null)
+     * @param <T> tipo do resultado
+     */
+    public <T> void run(String key, String message, Callable<T> job, Consumer<T> onSuccess) {
+        run(key, message, job, onSuccess, null);
+    }
+
+    /**
+     * Executa um job em segundo plano, com um callback final.
+     *
+     * O callback final roda na EDT sempre que a tarefa termina
+     * (sucesso, erro, cancelamento ou resultado descartado).
+     * É útil para limpar campos de senha ou reabilitar componentes.
+     *
+     * @param key chave da tarefa
+     * @param message mensagem exibida no overlay
+     * @param job trabalho a executar fora da EDT
+     * @param onSuccess callback executado na EDT com o resultado (pode ser null)
+     * @param onFinally callback executado na EDT ao final (pode ser null)
+     * @param <T> tipo do resultado
+     */
+    public <T> void run(String key, String message, Callable<T> job, Consumer<T> onSuccess, Runnable onFinally) {
+        start(key, message, job, onSuccess, onFinally, false);
+    }
+
+    /**
+     * Executa em segundo plano um job que grava no banco.
+     *
+     * Diferente de {@link #run}, a tarefa não é cancelada ao fechar a janela nem substituída
+     * por outra da mesma chave (enquanto ela roda, novos pedidos com a chave são ignorados).
+     * O callback de sucesso roda mesmo que a janela já tenha sido fechada.
+     *
+     * @param key chave da tarefa
+     * @param message mensagem exibida no overlay
+     * @param job gravação a executar fora da EDT
+     * @param onSuccess callback executado na EDT com o resultado (pode ser null)
+     * @param <T> tipo do resultado
+     */
+    public <T> void runWrite(String key, String message, Callable<T> job, Consumer<T> onSuccess) {
+        runWrite(key, message, job, onSuccess, null);
+    }
+
+    /**
+     * Versão de {@link #runWrite(String, String, Callable, Consumer)} com callback final.
+     *
+     * @param key chave da tarefa
+     * @param message mensagem exibida no overlay
+     * @param job gravação a executar fora da EDT
+     * @param onSuccess callback executado na EDT com o resultado (pode ser null)
+     * @param onFinally callback executado na EDT ao final (pode ser null)
+     * @param <T> tipo do resultado
+     */
+    public <T> void runWrite(String key, String message, Callable<T> job, Consumer<T> onSuccess, Runnable onFinally) {
+        start(key, message, job, onSuccess, onFinally, true);
+    }
+
+    /**
+     * Registra e dispara uma tarefa.
+     *
+     * Funcionamento:
+     * 1. Com a janela fechada, não faz nada.
+     * 2. Se a tarefa anterior da chave for uma gravação ainda em andamento, ignora o novo pedido.
+     * 3. Caso contrário, cancela a anterior, registra a nova e a executa.
+     */
+    private <T> void start(String key, String message, Callable<T> job, Consumer<T> onSuccess, Runnable onFinally,
+                           boolean write) {
+        if (closed) return;
+
+        Task<?> previous = current.get(key);
+        if (previous != null) {
+            if (previous.write) return;
+            previous.cancel(true);
+        }
+
+        Task<T> task = new Task<>(key, job, onSuccess, onFinally, write);
+        current.put(key, task);
+        overlay.acquire(message);
+        task.execute();
+    }
+
+    /**
+     * Indica se existe tarefa ativa para a chave.
+     *
+     * @param key chave da tarefa
+     * @return true se a tarefa mais recente da chave ainda não terminou
+     */
+    public boolean isRunning(String key) {
+        return current.containsKey(key);
+    }
+
+    /**
+     * Cancela as tarefas de leitura ativas e impede novas execuções.
+     * Gravações em andamento continuam e entregam o resultado.
+     * Chamado automaticamente quando a janela é fechada.
+     */
+    public void cancelAll() {
+        closed = true;
+        List<Task<?>> tasks = new ArrayList<>(current.values());
+        for (Task<?> t : tasks) {
+            if (t.write) continue;
+            current.remove(t.key);
+            t.cancel(true);
+        }
+    }
+
+    /**
+     * Exibe uma exceção no diálogo correspondente ao seu tipo.
+     *
+     * Mapeamento:
+     * - ValidationException / NotFoundException: "Atenção" (aviso)
+     * - ConflictException: "Conflito" (aviso)
+     * - AuthenticationException / DataAccessException / AppException: "Erro"
+     * - qualquer outra: "Erro inesperado"
+     *
+     * @param error exceção a exibir
+     */
+    public void showError(Throwable error) {
+        showError(frame, error);
+    }
+
+    /**
+     * Versão estática de {@link #showError(Throwable)} para telas sem executor.
+     *
+     * @param parent componente pai do diálogo
+     * @param error exceção a exibir
+     */
+    public static void showError(Component parent, Throwable error) {
+        if (error instanceof ValidationException || error instanceof NotFoundException) {
+            JOptionPane.showMessageDialog(parent, error.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
+        } else if (error instanceof ConflictException) {
+            JOptionPane.showMessageDialog(parent, error.getMessage(), "Conflito", JOptionPane.WARNING_MESSAGE);
+        } else if (error instanceof AuthenticationException
+                || error instanceof DataAccessException
+                || error instanceof AppException) {
+            JOptionPane.showMessageDialog(parent, error.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(parent, "Erro inesperado: " + error.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * SwingWorker que executa um job e entrega o resultado se ainda for relevante.
+     *
+     * @param <T> tipo do resultado
+     */
+    private final class Task<T> extends SwingWorker<T, Void> {
+
+        private final String key;
+        private final Callable<T> job;
+        private final Consumer<T> onSuccess;
+        private final Runnable onFinally;
+
+        /**
+         * Gravação: não é cancelada e entrega o resultado mesmo com a janela fechada.
+         */
+        private final boolean write;
+
+        Task(String key, Callable<T> job, Consumer<T> onSuccess, Runnable onFinally, boolean write) {
+            this.key = key;
+            this.job = job;
+            this.onSuccess = onSuccess;
+            this.onFinally = onFinally;
+            this.write = write;
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            return job.call();
+        }
+
+        /**
+         * Executado na EDT quando o job termina ou é cancelado.
+         *
+         * Funcionamento:
+         * 1. Libera o overlay.
+         * 2. Se a tarefa foi substituída, cancelada ou a janela fechou, descarta o resultado
+         *    (exceto gravações, que entregam o resultado mesmo com a janela fechada).
+         * 3. Caso contrário, entrega o resultado ou exibe o erro.
+         * 4. Executa o callback final.
+         */
+        @Override
+        protected void done() {
+            boolean latest = current.get(key) == this;
+            if (latest) current.remove(key);
+            overlay.release();
+
+            try {
+                if (!latest || (closed && !write) || isCancelled()) return;
+
+                T result = get();
+                if (onSuccess != null) onSuccess.accept(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                showError(e.getCause() != null ? e.getCause() : e);
+            } finally {
+                if (onFinally != null) onFinally.run();
+            }
+        }
+    }
+}